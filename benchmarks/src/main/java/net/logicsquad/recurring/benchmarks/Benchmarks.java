@@ -0,0 +1,38 @@
+package net.logicsquad.recurring.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the benchmarks jar. Accepts the usual JMH command line options, and always adds the GC profiler (equivalent to
+ * {@code -prof gc}) so that every run reports allocation rates alongside timings.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class Benchmarks {
+	/**
+	 * Private constructor for static-only class
+	 */
+	private Benchmarks() {
+		return;
+	}
+
+	/**
+	 * Runs benchmarks selected by {@code args}.
+	 *
+	 * @param args JMH command line options
+	 * @throws CommandLineOptionException if {@code args} cannot be parsed
+	 * @throws RunnerException            if a benchmark fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+		return;
+	}
+}
@@ -0,0 +1,121 @@
+package net.logicsquad.recurring.benchmarks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.logicsquad.recurring.BusinessCalendar;
+import net.logicsquad.recurring.DayInWeek;
+import net.logicsquad.recurring.Difference;
+import net.logicsquad.recurring.EasterOffset;
+import net.logicsquad.recurring.TemporalExpression;
+import net.logicsquad.recurring.Union;
+
+/**
+ * Benchmarks adding business days with a {@link BusinessCalendar}, against walking the underlying expression day by day. Each invocation
+ * adds the next count of business days, up to a year's worth, to the next date from a fixed, seeded sequence.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessCalendarBenchmark {
+	/**
+	 * Number of pre-generated queries (must be a power of 2)
+	 */
+	private static final int QUERIES = 1024;
+
+	/**
+	 * Largest number of business days added
+	 */
+	private static final int MAX_DAYS = 250;
+
+	/**
+	 * Business days: weekdays except Good Friday and Easter Monday
+	 */
+	private TemporalExpression businessDays;
+
+	/**
+	 * Calendar under test
+	 */
+	private BusinessCalendar calendar;
+
+	/**
+	 * Dates queried
+	 */
+	private LocalDate[] dates;
+
+	/**
+	 * Business days added
+	 */
+	private int[] days;
+
+	/**
+	 * Index of next query
+	 */
+	private int index;
+
+	/**
+	 * Builds {@link #calendar} over the span of {@link Datasets#dates(int)}, and the query sequence from the default seed.
+	 */
+	@Setup
+	public void setUp() {
+		businessDays = Difference.of(Union.of(DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.TUESDAY), DayInWeek.of(DayOfWeek.WEDNESDAY),
+				DayInWeek.of(DayOfWeek.THURSDAY), DayInWeek.of(DayOfWeek.FRIDAY)), Union.of(EasterOffset.of(-2), EasterOffset.of(1)));
+		dates = Datasets.of().dates(QUERIES);
+		days = new int[QUERIES];
+		LocalDate start = dates[0];
+		LocalDate end = dates[0];
+		for (int i = 0; i < QUERIES; i++) {
+			days[i] = (int) ((i * 2654435761L) % MAX_DAYS) + 1;
+			start = dates[i].isBefore(start) ? dates[i] : start;
+			end = dates[i].isAfter(end) ? dates[i] : end;
+		}
+		calendar = BusinessCalendar.of(businessDays, start, end.plusYears(2));
+		return;
+	}
+
+	@Benchmark
+	public LocalDate plus() {
+		int i = next();
+		return calendar.plus(dates[i], days[i]);
+	}
+
+	@Benchmark
+	public LocalDate walk() {
+		int i = next();
+		LocalDate cursor = dates[i];
+		for (int n = 0; n < days[i]; n++) {
+			do {
+				cursor = cursor.plusDays(1);
+			} while (!businessDays.includes(cursor));
+		}
+		return cursor;
+	}
+
+	/**
+	 * Returns the index of the next query, cycling through the pre-generated sequence.
+	 *
+	 * @return query index
+	 */
+	private int next() {
+		index = (index + 1) & (QUERIES - 1);
+		return index;
+	}
+}
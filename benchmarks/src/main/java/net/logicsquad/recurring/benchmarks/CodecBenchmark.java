@@ -0,0 +1,140 @@
+package net.logicsquad.recurring.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.logicsquad.recurring.BinaryCodec;
+import net.logicsquad.recurring.EventCodec;
+import net.logicsquad.recurring.Schedule;
+import net.logicsquad.recurring.ScheduleElement;
+
+/**
+ * Compares {@link BinaryCodec} with Java serialization, encoding and decoding a {@link Schedule} of generated elements. Java serialization
+ * writes the list of {@link ScheduleElement}s, since a {@link Schedule} itself is not {@link java.io.Serializable}. The relative size of
+ * the two encodings is asserted by {@code BinaryCodecTest}.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+	/**
+	 * Number of elements per event
+	 */
+	private static final int ELEMENTS_PER_EVENT = 4;
+
+	/**
+	 * Maximum composite depth of element expressions
+	 */
+	private static final int MAX_DEPTH = 3;
+
+	/**
+	 * Number of {@code ScheduleElement}s in the schedule
+	 */
+	@Param({ "16", "1024", "16384" })
+	public int size;
+
+	/**
+	 * Elements of the schedule under test
+	 */
+	private ArrayList<ScheduleElement<Integer>> elements;
+
+	/**
+	 * Schedule under test
+	 */
+	private Schedule<Integer> schedule;
+
+	/**
+	 * Codec under test
+	 */
+	private BinaryCodec<Integer> codec;
+
+	/**
+	 * Binary encoding of {@link #schedule}
+	 */
+	private ByteBuffer binary;
+
+	/**
+	 * Java serialization of {@link #elements}
+	 */
+	private byte[] serialized;
+
+	/**
+	 * Builds {@link #schedule} and its encodings from the default seed.
+	 *
+	 * @throws IOException if serialization fails
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		Datasets datasets = Datasets.of();
+		elements = new ArrayList<>(datasets.elements(size, Math.max(1, size / ELEMENTS_PER_EVENT), MAX_DEPTH));
+		schedule = Schedule.of(elements);
+		codec = BinaryCodec.of(EventCodec.integers());
+		binary = codec.encode(schedule);
+		serialized = serialize(elements);
+		return;
+	}
+
+	@Benchmark
+	public ByteBuffer binaryEncode() {
+		return codec.encode(schedule);
+	}
+
+	@Benchmark
+	public Schedule<Integer> binaryDecode() {
+		return codec.decode(binary.duplicate());
+	}
+
+	@Benchmark
+	public byte[] javaSerialize() throws IOException {
+		return serialize(elements);
+	}
+
+	@Benchmark
+	public Schedule<Integer> javaDeserialize() throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+			@SuppressWarnings("unchecked")
+			List<ScheduleElement<Integer>> result = (List<ScheduleElement<Integer>>) in.readObject();
+			return Schedule.of(result);
+		}
+	}
+
+	/**
+	 * Serializes {@code object} with Java serialization.
+	 *
+	 * @param object object to serialize
+	 * @return serialized bytes
+	 * @throws IOException if serialization fails
+	 */
+	private static byte[] serialize(Object object) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		return bytes.toByteArray();
+	}
+}
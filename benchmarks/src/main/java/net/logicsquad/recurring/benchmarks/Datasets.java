@@ -0,0 +1,266 @@
+package net.logicsquad.recurring.benchmarks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.logicsquad.recurring.DayInMonth;
+import net.logicsquad.recurring.DayInWeek;
+import net.logicsquad.recurring.DayOfMonth;
+import net.logicsquad.recurring.Difference;
+import net.logicsquad.recurring.EveryNDays;
+import net.logicsquad.recurring.Intersection;
+import net.logicsquad.recurring.RangeEveryYear;
+import net.logicsquad.recurring.Schedule;
+import net.logicsquad.recurring.ScheduleElement;
+import net.logicsquad.recurring.TemporalExpression;
+import net.logicsquad.recurring.Union;
+
+/**
+ * Reproducible generator for benchmark datasets. Every method draws from a {@link Random} created from a caller-supplied seed, so that the
+ * same seed always produces the same expressions, schedules and dates.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class Datasets {
+	/**
+	 * Default seed
+	 */
+	public static final long SEED = 0x5EEDL;
+
+	/**
+	 * Earliest date used for generated dates and reference dates
+	 */
+	private static final LocalDate EPOCH = LocalDate.of(2000, 1, 1);
+
+	/**
+	 * Number of days after {@link #EPOCH} from which generated dates are drawn
+	 */
+	private static final int SPAN_DAYS = 50 * 365;
+
+	/**
+	 * Source of randomness
+	 */
+	private final Random random;
+
+	/**
+	 * Constructor
+	 *
+	 * @param seed seed for {@link #random}
+	 */
+	private Datasets(long seed) {
+		this.random = new Random(seed);
+		return;
+	}
+
+	/**
+	 * Returns a {@code Datasets} generator seeded with {@code seed}.
+	 *
+	 * @param seed a seed
+	 * @return new object
+	 */
+	public static Datasets of(long seed) {
+		return new Datasets(seed);
+	}
+
+	/**
+	 * Returns a {@code Datasets} generator seeded with {@link #SEED}.
+	 *
+	 * @return new object
+	 */
+	public static Datasets of() {
+		return new Datasets(SEED);
+	}
+
+	/**
+	 * Returns {@code count} dates drawn uniformly from 50 years starting 2000-01-01.
+	 *
+	 * @param count number of dates
+	 * @return array of dates
+	 */
+	public LocalDate[] dates(int count) {
+		LocalDate[] result = new LocalDate[count];
+		for (int i = 0; i < count; i++) {
+			result[i] = date();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a single date drawn uniformly from 50 years starting 2000-01-01.
+	 *
+	 * @return a date
+	 */
+	public LocalDate date() {
+		return EPOCH.plusDays(random.nextInt(SPAN_DAYS));
+	}
+
+	/**
+	 * Returns a random {@link DayInWeek} matching every day of week.
+	 *
+	 * @return new object
+	 */
+	public DayInWeek dayInWeek() {
+		return DayInWeek.of(dayOfWeek());
+	}
+
+	/**
+	 * Returns a random {@link DayInWeek} matching every "nth" week from a reference date.
+	 *
+	 * @return new object
+	 */
+	public DayInWeek dayInWeekWithOrdinal() {
+		return DayInWeek.of(2 + random.nextInt(3), date());
+	}
+
+	/**
+	 * Returns a random {@link DayInMonth}.
+	 *
+	 * @return new object
+	 */
+	public DayInMonth dayInMonth() {
+		int ordinal = 1 + random.nextInt(4);
+		return DayInMonth.of(dayOfWeek(), random.nextBoolean() ? ordinal : -ordinal);
+	}
+
+	/**
+	 * Returns a random {@link RangeEveryYear}, either of whole months or between two days.
+	 *
+	 * @return new object
+	 */
+	public RangeEveryYear rangeEveryYear() {
+		int startMonth = 1 + random.nextInt(12);
+		int endMonth = startMonth + random.nextInt(13 - startMonth);
+		if (random.nextBoolean()) {
+			return RangeEveryYear.of(Month.of(startMonth), Month.of(endMonth));
+		} else {
+			return RangeEveryYear.of(MonthDay.of(startMonth, 1 + random.nextInt(28)), MonthDay.of(endMonth, 1 + random.nextInt(28)));
+		}
+	}
+
+	/**
+	 * Returns a random {@link EveryNDays} from a random anchor.
+	 *
+	 * @return new object
+	 */
+	public EveryNDays everyNDays() {
+		return EveryNDays.of(date(), 2 + random.nextInt(29));
+	}
+
+	/**
+	 * Returns a random {@link DayOfMonth}.
+	 *
+	 * @return shared instance
+	 */
+	public DayOfMonth dayOfMonth() {
+		return DayOfMonth.of(1 + random.nextInt(31), random.nextBoolean());
+	}
+
+	/**
+	 * Returns a {@link Union} of single-day {@link RangeEveryYear}s, one per month, matching the same random day of month (up to 28) as a
+	 * {@link DayOfMonth} would.
+	 *
+	 * @return new object
+	 */
+	public TemporalExpression dayOfMonthAsRanges() {
+		int day = 1 + random.nextInt(28);
+		List<TemporalExpression> ranges = new ArrayList<>();
+		for (Month month : Month.values()) {
+			ranges.add(RangeEveryYear.of(MonthDay.of(month, day), MonthDay.of(month, day)));
+		}
+		return Union.of(ranges);
+	}
+
+	/**
+	 * Returns a random leaf expression.
+	 *
+	 * @return new object
+	 */
+	public TemporalExpression leaf() {
+		switch (random.nextInt(4)) {
+		case 0:
+			return dayInWeek();
+		case 1:
+			return dayInWeekWithOrdinal();
+		case 2:
+			return dayInMonth();
+		default:
+			return rangeEveryYear();
+		}
+	}
+
+	/**
+	 * Returns a random tree of {@link Union}, {@link Intersection} and {@link Difference} nodes with {@code depth} levels of composites above
+	 * its leaves. A {@code depth} of zero returns a leaf.
+	 *
+	 * @param depth number of composite levels
+	 * @return new object
+	 */
+	public TemporalExpression composite(int depth) {
+		if (depth == 0) {
+			return leaf();
+		}
+		switch (random.nextInt(3)) {
+		case 0:
+			return Union.of(composite(depth - 1), composite(depth - 1), leaf());
+		case 1:
+			return Intersection.of(composite(depth - 1), rangeEveryYear());
+		default:
+			return Difference.of(composite(depth - 1), leaf());
+		}
+	}
+
+	/**
+	 * Returns a random expression of {@code depth} composite levels that is guaranteed to occur at least once a month, so that seeks such as
+	 * {@link Schedule#nextOccurrence(Object, LocalDate)} terminate quickly.
+	 *
+	 * @param depth number of composite levels
+	 * @return new object
+	 */
+	public TemporalExpression recurring(int depth) {
+		return Union.of(composite(depth), dayInMonth());
+	}
+
+	/**
+	 * Returns a {@link Schedule} of {@code size} elements spread over {@code events} events (identified by {@code 0} through
+	 * {@code events - 1}), each with an expression from {@link #recurring(int)} of up to {@code maxDepth} composite levels.
+	 *
+	 * @param size     number of elements
+	 * @param events   number of distinct events
+	 * @param maxDepth maximum composite depth
+	 * @return new object
+	 */
+	public Schedule<Integer> schedule(int size, int events, int maxDepth) {
+		return Schedule.of(elements(size, events, maxDepth));
+	}
+
+	/**
+	 * Returns {@code size} elements spread over {@code events} events, as for {@link #schedule(int, int, int)}.
+	 *
+	 * @param size     number of elements
+	 * @param events   number of distinct events
+	 * @param maxDepth maximum composite depth
+	 * @return new list
+	 */
+	public List<ScheduleElement<Integer>> elements(int size, int events, int maxDepth) {
+		List<ScheduleElement<Integer>> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(ScheduleElement.of(Integer.valueOf(i % events), recurring(random.nextInt(maxDepth + 1))));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a random day of week.
+	 *
+	 * @return day of week
+	 */
+	private DayOfWeek dayOfWeek() {
+		return DayOfWeek.of(1 + random.nextInt(7));
+	}
+}
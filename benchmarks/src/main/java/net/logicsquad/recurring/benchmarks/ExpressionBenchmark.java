@@ -0,0 +1,117 @@
+package net.logicsquad.recurring.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.logicsquad.recurring.SpecializedExpression;
+import net.logicsquad.recurring.TemporalExpression;
+
+/**
+ * Benchmarks {@link TemporalExpression#includes(LocalDate)} for each leaf expression type and for composites of varying depth, both as
+ * plain expression trees and wrapped in a {@link SpecializedExpression}.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+	/**
+	 * Number of dates evaluated per invocation
+	 */
+	private static final int DATES = 1024;
+
+	/**
+	 * Expression under test: a leaf type, or "composite-N" for a random composite of depth N
+	 */
+	@Param({ "DayInWeek", "DayInWeekWithOrdinal", "DayInMonth", "RangeEveryYear", "EveryNDays", "DayOfMonth", "DayOfMonthAsRanges", "composite-1", "composite-2", "composite-4" })
+	public String expression;
+
+	/**
+	 * Evaluation mode: "tree" for the expression itself, "specialized" for a {@link SpecializedExpression}
+	 */
+	@Param({ "tree", "specialized" })
+	public String mode;
+
+	/**
+	 * Expression evaluated by {@link #includes()}
+	 */
+	private TemporalExpression subject;
+
+	/**
+	 * Dates evaluated by {@link #includes()}
+	 */
+	private LocalDate[] dates;
+
+	/**
+	 * Builds {@link #subject} and {@link #dates} from the default seed.
+	 */
+	@Setup
+	public void setUp() {
+		Datasets datasets = Datasets.of();
+		TemporalExpression e;
+		switch (expression) {
+		case "DayInWeek":
+			e = datasets.dayInWeek();
+			break;
+		case "DayInWeekWithOrdinal":
+			e = datasets.dayInWeekWithOrdinal();
+			break;
+		case "DayInMonth":
+			e = datasets.dayInMonth();
+			break;
+		case "RangeEveryYear":
+			e = datasets.rangeEveryYear();
+			break;
+		case "EveryNDays":
+			e = datasets.everyNDays();
+			break;
+		case "DayOfMonth":
+			e = datasets.dayOfMonth();
+			break;
+		case "DayOfMonthAsRanges":
+			e = datasets.dayOfMonthAsRanges();
+			break;
+		default:
+			e = datasets.composite(Integer.parseInt(expression.substring(expression.indexOf('-') + 1)));
+			break;
+		}
+		subject = "specialized".equals(mode) ? SpecializedExpression.of(e) : e;
+		dates = datasets.dates(DATES);
+		return;
+	}
+
+	/**
+	 * Evaluates {@link #subject} against each of {@link #dates}.
+	 *
+	 * @return number of matching dates
+	 */
+	@Benchmark
+	@OperationsPerInvocation(DATES)
+	public int includes() {
+		int count = 0;
+		for (LocalDate d : dates) {
+			if (subject.includes(d)) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,128 @@
+package net.logicsquad.recurring.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.logicsquad.recurring.IntSchedule;
+
+/**
+ * Benchmarks {@link IntSchedule} against the same datasets as {@link ScheduleBenchmark}, for comparison with {@code Schedule<Integer>}.
+ * Each invocation queries the next event and date from a fixed, seeded sequence.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntScheduleBenchmark {
+	/**
+	 * Number of pre-generated queries (must be a power of 2)
+	 */
+	private static final int QUERIES = 1024;
+
+	/**
+	 * Number of elements per event
+	 */
+	private static final int ELEMENTS_PER_EVENT = 4;
+
+	/**
+	 * Maximum composite depth of element expressions
+	 */
+	private static final int MAX_DEPTH = 3;
+
+	/**
+	 * Number of {@code ScheduleElement}s in the schedule
+	 */
+	@Param({ "16", "1024", "16384" })
+	public int size;
+
+	/**
+	 * Schedule under test
+	 */
+	private IntSchedule schedule;
+
+	/**
+	 * Events queried
+	 */
+	private int[] events;
+
+	/**
+	 * Dates queried
+	 */
+	private LocalDate[] dates;
+
+	/**
+	 * Buffer for {@link #agendaInto()}
+	 */
+	private int[] buffer;
+
+	/**
+	 * Index of next query
+	 */
+	private int index;
+
+	/**
+	 * Builds {@link #schedule} and the query sequence from the default seed.
+	 */
+	@Setup
+	public void setUp() {
+		Datasets datasets = Datasets.of();
+		int eventCount = Math.max(1, size / ELEMENTS_PER_EVENT);
+		schedule = IntSchedule.of(datasets.elements(size, eventCount, MAX_DEPTH));
+		events = new int[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			events[i] = (int) ((i * 2654435761L) % eventCount);
+		}
+		dates = datasets.dates(QUERIES);
+		buffer = new int[schedule.size()];
+		return;
+	}
+
+	@Benchmark
+	public boolean isOccurring() {
+		int i = next();
+		return schedule.isOccurring(events[i], dates[i]);
+	}
+
+	@Benchmark
+	public LocalDate nextOccurrence() {
+		int i = next();
+		return schedule.nextOccurrence(events[i], dates[i]);
+	}
+
+	@Benchmark
+	public int[] agenda() {
+		return schedule.agenda(dates[next()]);
+	}
+
+	@Benchmark
+	public int agendaInto() {
+		return schedule.agenda(dates[next()], buffer);
+	}
+
+	/**
+	 * Returns the index of the next query, cycling through the pre-generated sequence.
+	 *
+	 * @return query index
+	 */
+	private int next() {
+		index = (index + 1) & (QUERIES - 1);
+		return index;
+	}
+}
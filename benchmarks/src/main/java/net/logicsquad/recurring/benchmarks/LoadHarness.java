@@ -0,0 +1,411 @@
+package net.logicsquad.recurring.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import net.logicsquad.recurring.Histogram;
+import net.logicsquad.recurring.Schedule;
+
+/**
+ * <p>
+ * Standalone multi-threaded load harness. Builds a large {@link Schedule} of mixed composite expressions from {@link Datasets}, then runs a
+ * weighted mix of queries against it from a number of threads for a fixed time, and reports throughput, latency percentiles and GC
+ * activity for the measured period. Run it from the benchmarks jar:
+ * </p>
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar net.logicsquad.recurring.benchmarks.LoadHarness --threads 8 --duration 120
+ * </pre>
+ *
+ * <p>
+ * Options (all optional):
+ * </p>
+ *
+ * <ul>
+ * <li>{@code --elements} number of {@code ScheduleElement}s (default 100000)</li>
+ * <li>{@code --events} number of distinct events (default a quarter of {@code --elements})</li>
+ * <li>{@code --depth} maximum composite depth of element expressions (default 3)</li>
+ * <li>{@code --threads} number of query threads (default available processors)</li>
+ * <li>{@code --warmup} warm-up time in seconds, not measured (default 10)</li>
+ * <li>{@code --duration} measured time in seconds (default 60)</li>
+ * <li>{@code --range} days spanned by {@code datesInRange} queries (default 30)</li>
+ * <li>{@code --mix} query weights, such as {@code isOccurring=70,nextOccurrence=15,datesInRange=10,agenda=5} (the default)</li>
+ * <li>{@code --seed} dataset seed (default {@link Datasets#SEED})</li>
+ * </ul>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class LoadHarness {
+	/**
+	 * Query types
+	 */
+	enum Query {
+		IS_OCCURRING("isOccurring"), NEXT_OCCURRENCE("nextOccurrence"), DATES_IN_RANGE("datesInRange"), AGENDA("agenda");
+
+		/**
+		 * Name used in {@code --mix} and in reports
+		 */
+		private final String label;
+
+		/**
+		 * Constructor
+		 *
+		 * @param label name used in {@code --mix} and in reports
+		 */
+		Query(String label) {
+			this.label = label;
+			return;
+		}
+
+		/**
+		 * Returns {@code Query} with {@code label}.
+		 *
+		 * @param label a label
+		 * @return matching {@code Query}
+		 * @throws IllegalArgumentException if no {@code Query} matches
+		 */
+		static Query forLabel(String label) {
+			for (Query q : values()) {
+				if (q.label.equals(label)) {
+					return q;
+				}
+			}
+			throw new IllegalArgumentException("Unknown query '" + label + "'.");
+		}
+	}
+
+	/**
+	 * Number of pre-generated query dates
+	 */
+	private static final int DATES = 1 << 16;
+
+	/**
+	 * Nanoseconds per second
+	 */
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	/**
+	 * Nanoseconds per microsecond
+	 */
+	private static final double NANOS_PER_MICRO = 1e3;
+
+	/**
+	 * Schedule under load
+	 */
+	private final Schedule<Integer> schedule;
+
+	/**
+	 * Number of distinct events
+	 */
+	private final int events;
+
+	/**
+	 * Query dates
+	 */
+	private final LocalDate[] dates;
+
+	/**
+	 * Cumulative query weights, indexed by {@link Query#ordinal()}
+	 */
+	private final int[] cumulativeWeights;
+
+	/**
+	 * Days spanned by {@code datesInRange} queries
+	 */
+	private final int rangeDays;
+
+	/**
+	 * Sink for query results, to keep them from being optimised away
+	 */
+	private volatile long sink;
+
+	/**
+	 * Constructor
+	 *
+	 * @param schedule          schedule under load
+	 * @param events            number of distinct events
+	 * @param dates             query dates
+	 * @param cumulativeWeights cumulative query weights
+	 * @param rangeDays         days spanned by {@code datesInRange} queries
+	 */
+	private LoadHarness(Schedule<Integer> schedule, int events, LocalDate[] dates, int[] cumulativeWeights, int rangeDays) {
+		this.schedule = schedule;
+		this.events = events;
+		this.dates = dates;
+		this.cumulativeWeights = cumulativeWeights;
+		this.rangeDays = rangeDays;
+		return;
+	}
+
+	/**
+	 * Runs the harness.
+	 *
+	 * @param args options as described above
+	 * @throws InterruptedException if interrupted while waiting for query threads
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		Map<String, String> options = parse(args);
+		int elements = Integer.parseInt(options.getOrDefault("elements", "100000"));
+		int events = Integer.parseInt(options.getOrDefault("events", Integer.toString(Math.max(1, elements / 4))));
+		int depth = Integer.parseInt(options.getOrDefault("depth", "3"));
+		int threads = Integer.parseInt(options.getOrDefault("threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
+		long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+		long duration = Long.parseLong(options.getOrDefault("duration", "60"));
+		int rangeDays = Integer.parseInt(options.getOrDefault("range", "30"));
+		long seed = Long.parseLong(options.getOrDefault("seed", Long.toString(Datasets.SEED)));
+		int[] weights = cumulativeWeights(options.getOrDefault("mix", "isOccurring=70,nextOccurrence=15,datesInRange=10,agenda=5"));
+
+		System.out.printf(Locale.ROOT, "Building schedule: %d elements, %d events, depth <= %d, seed %d%n", elements, events, depth, seed);
+		long buildStart = System.nanoTime();
+		Datasets datasets = Datasets.of(seed);
+		Schedule<Integer> schedule = datasets.schedule(elements, events, depth);
+		LoadHarness harness = new LoadHarness(schedule, events, datasets.dates(DATES), weights, rangeDays);
+		System.out.printf(Locale.ROOT, "Built in %.1f ms%n", (System.nanoTime() - buildStart) / 1e6);
+		harness.run(threads, seed, TimeUnit.SECONDS.toNanos(warmup), TimeUnit.SECONDS.toNanos(duration));
+		return;
+	}
+
+	/**
+	 * Runs queries from {@code threads} threads, and prints a report for the measured period.
+	 *
+	 * @param threads     number of query threads
+	 * @param seed        seed for per-thread query selection
+	 * @param warmupNanos warm-up time in nanoseconds
+	 * @param measureNanos measured time in nanoseconds
+	 * @throws InterruptedException if interrupted while waiting for query threads
+	 */
+	private void run(int threads, long seed, long warmupNanos, long measureNanos) throws InterruptedException {
+		Map<Query, Histogram> histograms = new EnumMap<>(Query.class);
+		for (Query q : Query.values()) {
+			histograms.put(q, new Histogram());
+		}
+		List<Thread> workers = new ArrayList<>();
+		CountDownLatch ready = new CountDownLatch(threads);
+		long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+		long measureStart = start + warmupNanos;
+		long measureEnd = measureStart + measureNanos;
+		for (int t = 0; t < threads; t++) {
+			SplittableRandom random = new SplittableRandom(seed + t);
+			Thread worker = new Thread(() -> work(random, histograms, ready, measureStart, measureEnd), "load-" + t);
+			workers.add(worker);
+			worker.start();
+		}
+		ready.await();
+		System.out.printf(Locale.ROOT, "Running %d threads: %.0f s warm-up, %.0f s measured%n", threads, warmupNanos / NANOS_PER_SECOND,
+				measureNanos / NANOS_PER_SECOND);
+		while (System.nanoTime() < measureStart) {
+			Thread.sleep(10);
+		}
+		GcSnapshot gcBefore = GcSnapshot.take();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		GcSnapshot gcAfter = GcSnapshot.take();
+		report(histograms, measureNanos / NANOS_PER_SECOND, gcBefore, gcAfter);
+		return;
+	}
+
+	/**
+	 * Body of each query thread.
+	 *
+	 * @param random       per-thread source of randomness
+	 * @param histograms   latency histograms shared by all threads
+	 * @param ready        latch counted down when the thread starts
+	 * @param measureStart time at which measurement starts
+	 * @param measureEnd   time at which the thread stops
+	 */
+	private void work(SplittableRandom random, Map<Query, Histogram> histograms, CountDownLatch ready, long measureStart,
+			long measureEnd) {
+		Query[] queries = Query.values();
+		long local = 0;
+		ready.countDown();
+		long now = System.nanoTime();
+		while (now < measureEnd) {
+			Query query = queries[select(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]))];
+			Integer event = Integer.valueOf(random.nextInt(events));
+			LocalDate date = dates[random.nextInt(dates.length)];
+			long begin = System.nanoTime();
+			local += execute(query, event, date);
+			now = System.nanoTime();
+			if (begin >= measureStart) {
+				histograms.get(query).record(now - begin);
+			}
+		}
+		sink += local;
+		return;
+	}
+
+	/**
+	 * Executes a single query.
+	 *
+	 * @param query query type
+	 * @param event event to query
+	 * @param date  date to query
+	 * @return some value derived from the result
+	 */
+	private long execute(Query query, Integer event, LocalDate date) {
+		switch (query) {
+		case IS_OCCURRING:
+			return schedule.isOccurring(event, date) ? 1 : 0;
+		case NEXT_OCCURRENCE:
+			return schedule.nextOccurrence(event, date).toEpochDay();
+		case DATES_IN_RANGE:
+			return schedule.datesInRange(event, date, date.plusDays(rangeDays - 1)).size();
+		default:
+			return schedule.agenda(date).size();
+		}
+	}
+
+	/**
+	 * Returns index of query type selected by {@code value}.
+	 *
+	 * @param value a value in {@code [0, total weight)}
+	 * @return query ordinal
+	 */
+	private int select(int value) {
+		int i = 0;
+		while (value >= cumulativeWeights[i]) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Prints report for the measured period.
+	 *
+	 * @param histograms latency histograms
+	 * @param seconds    length of measured period in seconds
+	 * @param gcBefore   GC activity at start of measured period
+	 * @param gcAfter    GC activity at end of measured period
+	 */
+	private static void report(Map<Query, Histogram> histograms, double seconds, GcSnapshot gcBefore, GcSnapshot gcAfter) {
+		System.out.printf(Locale.ROOT, "%n%-16s %12s %12s %10s %10s %10s %10s %10s %10s%n", "query", "count", "ops/s", "mean(us)", "p50(us)",
+				"p90(us)", "p99(us)", "p99.9(us)", "max(us)");
+		for (Query q : Query.values()) {
+			print(q.label, histograms.get(q), seconds);
+		}
+		System.out.printf(Locale.ROOT, "%nGC: %d collections, %d ms total (%.2f%% of wall time); heap used %d MB%n",
+				gcAfter.count - gcBefore.count, gcAfter.timeMillis - gcBefore.timeMillis,
+				100.0 * (gcAfter.timeMillis - gcBefore.timeMillis) / (seconds * 1000), gcAfter.heapUsed >> 20);
+		for (Map.Entry<String, long[]> e : gcAfter.collectors.entrySet()) {
+			long[] before = gcBefore.collectors.getOrDefault(e.getKey(), new long[2]);
+			System.out.printf(Locale.ROOT, "  %-24s %8d collections %8d ms%n", e.getKey(), e.getValue()[0] - before[0],
+					e.getValue()[1] - before[1]);
+		}
+		return;
+	}
+
+	/**
+	 * Prints one row of the report.
+	 *
+	 * @param label     row label
+	 * @param histogram latencies
+	 * @param seconds   length of measured period in seconds
+	 */
+	private static void print(String label, Histogram histogram, double seconds) {
+		System.out.printf(Locale.ROOT, "%-16s %12d %12.1f %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n", label, histogram.count(),
+				histogram.count() / seconds, histogram.mean() / NANOS_PER_MICRO, histogram.percentile(50) / NANOS_PER_MICRO,
+				histogram.percentile(90) / NANOS_PER_MICRO, histogram.percentile(99) / NANOS_PER_MICRO,
+				histogram.percentile(99.9) / NANOS_PER_MICRO, histogram.max() / NANOS_PER_MICRO);
+		return;
+	}
+
+	/**
+	 * Parses {@code --key value} pairs.
+	 *
+	 * @param args command line arguments
+	 * @return map of option names to values
+	 * @throws IllegalArgumentException if {@code args} are malformed
+	 */
+	private static Map<String, String> parse(String[] args) {
+		Map<String, String> result = new HashMap<>();
+		for (int i = 0; i < args.length; i += 2) {
+			if (!args[i].startsWith("--") || i + 1 >= args.length) {
+				throw new IllegalArgumentException("Expected '--option value' but found '" + args[i] + "'.");
+			}
+			result.put(args[i].substring(2), args[i + 1]);
+		}
+		return result;
+	}
+
+	/**
+	 * Parses a query mix such as {@code isOccurring=70,agenda=30} into cumulative weights indexed by {@link Query#ordinal()}.
+	 *
+	 * @param mix query mix
+	 * @return cumulative weights
+	 * @throws IllegalArgumentException if {@code mix} is malformed or has no positive weights
+	 */
+	private static int[] cumulativeWeights(String mix) {
+		int[] weights = new int[Query.values().length];
+		for (String part : mix.split(",")) {
+			String[] pair = part.trim().split("=");
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Expected 'query=weight' but found '" + part + "'.");
+			}
+			weights[Query.forLabel(pair[0].trim()).ordinal()] = Integer.parseInt(pair[1].trim());
+		}
+		for (int i = 1; i < weights.length; i++) {
+			weights[i] += weights[i - 1];
+		}
+		if (weights[weights.length - 1] <= 0) {
+			throw new IllegalArgumentException("Query mix must have at least one positive weight.");
+		}
+		return weights;
+	}
+
+	/**
+	 * Point-in-time snapshot of GC activity and heap use.
+	 */
+	private static final class GcSnapshot {
+		/**
+		 * Total collection count
+		 */
+		private long count;
+
+		/**
+		 * Total collection time in milliseconds
+		 */
+		private long timeMillis;
+
+		/**
+		 * Heap used in bytes
+		 */
+		private long heapUsed;
+
+		/**
+		 * Count and time per collector
+		 */
+		private final Map<String, long[]> collectors = new HashMap<>();
+
+		/**
+		 * Takes a snapshot.
+		 *
+		 * @return new snapshot
+		 */
+		static GcSnapshot take() {
+			GcSnapshot result = new GcSnapshot();
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				long count = Math.max(0, gc.getCollectionCount());
+				long time = Math.max(0, gc.getCollectionTime());
+				result.count += count;
+				result.timeMillis += time;
+				result.collectors.put(gc.getName(), new long[] { count, time });
+			}
+			MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+			result.heapUsed = memory.getHeapMemoryUsage().getUsed();
+			return result;
+		}
+	}
+}
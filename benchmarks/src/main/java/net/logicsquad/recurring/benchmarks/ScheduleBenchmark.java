@@ -0,0 +1,153 @@
+package net.logicsquad.recurring.benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.logicsquad.recurring.Schedule;
+
+/**
+ * Benchmarks the query methods of the {@link Schedule} returned by {@link Schedule#of(java.util.List)} across schedule sizes. Each
+ * invocation queries the next event and date from a fixed, seeded sequence.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleBenchmark {
+	/**
+	 * Number of pre-generated queries (must be a power of 2)
+	 */
+	private static final int QUERIES = 1024;
+
+	/**
+	 * Number of elements per event
+	 */
+	private static final int ELEMENTS_PER_EVENT = 4;
+
+	/**
+	 * Maximum composite depth of element expressions
+	 */
+	private static final int MAX_DEPTH = 3;
+
+	/**
+	 * Days spanned by {@link #datesInRange()}
+	 */
+	private static final int RANGE_DAYS = 90;
+
+	/**
+	 * Number of dates taken from {@link #futureDates()}
+	 */
+	private static final int FUTURE_DATES = 10;
+
+	/**
+	 * Number of {@code ScheduleElement}s in the schedule
+	 */
+	@Param({ "16", "1024", "16384" })
+	public int size;
+
+	/**
+	 * Schedule under test
+	 */
+	private Schedule<Integer> schedule;
+
+	/**
+	 * Events queried
+	 */
+	private Integer[] events;
+
+	/**
+	 * Dates queried
+	 */
+	private LocalDate[] dates;
+
+	/**
+	 * Index of next query
+	 */
+	private int index;
+
+	/**
+	 * Builds {@link #schedule} and the query sequence from the default seed.
+	 */
+	@Setup
+	public void setUp() {
+		Datasets datasets = Datasets.of();
+		int eventCount = Math.max(1, size / ELEMENTS_PER_EVENT);
+		schedule = datasets.schedule(size, eventCount, MAX_DEPTH);
+		events = new Integer[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			events[i] = Integer.valueOf((int) ((i * 2654435761L) % eventCount));
+		}
+		dates = datasets.dates(QUERIES);
+		return;
+	}
+
+	@Benchmark
+	public boolean isOccurring() {
+		int i = next();
+		return schedule.isOccurring(events[i], dates[i]);
+	}
+
+	@Benchmark
+	public List<LocalDate> datesInRange() {
+		int i = next();
+		return schedule.datesInRange(events[i], dates[i], dates[i].plusDays(RANGE_DAYS - 1));
+	}
+
+	@Benchmark
+	public LocalDate nextOccurrence() {
+		int i = next();
+		return schedule.nextOccurrence(events[i], dates[i]);
+	}
+
+	@Benchmark
+	public LocalDate previousOccurrence() {
+		int i = next();
+		return schedule.previousOccurrence(events[i], dates[i]);
+	}
+
+	@Benchmark
+	public List<Integer> agenda() {
+		return schedule.agenda(dates[next()]);
+	}
+
+	@Benchmark
+	public long occurrences() {
+		LocalDate date = dates[next()];
+		return schedule.occurrences(date, date.plusDays(RANGE_DAYS - 1)).count();
+	}
+
+	@Benchmark
+	public List<LocalDate> futureDates() {
+		int i = next();
+		return schedule.futureDates(events[i], dates[i]).limit(FUTURE_DATES).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the index of the next query, cycling through the pre-generated sequence.
+	 *
+	 * @return query index
+	 */
+	private int next() {
+		index = (index + 1) & (QUERIES - 1);
+		return index;
+	}
+}
@@ -0,0 +1,102 @@
+package net.logicsquad.recurring.benchmarks;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.logicsquad.recurring.ZoneDays;
+
+/**
+ * Benchmarks finding the local epoch day of an instant through {@link ZoneDays}, against {@link Instant#atZone(ZoneId)}. Each invocation
+ * converts the next instant from a fixed, seeded sequence.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZoneDaysBenchmark {
+	/**
+	 * Number of pre-generated queries (must be a power of 2)
+	 */
+	private static final int QUERIES = 1024;
+
+	/**
+	 * Zone in which instants are converted
+	 */
+	@Param({ "UTC", "Europe/London", "Australia/Adelaide" })
+	public String zoneId;
+
+	/**
+	 * Zone under test
+	 */
+	private ZoneId zone;
+
+	/**
+	 * Cached transitions for {@link #zone}
+	 */
+	private ZoneDays zoneDays;
+
+	/**
+	 * Instants queried
+	 */
+	private Instant[] instants;
+
+	/**
+	 * Index of next query
+	 */
+	private int index;
+
+	/**
+	 * Builds the query sequence from the default seed.
+	 */
+	@Setup
+	public void setUp() {
+		zone = ZoneId.of(zoneId);
+		zoneDays = ZoneDays.of(zone);
+		instants = new Instant[QUERIES];
+		int i = 0;
+		for (LocalDate date : Datasets.of().dates(QUERIES)) {
+			instants[i] = Instant.ofEpochSecond(date.toEpochDay() * 86_400 + (i * 2654435761L) % 86_400);
+			i++;
+		}
+		return;
+	}
+
+	@Benchmark
+	public long zoneDays() {
+		return zoneDays.epochDay(instants[next()].getEpochSecond());
+	}
+
+	@Benchmark
+	public long atZone() {
+		return instants[next()].atZone(zone).toLocalDate().toEpochDay();
+	}
+
+	/**
+	 * Returns the index of the next query, cycling through the pre-generated sequence.
+	 *
+	 * @return query index
+	 */
+	private int next() {
+		index = (index + 1) & (QUERIES - 1);
+		return index;
+	}
+}
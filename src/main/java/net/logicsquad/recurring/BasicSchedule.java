@@ -3,23 +3,75 @@ package net.logicsquad.recurring;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import net.logicsquad.recurring.ScheduleMetrics.Query;
+
 /**
  * A basic implementation of {@link Schedule} for use by {@link Schedule#of(ScheduleElement...) Schedule.of()}.
  *
  * @param <T> type for {@link ScheduleElement}s and {@code event} objects
  * @author paulh
  */
-final class BasicSchedule<T> implements Schedule<T> {
+final class BasicSchedule<T> extends SeekableSchedule<T> {
+	/**
+	 * Approximate number of element evaluations per block of days in {@link #occurrences(LocalDate, LocalDate)}
+	 */
+	private static final int BLOCK_EVALUATIONS = 4096;
+
+	/**
+	 * Seeker for events not in this schedule, which never occur
+	 */
+	private static final Seeker NONE = Seeker.of();
+
 	/**
 	 * {@link ScheduleElement}s comprising this {@code Schedule}
 	 */
 	private final List<ScheduleElement<T>> elements;
 
+	/**
+	 * Destination for query metrics, or {@code null} if metrics are disabled
+	 */
+	private final ScheduleMetrics metrics;
+
+	/**
+	 * Expressions of {@link #elements} merged into a single graph, indexed by element
+	 */
+	private final ExpressionGraph graph;
+
+	/**
+	 * Distinct events, in the order in which they first appear in {@link #elements}
+	 */
+	private final List<T> events;
+
+	/**
+	 * Index into {@link #events} of each element's event
+	 */
+	private final int[] eventIds;
+
+	/**
+	 * Index into {@link #events} of each event
+	 */
+	private final Map<T, Integer> ids;
+
+	/**
+	 * Expressions of each event's elements merged into a graph, indexed as {@link #events}
+	 */
+	private final ExpressionGraph[] eventGraphs;
+
+	/**
+	 * Seekers over expressions of each event's elements, indexed as {@link #events}
+	 */
+	private final Seeker[] seekers;
+
 	/**
 	 * Constructor
 	 *
@@ -27,41 +79,131 @@ final class BasicSchedule<T> implements Schedule<T> {
 	 * @throws NullPointerException if {@code elements} is {@code null}
 	 */
 	BasicSchedule(List<ScheduleElement<T>> elements) {
+		this(elements, null);
+		return;
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param elements comprising {@link ScheduleElement}s
+	 * @param metrics  destination for query metrics, or {@code null} to disable metrics
+	 * @throws NullPointerException if {@code elements} is {@code null}
+	 * @since 0.5
+	 */
+	BasicSchedule(List<ScheduleElement<T>> elements, ScheduleMetrics metrics) {
 		Objects.requireNonNull(elements);
 		this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
+		this.metrics = metrics;
+		this.graph = ExpressionGraph.of(this.elements.stream().map(ScheduleElement::expression).collect(Collectors.toList()));
+		this.ids = new HashMap<>();
+		List<T> events = new ArrayList<>();
+		List<List<TemporalExpression>> expressions = new ArrayList<>();
+		this.eventIds = new int[this.elements.size()];
+		for (int i = 0; i < eventIds.length; i++) {
+			T event = this.elements.get(i).event();
+			Integer id = ids.get(event);
+			if (id == null) {
+				id = events.size();
+				ids.put(event, id);
+				events.add(event);
+				expressions.add(new ArrayList<>());
+			}
+			eventIds[i] = id;
+			expressions.get(id).add(this.elements.get(i).expression());
+		}
+		this.events = Collections.unmodifiableList(events);
+		this.eventGraphs = new ExpressionGraph[events.size()];
+		this.seekers = new Seeker[events.size()];
+		for (int i = 0; i < eventGraphs.length; i++) {
+			eventGraphs[i] = ExpressionGraph.of(expressions.get(i));
+			seekers[i] = Seeker.of(expressions.get(i).toArray(new TemporalExpression[0]));
+		}
 		return;
 	}
 
 	@Override
 	public boolean isOccurring(T event, LocalDate date) {
-		for (ScheduleElement<T> e : elements) {
-			if (e.event().equals(event) && e.isOccurring(date)) {
-				return true;
-			}
+		QueryProbe probe = QueryProbe.start(Query.IS_OCCURRING, event, metrics);
+		boolean result = isOccurring(event, date, probe);
+		finish(probe, date, date);
+		return result;
+	}
+
+	@Override
+	public List<T> agenda(LocalDate date) {
+		QueryProbe probe = QueryProbe.start(Query.AGENDA, null, metrics);
+		List<T> result = new ArrayList<>();
+		ExpressionGraph.Evaluation evaluation = graph.evaluation();
+		evaluation.reset(date);
+		agenda(evaluation, new int[events.size()], 1, result, probe);
+		if (probe != null) {
+			probe.daysScanned = 1;
 		}
-		return false;
+		finish(probe, date, date);
+		return result;
+	}
+
+	@Override
+	public Set<T> events() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(events));
+	}
+
+	@Override
+	public Stream<Occurrence<T>> occurrences(LocalDate start, LocalDate end) {
+		Objects.requireNonNull(start);
+		Objects.requireNonNull(end);
+		long first = start.toEpochDay();
+		long last = end.toEpochDay();
+		if (last < first) {
+			return Stream.empty();
+		}
+		// Each block shares one evaluation, and holds enough days to amortize it
+		long blockDays = Math.max(1, BLOCK_EVALUATIONS / Math.max(1, elements.size()));
+		long blocks = (last - first) / blockDays + 1;
+		return LongStream.range(0, blocks).mapToObj(b -> occurrences(first + b * blockDays, Math.min(last, first + b * blockDays + blockDays - 1)))
+				.flatMap(List::stream);
 	}
 
 	@Override
 	public List<LocalDate> datesInRange(T event, LocalDate start, LocalDate end) {
+		QueryProbe probe = QueryProbe.start(Query.DATES_IN_RANGE, event, metrics);
 		List<LocalDate> result = new ArrayList<>();
+		Integer id = ids.get(event);
+		if (id == null) {
+			finish(probe, start, end);
+			return result;
+		}
+		// Share evaluation of common sub-expressions across this event's elements
+		ExpressionGraph eventGraph = eventGraphs[id];
+		ExpressionGraph.Evaluation evaluation = eventGraph.evaluation();
 		LocalDate cursor = start;
 		while (cursor.equals(end) || cursor.isBefore(end)) {
-			if (isOccurring(event, cursor)) {
-				result.add(cursor);
+			if (probe != null) {
+				probe.daysScanned++;
+			}
+			evaluation.reset(cursor);
+			for (int i = 0; i < eventGraph.roots(); i++) {
+				if (probe != null) {
+					probe.includesCalls++;
+				}
+				if (evaluation.includes(i)) {
+					result.add(cursor);
+					break;
+				}
 			}
 			cursor = cursor.plusDays(1);
 		}
+		finish(probe, start, end);
 		return result;
 	}
 
 	@Override
 	public LocalDate nextOccurrence(T event, LocalDate date) {
-		LocalDate cursor = date;
-		while (!isOccurring(event, cursor)) {
-			cursor = cursor.plusDays(1);
-		}
-		return cursor;
+		QueryProbe probe = QueryProbe.start(Query.NEXT_OCCURRENCE, event, metrics);
+		LocalDate result = seeker(event).next(date, probe);
+		finish(probe, date, result);
+		return result;
 	}
 
 	@Override
@@ -84,10 +226,124 @@ final class BasicSchedule<T> implements Schedule<T> {
 
 	@Override
 	public LocalDate previousOccurrence(T event, LocalDate date) {
-		LocalDate cursor = date;
-		while (!isOccurring(event, cursor)) {
-			cursor = cursor.minusDays(1);
+		QueryProbe probe = QueryProbe.start(Query.PREVIOUS_OCCURRENCE, event, metrics);
+		LocalDate result = seeker(event).previous(date, probe);
+		finish(probe, result, date);
+		return result;
+	}
+
+	/**
+	 * Returns {@link ScheduleElement}s comprising this {@code Schedule}.
+	 *
+	 * @return unmodifiable list of elements
+	 * @since 0.5
+	 */
+	List<ScheduleElement<T>> elements() {
+		return elements;
+	}
+
+	/**
+	 * Returns every occurrence of every event from epoch day {@code from} through {@code to} (inclusive), in date order.
+	 *
+	 * @param from first epoch day
+	 * @param to   last epoch day
+	 * @return list of occurrences
+	 */
+	private List<Occurrence<T>> occurrences(long from, long to) {
+		List<Occurrence<T>> result = new ArrayList<>();
+		List<T> agenda = new ArrayList<>();
+		ExpressionGraph.Evaluation evaluation = graph.evaluation();
+		int[] seen = new int[events.size()];
+		for (long day = from; day <= to; day++) {
+			LocalDate date = LocalDate.ofEpochDay(day);
+			evaluation.reset(date);
+			agenda.clear();
+			agenda(evaluation, seen, (int) (day - from + 1), agenda, null);
+			for (T event : agenda) {
+				result.add(Occurrence.of(event, date));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the distinct events occurring at the date of {@code evaluation} to {@code result}, in the order in which they first appear. An
+	 * event is taken to have been added already where its entry in {@code seen} equals {@code stamp}.
+	 *
+	 * @param evaluation evaluation of {@link #graph}, reset to a date
+	 * @param seen       stamp of the date at which each event was last added
+	 * @param stamp      stamp for this date, which must differ from every stamp previously written to {@code seen}
+	 * @param result     list to which events are added
+	 * @param probe      probe for the current query, or {@code null}
+	 */
+	private void agenda(ExpressionGraph.Evaluation evaluation, int[] seen, int stamp, List<T> result, QueryProbe probe) {
+		for (int i = 0; i < eventIds.length; i++) {
+			int id = eventIds[i];
+			if (seen[id] != stamp) {
+				if (probe != null) {
+					probe.includesCalls++;
+				}
+				if (evaluation.includes(i)) {
+					seen[id] = stamp;
+					result.add(events.get(id));
+				}
+			}
 		}
-		return cursor;
+		return;
+	}
+
+	/**
+	 * Is {@code event} occurring on {@code date}? Counts the day scanned, and each {@link ScheduleElement} evaluated, to {@code probe}.
+	 *
+	 * @param event object representing an event
+	 * @param date  a {@link LocalDate}
+	 * @param probe probe for the current query, or {@code null}
+	 * @return {@code true} if {@code event} is occurring on {@code date}, otherwise {@code false}
+	 */
+	private boolean isOccurring(T event, LocalDate date, QueryProbe probe) {
+		if (probe != null) {
+			probe.daysScanned++;
+		}
+		for (ScheduleElement<T> e : elements) {
+			if (e.event().equals(event)) {
+				if (probe != null) {
+					probe.includesCalls++;
+				}
+				if (e.isOccurring(date)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	LocalDate seek(T event, LocalDate date, LocalDate limit) {
+		return seeker(event).seek(date, limit, null);
+	}
+
+	/**
+	 * Returns the {@link Seeker} over expressions of {@code event}'s elements.
+	 *
+	 * @param event object representing an event
+	 * @return {@link Seeker}, which finds no dates if {@code event} is not in this schedule
+	 */
+	Seeker seeker(T event) {
+		Integer id = ids.get(event);
+		return id == null ? NONE : seekers[id];
+	}
+
+	/**
+	 * Finishes {@code probe}, if there is one, reporting its counts to {@link #metrics} and Flight Recorder.
+	 *
+	 * @param probe probe for the current query, or {@code null}
+	 * @param from  earliest date scanned
+	 * @param to    latest date scanned
+	 */
+	private void finish(QueryProbe probe, LocalDate from, LocalDate to) {
+		if (probe != null) {
+			probe.finish(metrics, from, to);
+		}
+		return;
 	}
 }
@@ -0,0 +1,966 @@
+package net.logicsquad.recurring;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Encodes {@link TemporalExpression} trees and {@link Schedule}s in a compact, versioned binary format, and decodes them again. Encodings
+ * can be written to and read from a {@link ByteBuffer}, or streamed through NIO channels. {@code event} objects are converted to bytes by a
+ * pluggable {@link EventCodec}.
+ * </p>
+ *
+ * <p>
+ * An encoding starts with the magic bytes {@code RCUR}, a format version byte ({@link #VERSION}), and a type byte ({@code 'E'} for a
+ * {@link TemporalExpression}, {@code 'S'} for a {@link Schedule}). An expression follows as a pre-order sequence of nodes, each a tag byte
+ * and a payload:
+ * </p>
+ *
+ * <ul>
+ * <li>{@link DayInMonth}: one byte packing day of week and ordinal;</li>
+ * <li>{@link DayInWeek}: one byte for day of week, or a varint ordinal and zig-zag varint reference epoch day;</li>
+ * <li>{@link RangeEveryYear}: one byte packing start and end months, then start and end days;</li>
+ * <li>{@link Union} and {@link Intersection}: a varint count, then each sub-expression;</li>
+ * <li>{@link Difference}: included then excluded sub-expression;</li>
+ * <li>{@link DateOverlay}: base sub-expression, then added and removed dates, each as a varint count followed by zig-zag varint differences
+ * between successive epoch days;</li>
+ * <li>{@link SpecificDates}: its dates, encoded as for {@link DateOverlay};</li>
+ * <li>{@link EasterOffset}: a zig-zag varint offset;</li>
+ * <li>{@link EveryNDays}: a varint interval and zig-zag varint anchor epoch day;</li>
+ * <li>{@link DayOfMonth}: one byte packing day and whether months shorter than the day match on their last day;</li>
+ * <li>a reference: the varint index of an equal node already encoded.</li>
+ * </ul>
+ *
+ * <p>
+ * Nodes other than two-byte leaves are indexed in the order they are completed, and any such node equal to one already encoded is written
+ * as a reference, so shared sub-expressions are stored once. A {@link Schedule} is a varint element count, then each element's event and expression. Events are
+ * written as a varint length and the {@link EventCodec}'s bytes, or as a reference to an equal event already written; expression references
+ * may point into earlier elements.
+ * </p>
+ *
+ * <p>
+ * Only the built-in {@link TemporalExpression} implementations can be encoded. Reading from a channel may consume bytes beyond the end of
+ * the encoding, so a channel should hold a single encoding (or be read from a {@link ByteBuffer} instead). Instances are thread-safe if
+ * their {@link EventCodec} is.
+ * </p>
+ *
+ * @param <T> type of {@code event} objects in encoded {@link Schedule}s
+ * @author paulh
+ * @since 0.5
+ */
+public final class BinaryCodec<T> {
+	/**
+	 * Current format version
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Magic bytes starting every encoding
+	 */
+	private static final byte[] MAGIC = { 'R', 'C', 'U', 'R' };
+
+	/**
+	 * Type byte for an encoded {@link TemporalExpression}
+	 */
+	private static final byte TYPE_EXPRESSION = 'E';
+
+	/**
+	 * Type byte for an encoded {@link Schedule}
+	 */
+	private static final byte TYPE_SCHEDULE = 'S';
+
+	/**
+	 * Tag for a reference to an earlier node
+	 */
+	private static final int TAG_REFERENCE = 0;
+
+	/**
+	 * Tag for a {@link DayInMonth}
+	 */
+	private static final int TAG_DAY_IN_MONTH = 1;
+
+	/**
+	 * Tag for a {@link DayInWeek} matching every day of week
+	 */
+	private static final int TAG_DAY_IN_WEEK = 2;
+
+	/**
+	 * Tag for a {@link DayInWeek} matching every {@code ordinal} weeks from a reference date
+	 */
+	private static final int TAG_DAY_IN_WEEK_ORDINAL = 3;
+
+	/**
+	 * Tag for a {@link RangeEveryYear}
+	 */
+	private static final int TAG_RANGE_EVERY_YEAR = 4;
+
+	/**
+	 * Tag for a {@link Union}
+	 */
+	private static final int TAG_UNION = 5;
+
+	/**
+	 * Tag for an {@link Intersection}
+	 */
+	private static final int TAG_INTERSECTION = 6;
+
+	/**
+	 * Tag for a {@link Difference}
+	 */
+	private static final int TAG_DIFFERENCE = 7;
+
+	/**
+	 * Tag for a {@link DateOverlay}
+	 */
+	private static final int TAG_DATE_OVERLAY = 8;
+
+	/**
+	 * Tag for a {@link SpecificDates}
+	 */
+	private static final int TAG_SPECIFIC_DATES = 9;
+
+	/**
+	 * Tag for an {@link EasterOffset}
+	 */
+	private static final int TAG_EASTER_OFFSET = 10;
+
+	/**
+	 * Tag for an {@link EveryNDays}
+	 */
+	private static final int TAG_EVERY_N_DAYS = 11;
+
+	/**
+	 * Tag for a {@link DayOfMonth}
+	 */
+	private static final int TAG_DAY_OF_MONTH = 12;
+
+	/**
+	 * Offset added to {@link DayInMonth} ordinals to make them non-negative
+	 */
+	private static final int ORDINAL_OFFSET = 5;
+
+	/**
+	 * Size of buffers used for channels
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Initial size of buffers returned by {@code encode} methods
+	 */
+	private static final int INITIAL_SIZE = 256;
+
+	/**
+	 * Codec for {@code event} objects
+	 */
+	private final EventCodec<T> events;
+
+	/**
+	 * Constructor
+	 *
+	 * @param events codec for {@code event} objects
+	 */
+	private BinaryCodec(EventCodec<T> events) {
+		this.events = events;
+		return;
+	}
+
+	/**
+	 * Returns a {@code BinaryCodec} for {@link Schedule}s whose events are converted by {@code events}.
+	 *
+	 * @param <T>    type of {@code event} objects
+	 * @param events codec for {@code event} objects
+	 * @return new object
+	 * @throws NullPointerException if {@code events} is {@code null}
+	 */
+	public static <T> BinaryCodec<T> of(EventCodec<T> events) {
+		Objects.requireNonNull(events);
+		return new BinaryCodec<>(events);
+	}
+
+	/**
+	 * Encodes {@code expression}.
+	 *
+	 * @param expression a {@link TemporalExpression}
+	 * @return buffer containing the encoding, from position {@code 0} to its limit
+	 * @throws NullPointerException     if {@code expression} is {@code null}
+	 * @throws IllegalArgumentException if {@code expression} contains an expression type that cannot be encoded
+	 */
+	public static ByteBuffer encodeExpression(TemporalExpression expression) {
+		Objects.requireNonNull(expression);
+		Output out = new Output(null, INITIAL_SIZE);
+		try {
+			writeHeader(out, TYPE_EXPRESSION);
+			new NodeWriter(out).write(expression);
+		} catch (IOException e) {
+			// Can't happen without a channel
+			throw new IllegalStateException(e);
+		}
+		return out.result();
+	}
+
+	/**
+	 * Encodes {@code expression} to {@code channel}.
+	 *
+	 * @param expression a {@link TemporalExpression}
+	 * @param channel    destination channel
+	 * @throws IOException              if writing to {@code channel} fails
+	 * @throws NullPointerException     if either argument is {@code null}
+	 * @throws IllegalArgumentException if {@code expression} contains an expression type that cannot be encoded
+	 */
+	public static void writeExpression(TemporalExpression expression, WritableByteChannel channel) throws IOException {
+		Objects.requireNonNull(expression);
+		Objects.requireNonNull(channel);
+		Output out = new Output(channel, BUFFER_SIZE);
+		writeHeader(out, TYPE_EXPRESSION);
+		new NodeWriter(out).write(expression);
+		out.flush();
+		return;
+	}
+
+	/**
+	 * Decodes a {@link TemporalExpression} from {@code buffer}, starting at its position. On return, the buffer's position is just past the
+	 * encoding.
+	 *
+	 * @param buffer buffer containing an encoding from {@link #encodeExpression(TemporalExpression)}
+	 * @return decoded expression
+	 * @throws IllegalArgumentException if {@code buffer} does not contain a valid encoding
+	 */
+	public static TemporalExpression decodeExpression(ByteBuffer buffer) {
+		Objects.requireNonNull(buffer);
+		try {
+			return readExpression(new Input(buffer, null));
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Decodes a {@link TemporalExpression} from {@code channel}.
+	 *
+	 * @param channel source channel
+	 * @return decoded expression
+	 * @throws IOException if reading from {@code channel} fails, or it does not contain a valid encoding
+	 */
+	public static TemporalExpression readExpression(ReadableByteChannel channel) throws IOException {
+		Objects.requireNonNull(channel);
+		return readExpression(new Input(emptyBuffer(), channel));
+	}
+
+	/**
+	 * Encodes {@code schedule}.
+	 *
+	 * @param schedule a {@link Schedule} returned by {@link Schedule#of(List) Schedule.of()}
+	 * @return buffer containing the encoding, from position {@code 0} to its limit
+	 * @throws IllegalArgumentException if {@code schedule} was not returned by {@link Schedule#of(List) Schedule.of()}, or contains an
+	 *                                  expression type that cannot be encoded
+	 */
+	public ByteBuffer encode(Schedule<T> schedule) {
+		List<ScheduleElement<T>> elements = elements(schedule);
+		Output out = new Output(null, INITIAL_SIZE);
+		try {
+			writeSchedule(out, elements);
+		} catch (IOException e) {
+			// Can't happen without a channel
+			throw new IllegalStateException(e);
+		}
+		return out.result();
+	}
+
+	/**
+	 * Encodes {@code schedule} to {@code channel}.
+	 *
+	 * @param schedule a {@link Schedule} returned by {@link Schedule#of(List) Schedule.of()}
+	 * @param channel  destination channel
+	 * @throws IOException              if writing to {@code channel} fails
+	 * @throws IllegalArgumentException if {@code schedule} was not returned by {@link Schedule#of(List) Schedule.of()}, or contains an
+	 *                                  expression type that cannot be encoded
+	 */
+	public void write(Schedule<T> schedule, WritableByteChannel channel) throws IOException {
+		List<ScheduleElement<T>> elements = elements(schedule);
+		Objects.requireNonNull(channel);
+		Output out = new Output(channel, BUFFER_SIZE);
+		writeSchedule(out, elements);
+		out.flush();
+		return;
+	}
+
+	/**
+	 * Decodes a {@link Schedule} from {@code buffer}, starting at its position. On return, the buffer's position is just past the encoding.
+	 *
+	 * @param buffer buffer containing an encoding from {@link #encode(Schedule)}
+	 * @return decoded schedule
+	 * @throws IllegalArgumentException if {@code buffer} does not contain a valid encoding
+	 */
+	public Schedule<T> decode(ByteBuffer buffer) {
+		Objects.requireNonNull(buffer);
+		try {
+			return readSchedule(new Input(buffer, null));
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Decodes a {@link Schedule} from {@code channel}.
+	 *
+	 * @param channel source channel
+	 * @return decoded schedule
+	 * @throws IOException if reading from {@code channel} fails, or it does not contain a valid encoding
+	 */
+	public Schedule<T> read(ReadableByteChannel channel) throws IOException {
+		Objects.requireNonNull(channel);
+		return readSchedule(new Input(emptyBuffer(), channel));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": version=").append(VERSION).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Returns elements of {@code schedule}.
+	 *
+	 * @param schedule a {@link Schedule}
+	 * @return elements
+	 * @throws IllegalArgumentException if {@code schedule} was not returned by {@link Schedule#of(List) Schedule.of()}
+	 */
+	private List<ScheduleElement<T>> elements(Schedule<T> schedule) {
+		Objects.requireNonNull(schedule);
+		if (!(schedule instanceof BasicSchedule)) {
+			throw new IllegalArgumentException("Cannot encode " + schedule.getClass().getName() + ".");
+		}
+		return ((BasicSchedule<T>) schedule).elements();
+	}
+
+	/**
+	 * Writes magic bytes, version and {@code type} to {@code out}.
+	 *
+	 * @param out  destination
+	 * @param type type byte
+	 * @throws IOException if writing fails
+	 */
+	private static void writeHeader(Output out, byte type) throws IOException {
+		for (byte b : MAGIC) {
+			out.writeByte(b);
+		}
+		out.writeByte(VERSION);
+		out.writeByte(type);
+		return;
+	}
+
+	/**
+	 * Reads and checks magic bytes, version and {@code type} from {@code in}.
+	 *
+	 * @param in   source
+	 * @param type expected type byte
+	 * @throws IOException if reading fails, or the header is not as expected
+	 */
+	private static void readHeader(Input in, byte type) throws IOException {
+		for (byte b : MAGIC) {
+			if (in.readByte() != b) {
+				throw new IOException("Not a recurring binary encoding.");
+			}
+		}
+		int version = in.readByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported format version " + version + ".");
+		}
+		int actual = in.readByte();
+		if (actual != type) {
+			throw new IOException("Expected type '" + (char) type + "', found '" + (char) actual + "'.");
+		}
+		return;
+	}
+
+	/**
+	 * Writes {@code elements} as a schedule to {@code out}.
+	 *
+	 * @param out      destination
+	 * @param elements elements of a {@link Schedule}
+	 * @throws IOException if writing fails
+	 */
+	private void writeSchedule(Output out, List<ScheduleElement<T>> elements) throws IOException {
+		writeHeader(out, TYPE_SCHEDULE);
+		out.writeVarint(elements.size());
+		NodeWriter nodes = new NodeWriter(out);
+		Map<T, Integer> written = new HashMap<>();
+		for (ScheduleElement<T> e : elements) {
+			Integer reference = written.get(e.event());
+			if (reference == null) {
+				written.put(e.event(), written.size() + 1);
+				byte[] bytes = events.encode(e.event());
+				out.writeVarint(0);
+				out.writeVarint(bytes.length);
+				out.writeBytes(bytes);
+			} else {
+				out.writeVarint(reference);
+			}
+			nodes.write(e.expression());
+		}
+		return;
+	}
+
+	/**
+	 * Reads a schedule from {@code in}.
+	 *
+	 * @param in source
+	 * @return decoded schedule
+	 * @throws IOException if reading fails, or {@code in} does not contain a valid encoding
+	 */
+	private Schedule<T> readSchedule(Input in) throws IOException {
+		readHeader(in, TYPE_SCHEDULE);
+		int size = in.readCount();
+		NodeReader nodes = new NodeReader(in);
+		List<T> read = new ArrayList<>();
+		List<ScheduleElement<T>> elements = new ArrayList<>(Math.min(size, BUFFER_SIZE));
+		for (int i = 0; i < size; i++) {
+			int reference = in.readCount();
+			T event;
+			if (reference == 0) {
+				try {
+					event = events.decode(in.readBytes(in.readCount()));
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Invalid event encoding.", e);
+				}
+				read.add(event);
+			} else if (reference <= read.size()) {
+				event = read.get(reference - 1);
+			} else {
+				throw new IOException("Invalid event reference " + reference + ".");
+			}
+			elements.add(ScheduleElement.of(event, nodes.read()));
+		}
+		return Schedule.of(elements);
+	}
+
+	/**
+	 * Reads an expression from {@code in}.
+	 *
+	 * @param in source
+	 * @return decoded expression
+	 * @throws IOException if reading fails, or {@code in} does not contain a valid encoding
+	 */
+	private static TemporalExpression readExpression(Input in) throws IOException {
+		readHeader(in, TYPE_EXPRESSION);
+		return new NodeReader(in).read();
+	}
+
+	/**
+	 * Writes expression nodes, replacing each node equal to one already written with a reference.
+	 */
+	private static final class NodeWriter {
+		/**
+		 * Destination
+		 */
+		private final Output out;
+
+		/**
+		 * Index of each node written
+		 */
+		private final Map<TemporalExpression, Integer> written = new HashMap<>();
+
+		/**
+		 * Constructor
+		 *
+		 * @param out destination
+		 */
+		NodeWriter(Output out) {
+			this.out = out;
+			return;
+		}
+
+		/**
+		 * Writes {@code expression} and its sub-expressions.
+		 *
+		 * @param expression a {@link TemporalExpression}
+		 * @throws IOException              if writing fails
+		 * @throws IllegalArgumentException if {@code expression} cannot be encoded
+		 */
+		void write(TemporalExpression expression) throws IOException {
+			Objects.requireNonNull(expression);
+			// Short leaves are never referenced, since a reference would be no shorter
+			if (expression instanceof DayInMonth) {
+				DayInMonth e = (DayInMonth) expression;
+				out.writeByte(TAG_DAY_IN_MONTH);
+				out.writeByte(e.day().ordinal() << 4 | (e.ordinal() + ORDINAL_OFFSET));
+				return;
+			} else if (expression instanceof DayInWeek && ((DayInWeek) expression).dayOfWeek() != null) {
+				out.writeByte(TAG_DAY_IN_WEEK);
+				out.writeByte(((DayInWeek) expression).dayOfWeek().ordinal());
+				return;
+			} else if (expression instanceof EasterOffset) {
+				out.writeByte(TAG_EASTER_OFFSET);
+				out.writeVarint(zigZag(((EasterOffset) expression).days()));
+				return;
+			} else if (expression instanceof DayOfMonth) {
+				DayOfMonth e = (DayOfMonth) expression;
+				out.writeByte(TAG_DAY_OF_MONTH);
+				out.writeByte(e.day() << 1 | (e.includingLastDay() ? 1 : 0));
+				return;
+			}
+			Integer reference = written.get(expression);
+			if (reference != null) {
+				out.writeByte(TAG_REFERENCE);
+				out.writeVarint(reference);
+				return;
+			}
+			if (expression instanceof DayInWeek) {
+				DayInWeek e = (DayInWeek) expression;
+				out.writeByte(TAG_DAY_IN_WEEK_ORDINAL);
+				out.writeVarint(e.ordinal());
+				out.writeVarint(zigZag(e.referenceDate().toEpochDay()));
+			} else if (expression instanceof RangeEveryYear) {
+				RangeEveryYear e = (RangeEveryYear) expression;
+				out.writeByte(TAG_RANGE_EVERY_YEAR);
+				out.writeByte(e.startMonth().getValue() << 4 | e.endMonth().getValue());
+				out.writeByte(e.startDay());
+				out.writeByte(e.endDay());
+			} else if (expression instanceof Union || expression instanceof Intersection) {
+				List<TemporalExpression> children = ((CompositeTemporalExpression) expression).expressions;
+				out.writeByte(expression instanceof Union ? TAG_UNION : TAG_INTERSECTION);
+				out.writeVarint(children.size());
+				for (TemporalExpression c : children) {
+					write(c);
+				}
+			} else if (expression instanceof Difference) {
+				Difference e = (Difference) expression;
+				out.writeByte(TAG_DIFFERENCE);
+				write(e.included());
+				write(e.excluded());
+			} else if (expression instanceof DateOverlay) {
+				DateOverlay e = (DateOverlay) expression;
+				out.writeByte(TAG_DATE_OVERLAY);
+				write(e.base());
+				writeDates(e.added());
+				writeDates(e.removed());
+			} else if (expression instanceof SpecificDates) {
+				out.writeByte(TAG_SPECIFIC_DATES);
+				writeDates(((SpecificDates) expression).dates());
+			} else if (expression instanceof EveryNDays) {
+				EveryNDays e = (EveryNDays) expression;
+				out.writeByte(TAG_EVERY_N_DAYS);
+				out.writeVarint(e.interval());
+				out.writeVarint(zigZag(e.anchor().toEpochDay()));
+			} else {
+				throw new IllegalArgumentException("Cannot encode " + expression.getClass().getName() + ".");
+			}
+			written.put(expression, written.size());
+			return;
+		}
+
+		/**
+		 * Writes {@code dates}, in ascending order, as a count followed by the differences between successive epoch days.
+		 *
+		 * @param dates dates in ascending order
+		 * @throws IOException if writing fails
+		 */
+		private void writeDates(List<LocalDate> dates) throws IOException {
+			out.writeVarint(dates.size());
+			long previous = 0;
+			for (LocalDate date : dates) {
+				out.writeVarint(zigZag(date.toEpochDay() - previous));
+				previous = date.toEpochDay();
+			}
+			return;
+		}
+	}
+
+	/**
+	 * Reads expression nodes written by a {@link NodeWriter}.
+	 */
+	private static final class NodeReader {
+		/**
+		 * Source
+		 */
+		private final Input in;
+
+		/**
+		 * Nodes read, by index
+		 */
+		private final List<TemporalExpression> read = new ArrayList<>();
+
+		/**
+		 * Constructor
+		 *
+		 * @param in source
+		 */
+		NodeReader(Input in) {
+			this.in = in;
+			return;
+		}
+
+		/**
+		 * Reads an expression and its sub-expressions.
+		 *
+		 * @return decoded expression
+		 * @throws IOException if reading fails, or {@code in} does not contain a valid encoding
+		 */
+		TemporalExpression read() throws IOException {
+			int tag = in.readByte();
+			if (tag == TAG_REFERENCE) {
+				int reference = in.readCount();
+				if (reference >= read.size()) {
+					throw new IOException("Invalid node reference " + reference + ".");
+				}
+				return read.get(reference);
+			}
+			TemporalExpression result;
+			try {
+				switch (tag) {
+				case TAG_DAY_IN_MONTH:
+					int packed = in.readByte();
+					return DayInMonth.of(dayOfWeek(packed >> 4), (packed & 0xF) - ORDINAL_OFFSET);
+				case TAG_DAY_IN_WEEK:
+					return DayInWeek.of(dayOfWeek(in.readByte()));
+				case TAG_DAY_IN_WEEK_ORDINAL:
+					int ordinal = in.readCount();
+					result = DayInWeek.of(ordinal, LocalDate.ofEpochDay(unZigZag(in.readVarint())));
+					break;
+				case TAG_RANGE_EVERY_YEAR:
+					int months = in.readByte();
+					result = RangeEveryYear.of(Month.of(months >> 4), in.readByte(), Month.of(months & 0xF), in.readByte());
+					break;
+				case TAG_UNION:
+				case TAG_INTERSECTION:
+					int size = in.readCount();
+					List<TemporalExpression> children = new ArrayList<>(Math.min(size, INITIAL_SIZE));
+					for (int i = 0; i < size; i++) {
+						children.add(read());
+					}
+					result = tag == TAG_UNION ? Union.of(children) : Intersection.of(children);
+					break;
+				case TAG_DIFFERENCE:
+					TemporalExpression included = read();
+					result = Difference.of(included, read());
+					break;
+				case TAG_DATE_OVERLAY:
+					TemporalExpression base = read();
+					List<LocalDate> added = readDates();
+					result = DateOverlay.of(base, added, readDates());
+					break;
+				case TAG_EASTER_OFFSET:
+					return EasterOffset.of((int) unZigZag(in.readVarint()));
+				case TAG_SPECIFIC_DATES:
+					result = SpecificDates.of(readDates());
+					break;
+				case TAG_EVERY_N_DAYS:
+					int interval = in.readCount();
+					result = EveryNDays.of(LocalDate.ofEpochDay(unZigZag(in.readVarint())), interval);
+					break;
+				case TAG_DAY_OF_MONTH:
+					int day = in.readByte();
+					return DayOfMonth.of(day >> 1, (day & 1) != 0);
+				default:
+					throw new IOException("Unknown tag " + tag + ".");
+				}
+			} catch (DateTimeException | IllegalArgumentException | IllegalStateException e) {
+				throw new IOException("Invalid expression encoding.", e);
+			}
+			read.add(result);
+			return result;
+		}
+
+		/**
+		 * Reads dates written by {@link NodeWriter#writeDates(List)}.
+		 *
+		 * @return dates in ascending order
+		 * @throws IOException if reading fails
+		 */
+		private List<LocalDate> readDates() throws IOException {
+			int size = in.readCount();
+			List<LocalDate> result = new ArrayList<>(Math.min(size, INITIAL_SIZE));
+			long day = 0;
+			for (int i = 0; i < size; i++) {
+				day += unZigZag(in.readVarint());
+				result.add(LocalDate.ofEpochDay(day));
+			}
+			return result;
+		}
+
+		/**
+		 * Returns {@link DayOfWeek} with {@code ordinal}.
+		 *
+		 * @param ordinal ordinal of day of week
+		 * @return day of week
+		 * @throws IOException if {@code ordinal} is out of range
+		 */
+		private static DayOfWeek dayOfWeek(int ordinal) throws IOException {
+			if (ordinal >= DayOfWeek.values().length) {
+				throw new IOException("Invalid day of week " + ordinal + ".");
+			}
+			return DayOfWeek.values()[ordinal];
+		}
+	}
+
+	/**
+	 * Returns an empty buffer of {@link #BUFFER_SIZE} bytes, in read mode.
+	 *
+	 * @return new buffer
+	 */
+	private static ByteBuffer emptyBuffer() {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		buffer.limit(0);
+		return buffer;
+	}
+
+	/**
+	 * Zig-zag encodes {@code value}, so that small negative values have short varint encodings.
+	 *
+	 * @param value a value
+	 * @return encoded value
+	 */
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Reverses {@link #zigZag(long)}.
+	 *
+	 * @param value encoded value
+	 * @return original value
+	 */
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Buffered destination, writing to a channel when one is supplied, otherwise growing as required.
+	 */
+	private static final class Output {
+		/**
+		 * Destination channel, or {@code null}
+		 */
+		private final WritableByteChannel channel;
+
+		/**
+		 * Buffer, in write mode
+		 */
+		private ByteBuffer buffer;
+
+		/**
+		 * Constructor
+		 *
+		 * @param channel  destination channel, or {@code null}
+		 * @param capacity initial buffer capacity
+		 */
+		Output(WritableByteChannel channel, int capacity) {
+			this.channel = channel;
+			this.buffer = ByteBuffer.allocate(capacity);
+			return;
+		}
+
+		/**
+		 * Makes room for at least {@code n} bytes.
+		 *
+		 * @param n number of bytes
+		 * @throws IOException if writing to channel fails
+		 */
+		private void ensure(int n) throws IOException {
+			if (buffer.remaining() >= n) {
+				return;
+			}
+			if (channel != null) {
+				flush();
+				if (buffer.remaining() >= n) {
+					return;
+				}
+			}
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + n));
+			buffer.flip();
+			larger.put(buffer);
+			buffer = larger;
+			return;
+		}
+
+		/**
+		 * Writes low-order byte of {@code b}.
+		 *
+		 * @param b a byte
+		 * @throws IOException if writing to channel fails
+		 */
+		void writeByte(int b) throws IOException {
+			ensure(1);
+			buffer.put((byte) b);
+			return;
+		}
+
+		/**
+		 * Writes {@code bytes}.
+		 *
+		 * @param bytes bytes to write
+		 * @throws IOException if writing to channel fails
+		 */
+		void writeBytes(byte[] bytes) throws IOException {
+			ensure(bytes.length);
+			buffer.put(bytes);
+			return;
+		}
+
+		/**
+		 * Writes {@code value} as an unsigned LEB128 varint.
+		 *
+		 * @param value a value
+		 * @throws IOException if writing to channel fails
+		 */
+		void writeVarint(long value) throws IOException {
+			ensure(10);
+			while ((value & ~0x7FL) != 0) {
+				buffer.put((byte) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			buffer.put((byte) value);
+			return;
+		}
+
+		/**
+		 * Writes buffered bytes to channel.
+		 *
+		 * @throws IOException if writing to channel fails
+		 */
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+			return;
+		}
+
+		/**
+		 * Returns buffer ready for reading.
+		 *
+		 * @return buffer
+		 */
+		ByteBuffer result() {
+			buffer.flip();
+			return buffer;
+		}
+	}
+
+	/**
+	 * Buffered source, refilled from a channel when one is supplied.
+	 */
+	private static final class Input {
+		/**
+		 * Source channel, or {@code null}
+		 */
+		private final ReadableByteChannel channel;
+
+		/**
+		 * Buffer, in read mode
+		 */
+		private ByteBuffer buffer;
+
+		/**
+		 * Constructor
+		 *
+		 * @param buffer  buffer, in read mode
+		 * @param channel source channel, or {@code null}
+		 */
+		Input(ByteBuffer buffer, ReadableByteChannel channel) {
+			this.buffer = buffer;
+			this.channel = channel;
+			return;
+		}
+
+		/**
+		 * Ensures that at least {@code n} bytes are available.
+		 *
+		 * @param n number of bytes
+		 * @throws IOException if reading from channel fails, or input ends first
+		 */
+		private void require(int n) throws IOException {
+			if (buffer.remaining() >= n) {
+				return;
+			}
+			if (channel == null) {
+				throw new EOFException("Unexpected end of encoding.");
+			}
+			if (buffer.capacity() < n) {
+				ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, n));
+				larger.put(buffer);
+				buffer = larger;
+			} else {
+				buffer.compact();
+			}
+			while (buffer.position() < n) {
+				if (channel.read(buffer) < 0) {
+					throw new EOFException("Unexpected end of encoding.");
+				}
+			}
+			buffer.flip();
+			return;
+		}
+
+		/**
+		 * Reads an unsigned byte.
+		 *
+		 * @return byte value in {@code [0, 255]}
+		 * @throws IOException if reading fails
+		 */
+		int readByte() throws IOException {
+			require(1);
+			return buffer.get() & 0xFF;
+		}
+
+		/**
+		 * Reads {@code n} bytes.
+		 *
+		 * @param n number of bytes
+		 * @return bytes
+		 * @throws IOException if reading fails
+		 */
+		byte[] readBytes(int n) throws IOException {
+			require(n);
+			byte[] bytes = new byte[n];
+			buffer.get(bytes);
+			return bytes;
+		}
+
+		/**
+		 * Reads an unsigned LEB128 varint.
+		 *
+		 * @return value
+		 * @throws IOException if reading fails, or the varint is too long
+		 */
+		long readVarint() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				int b = readByte();
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Malformed varint.");
+		}
+
+		/**
+		 * Reads a varint that must be a non-negative {@code int}, such as a count or index.
+		 *
+		 * @return value
+		 * @throws IOException if reading fails, or the value is out of range
+		 */
+		int readCount() throws IOException {
+			long value = readVarint();
+			if (value < 0 || value > Integer.MAX_VALUE) {
+				throw new IOException("Count " + value + " out of range.");
+			}
+			return (int) value;
+		}
+	}
+}
@@ -0,0 +1,405 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Business-day arithmetic over the days matched by a {@link TemporalExpression}, such as {@code Difference.of(weekdays, holidays)}. A
+ * {@code BusinessCalendar} answers "the 10th business day after this date", "the 3rd business day before it" and "how many business days
+ * between these dates".
+ * </p>
+ *
+ * <p>
+ * Business days between a start and an end date are precomputed into a bitset of 64-day words, together with a count of business days
+ * before each word. Within that span, {@link #count(LocalDate, LocalDate)} and {@link #includes(LocalDate)} take constant time, and
+ * {@link #plus(LocalDate, int)} and {@link #minus(LocalDate, int)} take a binary search over the counts. Outside the span, the calendar falls
+ * back to evaluating the expression day by day, and a search that finds no business day within eight years fails with an
+ * {@link IllegalStateException}, or from {@link #next(LocalDate)} and {@link #previous(LocalDate)} returns {@code null}.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class BusinessCalendar implements SeekableExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Days per word of {@link #words}
+	 */
+	private static final int WORD_DAYS = 64;
+
+	/**
+	 * Epoch day standing for no business day found
+	 */
+	private static final long NONE = Long.MIN_VALUE;
+
+	/**
+	 * Expression matching business days
+	 */
+	private final TemporalExpression businessDays;
+
+	/**
+	 * Epoch day of first day in precomputed span
+	 */
+	private final long first;
+
+	/**
+	 * Epoch day of last day in precomputed span
+	 */
+	private final long last;
+
+	/**
+	 * Bit for each day in precomputed span, set for a business day
+	 */
+	private final long[] words;
+
+	/**
+	 * Number of business days before each word of {@link #words}, and finally the total
+	 */
+	private final int[] counts;
+
+	/**
+	 * Constructor
+	 *
+	 * @param businessDays expression matching business days
+	 * @param first        epoch day of first day in precomputed span
+	 * @param last         epoch day of last day in precomputed span
+	 */
+	private BusinessCalendar(TemporalExpression businessDays, long first, long last) {
+		this.businessDays = businessDays;
+		this.first = first;
+		this.last = last;
+		this.words = new long[(int) ((last - first) / WORD_DAYS) + 1];
+		this.counts = new int[words.length + 1];
+		for (long day = first; day <= last; day++) {
+			if (businessDays.includes(LocalDate.ofEpochDay(day))) {
+				words[(int) ((day - first) / WORD_DAYS)] |= 1L << ((day - first) % WORD_DAYS);
+			}
+		}
+		for (int i = 0; i < words.length; i++) {
+			counts[i + 1] = counts[i] + Long.bitCount(words[i]);
+		}
+		return;
+	}
+
+	/**
+	 * Returns a {@code BusinessCalendar} of the days included by {@code businessDays}, precomputed from {@code start} to {@code end}
+	 * (inclusive).
+	 *
+	 * @param businessDays expression matching business days
+	 * @param start        first day of precomputed span
+	 * @param end          last day of precomputed span
+	 * @return new object
+	 * @throws NullPointerException     if any argument is {@code null}
+	 * @throws IllegalArgumentException if {@code end} is before {@code start}, or the span is too long to precompute
+	 */
+	public static BusinessCalendar of(TemporalExpression businessDays, LocalDate start, LocalDate end) {
+		Objects.requireNonNull(businessDays);
+		Objects.requireNonNull(start);
+		Objects.requireNonNull(end);
+		if (end.isBefore(start)) {
+			throw new IllegalArgumentException("'end' must not be before 'start'.");
+		}
+		if (end.toEpochDay() - start.toEpochDay() >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Span from 'start' to 'end' is too long.");
+		}
+		return new BusinessCalendar(businessDays, start.toEpochDay(), end.toEpochDay());
+	}
+
+	/**
+	 * Is {@code date} a business day?
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return {@code true} if {@code date} is a business day, otherwise {@code false}
+	 */
+	@Override
+	public boolean includes(LocalDate date) {
+		return isBusinessDay(date.toEpochDay());
+	}
+
+	/**
+	 * Returns the date {@code days} business days after {@code date}, or before it if {@code days} is negative. If {@code days} is zero,
+	 * returns {@code date}, whether or not it is a business day.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @param days business days to add
+	 * @return resulting date
+	 * @throws IllegalStateException if a search outside the precomputed span finds no business day
+	 */
+	public LocalDate plus(LocalDate date, int days) {
+		if (days == 0) {
+			return date;
+		}
+		return found(days > 0 ? forward(date.toEpochDay(), days) : backward(date.toEpochDay(), -(long) days), date);
+	}
+
+	/**
+	 * Returns the date {@code days} business days before {@code date}, or after it if {@code days} is negative. If {@code days} is zero,
+	 * returns {@code date}, whether or not it is a business day.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @param days business days to subtract
+	 * @return resulting date
+	 * @throws IllegalStateException if a search outside the precomputed span finds no business day
+	 */
+	public LocalDate minus(LocalDate date, int days) {
+		if (days == 0) {
+			return date;
+		}
+		return found(days > 0 ? backward(date.toEpochDay(), days) : forward(date.toEpochDay(), -(long) days), date);
+	}
+
+	/**
+	 * Returns the earliest business day on or after {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return next business day, or {@code null} if a search outside the precomputed span finds none
+	 */
+	@Override
+	public LocalDate next(LocalDate date) {
+		if (includes(date)) {
+			return date;
+		}
+		long result = forward(date.toEpochDay(), 1);
+		return result == NONE ? null : LocalDate.ofEpochDay(result);
+	}
+
+	/**
+	 * Returns the latest business day on or before {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return previous business day, or {@code null} if a search outside the precomputed span finds none
+	 */
+	@Override
+	public LocalDate previous(LocalDate date) {
+		if (includes(date)) {
+			return date;
+		}
+		long result = backward(date.toEpochDay(), 1);
+		return result == NONE ? null : LocalDate.ofEpochDay(result);
+	}
+
+	/**
+	 * Returns the number of business days from {@code start} to {@code end} (inclusive), or 0 if {@code end} is before {@code start}.
+	 *
+	 * @param start start date
+	 * @param end   end date
+	 * @return number of business days
+	 */
+	public long count(LocalDate start, LocalDate end) {
+		long from = start.toEpochDay();
+		long to = end.toEpochDay();
+		long result = 0;
+		// Days before, within and after the precomputed span
+		for (long day = from; day <= Math.min(to, first - 1); day++) {
+			if (businessDays.includes(LocalDate.ofEpochDay(day))) {
+				result++;
+			}
+		}
+		long low = Math.max(from, first);
+		long high = Math.min(to, last);
+		if (low <= high) {
+			result += rank(high) - rank(low - 1);
+		}
+		for (long day = Math.max(from, last + 1); day <= to; day++) {
+			if (businessDays.includes(LocalDate.ofEpochDay(day))) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns first day of precomputed span.
+	 *
+	 * @return start date
+	 */
+	public LocalDate start() {
+		return LocalDate.ofEpochDay(first);
+	}
+
+	/**
+	 * Returns last day of precomputed span.
+	 *
+	 * @return end date
+	 */
+	public LocalDate end() {
+		return LocalDate.ofEpochDay(last);
+	}
+
+	/**
+	 * Returns the epoch day {@code days} business days after {@code day}.
+	 *
+	 * @param day  an epoch day
+	 * @param days business days to add, greater than zero
+	 * @return resulting epoch day, or {@link #NONE} if a search outside the precomputed span finds no business day
+	 */
+	private long forward(long day, long days) {
+		long cursor = day;
+		long remaining = days;
+		while (remaining > 0 && cursor < first - 1) {
+			long next = walk(cursor, 1);
+			if (next == NONE) {
+				return NONE;
+			}
+			if (next >= first) {
+				// No business days between here and the span, so count from its start
+				cursor = first - 1;
+				break;
+			}
+			cursor = next;
+			remaining--;
+		}
+		if (remaining > 0 && cursor < last) {
+			long rank = rank(cursor);
+			long total = counts[words.length];
+			if (rank + remaining <= total) {
+				return select(rank + remaining);
+			}
+			remaining -= total - rank;
+			cursor = last;
+		}
+		while (remaining > 0 && cursor != NONE) {
+			cursor = walk(cursor, 1);
+			remaining--;
+		}
+		return cursor;
+	}
+
+	/**
+	 * Returns the epoch day {@code days} business days before {@code day}.
+	 *
+	 * @param day  an epoch day
+	 * @param days business days to subtract, greater than zero
+	 * @return resulting epoch day, or {@link #NONE} if a search outside the precomputed span finds no business day
+	 */
+	private long backward(long day, long days) {
+		long cursor = day;
+		long remaining = days;
+		while (remaining > 0 && cursor > last + 1) {
+			long next = walk(cursor, -1);
+			if (next == NONE) {
+				return NONE;
+			}
+			if (next <= last) {
+				// No business days between the span and here, so count from its end
+				cursor = last + 1;
+				break;
+			}
+			cursor = next;
+			remaining--;
+		}
+		if (remaining > 0 && cursor > first) {
+			long rank = rank(cursor - 1);
+			if (rank >= remaining) {
+				return select(rank - remaining + 1);
+			}
+			remaining -= rank;
+			cursor = first;
+		}
+		while (remaining > 0 && cursor != NONE) {
+			cursor = walk(cursor, -1);
+			remaining--;
+		}
+		return cursor;
+	}
+
+	/**
+	 * Returns the nearest business day after {@code day} in the direction of {@code step}.
+	 *
+	 * @param day  an epoch day
+	 * @param step 1 to search forward, -1 to search backward
+	 * @return epoch day of business day, or {@link #NONE} if there is none within {@link Seeker#HORIZON_DAYS} days
+	 */
+	private long walk(long day, int step) {
+		for (int i = 1; i <= Seeker.HORIZON_DAYS; i++) {
+			long candidate = day + i * step;
+			if (isBusinessDay(candidate)) {
+				return candidate;
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * Returns the date of epoch day {@code day}, found by a search from {@code date}.
+	 *
+	 * @param day  an epoch day, or {@link #NONE}
+	 * @param date date searched from
+	 * @return date
+	 * @throws IllegalStateException if {@code day} is {@link #NONE}
+	 */
+	private static LocalDate found(long day, LocalDate date) {
+		if (day == NONE) {
+			throw new IllegalStateException("No business day within " + Seeker.HORIZON_DAYS + " days of the search from " + date + ".");
+		}
+		return LocalDate.ofEpochDay(day);
+	}
+
+	/**
+	 * Is epoch day {@code day} a business day?
+	 *
+	 * @param day an epoch day
+	 * @return {@code true} if {@code day} is a business day, otherwise {@code false}
+	 */
+	private boolean isBusinessDay(long day) {
+		if (day < first || day > last) {
+			return businessDays.includes(LocalDate.ofEpochDay(day));
+		}
+		return (words[(int) ((day - first) / WORD_DAYS)] & 1L << ((day - first) % WORD_DAYS)) != 0;
+	}
+
+	/**
+	 * Returns the number of business days from the start of the precomputed span to {@code day} (inclusive).
+	 *
+	 * @param day an epoch day from {@code first - 1} to {@code last}
+	 * @return number of business days
+	 */
+	private long rank(long day) {
+		if (day < first) {
+			return 0;
+		}
+		int word = (int) ((day - first) / WORD_DAYS);
+		int bit = (int) ((day - first) % WORD_DAYS);
+		long mask = bit == WORD_DAYS - 1 ? -1L : (1L << (bit + 1)) - 1;
+		return counts[word] + Long.bitCount(words[word] & mask);
+	}
+
+	/**
+	 * Returns the epoch day of the business day with {@link #rank(long) rank} {@code rank}.
+	 *
+	 * @param rank a rank, from 1 to the number of business days in the span
+	 * @return epoch day
+	 */
+	private long select(long rank) {
+		// Find the last word with fewer than rank business days before it
+		int low = 0;
+		int high = words.length - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (counts[mid] < rank) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		long bits = words[low];
+		for (long i = counts[low] + 1; i < rank; i++) {
+			bits &= bits - 1;
+		}
+		return first + (long) low * WORD_DAYS + Long.numberOfTrailingZeros(bits);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": start=").append(start()).append(" end=").append(end())
+				.append(" businessDays=").append(businessDays).append(']');
+		return sb.toString();
+	}
+}
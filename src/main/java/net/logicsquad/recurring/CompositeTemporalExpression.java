@@ -1,5 +1,6 @@
 package net.logicsquad.recurring;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -13,12 +14,22 @@ import java.util.stream.Collectors;
  *
  * @author paulh
  */
-public abstract class CompositeTemporalExpression implements TemporalExpression {
+public abstract class CompositeTemporalExpression implements TemporalExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Collection of sub-expressions
 	 */
 	protected final List<TemporalExpression> expressions;
 
+	/**
+	 * Cached hash code
+	 */
+	private final int hashCode;
+
 	/**
 	 * Constructor
 	 *
@@ -35,9 +46,30 @@ public abstract class CompositeTemporalExpression implements TemporalExpression
 			throw new IllegalArgumentException("CompositeTemporalExpression requires at least one sub-expression.");
 		}
 		this.expressions = Collections.unmodifiableList(new ArrayList<>(expressions));
+		this.hashCode = 31 * getClass().getName().hashCode() + this.expressions.hashCode();
 		return;
 	}
 
+	/**
+	 * Two {@code CompositeTemporalExpression}s are equal if they are of the same class, and have equal sub-expressions in the same order.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		CompositeTemporalExpression other = (CompositeTemporalExpression) obj;
+		return hashCode == other.hashCode && expressions.equals(other.expressions);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -0,0 +1,796 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.LongBinaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * An immutable set of dates, compressed in the style of Roaring bitmaps. Dates are grouped into one chunk per calendar year, and each
+ * chunk is stored in whichever of three encodings is smallest for its contents:
+ * </p>
+ *
+ * <ul>
+ * <li>an <em>array</em> of sorted days of the year (2 bytes per date), for sparse chunks such as "1 September";</li>
+ * <li>a <em>bitmap</em> of the 366 possible days (48 bytes), for dense, irregular chunks such as "every weekday"; or</li>
+ * <li>a list of <em>runs</em> of consecutive days (4 bytes per run), for chunks such as "every day from June to August".</li>
+ * </ul>
+ *
+ * <p>
+ * {@link #contains(LocalDate)}, {@link #next(LocalDate)} and {@link #previous(LocalDate)} work directly on the compressed chunks.
+ * {@link #union(CompressedCalendar)}, {@link #intersection(CompressedCalendar)} and {@link #difference(CompressedCalendar)} combine
+ * chunks year by year, and re-encode each result chunk. A {@code CompressedCalendar} is itself a {@link TemporalExpression}, so a
+ * materialized expression can stand in for the original within its horizon, and one in a {@link Schedule} is searched by seeking.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class CompressedCalendar implements SeekableExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Maximum number of days in a year
+	 */
+	private static final int DAYS_IN_YEAR = 366;
+
+	/**
+	 * Number of words in a bitmap chunk
+	 */
+	private static final int WORDS = (DAYS_IN_YEAR + Long.SIZE - 1) / Long.SIZE;
+
+	/**
+	 * Size of a bitmap chunk, in bytes
+	 */
+	private static final int BITMAP_BYTES = WORDS * Long.BYTES;
+
+	/**
+	 * Shared empty instance
+	 */
+	private static final CompressedCalendar EMPTY = new CompressedCalendar(new int[0], new Chunk[0]);
+
+	/**
+	 * Encodings of a chunk
+	 */
+	enum Encoding {
+		/**
+		 * Sorted array of days
+		 */
+		ARRAY,
+
+		/**
+		 * Bitmap of days
+		 */
+		BITMAP,
+
+		/**
+		 * Runs of consecutive days
+		 */
+		RUN;
+	}
+
+	/**
+	 * Years with at least one date, in ascending order
+	 */
+	private final int[] years;
+
+	/**
+	 * Chunk for each of {@link #years}
+	 */
+	private final Chunk[] chunks;
+
+	/**
+	 * Constructor
+	 *
+	 * @param years  years with at least one date, in ascending order
+	 * @param chunks chunk for each year
+	 */
+	private CompressedCalendar(int[] years, Chunk[] chunks) {
+		this.years = years;
+		this.chunks = chunks;
+		return;
+	}
+
+	/**
+	 * Returns an empty {@code CompressedCalendar}.
+	 *
+	 * @return empty calendar
+	 */
+	public static CompressedCalendar empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns a {@code CompressedCalendar} containing {@code dates}.
+	 *
+	 * @param dates dates to include
+	 * @return new object
+	 * @throws NullPointerException if {@code dates} (or any date) is {@code null}
+	 */
+	public static CompressedCalendar of(Collection<LocalDate> dates) {
+		Objects.requireNonNull(dates);
+		Map<Integer, long[]> bitmaps = new TreeMap<>();
+		for (LocalDate date : dates) {
+			set(bitmaps, date);
+		}
+		return of(bitmaps);
+	}
+
+	/**
+	 * Returns a {@code CompressedCalendar} containing each date from {@code start} through {@code end} (inclusive) that {@code expression}
+	 * includes.
+	 *
+	 * @param expression a {@link TemporalExpression}
+	 * @param start      first date
+	 * @param end        last date
+	 * @return new object
+	 * @throws NullPointerException if any argument is {@code null}
+	 */
+	public static CompressedCalendar of(TemporalExpression expression, LocalDate start, LocalDate end) {
+		Objects.requireNonNull(expression);
+		Objects.requireNonNull(start);
+		Objects.requireNonNull(end);
+		Map<Integer, long[]> bitmaps = new TreeMap<>();
+		for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+			if (expression.includes(date)) {
+				set(bitmaps, date);
+			}
+		}
+		return of(bitmaps);
+	}
+
+	@Override
+	public boolean includes(LocalDate date) {
+		return contains(date);
+	}
+
+	/**
+	 * Does this calendar contain {@code date}?
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return {@code true} if this calendar contains {@code date}, otherwise {@code false}
+	 */
+	public boolean contains(LocalDate date) {
+		int i = Arrays.binarySearch(years, date.getYear());
+		return i >= 0 && chunks[i].contains(date.getDayOfYear() - 1);
+	}
+
+	/**
+	 * Returns the earliest date in this calendar on or after {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return next date, or {@code null} if there is none
+	 */
+	@Override
+	public LocalDate next(LocalDate date) {
+		int i = Arrays.binarySearch(years, date.getYear());
+		if (i >= 0) {
+			int day = chunks[i].next(date.getDayOfYear() - 1);
+			if (day >= 0) {
+				return LocalDate.ofYearDay(years[i], day + 1);
+			}
+			i++;
+		} else {
+			i = -i - 1;
+		}
+		return i < years.length ? LocalDate.ofYearDay(years[i], chunks[i].next(0) + 1) : null;
+	}
+
+	/**
+	 * Returns the latest date in this calendar on or before {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return previous date, or {@code null} if there is none
+	 */
+	@Override
+	public LocalDate previous(LocalDate date) {
+		int i = Arrays.binarySearch(years, date.getYear());
+		if (i >= 0) {
+			int day = chunks[i].previous(date.getDayOfYear() - 1);
+			if (day >= 0) {
+				return LocalDate.ofYearDay(years[i], day + 1);
+			}
+			i--;
+		} else {
+			i = -i - 2;
+		}
+		return i >= 0 ? LocalDate.ofYearDay(years[i], chunks[i].previous(DAYS_IN_YEAR - 1) + 1) : null;
+	}
+
+	/**
+	 * Returns a calendar containing dates in this calendar, {@code other}, or both.
+	 *
+	 * @param other a {@code CompressedCalendar}
+	 * @return union
+	 */
+	public CompressedCalendar union(CompressedCalendar other) {
+		return combine(other, (a, b) -> a | b);
+	}
+
+	/**
+	 * Returns a calendar containing dates in both this calendar and {@code other}.
+	 *
+	 * @param other a {@code CompressedCalendar}
+	 * @return intersection
+	 */
+	public CompressedCalendar intersection(CompressedCalendar other) {
+		return combine(other, (a, b) -> a & b);
+	}
+
+	/**
+	 * Returns a calendar containing dates in this calendar but not in {@code other}.
+	 *
+	 * @param other a {@code CompressedCalendar}
+	 * @return difference
+	 */
+	public CompressedCalendar difference(CompressedCalendar other) {
+		return combine(other, (a, b) -> a & ~b);
+	}
+
+	/**
+	 * Returns number of dates in this calendar.
+	 *
+	 * @return cardinality
+	 */
+	public long size() {
+		long result = 0;
+		for (Chunk c : chunks) {
+			result += c.cardinality();
+		}
+		return result;
+	}
+
+	/**
+	 * Is this calendar empty?
+	 *
+	 * @return {@code true} if this calendar contains no dates, otherwise {@code false}
+	 */
+	public boolean isEmpty() {
+		return chunks.length == 0;
+	}
+
+	/**
+	 * Returns the dates in this calendar, in ascending order.
+	 *
+	 * @return stream of dates
+	 */
+	public Stream<LocalDate> dates() {
+		List<LocalDate> result = new ArrayList<>();
+		for (int i = 0; i < years.length; i++) {
+			for (int day = chunks[i].next(0); day >= 0; day = day + 1 < DAYS_IN_YEAR ? chunks[i].next(day + 1) : -1) {
+				result.add(LocalDate.ofYearDay(years[i], day + 1));
+			}
+		}
+		return result.stream();
+	}
+
+	/**
+	 * Returns the size of this calendar's compressed chunks, in bytes (excluding object overhead).
+	 *
+	 * @return size in bytes
+	 */
+	public long sizeInBytes() {
+		long result = (long) years.length * Integer.BYTES;
+		for (Chunk c : chunks) {
+			result += c.sizeInBytes();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns encoding of chunk for {@code year}.
+	 *
+	 * @param year a year
+	 * @return encoding, or {@code null} if there are no dates in {@code year}
+	 */
+	Encoding encoding(int year) {
+		int i = Arrays.binarySearch(years, year);
+		return i >= 0 ? chunks[i].encoding() : null;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CompressedCalendar)) {
+			return false;
+		}
+		CompressedCalendar other = (CompressedCalendar) obj;
+		if (!Arrays.equals(years, other.years)) {
+			return false;
+		}
+		for (int i = 0; i < chunks.length; i++) {
+			if (!Arrays.equals(chunks[i].bits(), other.chunks[i].bits())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Arrays.hashCode(years);
+		for (Chunk c : chunks) {
+			result = 31 * result + Arrays.hashCode(c.bits());
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": size=").append(size()).append(" chunks=")
+				.append(Arrays.stream(years).mapToObj(y -> y + "/" + encoding(y)).collect(Collectors.joining(", "))).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Sets bit for {@code date} in {@code bitmaps}, adding a bitmap for its year if necessary.
+	 *
+	 * @param bitmaps bitmaps by year
+	 * @param date    a {@link LocalDate}
+	 */
+	private static void set(Map<Integer, long[]> bitmaps, LocalDate date) {
+		int day = date.getDayOfYear() - 1;
+		bitmaps.computeIfAbsent(date.getYear(), y -> new long[WORDS])[day / Long.SIZE] |= 1L << (day % Long.SIZE);
+		return;
+	}
+
+	/**
+	 * Returns a {@code CompressedCalendar} from {@code bitmaps}, encoding each year's chunk.
+	 *
+	 * @param bitmaps bitmaps, by year in ascending order
+	 * @return new object
+	 */
+	private static CompressedCalendar of(Map<Integer, long[]> bitmaps) {
+		List<Integer> years = new ArrayList<>();
+		List<Chunk> chunks = new ArrayList<>();
+		for (Map.Entry<Integer, long[]> e : bitmaps.entrySet()) {
+			Chunk chunk = Chunk.of(e.getValue());
+			if (chunk != null) {
+				years.add(e.getKey());
+				chunks.add(chunk);
+			}
+		}
+		if (chunks.isEmpty()) {
+			return EMPTY;
+		}
+		return new CompressedCalendar(years.stream().mapToInt(Integer::intValue).toArray(), chunks.toArray(new Chunk[0]));
+	}
+
+	/**
+	 * Combines this calendar with {@code other}, year by year, applying {@code operator} to corresponding bitmap words.
+	 *
+	 * @param other    a {@code CompressedCalendar}
+	 * @param operator operator on words, which must map {@code (0, 0)} to {@code 0}
+	 * @return combined calendar
+	 */
+	private CompressedCalendar combine(CompressedCalendar other, LongBinaryOperator operator) {
+		Objects.requireNonNull(other);
+		Map<Integer, long[]> bitmaps = new TreeMap<>();
+		long[] zero = new long[WORDS];
+		int i = 0;
+		int j = 0;
+		while (i < years.length || j < other.years.length) {
+			int year;
+			long[] a;
+			long[] b;
+			if (j == other.years.length || (i < years.length && years[i] < other.years[j])) {
+				year = years[i];
+				a = chunks[i++].bits();
+				b = zero;
+			} else if (i == years.length || other.years[j] < years[i]) {
+				year = other.years[j];
+				a = zero;
+				b = other.chunks[j++].bits();
+			} else {
+				year = years[i];
+				a = chunks[i++].bits();
+				b = other.chunks[j++].bits();
+			}
+			long[] result = new long[WORDS];
+			for (int w = 0; w < WORDS; w++) {
+				result[w] = operator.applyAsLong(a[w], b[w]);
+			}
+			bitmaps.put(year, result);
+		}
+		return of(bitmaps);
+	}
+
+	/**
+	 * Dates in one year, as days of the year from {@code 0}.
+	 */
+	private abstract static class Chunk implements Serializable {
+		/**
+		 * Serial version UID
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Returns the smallest encoding of {@code bits}.
+		 *
+		 * @param bits bitmap of days
+		 * @return chunk, or {@code null} if {@code bits} is empty
+		 */
+		static Chunk of(long[] bits) {
+			int cardinality = 0;
+			int runs = 0;
+			long carry = 0;
+			for (long w : bits) {
+				cardinality += Long.bitCount(w);
+				runs += Long.bitCount(w & ~(w << 1 | carry));
+				carry = w >>> (Long.SIZE - 1);
+			}
+			if (cardinality == 0) {
+				return null;
+			}
+			int arrayBytes = cardinality * Short.BYTES;
+			int runBytes = runs * 2 * Short.BYTES;
+			if (arrayBytes < BITMAP_BYTES && arrayBytes <= runBytes) {
+				return ArrayChunk.of(bits, cardinality);
+			} else if (runBytes < BITMAP_BYTES) {
+				return RunChunk.of(bits, runs);
+			} else {
+				return new BitmapChunk(bits.clone());
+			}
+		}
+
+		/**
+		 * Does this chunk contain {@code day}?
+		 *
+		 * @param day day of year, from {@code 0}
+		 * @return {@code true} if this chunk contains {@code day}, otherwise {@code false}
+		 */
+		abstract boolean contains(int day);
+
+		/**
+		 * Returns the smallest day in this chunk on or after {@code day}.
+		 *
+		 * @param day day of year, from {@code 0}
+		 * @return next day, or {@code -1} if there is none
+		 */
+		abstract int next(int day);
+
+		/**
+		 * Returns the largest day in this chunk on or before {@code day}.
+		 *
+		 * @param day day of year, from {@code 0}
+		 * @return previous day, or {@code -1} if there is none
+		 */
+		abstract int previous(int day);
+
+		/**
+		 * Returns number of days in this chunk.
+		 *
+		 * @return cardinality
+		 */
+		abstract int cardinality();
+
+		/**
+		 * Returns this chunk as a new bitmap.
+		 *
+		 * @return bitmap of days
+		 */
+		abstract long[] bits();
+
+		/**
+		 * Returns size of this chunk's contents, in bytes.
+		 *
+		 * @return size in bytes
+		 */
+		abstract int sizeInBytes();
+
+		/**
+		 * Returns this chunk's encoding.
+		 *
+		 * @return encoding
+		 */
+		abstract Encoding encoding();
+	}
+
+	/**
+	 * Chunk encoded as a sorted array of days.
+	 */
+	private static final class ArrayChunk extends Chunk {
+		/**
+		 * Serial version UID
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Days, in ascending order
+		 */
+		private final short[] days;
+
+		/**
+		 * Constructor
+		 *
+		 * @param days days, in ascending order
+		 */
+		private ArrayChunk(short[] days) {
+			this.days = days;
+			return;
+		}
+
+		/**
+		 * Returns an {@code ArrayChunk} containing the days set in {@code bits}.
+		 *
+		 * @param bits        bitmap of days
+		 * @param cardinality number of days set
+		 * @return new object
+		 */
+		static ArrayChunk of(long[] bits, int cardinality) {
+			short[] days = new short[cardinality];
+			int n = 0;
+			for (int w = 0; w < bits.length; w++) {
+				for (long word = bits[w]; word != 0; word &= word - 1) {
+					days[n++] = (short) (w * Long.SIZE + Long.numberOfTrailingZeros(word));
+				}
+			}
+			return new ArrayChunk(days);
+		}
+
+		@Override
+		boolean contains(int day) {
+			return Arrays.binarySearch(days, (short) day) >= 0;
+		}
+
+		@Override
+		int next(int day) {
+			int i = Arrays.binarySearch(days, (short) day);
+			if (i < 0) {
+				i = -i - 1;
+			}
+			return i < days.length ? days[i] : -1;
+		}
+
+		@Override
+		int previous(int day) {
+			int i = Arrays.binarySearch(days, (short) day);
+			if (i < 0) {
+				i = -i - 2;
+			}
+			return i >= 0 ? days[i] : -1;
+		}
+
+		@Override
+		int cardinality() {
+			return days.length;
+		}
+
+		@Override
+		long[] bits() {
+			long[] result = new long[WORDS];
+			for (short d : days) {
+				result[d / Long.SIZE] |= 1L << (d % Long.SIZE);
+			}
+			return result;
+		}
+
+		@Override
+		int sizeInBytes() {
+			return days.length * Short.BYTES;
+		}
+
+		@Override
+		Encoding encoding() {
+			return Encoding.ARRAY;
+		}
+	}
+
+	/**
+	 * Chunk encoded as a bitmap.
+	 */
+	private static final class BitmapChunk extends Chunk {
+		/**
+		 * Serial version UID
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Bitmap of days
+		 */
+		private final long[] words;
+
+		/**
+		 * Constructor
+		 *
+		 * @param words bitmap of days
+		 */
+		BitmapChunk(long[] words) {
+			this.words = words;
+			return;
+		}
+
+		@Override
+		boolean contains(int day) {
+			return (words[day / Long.SIZE] & 1L << (day % Long.SIZE)) != 0;
+		}
+
+		@Override
+		int next(int day) {
+			int w = day / Long.SIZE;
+			long word = words[w] & -1L << (day % Long.SIZE);
+			while (true) {
+				if (word != 0) {
+					return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+				}
+				if (++w == WORDS) {
+					return -1;
+				}
+				word = words[w];
+			}
+		}
+
+		@Override
+		int previous(int day) {
+			int w = day / Long.SIZE;
+			long word = words[w] & -1L >>> (Long.SIZE - 1 - day % Long.SIZE);
+			while (true) {
+				if (word != 0) {
+					return w * Long.SIZE + Long.SIZE - 1 - Long.numberOfLeadingZeros(word);
+				}
+				if (--w < 0) {
+					return -1;
+				}
+				word = words[w];
+			}
+		}
+
+		@Override
+		int cardinality() {
+			int result = 0;
+			for (long w : words) {
+				result += Long.bitCount(w);
+			}
+			return result;
+		}
+
+		@Override
+		long[] bits() {
+			return words.clone();
+		}
+
+		@Override
+		int sizeInBytes() {
+			return BITMAP_BYTES;
+		}
+
+		@Override
+		Encoding encoding() {
+			return Encoding.BITMAP;
+		}
+	}
+
+	/**
+	 * Chunk encoded as runs of consecutive days.
+	 */
+	private static final class RunChunk extends Chunk {
+		/**
+		 * Serial version UID
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * First day of each run, in ascending order
+		 */
+		private final short[] starts;
+
+		/**
+		 * Last day of each run
+		 */
+		private final short[] ends;
+
+		/**
+		 * Constructor
+		 *
+		 * @param starts first day of each run, in ascending order
+		 * @param ends   last day of each run
+		 */
+		private RunChunk(short[] starts, short[] ends) {
+			this.starts = starts;
+			this.ends = ends;
+			return;
+		}
+
+		/**
+		 * Returns a {@code RunChunk} containing the days set in {@code bits}.
+		 *
+		 * @param bits bitmap of days
+		 * @param runs number of runs
+		 * @return new object
+		 */
+		static RunChunk of(long[] bits, int runs) {
+			short[] starts = new short[runs];
+			short[] ends = new short[runs];
+			int n = -1;
+			boolean previous = false;
+			for (int day = 0; day < WORDS * Long.SIZE; day++) {
+				boolean set = (bits[day / Long.SIZE] & 1L << (day % Long.SIZE)) != 0;
+				if (set && !previous) {
+					starts[++n] = (short) day;
+				}
+				if (set) {
+					ends[n] = (short) day;
+				}
+				previous = set;
+			}
+			return new RunChunk(starts, ends);
+		}
+
+		/**
+		 * Returns index of the last run starting on or before {@code day}.
+		 *
+		 * @param day day of year, from {@code 0}
+		 * @return run index, or {@code -1} if there is none
+		 */
+		private int run(int day) {
+			int i = Arrays.binarySearch(starts, (short) day);
+			return i >= 0 ? i : -i - 2;
+		}
+
+		@Override
+		boolean contains(int day) {
+			int i = run(day);
+			return i >= 0 && day <= ends[i];
+		}
+
+		@Override
+		int next(int day) {
+			int i = run(day);
+			if (i >= 0 && day <= ends[i]) {
+				return day;
+			}
+			return i + 1 < starts.length ? starts[i + 1] : -1;
+		}
+
+		@Override
+		int previous(int day) {
+			int i = run(day);
+			return i >= 0 ? Math.min(day, ends[i]) : -1;
+		}
+
+		@Override
+		int cardinality() {
+			int result = 0;
+			for (int i = 0; i < starts.length; i++) {
+				result += ends[i] - starts[i] + 1;
+			}
+			return result;
+		}
+
+		@Override
+		long[] bits() {
+			long[] result = new long[WORDS];
+			for (int i = 0; i < starts.length; i++) {
+				for (int d = starts[i]; d <= ends[i]; d++) {
+					result[d / Long.SIZE] |= 1L << (d % Long.SIZE);
+				}
+			}
+			return result;
+		}
+
+		@Override
+		int sizeInBytes() {
+			return starts.length * 2 * Short.BYTES;
+		}
+
+		@Override
+		Encoding encoding() {
+			return Encoding.RUN;
+		}
+	}
+}
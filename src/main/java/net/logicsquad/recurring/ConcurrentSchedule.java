@@ -0,0 +1,587 @@
+package net.logicsquad.recurring;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A thread-safe, mutable {@link Schedule}. {@link ScheduleElement}s can be added, removed and replaced while other threads query the
+ * schedule.
+ * </p>
+ *
+ * <p>
+ * Every change publishes a new immutable snapshot through a {@code volatile} field, so reads take no locks and each query sees a single
+ * consistent set of elements. {@link #snapshot()} returns the current snapshot, so that several queries can be answered from the same
+ * elements. {@link ChangeListener}s are told which events each change affects.
+ * </p>
+ *
+ * <p>
+ * Changes are serialized by a lock. Each change rebuilds the per-event expressions and graph only for the events it affects, and adds
+ * only the new element's sub-expressions to the expression graph used by {@link #agenda(LocalDate)}: that graph's nodes are append-only,
+ * and shared by every snapshot. Nodes left unused by removals are discarded by rebuilding the graph once the number of nodes has doubled
+ * since the last rebuild, so the cost of rebuilding is spread over the changes that led to it. Each change does still copy the arrays of
+ * elements and root nodes, and the map from events to their expressions, which are references only; copying them keeps snapshots
+ * immutable, and is cheap beside evaluating expressions.
+ * </p>
+ *
+ * @param <T> type for {@link ScheduleElement}s and {@code event} objects
+ * @author paulh
+ * @since 0.5
+ */
+public final class ConcurrentSchedule<T> extends SeekableSchedule<T> {
+	/**
+	 * Receives notice of changes to a {@link ConcurrentSchedule}.
+	 *
+	 * @param <T> type for event
+	 */
+	@FunctionalInterface
+	public interface ChangeListener<T> {
+		/**
+		 * Called after a change affecting {@code event} has been published, while changes are still serialized. Implementations should
+		 * return quickly, and must not change the schedule.
+		 *
+		 * @param event event whose elements have changed
+		 */
+		void eventChanged(T event);
+	}
+
+	/**
+	 * Seeker for events not in a schedule, which never occur
+	 */
+	private static final Seeker NONE = Seeker.of();
+
+	/**
+	 * Serializes changes
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * Listeners for changes
+	 */
+	private final List<ChangeListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Builds {@link Snapshot#graph}, guarded by {@link #lock}
+	 */
+	private ExpressionGraph.Builder builder;
+
+	/**
+	 * Number of nodes in {@link #builder} when last rebuilt, guarded by {@link #lock}
+	 */
+	private int rebuiltSize;
+
+	/**
+	 * Current snapshot
+	 */
+	private volatile Snapshot<T> snapshot;
+
+	/**
+	 * Constructor
+	 *
+	 * @param elements initial {@link ScheduleElement}s, in schedule order
+	 * @param index    expressions of each event's elements
+	 */
+	private ConcurrentSchedule(ScheduleElement<T>[] elements, Map<T, EventIndex> index) {
+		this.snapshot = snapshot(elements, new int[elements.length], index);
+		return;
+	}
+
+	/**
+	 * Returns an empty {@code ConcurrentSchedule}.
+	 *
+	 * @param <T> type for event
+	 * @return new object
+	 */
+	public static <T> ConcurrentSchedule<T> of() {
+		return of(Collections.emptyList());
+	}
+
+	/**
+	 * Returns a {@code ConcurrentSchedule} initially composed of the {@link ScheduleElement}s in {@code elements}.
+	 *
+	 * @param <T>      type for event
+	 * @param elements a {@link List} of {@link ScheduleElement}s
+	 * @return new object
+	 * @throws NullPointerException if {@code elements} (or any element) is {@code null}
+	 */
+	public static <T> ConcurrentSchedule<T> of(List<ScheduleElement<T>> elements) {
+		Objects.requireNonNull(elements);
+		Map<T, List<TemporalExpression>> expressions = new HashMap<>();
+		for (ScheduleElement<T> e : elements) {
+			Objects.requireNonNull(e);
+			expressions.computeIfAbsent(e.event(), k -> new ArrayList<>()).add(e.expression());
+		}
+		Map<T, EventIndex> index = new HashMap<>();
+		for (Map.Entry<T, List<TemporalExpression>> e : expressions.entrySet()) {
+			index.put(e.getKey(), new EventIndex(e.getValue().toArray(new TemporalExpression[0])));
+		}
+		return new ConcurrentSchedule<>(elements.toArray(newArray(elements.size())), index);
+	}
+
+	/**
+	 * Adds {@code element} to the end of this schedule.
+	 *
+	 * @param element a {@link ScheduleElement}
+	 * @throws NullPointerException if {@code element} is {@code null}
+	 */
+	public void add(ScheduleElement<T> element) {
+		Objects.requireNonNull(element);
+		synchronized (lock) {
+			Snapshot<T> current = snapshot;
+			ScheduleElement<T>[] elements = Arrays.copyOf(current.elements, current.elements.length + 1);
+			elements[elements.length - 1] = element;
+			int[] roots = Arrays.copyOf(current.roots, elements.length);
+			roots[roots.length - 1] = builder.add(element.expression());
+			Map<T, EventIndex> index = new HashMap<>(current.index);
+			index.put(element.event(), EventIndex.append(index.get(element.event()), element.expression()));
+			snapshot = snapshot(elements, roots, index);
+			fireEventChanged(element.event());
+		}
+		return;
+	}
+
+	/**
+	 * Removes {@code element} from this schedule.
+	 *
+	 * @param element a {@link ScheduleElement} previously added
+	 * @return {@code true} if {@code element} was removed, otherwise {@code false}
+	 */
+	public boolean remove(ScheduleElement<T> element) {
+		synchronized (lock) {
+			Snapshot<T> current = snapshot;
+			int i = current.indexOf(element);
+			if (i < 0) {
+				return false;
+			}
+			ScheduleElement<T>[] elements = Arrays.copyOf(current.elements, current.elements.length - 1);
+			System.arraycopy(current.elements, i + 1, elements, i, elements.length - i);
+			int[] roots = Arrays.copyOf(current.roots, elements.length);
+			System.arraycopy(current.roots, i + 1, roots, i, roots.length - i);
+			Map<T, EventIndex> index = new HashMap<>(current.index);
+			reindex(index, elements, element.event());
+			snapshot = snapshot(elements, roots, index);
+			fireEventChanged(element.event());
+			return true;
+		}
+	}
+
+	/**
+	 * Replaces {@code existing} with {@code replacement}, in the same position in this schedule.
+	 *
+	 * @param existing    a {@link ScheduleElement} previously added
+	 * @param replacement a {@link ScheduleElement} to take its place
+	 * @return {@code true} if {@code existing} was replaced, otherwise {@code false}
+	 * @throws NullPointerException if {@code replacement} is {@code null}
+	 */
+	public boolean replace(ScheduleElement<T> existing, ScheduleElement<T> replacement) {
+		Objects.requireNonNull(replacement);
+		synchronized (lock) {
+			Snapshot<T> current = snapshot;
+			int i = current.indexOf(existing);
+			if (i < 0) {
+				return false;
+			}
+			ScheduleElement<T>[] elements = current.elements.clone();
+			elements[i] = replacement;
+			int[] roots = current.roots.clone();
+			roots[i] = builder.add(replacement.expression());
+			Map<T, EventIndex> index = new HashMap<>(current.index);
+			reindex(index, elements, existing.event());
+			reindex(index, elements, replacement.event());
+			snapshot = snapshot(elements, roots, index);
+			fireEventChanged(existing.event());
+			if (!Objects.equals(existing.event(), replacement.event())) {
+				fireEventChanged(replacement.event());
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Adds {@code listener}, to be told of each subsequent change.
+	 *
+	 * @param listener a {@link ChangeListener}
+	 * @throws NullPointerException if {@code listener} is {@code null}
+	 */
+	public void addListener(ChangeListener<T> listener) {
+		listeners.add(Objects.requireNonNull(listener));
+		return;
+	}
+
+	/**
+	 * Removes {@code listener}.
+	 *
+	 * @param listener a {@link ChangeListener} previously added
+	 * @return {@code true} if {@code listener} was removed, otherwise {@code false}
+	 */
+	public boolean removeListener(ChangeListener<T> listener) {
+		return listeners.remove(listener);
+	}
+
+	/**
+	 * Returns the current contents of this schedule as an immutable {@link Schedule}, unaffected by later changes.
+	 *
+	 * @return snapshot
+	 */
+	public Schedule<T> snapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Returns the number of {@link ScheduleElement}s in this schedule.
+	 *
+	 * @return number of elements
+	 */
+	public int size() {
+		return snapshot.elements.length;
+	}
+
+	@Override
+	public boolean isOccurring(T event, LocalDate date) {
+		return snapshot.isOccurring(event, date);
+	}
+
+	@Override
+	public List<LocalDate> datesInRange(T event, LocalDate start, LocalDate end) {
+		return snapshot.datesInRange(event, start, end);
+	}
+
+	@Override
+	public Stream<LocalDate> futureDates(T event, LocalDate start) {
+		return snapshot.futureDates(event, start);
+	}
+
+	@Override
+	public Stream<LocalDate> pastDates(T event, LocalDate start) {
+		return snapshot.pastDates(event, start);
+	}
+
+	@Override
+	public LocalDate nextOccurrence(T event, LocalDate date) {
+		return snapshot.nextOccurrence(event, date);
+	}
+
+	@Override
+	public LocalDate previousOccurrence(T event, LocalDate date) {
+		return snapshot.previousOccurrence(event, date);
+	}
+
+	@Override
+	public List<T> agenda(LocalDate date) {
+		return snapshot.agenda(date);
+	}
+
+	@Override
+	public Set<T> events() {
+		return snapshot.events();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": ")
+				.append(Arrays.stream(snapshot.elements).map(e -> e.toString()).collect(Collectors.joining(", "))).append(']');
+		return sb.toString();
+	}
+
+	@Override
+	LocalDate seek(T event, LocalDate date, LocalDate limit) {
+		return snapshot.seek(event, date, limit);
+	}
+
+	/**
+	 * Tells each of {@link #listeners} that {@code event} has changed.
+	 *
+	 * @param event event whose elements have changed
+	 */
+	private void fireEventChanged(T event) {
+		for (ChangeListener<T> l : listeners) {
+			l.eventChanged(event);
+		}
+		return;
+	}
+
+	/**
+	 * Returns a {@link Snapshot} of {@code elements}, whose graph has the nodes at {@code roots} as its roots. If {@link #builder} has
+	 * doubled in size since it was last rebuilt, first rebuilds it from {@code elements} alone, discarding nodes no longer used, and
+	 * overwrites {@code roots} with the new nodes. Called with {@link #lock} held (or from the constructor).
+	 *
+	 * @param elements {@link ScheduleElement}s, in schedule order
+	 * @param roots    index of the node in {@link #builder} for each element's expression
+	 * @param index    expressions of each event's elements
+	 * @return new {@link Snapshot}
+	 */
+	private Snapshot<T> snapshot(ScheduleElement<T>[] elements, int[] roots, Map<T, EventIndex> index) {
+		if (builder == null || builder.size() > 2 * rebuiltSize) {
+			builder = new ExpressionGraph.Builder();
+			for (int i = 0; i < elements.length; i++) {
+				roots[i] = builder.add(elements[i].expression());
+			}
+			rebuiltSize = builder.size();
+		}
+		return new Snapshot<>(elements, roots, index, builder.build(roots));
+	}
+
+	/**
+	 * Returns a new array of {@link ScheduleElement}s. Java cannot create an array of a generic type, so this creates an array of the raw
+	 * type, which is safe as it only ever holds {@code ScheduleElement<T>}s.
+	 *
+	 * @param <T>  type for event
+	 * @param size length of array
+	 * @return new array
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> ScheduleElement<T>[] newArray(int size) {
+		return (ScheduleElement<T>[]) new ScheduleElement<?>[size];
+	}
+
+	/**
+	 * Rebuilds the entry in {@code index} for {@code event} from {@code elements}.
+	 *
+	 * @param <T>      type for event
+	 * @param index    index from events to expressions
+	 * @param elements elements in schedule order
+	 * @param event    event whose entry is rebuilt
+	 */
+	private static <T> void reindex(Map<T, EventIndex> index, ScheduleElement<T>[] elements, T event) {
+		List<TemporalExpression> expressions = new ArrayList<>();
+		for (ScheduleElement<T> e : elements) {
+			if (e.event().equals(event)) {
+				expressions.add(e.expression());
+			}
+		}
+		if (expressions.isEmpty()) {
+			index.remove(event);
+		} else {
+			index.put(event, new EventIndex(expressions.toArray(new TemporalExpression[0])));
+		}
+		return;
+	}
+
+	/**
+	 * Expressions of one event's elements, in schedule order, the same expressions merged into a graph, and a {@link Seeker} over them.
+	 * Built once per change to the event, and shared by every snapshot until the next.
+	 */
+	private static final class EventIndex {
+		/**
+		 * Expressions of the event's elements, in schedule order
+		 */
+		private final TemporalExpression[] expressions;
+
+		/**
+		 * {@link #expressions} merged into a graph
+		 */
+		private final ExpressionGraph graph;
+
+		/**
+		 * Seeker over {@link #expressions}
+		 */
+		private final Seeker seeker;
+
+		/**
+		 * Constructor
+		 *
+		 * @param expressions expressions of the event's elements, in schedule order
+		 */
+		EventIndex(TemporalExpression[] expressions) {
+			this.expressions = expressions;
+			this.graph = ExpressionGraph.of(Arrays.asList(expressions));
+			this.seeker = Seeker.of(expressions);
+			return;
+		}
+
+		/**
+		 * Returns an {@code EventIndex} with {@code expression} appended to those of {@code index}.
+		 *
+		 * @param index      existing index, or {@code null}
+		 * @param expression expression to append
+		 * @return new object
+		 */
+		static EventIndex append(EventIndex index, TemporalExpression expression) {
+			if (index == null) {
+				return new EventIndex(new TemporalExpression[] { expression });
+			}
+			TemporalExpression[] result = Arrays.copyOf(index.expressions, index.expressions.length + 1);
+			result[index.expressions.length] = expression;
+			return new EventIndex(result);
+		}
+	}
+
+	/**
+	 * Immutable contents of a {@link ConcurrentSchedule} at one point in time.
+	 *
+	 * @param <T> type for {@link ScheduleElement}s and {@code event} objects
+	 */
+	private static final class Snapshot<T> extends SeekableSchedule<T> {
+		/**
+		 * {@link ScheduleElement}s, in schedule order
+		 */
+		private final ScheduleElement<T>[] elements;
+
+		/**
+		 * Index of the node in {@link #graph} for each of {@link #elements}
+		 */
+		private final int[] roots;
+
+		/**
+		 * Expressions of each event's elements, in schedule order, and their graph
+		 */
+		private final Map<T, EventIndex> index;
+
+		/**
+		 * Expressions of {@link #elements} merged into a single graph
+		 */
+		private final ExpressionGraph graph;
+
+		/**
+		 * Constructor
+		 *
+		 * @param elements {@link ScheduleElement}s, in schedule order
+		 * @param roots    index of the node in {@code graph} for each element
+		 * @param index    expressions of each event's elements
+		 * @param graph    expressions of {@code elements} merged into a single graph
+		 */
+		Snapshot(ScheduleElement<T>[] elements, int[] roots, Map<T, EventIndex> index, ExpressionGraph graph) {
+			this.elements = elements;
+			this.roots = roots;
+			this.index = index;
+			this.graph = graph;
+			return;
+		}
+
+		@Override
+		public boolean isOccurring(T event, LocalDate date) {
+			EventIndex entry = index.get(event);
+			return entry != null && isOccurring(entry.expressions, date);
+		}
+
+		@Override
+		public List<LocalDate> datesInRange(T event, LocalDate start, LocalDate end) {
+			List<LocalDate> result = new ArrayList<>();
+			EventIndex entry = index.get(event);
+			if (entry == null) {
+				return result;
+			}
+			// Share evaluation of common sub-expressions across this event's elements
+			ExpressionGraph.Evaluation evaluation = entry.graph.evaluation();
+			for (LocalDate cursor = start; !cursor.isAfter(end); cursor = cursor.plusDays(1)) {
+				evaluation.reset(cursor);
+				for (int i = 0; i < entry.expressions.length; i++) {
+					if (evaluation.includes(i)) {
+						result.add(cursor);
+						break;
+					}
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public Stream<LocalDate> futureDates(T event, LocalDate start) {
+			return Stream.iterate(nextOccurrence(event, start), seed -> nextOccurrence(event, seed.plusDays(1)));
+		}
+
+		@Override
+		public Stream<LocalDate> pastDates(T event, LocalDate start) {
+			return Stream.iterate(previousOccurrence(event, start), seed -> previousOccurrence(event, seed.minusDays(1)));
+		}
+
+		@Override
+		public LocalDate nextOccurrence(T event, LocalDate date) {
+			return seeker(event).next(date, null);
+		}
+
+		@Override
+		public LocalDate previousOccurrence(T event, LocalDate date) {
+			return seeker(event).previous(date, null);
+		}
+
+		@Override
+		LocalDate seek(T event, LocalDate date, LocalDate limit) {
+			return seeker(event).seek(date, limit, null);
+		}
+
+		@Override
+		public List<T> agenda(LocalDate date) {
+			Set<T> result = new LinkedHashSet<>();
+			ExpressionGraph.Evaluation evaluation = graph.evaluation();
+			evaluation.reset(date);
+			for (int i = 0; i < elements.length; i++) {
+				if (!result.contains(elements[i].event()) && evaluation.includes(i)) {
+					result.add(elements[i].event());
+				}
+			}
+			return new ArrayList<>(result);
+		}
+
+		@Override
+		public Set<T> events() {
+			Set<T> result = new LinkedHashSet<>();
+			for (ScheduleElement<T> e : elements) {
+				result.add(e.event());
+			}
+			return Collections.unmodifiableSet(result);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append('[').append(this.getClass().getSimpleName()).append(": ")
+					.append(Arrays.stream(elements).map(e -> e.toString()).collect(Collectors.joining(", "))).append(']');
+			return sb.toString();
+		}
+
+		/**
+		 * Returns index of {@code element} in {@link #elements}.
+		 *
+		 * @param element a {@link ScheduleElement}
+		 * @return index, or {@code -1} if absent
+		 */
+		int indexOf(ScheduleElement<T> element) {
+			for (int i = 0; i < elements.length; i++) {
+				if (elements[i].equals(element)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Returns the {@link Seeker} over expressions of {@code event}'s elements.
+		 *
+		 * @param event object representing an event
+		 * @return {@link Seeker}, which finds no dates if {@code event} is not in this snapshot
+		 */
+		private Seeker seeker(T event) {
+			EventIndex entry = index.get(event);
+			return entry == null ? NONE : entry.seeker;
+		}
+
+		/**
+		 * Does any of {@code expressions} include {@code date}?
+		 *
+		 * @param expressions expressions of one event's elements
+		 * @param date        a {@link LocalDate}
+		 * @return {@code true} if any expression includes {@code date}, otherwise {@code false}
+		 */
+		private static boolean isOccurring(TemporalExpression[] expressions, LocalDate date) {
+			for (TemporalExpression e : expressions) {
+				if (e.includes(date)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
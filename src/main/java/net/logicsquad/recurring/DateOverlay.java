@@ -0,0 +1,357 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * <p>
+ * A {@link TemporalExpression} that adds explicit dates to, and removes explicit dates from, a base expression, in the manner of iCalendar's
+ * {@code RDATE} and {@code EXDATE}. A removed date is never included, even if it is also added.
+ * </p>
+ *
+ * <p>
+ * Added and removed dates are held as sorted arrays of {@code int} epoch days, so {@link #includes(LocalDate)} costs a binary search of each
+ * before it consults the base expression, however many dates there are. {@link #next(LocalDate)} and {@link #previous(LocalDate)} seek
+ * the base expression, if it can, skipping removed dates, and take the nearer of the date found and the nearest added date. A base
+ * expression that cannot seek is searched day by day instead, as far as the nearest added date, or for at most eight years if there is
+ * none.
+ * </p>
+ *
+ * <p>
+ * {@link ScheduleElement#of(Object, TemporalExpression, Collection, Collection)} attaches a {@code DateOverlay} to an element.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class DateOverlay implements SeekableExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Base expression
+	 */
+	private final TemporalExpression base;
+
+	/**
+	 * Epoch days of added dates, sorted and distinct, and excluding any removed date
+	 */
+	private final int[] added;
+
+	/**
+	 * Epoch days of removed dates, sorted and distinct
+	 */
+	private final int[] removed;
+
+	/**
+	 * Constructor
+	 *
+	 * @param base    base expression
+	 * @param added   epoch days of added dates, sorted and distinct, and excluding any removed date
+	 * @param removed epoch days of removed dates, sorted and distinct
+	 */
+	private DateOverlay(TemporalExpression base, int[] added, int[] removed) {
+		this.base = base;
+		this.added = added;
+		this.removed = removed;
+		return;
+	}
+
+	/**
+	 * Returns a {@code DateOverlay} including each date included by {@code base} or in {@code added}, except those in {@code removed}. If
+	 * {@code base} is itself a {@code DateOverlay}, the result overlays {@code added} and {@code removed} on it, with the same base.
+	 *
+	 * @param base    base expression
+	 * @param added   dates to add
+	 * @param removed dates to remove
+	 * @return new object
+	 * @throws NullPointerException     if any argument, or any date, is {@code null}
+	 * @throws IllegalArgumentException if any date's epoch day is outside the range of {@code int}
+	 */
+	public static DateOverlay of(TemporalExpression base, Collection<LocalDate> added, Collection<LocalDate> removed) {
+		Objects.requireNonNull(base);
+		TreeSet<Integer> adds = epochDays(added);
+		TreeSet<Integer> removes = epochDays(removed);
+		TemporalExpression expression = base;
+		if (base instanceof DateOverlay) {
+			DateOverlay inner = (DateOverlay) base;
+			// Dates added here restore dates removed by inner
+			for (int day : inner.removed) {
+				if (!adds.contains(day)) {
+					removes.add(day);
+				}
+			}
+			for (int day : inner.added) {
+				adds.add(day);
+			}
+			expression = inner.base;
+		}
+		adds.removeAll(removes);
+		return new DateOverlay(expression, toArray(adds), toArray(removes));
+	}
+
+	@Override
+	public boolean includes(LocalDate date) {
+		long day = date.toEpochDay();
+		if (day >= Integer.MIN_VALUE && day <= Integer.MAX_VALUE) {
+			if (Arrays.binarySearch(removed, (int) day) >= 0) {
+				return false;
+			}
+			if (Arrays.binarySearch(added, (int) day) >= 0) {
+				return true;
+			}
+		}
+		return base.includes(date);
+	}
+
+	/**
+	 * Returns the earliest date included by this {@code DateOverlay} on or after {@code date}. If the base expression cannot seek, and there
+	 * is no later added date, it is searched for at most eight years.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return next date, or {@code null} if there is none
+	 */
+	@Override
+	public LocalDate next(LocalDate date) {
+		int a = ceiling(added, date.toEpochDay());
+		long nextAdded = a < added.length ? added[a] : Long.MAX_VALUE;
+		LocalDate result = nextBase(date, nextAdded);
+		if (result != null) {
+			return result;
+		}
+		return nextAdded == Long.MAX_VALUE ? null : LocalDate.ofEpochDay(nextAdded);
+	}
+
+	/**
+	 * Returns the latest date included by this {@code DateOverlay} on or before {@code date}. If the base expression cannot seek, and there
+	 * is no earlier added date, it is searched for at most eight years.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return previous date, or {@code null} if there is none
+	 */
+	@Override
+	public LocalDate previous(LocalDate date) {
+		int a = ceiling(added, date.toEpochDay() + 1) - 1;
+		long previousAdded = a >= 0 ? added[a] : Long.MIN_VALUE;
+		LocalDate result = previousBase(date, previousAdded);
+		if (result != null) {
+			return result;
+		}
+		return previousAdded == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(previousAdded);
+	}
+
+	/**
+	 * Can this {@code DateOverlay} seek? Only if its base expression can: otherwise {@link #next(LocalDate)} and
+	 * {@link #previous(LocalDate)} are limited to a horizon, and so may miss dates.
+	 *
+	 * @return {@code true} if the base expression can seek, otherwise {@code false}
+	 */
+	@Override
+	public boolean canSeek() {
+		return base instanceof SeekableExpression && ((SeekableExpression) base).canSeek();
+	}
+
+	/**
+	 * Returns base expression.
+	 *
+	 * @return base expression
+	 */
+	public TemporalExpression base() {
+		return base;
+	}
+
+	/**
+	 * Returns added dates, excluding any that are also removed.
+	 *
+	 * @return unmodifiable list of dates in ascending order
+	 */
+	public List<LocalDate> added() {
+		return dates(added);
+	}
+
+	/**
+	 * Returns removed dates.
+	 *
+	 * @return unmodifiable list of dates in ascending order
+	 */
+	public List<LocalDate> removed() {
+		return dates(removed);
+	}
+
+	/**
+	 * Returns the earliest date on or after {@code date}, and before epoch day {@code limit}, included by the base expression and not
+	 * removed.
+	 *
+	 * @param date  a {@link LocalDate}
+	 * @param limit epoch day at which to stop, or {@link Long#MAX_VALUE} to search for at most {@link Seeker#HORIZON_DAYS} days
+	 * @return date, or {@code null} if there is none
+	 */
+	private LocalDate nextBase(LocalDate date, long limit) {
+		long from = date.toEpochDay();
+		int r = ceiling(removed, from);
+		if (canSeek()) {
+			SeekableExpression seekable = (SeekableExpression) base;
+			for (LocalDate candidate = seekable.next(date); candidate != null && candidate.toEpochDay() < limit; candidate = seekable
+					.next(candidate.plusDays(1))) {
+				long day = candidate.toEpochDay();
+				while (r < removed.length && removed[r] < day) {
+					r++;
+				}
+				if (r == removed.length || removed[r] != day) {
+					return candidate;
+				}
+			}
+			return null;
+		}
+		long end = limit == Long.MAX_VALUE ? from + Seeker.HORIZON_DAYS + 1 : limit;
+		for (long day = from; day < end; day++) {
+			while (r < removed.length && removed[r] < day) {
+				r++;
+			}
+			if (r < removed.length && removed[r] == day) {
+				continue;
+			}
+			LocalDate candidate = LocalDate.ofEpochDay(day);
+			if (base.includes(candidate)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the latest date on or before {@code date}, and after epoch day {@code limit}, included by the base expression and not removed.
+	 *
+	 * @param date  a {@link LocalDate}
+	 * @param limit epoch day at which to stop, or {@link Long#MIN_VALUE} to search for at most {@link Seeker#HORIZON_DAYS} days
+	 * @return date, or {@code null} if there is none
+	 */
+	private LocalDate previousBase(LocalDate date, long limit) {
+		long from = date.toEpochDay();
+		int r = ceiling(removed, from + 1) - 1;
+		if (canSeek()) {
+			SeekableExpression seekable = (SeekableExpression) base;
+			for (LocalDate candidate = seekable.previous(date); candidate != null && candidate.toEpochDay() > limit; candidate = seekable
+					.previous(candidate.minusDays(1))) {
+				long day = candidate.toEpochDay();
+				while (r >= 0 && removed[r] > day) {
+					r--;
+				}
+				if (r < 0 || removed[r] != day) {
+					return candidate;
+				}
+			}
+			return null;
+		}
+		long end = limit == Long.MIN_VALUE ? from - Seeker.HORIZON_DAYS - 1 : limit;
+		for (long day = from; day > end; day--) {
+			while (r >= 0 && removed[r] > day) {
+				r--;
+			}
+			if (r >= 0 && removed[r] == day) {
+				continue;
+			}
+			LocalDate candidate = LocalDate.ofEpochDay(day);
+			if (base.includes(candidate)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the index of the first element of {@code days} not less than {@code day}, or {@code days.length} if there is none.
+	 *
+	 * @param days sorted epoch days
+	 * @param day  an epoch day
+	 * @return index
+	 */
+	private static int ceiling(int[] days, long day) {
+		if (day > Integer.MAX_VALUE) {
+			return days.length;
+		} else if (day < Integer.MIN_VALUE) {
+			return 0;
+		}
+		int index = Arrays.binarySearch(days, (int) day);
+		return index >= 0 ? index : -index - 1;
+	}
+
+	/**
+	 * Returns epoch days of {@code dates}.
+	 *
+	 * @param dates dates
+	 * @return sorted set of epoch days
+	 * @throws NullPointerException     if {@code dates}, or any date, is {@code null}
+	 * @throws IllegalArgumentException if any date's epoch day is outside the range of {@code int}
+	 */
+	private static TreeSet<Integer> epochDays(Collection<LocalDate> dates) {
+		Objects.requireNonNull(dates);
+		TreeSet<Integer> result = new TreeSet<>();
+		for (LocalDate date : dates) {
+			long day = date.toEpochDay();
+			if (day < Integer.MIN_VALUE || day > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Date " + date + " out of range.");
+			}
+			result.add((int) day);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns {@code days} as an array.
+	 *
+	 * @param days sorted epoch days
+	 * @return sorted array
+	 */
+	private static int[] toArray(TreeSet<Integer> days) {
+		return days.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Returns {@code days} as dates.
+	 *
+	 * @param days sorted epoch days
+	 * @return unmodifiable list of dates
+	 */
+	private static List<LocalDate> dates(int[] days) {
+		List<LocalDate> result = new ArrayList<>(days.length);
+		for (int day : days) {
+			result.add(LocalDate.ofEpochDay(day));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DateOverlay)) {
+			return false;
+		}
+		DateOverlay other = (DateOverlay) obj;
+		return base.equals(other.base) && Arrays.equals(added, other.added) && Arrays.equals(removed, other.removed);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * base.hashCode() + Arrays.hashCode(added)) + Arrays.hashCode(removed);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": base=").append(base).append(" added=").append(added())
+				.append(" removed=").append(removed()).append(']');
+		return sb.toString();
+	}
+}
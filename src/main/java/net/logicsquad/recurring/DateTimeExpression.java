@@ -0,0 +1,111 @@
+package net.logicsquad.recurring;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@code DateTimeExpression} describes some set of date-times in a compact way, such as "every weekday at 09:00 and 14:30". Where a
+ * {@link TemporalExpression} says which days match, a {@code DateTimeExpression} also says at which times on those days. As well as
+ * reporting whether an arbitrary date-time matches it, a {@code DateTimeExpression} can seek to the nearest matching date-time in either
+ * direction.
+ *
+ * @author paulh
+ * @see TimedExpression
+ * @see DateTimeUnion
+ * @since 0.5
+ */
+public interface DateTimeExpression {
+	/**
+	 * Is {@code dateTime} included by this {@code DateTimeExpression}?
+	 *
+	 * @param dateTime a {@link LocalDateTime}
+	 * @return {@code true} if this object includes {@code dateTime}, otherwise {@code false}
+	 */
+	boolean includes(LocalDateTime dateTime);
+
+	/**
+	 * Returns the earliest date-time included by this {@code DateTimeExpression} at or after {@code dateTime}, or {@code null} if there is
+	 * none within eight years.
+	 *
+	 * @param dateTime a {@link LocalDateTime}
+	 * @return next date-time, or {@code null}
+	 */
+	LocalDateTime next(LocalDateTime dateTime);
+
+	/**
+	 * Returns the latest date-time included by this {@code DateTimeExpression} at or before {@code dateTime}, or {@code null} if there is
+	 * none within eight years.
+	 *
+	 * @param dateTime a {@link LocalDateTime}
+	 * @return previous date-time, or {@code null}
+	 */
+	LocalDateTime previous(LocalDateTime dateTime);
+
+	/**
+	 * Returns the earliest date-time included by this {@code DateTimeExpression} from {@code dateTime} to {@code limit} (inclusive), or
+	 * {@code null} if there is none. Implementations should search no further than {@code limit}; this default filters the result of
+	 * {@link #next(LocalDateTime)}.
+	 *
+	 * @param dateTime a {@link LocalDateTime}
+	 * @param limit    latest date-time to return
+	 * @return next date-time, or {@code null}
+	 */
+	default LocalDateTime next(LocalDateTime dateTime, LocalDateTime limit) {
+		LocalDateTime result = next(dateTime);
+		return result == null || result.isAfter(limit) ? null : result;
+	}
+
+	/**
+	 * Returns the latest date-time included by this {@code DateTimeExpression} from {@code limit} to {@code dateTime} (inclusive), or
+	 * {@code null} if there is none. Implementations should search no further back than {@code limit}; this default filters the result of
+	 * {@link #previous(LocalDateTime)}.
+	 *
+	 * @param dateTime a {@link LocalDateTime}
+	 * @param limit    earliest date-time to return
+	 * @return previous date-time, or {@code null}
+	 */
+	default LocalDateTime previous(LocalDateTime dateTime, LocalDateTime limit) {
+		LocalDateTime result = previous(dateTime);
+		return result == null || result.isBefore(limit) ? null : result;
+	}
+
+	/**
+	 * Returns the date-times included by this {@code DateTimeExpression} between {@code start} and {@code end} (inclusive), in order. The
+	 * stream is lazy, and each step seeks with {@link #next(LocalDateTime, LocalDateTime)}, so searches stop at {@code end}.
+	 *
+	 * @param start start date-time
+	 * @param end   end date-time
+	 * @return stream of date-times
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	default Stream<LocalDateTime> between(LocalDateTime start, LocalDateTime end) {
+		Objects.requireNonNull(start);
+		Objects.requireNonNull(end);
+		Iterator<LocalDateTime> iterator = new Iterator<LocalDateTime>() {
+			private LocalDateTime next = start.isAfter(end) ? null : DateTimeExpression.this.next(start, end);
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public LocalDateTime next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				LocalDateTime result = next;
+				next = result.equals(end) ? null : DateTimeExpression.this.next(result.plusNanos(1), end);
+				return result;
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL),
+				false);
+	}
+}
@@ -0,0 +1,147 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link DateTimeExpression} matching any date-time matched by one or more of its member expressions, such as "weekdays at 09:00 and
+ * Saturdays at 10:30". {@link #next(LocalDateTime)} and {@link #previous(LocalDateTime)} seek each member and take the nearest result; the bounded forms
+ * narrow each member's search to the nearest result so far.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class DateTimeUnion implements DateTimeExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Member expressions
+	 */
+	private final List<DateTimeExpression> expressions;
+
+	/**
+	 * Constructor
+	 *
+	 * @param expressions member expressions
+	 */
+	private DateTimeUnion(List<DateTimeExpression> expressions) {
+		this.expressions = expressions;
+		return;
+	}
+
+	/**
+	 * Returns a {@code DateTimeUnion} of {@code expressions}.
+	 *
+	 * @param expressions member expressions
+	 * @return new object
+	 * @throws NullPointerException if {@code expressions}, or any of its members, is {@code null}
+	 */
+	public static DateTimeUnion of(List<DateTimeExpression> expressions) {
+		Objects.requireNonNull(expressions);
+		for (DateTimeExpression e : expressions) {
+			Objects.requireNonNull(e);
+		}
+		return new DateTimeUnion(Collections.unmodifiableList(new ArrayList<>(expressions)));
+	}
+
+	/**
+	 * Returns a {@code DateTimeUnion} of {@code expressions}.
+	 *
+	 * @param expressions member expressions
+	 * @return new object
+	 * @throws NullPointerException if any of {@code expressions} is {@code null}
+	 */
+	public static DateTimeUnion of(DateTimeExpression... expressions) {
+		return of(Arrays.asList(expressions));
+	}
+
+	@Override
+	public boolean includes(LocalDateTime dateTime) {
+		for (DateTimeExpression e : expressions) {
+			if (e.includes(dateTime)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public LocalDateTime next(LocalDateTime dateTime) {
+		LocalDateTime result = null;
+		for (DateTimeExpression e : expressions) {
+			LocalDateTime candidate = e.next(dateTime);
+			if (candidate != null && (result == null || candidate.isBefore(result))) {
+				result = candidate;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public LocalDateTime previous(LocalDateTime dateTime) {
+		LocalDateTime result = null;
+		for (DateTimeExpression e : expressions) {
+			LocalDateTime candidate = e.previous(dateTime);
+			if (candidate != null && (result == null || candidate.isAfter(result))) {
+				result = candidate;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public LocalDateTime next(LocalDateTime dateTime, LocalDateTime limit) {
+		LocalDateTime result = null;
+		for (DateTimeExpression e : expressions) {
+			// Once a member has a candidate, the rest need search no further than it
+			LocalDateTime candidate = e.next(dateTime, result == null ? limit : result);
+			if (candidate != null) {
+				result = candidate;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public LocalDateTime previous(LocalDateTime dateTime, LocalDateTime limit) {
+		LocalDateTime result = null;
+		for (DateTimeExpression e : expressions) {
+			LocalDateTime candidate = e.previous(dateTime, result == null ? limit : result);
+			if (candidate != null) {
+				result = candidate;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DateTimeUnion)) {
+			return false;
+		}
+		return expressions.equals(((DateTimeUnion) obj).expressions);
+	}
+
+	@Override
+	public int hashCode() {
+		return expressions.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": ").append(expressions).append(']');
+		return sb.toString();
+	}
+}
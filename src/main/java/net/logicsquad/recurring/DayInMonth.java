@@ -1,9 +1,8 @@
 package net.logicsquad.recurring;
 
+import java.io.Serializable;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
-import java.time.temporal.TemporalAdjusters;
 import java.util.Objects;
 
 /**
@@ -12,7 +11,12 @@ import java.util.Objects;
  *
  * @author paulh
  */
-public final class DayInMonth implements TemporalExpression {
+public final class DayInMonth implements TemporalExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Maximum number of weeks in any month
 	 */
@@ -23,6 +27,21 @@ public final class DayInMonth implements TemporalExpression {
 	 */
 	private static final int DAYS_IN_WEEK = 7;
 
+	/**
+	 * Shared instances, indexed by {@link DayOfWeek#ordinal()} and {@code ordinal + MAX_WEEKS_IN_MONTH}
+	 */
+	private static final DayInMonth[][] INSTANCES = new DayInMonth[DAYS_IN_WEEK][2 * MAX_WEEKS_IN_MONTH + 1];
+
+	static {
+		for (DayOfWeek day : DayOfWeek.values()) {
+			for (int ordinal = -MAX_WEEKS_IN_MONTH; ordinal <= MAX_WEEKS_IN_MONTH; ordinal++) {
+				if (ordinal != 0) {
+					INSTANCES[day.ordinal()][ordinal + MAX_WEEKS_IN_MONTH] = new DayInMonth(day, ordinal);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Ordinal position within month
 	 */
@@ -45,9 +64,7 @@ public final class DayInMonth implements TemporalExpression {
 	 */
 	private DayInMonth(DayOfWeek day, int ordinal) {
 		Objects.requireNonNull(day);
-		if (ordinal == 0 || ordinal < -MAX_WEEKS_IN_MONTH || ordinal > MAX_WEEKS_IN_MONTH) {
-			throw new IllegalArgumentException("ordinal=" + ordinal + " is not in [-5, 5] excluding 0.");
-		}
+		checkOrdinal(ordinal);
 		this.day = day;
 		this.ordinal = ordinal;
 		return;
@@ -56,75 +73,104 @@ public final class DayInMonth implements TemporalExpression {
 	/**
 	 * Returns {@link DayInMonth} with day of week {@code day} and ordinal
 	 * {@code ordinal}. That is, the {@code ordinal}th {@code day} in the month.
+	 * There are only 70 such expressions, so this method returns a shared
+	 * instance.
 	 *
 	 * @param day
 	 *            day of week
 	 * @param ordinal
 	 *            ordinal within month
 	 * @return {@link DayInMonth}
+	 * @throws NullPointerException
+	 *             if {@code day} is {@code null}
+	 * @throws IllegalArgumentException
+	 *             if {@code ordinal} is not in {@code [-5, 5]}, <em>excluding</em>
+	 *             {@code 0}
 	 */
 	public static DayInMonth of(DayOfWeek day, int ordinal) {
-		return new DayInMonth(day, ordinal);
+		Objects.requireNonNull(day);
+		checkOrdinal(ordinal);
+		return INSTANCES[day.ordinal()][ordinal + MAX_WEEKS_IN_MONTH];
+	}
+
+	/**
+	 * Checks that {@code ordinal} is in the range {@code [-5, 5]}, <em>excluding</em> {@code 0}.
+	 *
+	 * @param ordinal ordinal position within a month
+	 * @throws IllegalArgumentException if {@code ordinal} is not in {@code [-5, 5]}, <em>excluding</em> {@code 0}
+	 */
+	private static void checkOrdinal(int ordinal) {
+		if (ordinal == 0 || ordinal < -MAX_WEEKS_IN_MONTH || ordinal > MAX_WEEKS_IN_MONTH) {
+			throw new IllegalArgumentException("ordinal=" + ordinal + " is not in [-5, 5] excluding 0.");
+		}
+		return;
 	}
 
 	@Override
 	public boolean includes(LocalDate date) {
-		return dayMatches(date) && weekMatches(date);
+		return matches(day, ordinal, date);
 	}
 
 	/**
-	 * Does {@link #day} match {@code date}'s day of week?
+	 * Is {@code date} the {@code ordinal}th {@code day} in its month? This is the predicate behind {@link #includes(LocalDate)}, expressed
+	 * purely in terms of its arguments so that it can be bound to constants by {@link SpecializedExpression}.
 	 *
-	 * @param date
-	 *            a {@link LocalDate}
-	 * @return {@code true} if {@code date}'s day of week matches {@link #day},
-	 *         otherwise {@code false}
+	 * @param day     a {@link DayOfWeek}
+	 * @param ordinal ordinal position within a month
+	 * @param date    a {@link LocalDate}
+	 * @return {@code true} if {@code date} matches, otherwise {@code false}
 	 */
-	private boolean dayMatches(LocalDate date) {
-		return date.getDayOfWeek() == day;
+	static boolean matches(DayOfWeek day, int ordinal, LocalDate date) {
+		return date.getDayOfWeek() == day && weekMatches(ordinal, date);
 	}
 
 	/**
-	 * Is {@code date} in the {@link #ordinal}th week of its month?
+	 * Is {@code date} in the {@code ordinal}th week of its month?
 	 *
+	 * @param ordinal
+	 *            ordinal position within a month
 	 * @param date
 	 *            a {@link LocalDate}
-	 * @return {@code true} if {@code date} is in the {@link #ordinal}th week of its
+	 * @return {@code true} if {@code date} is in the {@code ordinal}th week of its
 	 *         month, otherwise {@code false}
 	 */
-	private boolean weekMatches(LocalDate date) {
+	private static boolean weekMatches(int ordinal, LocalDate date) {
 		if (ordinal > 0) {
-			return weekFromStartMatches(date);
+			return weekFromStartMatches(ordinal, date);
 		} else {
-			return weekFromEndMatches(date);
+			return weekFromEndMatches(ordinal, date);
 		}
 	}
 
 	/**
 	 * Does {@code date}'s week from the start of the month containing {@code date}
-	 * match {@link #ordinal}? That is, does {@code date} fall in the
+	 * match {@code ordinal}? That is, does {@code date} fall in the
 	 * {@code ordinal}th week from the start of the month?
 	 *
+	 * @param ordinal
+	 *            ordinal position within a month
 	 * @param date
 	 *            a {@link LocalDate}
-	 * @return {@code true} if {@code date} is in the {@link #ordinal}th week from
+	 * @return {@code true} if {@code date} is in the {@code ordinal}th week from
 	 *         the start of its month, otherwise {@code false}
 	 */
-	private boolean weekFromStartMatches(LocalDate date) {
+	private static boolean weekFromStartMatches(int ordinal, LocalDate date) {
 		return weekInMonth(date.getDayOfMonth()) == ordinal;
 	}
 
 	/**
 	 * Does {@code date}'s week from the end of the month containing {@code date}
-	 * match {@link #ordinal}? That is, does {@code date} fall in the
+	 * match {@code ordinal}? That is, does {@code date} fall in the
 	 * {@code ordinal}th week from the end of the month?
 	 *
+	 * @param ordinal
+	 *            ordinal position within a month
 	 * @param date
 	 *            a {@link LocalDate}
-	 * @return {@code true} if {@code date} is in the {@link #ordinal}th week from
+	 * @return {@code true} if {@code date} is in the {@code ordinal}th week from
 	 *         the end of its month, otherwise {@code false}
 	 */
-	private boolean weekFromEndMatches(LocalDate date) {
+	private static boolean weekFromEndMatches(int ordinal, LocalDate date) {
 		return weekInMonth(daysLeftInMonth(date) + 1) == Math.abs(ordinal);
 	}
 
@@ -136,7 +182,7 @@ public final class DayInMonth implements TemporalExpression {
 	 * @param dayOfMonth day of month
 	 * @return corresponding week of month
 	 */
-	private int weekInMonth(int dayOfMonth) {
+	private static int weekInMonth(int dayOfMonth) {
 		return ((dayOfMonth - 1) / DAYS_IN_WEEK) + 1;
 	}
 
@@ -147,8 +193,35 @@ public final class DayInMonth implements TemporalExpression {
 	 *            a {@link LocalDate}
 	 * @return remaining day count
 	 */
-	private int daysLeftInMonth(LocalDate date) {
-		return (int) date.until(date.with(TemporalAdjusters.lastDayOfMonth()), ChronoUnit.DAYS);
+	private static int daysLeftInMonth(LocalDate date) {
+		return date.lengthOfMonth() - date.getDayOfMonth();
+	}
+
+	/**
+	 * Returns day of week.
+	 *
+	 * @return day of week
+	 */
+	DayOfWeek day() {
+		return day;
+	}
+
+	/**
+	 * Returns ordinal position within month.
+	 *
+	 * @return ordinal
+	 */
+	int ordinal() {
+		return ordinal;
+	}
+
+	/**
+	 * Replaces a deserialized {@code DayInMonth} with the equivalent shared instance.
+	 *
+	 * @return shared instance
+	 */
+	private Object readResolve() {
+		return of(day, ordinal);
 	}
 
 	@Override
@@ -1,8 +1,8 @@
 package net.logicsquad.recurring;
 
+import java.io.Serializable;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
 /**
@@ -24,7 +24,28 @@ import java.util.Objects;
  * @see <a href="https://github.com/logicsquad/recurring/issues/4">Issue #4</a>
  * @since 0.3
  */
-public final class DayInWeek implements TemporalExpression {
+public final class DayInWeek implements TemporalExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Number of days in a week
+	 */
+	private static final int DAYS_IN_WEEK = 7;
+
+	/**
+	 * Shared instances matching every day of week, indexed by {@link DayOfWeek#ordinal()}
+	 */
+	private static final DayInWeek[] EVERY = new DayInWeek[DAYS_IN_WEEK];
+
+	static {
+		for (DayOfWeek day : DayOfWeek.values()) {
+			EVERY[day.ordinal()] = new DayInWeek(day, 0, null);
+		}
+	}
+
 	/**
 	 * Day of week
 	 */
@@ -72,14 +93,14 @@ public final class DayInWeek implements TemporalExpression {
 	}
 
 	/**
-	 * Returns a {@code DayInWeek} matching every {@code dayOfWeek}.
+	 * Returns a {@code DayInWeek} matching every {@code dayOfWeek}. This method returns a shared instance.
 	 *
 	 * @param dayOfWeek day of week
-	 * @return new object
+	 * @return {@code DayInWeek}
 	 */
 	public static DayInWeek of(DayOfWeek dayOfWeek) {
 		Objects.requireNonNull(dayOfWeek);
-		return new DayInWeek(dayOfWeek, 0, null);
+		return EVERY[dayOfWeek.ordinal()];
 	}
 
 	/**
@@ -102,17 +123,77 @@ public final class DayInWeek implements TemporalExpression {
 	@Override
 	public boolean includes(LocalDate date) {
 		if (dayOfWeek == null) {
-			return Objects.equals(referenceDate.getDayOfWeek(), date.getDayOfWeek()) && (ChronoUnit.WEEKS.between(referenceDate, date) % ordinal == 0);
+			return matchesEvery(referenceDate.toEpochDay(), ordinal, date);
 		} else {
-			return Objects.equals(dayOfWeek, date.getDayOfWeek());
+			return matches(dayOfWeek, date);
 		}
 	}
 
+	/**
+	 * Does {@code date} fall on {@code dayOfWeek}?
+	 *
+	 * @param dayOfWeek day of week to match
+	 * @param date      a {@link LocalDate}
+	 * @return {@code true} if {@code date} matches, otherwise {@code false}
+	 */
+	static boolean matches(DayOfWeek dayOfWeek, LocalDate date) {
+		return date.getDayOfWeek() == dayOfWeek;
+	}
+
+	/**
+	 * Does {@code date} fall a whole multiple of {@code ordinal} weeks (in either direction) from the reference date given as
+	 * {@code referenceEpochDay}? Expressed in terms of epoch days so that it can be bound to constants by {@link SpecializedExpression}.
+	 *
+	 * @param referenceEpochDay epoch day of a reference date
+	 * @param ordinal           weeks from reference date to match
+	 * @param date              a {@link LocalDate}
+	 * @return {@code true} if {@code date} matches, otherwise {@code false}
+	 */
+	static boolean matchesEvery(long referenceEpochDay, int ordinal, LocalDate date) {
+		return (date.toEpochDay() - referenceEpochDay) % ((long) DAYS_IN_WEEK * ordinal) == 0;
+	}
+
+	/**
+	 * Returns day of week, which is {@code null} if this object matches every {@link #ordinal()} weeks from {@link #referenceDate()}.
+	 *
+	 * @return day of week
+	 */
+	DayOfWeek dayOfWeek() {
+		return dayOfWeek;
+	}
+
+	/**
+	 * Returns ordinal describing every "nth" week.
+	 *
+	 * @return ordinal
+	 */
+	int ordinal() {
+		return ordinal;
+	}
+
+	/**
+	 * Returns reference date, which is {@code null} if this object matches every {@link #dayOfWeek()}.
+	 *
+	 * @return reference date
+	 */
+	LocalDate referenceDate() {
+		return referenceDate;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(dayOfWeek, ordinal, referenceDate);
 	}
 
+	/**
+	 * Replaces a deserialized {@code DayInWeek} matching every {@link #dayOfWeek} with the equivalent shared instance, and validates others.
+	 *
+	 * @return shared or equivalent instance
+	 */
+	private Object readResolve() {
+		return dayOfWeek != null ? of(dayOfWeek) : of(ordinal, referenceDate);
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) {
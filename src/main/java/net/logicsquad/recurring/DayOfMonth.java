@@ -0,0 +1,288 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * <p>
+ * Describes a fixed day of each month, such as "the 15th". (Compare {@link DayInMonth}, which describes an ordinal weekday of each month.)
+ * Months too short to have the day either have no matching date or, if the expression is {@link #includingLastDay() including the last
+ * day}, match on their last day, so that {@code DayOfMonth.of(31, true)} matches the last day of every month.
+ * </p>
+ *
+ * <p>
+ * {@link #includes(LocalDate)} compares the day of month, and {@link #next(LocalDate)} and {@link #previous(LocalDate)} step from month
+ * to month, visiting at most three. {@link #count(LocalDate, LocalDate)} counts matching months arithmetically, however far apart its
+ * dates are.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class DayOfMonth implements SeekableExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Largest day of any month
+	 */
+	private static final int MAX_DAY = 31;
+
+	/**
+	 * Largest day that every month has
+	 */
+	private static final int MIN_LENGTH = 28;
+
+	/**
+	 * Months in a year
+	 */
+	private static final int MONTHS_IN_YEAR = 12;
+
+	/**
+	 * Zero-based indexes of months shorter than 31 days, other than February
+	 */
+	private static final int[] SHORT_MONTHS = { 3, 5, 8, 10 };
+
+	/**
+	 * Shared instances, indexed by {@code 2 * (day - 1)}, plus 1 if including last day
+	 */
+	private static final DayOfMonth[] INSTANCES = new DayOfMonth[2 * MAX_DAY];
+
+	static {
+		for (int day = 1; day <= MAX_DAY; day++) {
+			INSTANCES[2 * (day - 1)] = new DayOfMonth(day, false);
+			INSTANCES[2 * (day - 1) + 1] = day > MIN_LENGTH ? new DayOfMonth(day, true) : INSTANCES[2 * (day - 1)];
+		}
+	}
+
+	/**
+	 * Day of month
+	 */
+	private final int day;
+
+	/**
+	 * Whether months shorter than {@link #day} match on their last day
+	 */
+	private final boolean includingLastDay;
+
+	/**
+	 * Constructor
+	 *
+	 * @param day              day of month
+	 * @param includingLastDay whether months shorter than {@code day} match on their last day
+	 */
+	private DayOfMonth(int day, boolean includingLastDay) {
+		this.day = day;
+		this.includingLastDay = includingLastDay;
+		return;
+	}
+
+	/**
+	 * Returns a {@code DayOfMonth} matching day {@code day} of each month. If {@code includingLastDay} is {@code true}, months shorter than
+	 * {@code day} match on their last day; otherwise they have no matching date. Every month has the days up to 28, so for those days
+	 * {@code includingLastDay} has no effect, and is not retained. There are only 34 such expressions, so this method returns a shared
+	 * instance.
+	 *
+	 * @param day              day of month
+	 * @param includingLastDay whether months shorter than {@code day} match on their last day
+	 * @return {@code DayOfMonth}
+	 * @throws IllegalArgumentException if {@code day} is not in {@code [1, 31]}
+	 */
+	public static DayOfMonth of(int day, boolean includingLastDay) {
+		if (day < 1 || day > MAX_DAY) {
+			throw new IllegalArgumentException("day=" + day + " is not in [1, 31].");
+		}
+		return INSTANCES[2 * (day - 1) + (includingLastDay ? 1 : 0)];
+	}
+
+	@Override
+	public boolean includes(LocalDate date) {
+		return matches(day, includingLastDay, date);
+	}
+
+	/**
+	 * Is {@code date} day {@code day} of its month, or, if {@code includingLastDay}, the last day of a month shorter than {@code day}?
+	 * Expressed purely in terms of its arguments so that it can be bound to constants by {@link SpecializedExpression}.
+	 *
+	 * @param day              day of month
+	 * @param includingLastDay whether months shorter than {@code day} match on their last day
+	 * @param date             a {@link LocalDate}
+	 * @return {@code true} if {@code date} matches, otherwise {@code false}
+	 */
+	static boolean matches(int day, boolean includingLastDay, LocalDate date) {
+		int dayOfMonth = date.getDayOfMonth();
+		return dayOfMonth == day || (includingLastDay && dayOfMonth < day && dayOfMonth == date.lengthOfMonth());
+	}
+
+	/**
+	 * Returns the earliest matching date on or after {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return next date
+	 * @throws java.time.DateTimeException if the next date is after {@link LocalDate#MAX}
+	 */
+	@Override
+	public LocalDate next(LocalDate date) {
+		int target = target(date);
+		if (target >= date.getDayOfMonth()) {
+			return date.withDayOfMonth(target);
+		}
+		LocalDate month = date.withDayOfMonth(1);
+		do {
+			month = month.plusMonths(1);
+			target = target(month);
+		} while (target == 0);
+		return month.withDayOfMonth(target);
+	}
+
+	/**
+	 * Returns the latest matching date on or before {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return previous date
+	 * @throws java.time.DateTimeException if the previous date is before {@link LocalDate#MIN}
+	 */
+	@Override
+	public LocalDate previous(LocalDate date) {
+		int target = target(date);
+		if (target != 0 && target <= date.getDayOfMonth()) {
+			return date.withDayOfMonth(target);
+		}
+		LocalDate month = date.withDayOfMonth(1);
+		do {
+			month = month.minusMonths(1);
+			target = target(month);
+		} while (target == 0);
+		return month.withDayOfMonth(target);
+	}
+
+	/**
+	 * Returns the number of matching dates between {@code start} and {@code end} (inclusive), or 0 if {@code end} is before {@code start}.
+	 *
+	 * @param start start date
+	 * @param end   end date
+	 * @return number of dates
+	 */
+	public long count(LocalDate start, LocalDate end) {
+		// Matching dates before end's month, plus end's own, less the same for start, counting only those before it
+		int endTarget = target(end);
+		int startTarget = target(start);
+		long result = monthsBefore(monthIndex(end)) + (endTarget != 0 && endTarget <= end.getDayOfMonth() ? 1 : 0)
+				- monthsBefore(monthIndex(start)) - (startTarget != 0 && startTarget < start.getDayOfMonth() ? 1 : 0);
+		return Math.max(0, result);
+	}
+
+	/**
+	 * Returns day of month.
+	 *
+	 * @return day of month
+	 */
+	public int day() {
+		return day;
+	}
+
+	/**
+	 * Do months shorter than {@link #day()} match on their last day?
+	 *
+	 * @return {@code true} if months shorter than {@link #day()} match on their last day, otherwise {@code false}
+	 */
+	public boolean includingLastDay() {
+		return includingLastDay;
+	}
+
+	/**
+	 * Returns the matching day of the month containing {@code date}, or 0 if the month has none.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return day of month, or 0
+	 */
+	private int target(LocalDate date) {
+		int length = date.lengthOfMonth();
+		if (day <= length) {
+			return day;
+		}
+		return includingLastDay ? length : 0;
+	}
+
+	/**
+	 * Returns the number of months with a matching date from an arbitrary origin to the month with index {@code month} (exclusive). Only
+	 * differences between results are meaningful.
+	 *
+	 * @param month a month index, as returned by {@link #monthIndex(LocalDate)}
+	 * @return number of months
+	 */
+	private long monthsBefore(long month) {
+		if (day <= MIN_LENGTH || includingLastDay) {
+			return month;
+		}
+		// February has days up to 28, and 29 in leap years
+		long result = month - monthsBefore(month, 1);
+		if (day == 29) {
+			long year = Math.floorDiv(month - 2, MONTHS_IN_YEAR);
+			result += Math.floorDiv(year, 4) - Math.floorDiv(year, 100) + Math.floorDiv(year, 400);
+		} else if (day == MAX_DAY) {
+			for (int shortMonth : SHORT_MONTHS) {
+				result -= monthsBefore(month, shortMonth);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of months with zero-based index {@code monthOfYear} within a year from an arbitrary origin to the month with index
+	 * {@code month} (exclusive).
+	 *
+	 * @param month       a month index, as returned by {@link #monthIndex(LocalDate)}
+	 * @param monthOfYear zero-based month of year
+	 * @return number of months
+	 */
+	private static long monthsBefore(long month, int monthOfYear) {
+		return Math.floorDiv(month - 1 - monthOfYear, MONTHS_IN_YEAR) + 1;
+	}
+
+	/**
+	 * Returns the number of months from January of year 0 to the month containing {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return month index
+	 */
+	private static long monthIndex(LocalDate date) {
+		return (long) date.getYear() * MONTHS_IN_YEAR + date.getMonthValue() - 1;
+	}
+
+	/**
+	 * Replaces a deserialized {@code DayOfMonth} with the equivalent shared instance.
+	 *
+	 * @return shared instance
+	 */
+	private Object readResolve() {
+		return of(day, includingLastDay);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DayOfMonth)) {
+			return false;
+		}
+		DayOfMonth other = (DayOfMonth) obj;
+		return day == other.day && includingLastDay == other.includingLastDay;
+	}
+
+	@Override
+	public int hashCode() {
+		return 2 * day + (includingLastDay ? 1 : 0);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": day=").append(day).append(" includingLastDay=").append(includingLastDay)
+				.append(']');
+		return sb.toString();
+	}
+}
@@ -1,6 +1,8 @@
 package net.logicsquad.recurring;
 
+import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.Objects;
 
 /**
  * A {@link TemporalExpression} that is the difference between two
@@ -11,7 +13,12 @@ import java.time.LocalDate;
  *
  * @author paulh
  */
-public final class Difference implements TemporalExpression {
+public final class Difference implements TemporalExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Included sub-expression
 	 */
@@ -22,6 +29,11 @@ public final class Difference implements TemporalExpression {
 	 */
 	private final TemporalExpression excluded;
 
+	/**
+	 * Cached hash code
+	 */
+	private final int hashCode;
+
 	/**
 	 * Constructor
 	 *
@@ -33,6 +45,7 @@ public final class Difference implements TemporalExpression {
 	private Difference(TemporalExpression included, TemporalExpression excluded) {
 		this.included = included;
 		this.excluded = excluded;
+		this.hashCode = Objects.hash(included, excluded);
 		return;
 	}
 
@@ -55,6 +68,41 @@ public final class Difference implements TemporalExpression {
 		return included.includes(date) && !excluded.includes(date);
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Difference)) {
+			return false;
+		}
+		Difference other = (Difference) obj;
+		return hashCode == other.hashCode && Objects.equals(included, other.included) && Objects.equals(excluded, other.excluded);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	/**
+	 * Returns included sub-expression.
+	 *
+	 * @return included sub-expression
+	 */
+	TemporalExpression included() {
+		return included;
+	}
+
+	/**
+	 * Returns excluded sub-expression.
+	 *
+	 * @return excluded sub-expression
+	 */
+	TemporalExpression excluded() {
+		return excluded;
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
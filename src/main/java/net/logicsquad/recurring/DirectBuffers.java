@@ -0,0 +1,79 @@
+package net.logicsquad.recurring;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the native memory behind direct {@link ByteBuffer}s without waiting for garbage collection. The JDK offers no public API for
+ * this, so the cleaner is found reflectively: through {@code sun.misc.Unsafe.invokeCleaner()} on Java 9 and later, or the buffer's own
+ * {@code cleaner()} on Java 8. If neither is available, {@link #release(ByteBuffer)} does nothing, and the memory is released when the
+ * buffer is collected.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+final class DirectBuffers {
+	/**
+	 * {@code sun.misc.Unsafe} instance, or {@code null} if unavailable
+	 */
+	private static final Object UNSAFE;
+
+	/**
+	 * {@code sun.misc.Unsafe.invokeCleaner(ByteBuffer)}, or {@code null} if unavailable (such as on Java 8)
+	 */
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> type = Class.forName("sun.misc.Unsafe");
+			invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+			Field field = type.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = field.get(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			invokeCleaner = null;
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private DirectBuffers() {
+		return;
+	}
+
+	/**
+	 * Releases native memory behind {@code buffer}, if possible. {@code buffer} must not be used afterwards: doing so may crash the JVM.
+	 *
+	 * @param buffer a direct {@link ByteBuffer}
+	 * @return {@code true} if memory was released, otherwise {@code false}
+	 */
+	static boolean release(ByteBuffer buffer) {
+		if (!buffer.isDirect()) {
+			return false;
+		}
+		try {
+			if (INVOKE_CLEANER != null) {
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+				return true;
+			}
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner == null) {
+				return false;
+			}
+			Method clean = cleaner.getClass().getMethod("clean");
+			clean.setAccessible(true);
+			clean.invoke(cleaner);
+			return true;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,243 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.Year;
+
+/**
+ * <p>
+ * Describes a day a fixed number of days from (Western, Gregorian) Easter Sunday, such as Good Friday ({@code of(-2)}), Easter Monday
+ * ({@code of(1)}) or Pentecost ({@code of(49)}).
+ * </p>
+ *
+ * <p>
+ * The date of Easter Sunday in each year from {@link #FIRST_YEAR} to {@link #LAST_YEAR} is computed once, into a table of epoch days. Since
+ * a matching date's Easter Sunday must fall within a year of an estimate made from its epoch day, {@link #includes(LocalDate)} is at most
+ * three table lookups and integer compares, and {@link #next(LocalDate)} and {@link #previous(LocalDate)} are found the same way. Years
+ * outside the table are computed on demand.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class EasterOffset implements SeekableExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * First year in Easter table
+	 */
+	public static final int FIRST_YEAR = 1583;
+
+	/**
+	 * Last year in Easter table
+	 */
+	public static final int LAST_YEAR = 4099;
+
+	/**
+	 * Largest magnitude of offset for which {@link #of(int)} returns a shared instance
+	 */
+	private static final int SHARED_OFFSETS = 100;
+
+	/**
+	 * Days in 400 Gregorian years
+	 */
+	private static final long DAYS_PER_400_YEARS = 146_097;
+
+	/**
+	 * Epoch day of Easter Sunday in each year from {@link #FIRST_YEAR} to {@link #LAST_YEAR}
+	 */
+	private static final int[] EASTER = new int[LAST_YEAR - FIRST_YEAR + 1];
+
+	/**
+	 * Shared instances, indexed by offset plus {@link #SHARED_OFFSETS}
+	 */
+	private static final EasterOffset[] SHARED = new EasterOffset[2 * SHARED_OFFSETS + 1];
+
+	static {
+		for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+			EASTER[year - FIRST_YEAR] = (int) computus(year);
+		}
+		for (int i = 0; i < SHARED.length; i++) {
+			SHARED[i] = new EasterOffset(i - SHARED_OFFSETS);
+		}
+	}
+
+	/**
+	 * Days from Easter Sunday
+	 */
+	private final int days;
+
+	/**
+	 * Constructor
+	 *
+	 * @param days days from Easter Sunday
+	 */
+	private EasterOffset(int days) {
+		this.days = days;
+		return;
+	}
+
+	/**
+	 * Returns an {@code EasterOffset} matching the day {@code days} days after Easter Sunday (or before, if {@code days} is negative). This
+	 * method returns a shared instance for offsets of up to 100 days either way.
+	 *
+	 * @param days days from Easter Sunday
+	 * @return {@code EasterOffset}
+	 */
+	public static EasterOffset of(int days) {
+		if (days >= -SHARED_OFFSETS && days <= SHARED_OFFSETS) {
+			return SHARED[days + SHARED_OFFSETS];
+		}
+		return new EasterOffset(days);
+	}
+
+	@Override
+	public boolean includes(LocalDate date) {
+		return matches(days, date);
+	}
+
+	/**
+	 * Is {@code date} {@code days} days from Easter Sunday? Expressed in terms of the offset so that it can be bound to a constant by
+	 * {@link SpecializedExpression}.
+	 *
+	 * @param days days from Easter Sunday
+	 * @param date a {@link LocalDate}
+	 * @return {@code true} if {@code date} matches, otherwise {@code false}
+	 */
+	static boolean matches(int days, LocalDate date) {
+		long easter = date.toEpochDay() - days;
+		long year = estimateYear(easter);
+		return easter(year) == easter || easter(year - 1) == easter || easter(year + 1) == easter;
+	}
+
+	/**
+	 * Returns the earliest matching date on or after {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return next date
+	 * @throws java.time.DateTimeException if the next date is after {@link LocalDate#MAX}
+	 */
+	@Override
+	public LocalDate next(LocalDate date) {
+		long from = date.toEpochDay() - days;
+		long year = estimateYear(from) - 1;
+		while (easter(year) < from) {
+			year++;
+		}
+		return LocalDate.ofEpochDay(easter(year) + days);
+	}
+
+	/**
+	 * Returns the latest matching date on or before {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return previous date
+	 * @throws java.time.DateTimeException if the previous date is before {@link LocalDate#MIN}
+	 */
+	@Override
+	public LocalDate previous(LocalDate date) {
+		long from = date.toEpochDay() - days;
+		long year = estimateYear(from) + 1;
+		while (easter(year) > from) {
+			year--;
+		}
+		return LocalDate.ofEpochDay(easter(year) + days);
+	}
+
+	/**
+	 * Returns days from Easter Sunday.
+	 *
+	 * @return days
+	 */
+	public int days() {
+		return days;
+	}
+
+	/**
+	 * Returns the epoch day of Easter Sunday in {@code year}, from the table if it covers {@code year}. Years beyond the range of
+	 * {@link Year} return {@link Long#MIN_VALUE} or {@link Long#MAX_VALUE}.
+	 *
+	 * @param year a year
+	 * @return epoch day
+	 */
+	static long easter(long year) {
+		if (year >= FIRST_YEAR && year <= LAST_YEAR) {
+			return EASTER[(int) year - FIRST_YEAR];
+		} else if (year < Year.MIN_VALUE) {
+			return Long.MIN_VALUE;
+		} else if (year > Year.MAX_VALUE) {
+			return Long.MAX_VALUE;
+		}
+		return computus(year);
+	}
+
+	/**
+	 * Returns a year within one of the year containing {@code epochDay}.
+	 *
+	 * @param epochDay an epoch day
+	 * @return estimated year
+	 */
+	private static long estimateYear(long epochDay) {
+		return 1970 + Math.floorDiv(epochDay * 400, DAYS_PER_400_YEARS);
+	}
+
+	/**
+	 * Computes the epoch day of Easter Sunday in {@code year} with the anonymous Gregorian algorithm (Meeus/Jones/Butcher).
+	 *
+	 * @param year a year
+	 * @return epoch day
+	 */
+	private static long computus(long year) {
+		long a = Math.floorMod(year, 19);
+		long b = Math.floorDiv(year, 100);
+		long c = Math.floorMod(year, 100);
+		long d = Math.floorDiv(b, 4);
+		long e = Math.floorMod(b, 4);
+		long f = Math.floorDiv(b + 8, 25);
+		long g = Math.floorDiv(b - f + 1, 3);
+		long h = Math.floorMod(19 * a + b - d - g + 15, 30);
+		long i = Math.floorDiv(c, 4);
+		long k = Math.floorMod(c, 4);
+		long l = Math.floorMod(32 + 2 * e + 2 * i - h - k, 7);
+		long m = Math.floorDiv(a + 11 * h + 22 * l, 451);
+		long month = Math.floorDiv(h + l - 7 * m + 114, 31);
+		long day = Math.floorMod(h + l - 7 * m + 114, 31) + 1;
+		// Days to 22 March (the earliest Easter) in the same year, plus days after it
+		return LocalDate.of((int) year, 3, 22).toEpochDay() + (month == 3 ? day - 22 : day + 9);
+	}
+
+	/**
+	 * Replaces a deserialized {@code EasterOffset} with the equivalent shared instance, if there is one.
+	 *
+	 * @return shared instance, or {@code this}
+	 */
+	private Object readResolve() {
+		return of(days);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof EasterOffset)) {
+			return false;
+		}
+		return days == ((EasterOffset) obj).days;
+	}
+
+	@Override
+	public int hashCode() {
+		return days;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": days=").append(days).append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,80 @@
+package net.logicsquad.recurring;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Converts {@code event} objects to and from bytes, so that {@link BinaryCodec} can encode {@link Schedule}s of any event type.
+ *
+ * @param <T> type of {@code event} objects
+ * @author paulh
+ * @since 0.5
+ */
+public interface EventCodec<T> {
+	/**
+	 * Encodes {@code event} as bytes.
+	 *
+	 * @param event object representing an event
+	 * @return encoded bytes
+	 */
+	byte[] encode(T event);
+
+	/**
+	 * Decodes an event from {@code bytes} previously returned by {@link #encode(Object)}.
+	 *
+	 * @param bytes encoded bytes
+	 * @return decoded event
+	 * @throws IllegalArgumentException if {@code bytes} is not a valid encoding
+	 */
+	T decode(byte[] bytes);
+
+	/**
+	 * Returns an {@code EventCodec} delegating to {@code encoder} and {@code decoder}.
+	 *
+	 * @param <T>     type of {@code event} objects
+	 * @param encoder function encoding an event as bytes
+	 * @param decoder function decoding an event from bytes
+	 * @return new object
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	static <T> EventCodec<T> of(Function<T, byte[]> encoder, Function<byte[], T> decoder) {
+		Objects.requireNonNull(encoder);
+		Objects.requireNonNull(decoder);
+		return new EventCodec<T>() {
+			@Override
+			public byte[] encode(T event) {
+				return encoder.apply(event);
+			}
+
+			@Override
+			public T decode(byte[] bytes) {
+				return decoder.apply(bytes);
+			}
+		};
+	}
+
+	/**
+	 * Returns an {@code EventCodec} for {@link String} events, encoded as UTF-8.
+	 *
+	 * @return {@code EventCodec}
+	 */
+	static EventCodec<String> strings() {
+		return of(s -> s.getBytes(StandardCharsets.UTF_8), b -> new String(b, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Returns an {@code EventCodec} for {@link Integer} events, encoded as 4 big-endian bytes.
+	 *
+	 * @return {@code EventCodec}
+	 */
+	static EventCodec<Integer> integers() {
+		return of(i -> ByteBuffer.allocate(Integer.BYTES).putInt(i).array(), b -> {
+			if (b.length != Integer.BYTES) {
+				throw new IllegalArgumentException("Expected " + Integer.BYTES + " bytes, found " + b.length + ".");
+			}
+			return ByteBuffer.wrap(b).getInt();
+		});
+	}
+}
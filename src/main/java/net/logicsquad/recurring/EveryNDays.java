@@ -0,0 +1,170 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Describes every {@code n}th day (in either direction) from an anchor date, such as "every 10 days from 3 March".
+ * </p>
+ *
+ * <p>
+ * A date matches if its epoch day differs from the anchor's by a multiple of the interval, so {@link #includes(LocalDate)},
+ * {@link #next(LocalDate)}, {@link #previous(LocalDate)} and {@link #count(LocalDate, LocalDate)} are each a little integer arithmetic,
+ * however far the date is from the anchor.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class EveryNDays implements SeekableExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Anchor date
+	 */
+	private final LocalDate anchor;
+
+	/**
+	 * Epoch day of {@link #anchor}
+	 */
+	private final long anchorDay;
+
+	/**
+	 * Days between matching dates
+	 */
+	private final int interval;
+
+	/**
+	 * Constructor
+	 *
+	 * @param anchor   anchor date
+	 * @param interval days between matching dates
+	 */
+	private EveryNDays(LocalDate anchor, int interval) {
+		this.anchor = anchor;
+		this.anchorDay = anchor.toEpochDay();
+		this.interval = interval;
+		return;
+	}
+
+	/**
+	 * Returns an {@code EveryNDays} matching {@code anchor}, and every date a multiple of {@code interval} days before or after it.
+	 *
+	 * @param anchor   anchor date
+	 * @param interval days between matching dates
+	 * @return new object
+	 * @throws NullPointerException     if {@code anchor} is {@code null}
+	 * @throws IllegalArgumentException if {@code interval} &lt; 1
+	 */
+	public static EveryNDays of(LocalDate anchor, int interval) {
+		Objects.requireNonNull(anchor);
+		if (interval < 1) {
+			throw new IllegalArgumentException("'interval' must be >= 1.");
+		}
+		return new EveryNDays(anchor, interval);
+	}
+
+	@Override
+	public boolean includes(LocalDate date) {
+		return matches(anchorDay, interval, date);
+	}
+
+	/**
+	 * Does {@code date} fall a whole multiple of {@code interval} days (in either direction) from the anchor date given as
+	 * {@code anchorEpochDay}? Expressed in terms of epoch days so that it can be bound to constants by {@link SpecializedExpression}.
+	 *
+	 * @param anchorEpochDay epoch day of anchor date
+	 * @param interval       days between matching dates
+	 * @param date           a {@link LocalDate}
+	 * @return {@code true} if {@code date} matches, otherwise {@code false}
+	 */
+	static boolean matches(long anchorEpochDay, int interval, LocalDate date) {
+		return (date.toEpochDay() - anchorEpochDay) % interval == 0;
+	}
+
+	/**
+	 * Returns the earliest matching date on or after {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return next date
+	 * @throws java.time.DateTimeException if the next date is after {@link LocalDate#MAX}
+	 */
+	@Override
+	public LocalDate next(LocalDate date) {
+		long day = date.toEpochDay();
+		return LocalDate.ofEpochDay(day + Math.floorMod(anchorDay - day, interval));
+	}
+
+	/**
+	 * Returns the latest matching date on or before {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return previous date
+	 * @throws java.time.DateTimeException if the previous date is before {@link LocalDate#MIN}
+	 */
+	@Override
+	public LocalDate previous(LocalDate date) {
+		long day = date.toEpochDay();
+		return LocalDate.ofEpochDay(day - Math.floorMod(day - anchorDay, interval));
+	}
+
+	/**
+	 * Returns the number of matching dates between {@code start} and {@code end} (inclusive), or 0 if {@code end} is before {@code start}.
+	 *
+	 * @param start start date
+	 * @param end   end date
+	 * @return number of dates
+	 */
+	public long count(LocalDate start, LocalDate end) {
+		long from = start.toEpochDay() - anchorDay;
+		long to = end.toEpochDay() - anchorDay;
+		return Math.max(0, Math.floorDiv(to, interval) - Math.floorDiv(from - 1, interval));
+	}
+
+	/**
+	 * Returns anchor date.
+	 *
+	 * @return anchor date
+	 */
+	public LocalDate anchor() {
+		return anchor;
+	}
+
+	/**
+	 * Returns days between matching dates.
+	 *
+	 * @return interval
+	 */
+	public int interval() {
+		return interval;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof EveryNDays)) {
+			return false;
+		}
+		EveryNDays other = (EveryNDays) obj;
+		return interval == other.interval && anchor.equals(other.anchor);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * anchor.hashCode() + interval;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": anchor=").append(anchor).append(" interval=").append(interval).append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,341 @@
+package net.logicsquad.recurring;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A set of {@link TemporalExpression} trees merged into a single directed acyclic graph, in which each distinct sub-expression appears
+ * once. Sub-expressions are identified by {@link Object#equals(Object) equals()}, so (for example) every element of a {@link Schedule}
+ * whose tree contains {@code Difference.of(workdays, publicHolidays)} shares one node for it, whether or not the trees were built from the
+ * same instances.
+ * </p>
+ *
+ * <p>
+ * An {@link Evaluation} evaluates the graph against one date at a time, remembering the result of each node it visits, so that shared
+ * sub-expressions are evaluated at most once per date. Evaluation is lazy, and {@link Union}, {@link Intersection} and {@link Difference}
+ * nodes short-circuit exactly as the expressions themselves do.
+ * </p>
+ *
+ * <p>
+ * A {@link Builder} only ever appends nodes, and each graph it builds shares its arrays, seeing just the nodes added before it was built.
+ * A long-lived {@link Builder} can therefore extend a graph as expressions are added, without rebuilding or copying the existing nodes.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+final class ExpressionGraph {
+	/**
+	 * Node kind for a {@link Union}
+	 */
+	private static final byte UNION = 0;
+
+	/**
+	 * Node kind for an {@link Intersection}
+	 */
+	private static final byte INTERSECTION = 1;
+
+	/**
+	 * Node kind for a {@link Difference}
+	 */
+	private static final byte DIFFERENCE = 2;
+
+	/**
+	 * Node kind for any other (leaf) expression
+	 */
+	private static final byte LEAF = 3;
+
+	/**
+	 * Kind of each node
+	 */
+	private final byte[] kinds;
+
+	/**
+	 * Indexes of each node's sub-expressions ({@code included} then {@code excluded} for a {@link Difference})
+	 */
+	private final int[][] children;
+
+	/**
+	 * Expression at each node, used to evaluate leaves
+	 */
+	private final TemporalExpression[] expressions;
+
+	/**
+	 * Number of nodes, which may be fewer than the length of the (shared) arrays
+	 */
+	private final int size;
+
+	/**
+	 * Index of the node for each root expression, in the order supplied to {@link #of(List)}
+	 */
+	private final int[] roots;
+
+	/**
+	 * Constructor
+	 *
+	 * @param kinds       kind of each node
+	 * @param children    indexes of each node's sub-expressions
+	 * @param expressions expression at each node
+	 * @param size        number of nodes
+	 * @param roots       index of the node for each root expression
+	 */
+	private ExpressionGraph(byte[] kinds, int[][] children, TemporalExpression[] expressions, int size, int[] roots) {
+		this.kinds = kinds;
+		this.children = children;
+		this.expressions = expressions;
+		this.size = size;
+		this.roots = roots;
+		return;
+	}
+
+	/**
+	 * Returns an {@code ExpressionGraph} merging {@code expressions}.
+	 *
+	 * @param expressions root expressions
+	 * @return new object
+	 */
+	static ExpressionGraph of(List<TemporalExpression> expressions) {
+		Builder builder = new Builder();
+		int[] roots = new int[expressions.size()];
+		for (int i = 0; i < roots.length; i++) {
+			roots[i] = builder.add(expressions.get(i));
+		}
+		return builder.build(roots);
+	}
+
+	/**
+	 * Returns number of distinct nodes in this graph.
+	 *
+	 * @return node count
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns number of root expressions.
+	 *
+	 * @return root count
+	 */
+	int roots() {
+		return roots.length;
+	}
+
+	/**
+	 * Returns a new {@link Evaluation} of this graph. An {@link Evaluation} is not thread-safe, so each query should use its own.
+	 *
+	 * @return new {@link Evaluation}
+	 */
+	Evaluation evaluation() {
+		return new Evaluation();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": roots=").append(roots.length).append(" nodes=").append(size()).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Evaluates an {@link ExpressionGraph} against one date at a time, evaluating each node at most once per date.
+	 */
+	final class Evaluation {
+		/**
+		 * Stamp of the date at which each node's result in {@link #values} was computed
+		 */
+		private final int[] stamps = new int[size];
+
+		/**
+		 * Result for each node, valid where {@link #stamps} matches {@link #stamp}
+		 */
+		private final boolean[] values = new boolean[size];
+
+		/**
+		 * Stamp for current date
+		 */
+		private int stamp;
+
+		/**
+		 * Current date
+		 */
+		private LocalDate date;
+
+		/**
+		 * Constructor
+		 */
+		private Evaluation() {
+			return;
+		}
+
+		/**
+		 * Moves this evaluation to {@code date}, forgetting results for any previous date.
+		 *
+		 * @param date a {@link LocalDate}
+		 */
+		void reset(LocalDate date) {
+			this.date = date;
+			if (++stamp == 0) {
+				Arrays.fill(stamps, 0);
+				stamp = 1;
+			}
+			return;
+		}
+
+		/**
+		 * Does the root expression at {@code index} include the current date?
+		 *
+		 * @param index index of root expression, in the order supplied to {@link ExpressionGraph#of(List)}
+		 * @return {@code true} if expression includes current date, otherwise {@code false}
+		 */
+		boolean includes(int index) {
+			return evaluate(roots[index]);
+		}
+
+		/**
+		 * Evaluates {@code node} against the current date, or returns its result if already known.
+		 *
+		 * @param node index of node
+		 * @return result
+		 */
+		private boolean evaluate(int node) {
+			if (stamps[node] == stamp) {
+				return values[node];
+			}
+			boolean result;
+			int[] c = children[node];
+			switch (kinds[node]) {
+			case UNION:
+				result = false;
+				for (int i = 0; i < c.length && !result; i++) {
+					result = evaluate(c[i]);
+				}
+				break;
+			case INTERSECTION:
+				result = true;
+				for (int i = 0; i < c.length && result; i++) {
+					result = evaluate(c[i]);
+				}
+				break;
+			case DIFFERENCE:
+				result = evaluate(c[0]) && !evaluate(c[1]);
+				break;
+			default:
+				result = expressions[node].includes(date);
+				break;
+			}
+			stamps[node] = stamp;
+			values[node] = result;
+			return result;
+		}
+	}
+
+	/**
+	 * Accumulates distinct nodes for an {@link ExpressionGraph}, children before parents. Nodes are only ever appended, so a
+	 * {@code Builder} may go on adding expressions after building a graph, and build further graphs sharing the same nodes. A
+	 * {@code Builder} is not thread-safe; graphs it builds may be shared once safely published.
+	 */
+	static final class Builder {
+		/**
+		 * Initial capacity of node arrays
+		 */
+		private static final int INITIAL_CAPACITY = 16;
+
+		/**
+		 * Index of each distinct expression added
+		 */
+		private final Map<TemporalExpression, Integer> indexes = new HashMap<>();
+
+		/**
+		 * Kind of each node
+		 */
+		private byte[] kinds = new byte[INITIAL_CAPACITY];
+
+		/**
+		 * Sub-expression indexes of each node
+		 */
+		private int[][] children = new int[INITIAL_CAPACITY][];
+
+		/**
+		 * Expression at each node
+		 */
+		private TemporalExpression[] expressions = new TemporalExpression[INITIAL_CAPACITY];
+
+		/**
+		 * Number of nodes added
+		 */
+		private int size;
+
+		/**
+		 * Constructor
+		 */
+		Builder() {
+			return;
+		}
+
+		/**
+		 * Adds {@code expression} and its sub-expressions, unless already present.
+		 *
+		 * @param expression a {@link TemporalExpression}
+		 * @return index of node for {@code expression}
+		 */
+		int add(TemporalExpression expression) {
+			Integer existing = indexes.get(expression);
+			if (existing != null) {
+				return existing;
+			}
+			byte kind;
+			int[] c;
+			if (expression instanceof Union || expression instanceof Intersection) {
+				List<TemporalExpression> subexpressions = ((CompositeTemporalExpression) expression).expressions;
+				kind = expression instanceof Union ? UNION : INTERSECTION;
+				c = new int[subexpressions.size()];
+				for (int i = 0; i < c.length; i++) {
+					c[i] = add(subexpressions.get(i));
+				}
+			} else if (expression instanceof Difference) {
+				Difference difference = (Difference) expression;
+				kind = DIFFERENCE;
+				c = new int[] { add(difference.included()), add(difference.excluded()) };
+			} else {
+				kind = LEAF;
+				c = new int[0];
+			}
+			if (size == kinds.length) {
+				// Graphs already built keep the old arrays, which hold every node they can see
+				kinds = Arrays.copyOf(kinds, 2 * size);
+				children = Arrays.copyOf(children, 2 * size);
+				expressions = Arrays.copyOf(expressions, 2 * size);
+			}
+			int index = size++;
+			kinds[index] = kind;
+			children[index] = c;
+			expressions[index] = expression;
+			indexes.put(expression, index);
+			return index;
+		}
+
+		/**
+		 * Returns number of nodes added.
+		 *
+		 * @return node count
+		 */
+		int size() {
+			return size;
+		}
+
+		/**
+		 * Builds an {@link ExpressionGraph} from the nodes added so far, sharing (not copying) them.
+		 *
+		 * @param roots index of the node for each root expression
+		 * @return new {@link ExpressionGraph}
+		 */
+		ExpressionGraph build(int[] roots) {
+			return new ExpressionGraph(kinds, children, expressions, size, roots);
+		}
+	}
+}
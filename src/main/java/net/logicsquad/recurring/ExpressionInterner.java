@@ -0,0 +1,109 @@
+package net.logicsquad.recurring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Hash-conses {@link TemporalExpression} trees. {@link #intern(TemporalExpression)} returns a canonical instance for each structurally equal
+ * tree, so that an application holding many equal expressions (such as millions of {@link ScheduleElement}s sharing "last Friday" or
+ * "every Monday") keeps only one copy of each. Sub-expressions are interned too, so trees that differ overall still share their equal
+ * subtrees.
+ * </p>
+ *
+ * <p>
+ * Equality is that of the expressions themselves: the built-in expressions compare structurally (composites compare their sub-expressions
+ * in order), while other implementations are interned according to their own {@link Object#equals(Object) equals()}. An interner holds
+ * strong references to every canonical expression until {@link #clear()} is called, so its lifetime should match that of the data it
+ * deduplicates. Instances are thread-safe.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class ExpressionInterner {
+	/**
+	 * Canonical instances
+	 */
+	private final ConcurrentMap<TemporalExpression, TemporalExpression> canonical = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the canonical instance equal to {@code expression}, after interning each of its sub-expressions. If there is no such instance
+	 * yet, {@code expression} (or a copy of it built from canonical sub-expressions) becomes the canonical instance.
+	 *
+	 * @param expression a {@link TemporalExpression}
+	 * @return canonical instance
+	 * @throws NullPointerException if {@code expression} is {@code null}
+	 */
+	public TemporalExpression intern(TemporalExpression expression) {
+		Objects.requireNonNull(expression);
+		TemporalExpression existing = canonical.get(expression);
+		if (existing != null) {
+			return existing;
+		}
+		TemporalExpression rebuilt = withCanonicalChildren(expression);
+		existing = canonical.putIfAbsent(rebuilt, rebuilt);
+		return existing == null ? rebuilt : existing;
+	}
+
+	/**
+	 * Returns number of canonical instances held.
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return canonical.size();
+	}
+
+	/**
+	 * Discards all canonical instances.
+	 */
+	public void clear() {
+		canonical.clear();
+		return;
+	}
+
+	/**
+	 * Returns {@code expression} if its sub-expressions (if any) are already canonical, otherwise an equal expression built from canonical
+	 * sub-expressions.
+	 *
+	 * @param expression a {@link TemporalExpression}
+	 * @return equal expression with canonical sub-expressions
+	 */
+	private TemporalExpression withCanonicalChildren(TemporalExpression expression) {
+		if (expression instanceof Union || expression instanceof Intersection) {
+			List<TemporalExpression> children = ((CompositeTemporalExpression) expression).expressions;
+			List<TemporalExpression> interned = new ArrayList<>(children.size());
+			boolean changed = false;
+			for (TemporalExpression c : children) {
+				TemporalExpression i = intern(c);
+				changed |= i != c;
+				interned.add(i);
+			}
+			if (!changed) {
+				return expression;
+			}
+			return expression instanceof Union ? Union.of(interned) : Intersection.of(interned);
+		} else if (expression instanceof Difference) {
+			Difference difference = (Difference) expression;
+			TemporalExpression included = intern(difference.included());
+			TemporalExpression excluded = intern(difference.excluded());
+			if (included == difference.included() && excluded == difference.excluded()) {
+				return expression;
+			}
+			return Difference.of(included, excluded);
+		} else {
+			return expression;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": size=").append(size()).append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,193 @@
+package net.logicsquad.recurring;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free log-linear histogram of non-negative {@code long} values. Each power-of-two range is split into 16 linear sub-buckets, so a
+ * value reported by {@link #percentile(double)} is within about 6% of the true value. Any number of threads may call
+ * {@link #record(long)} concurrently; readers see a weakly consistent view while recording is in progress.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class Histogram {
+	/**
+	 * Base-2 logarithm of {@link #SUB_BUCKETS}
+	 */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/**
+	 * Number of linear sub-buckets per power of two
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Total number of buckets
+	 */
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	/**
+	 * Counts per bucket
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Number of recorded values
+	 */
+	private final LongAdder count = new LongAdder();
+
+	/**
+	 * Sum of recorded values
+	 */
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * Largest recorded value
+	 */
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records {@code value}. Negative values are recorded as zero.
+	 *
+	 * @param value a value
+	 */
+	public void record(long value) {
+		long v = Math.max(0, value);
+		counts.incrementAndGet(index(v));
+		count.increment();
+		sum.add(v);
+		long current = max.get();
+		while (v > current && !max.compareAndSet(current, v)) {
+			current = max.get();
+		}
+		return;
+	}
+
+	/**
+	 * Returns number of recorded values.
+	 *
+	 * @return count
+	 */
+	public long count() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns sum of recorded values.
+	 *
+	 * @return sum
+	 */
+	public long sum() {
+		return sum.sum();
+	}
+
+	/**
+	 * Returns largest recorded value, or zero if no values have been recorded.
+	 *
+	 * @return maximum
+	 */
+	public long max() {
+		return max.get();
+	}
+
+	/**
+	 * Returns mean of recorded values, or zero if no values have been recorded.
+	 *
+	 * @return mean
+	 */
+	public double mean() {
+		long n = count();
+		return n == 0 ? 0 : (double) sum() / n;
+	}
+
+	/**
+	 * Returns an upper bound on the value at {@code percentile}, or zero if no values have been recorded.
+	 *
+	 * @param percentile a percentile in {@code [0, 100]}
+	 * @return value at {@code percentile}
+	 * @throws IllegalArgumentException if {@code percentile} is not in {@code [0, 100]}
+	 */
+	public long percentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile=" + percentile + " is not in [0, 100].");
+		}
+		long[] snapshot = bucketCounts();
+		long total = 0;
+		for (long c : snapshot) {
+			total += c;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+		long seen = 0;
+		for (int i = 0; i < snapshot.length; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return Math.min(bucketUpperBound(i), max());
+			}
+		}
+		return max();
+	}
+
+	/**
+	 * Returns a snapshot of the count in each bucket, for export. The upper bound of bucket {@code i} is given by
+	 * {@link #bucketUpperBound(int)}.
+	 *
+	 * @return bucket counts
+	 */
+	public long[] bucketCounts() {
+		long[] result = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			result[i] = counts.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the largest value counted in bucket {@code index}.
+	 *
+	 * @param index bucket index
+	 * @return upper bound of bucket
+	 * @throws IndexOutOfBoundsException if {@code index} is not a valid bucket index
+	 */
+	public static long bucketUpperBound(int index) {
+		if (index < 0 || index >= BUCKETS) {
+			throw new IndexOutOfBoundsException("index=" + index);
+		}
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int magnitude = index / SUB_BUCKETS - 1;
+		long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+		long bound = ((sub + 1) << magnitude) - 1;
+		return bound < 0 ? Long.MAX_VALUE : bound;
+	}
+
+	/**
+	 * Returns bucket index for {@code value}.
+	 *
+	 * @param value a non-negative value
+	 * @return bucket index
+	 */
+	private static int index(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int magnitude = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+		int sub = (int) (value >>> magnitude) - SUB_BUCKETS;
+		return (magnitude + 1) * SUB_BUCKETS + sub;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": count=").append(count()).append(" mean=")
+				.append(String.format(Locale.ROOT, "%.1f", mean())).append(" p50=").append(percentile(50)).append(" p99=")
+				.append(percentile(99)).append(" max=").append(max()).append(']');
+		return sb.toString();
+	}
+}
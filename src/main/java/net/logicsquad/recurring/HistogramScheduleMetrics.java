@@ -0,0 +1,101 @@
+package net.logicsquad.recurring;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A lock-free {@link ScheduleMetrics} that keeps, for each {@link ScheduleMetrics.Query Query} type, a {@link Histogram} of wall time (in
+ * nanoseconds), of days scanned, and of {@link TemporalExpression#includes(java.time.LocalDate) includes()} calls. A host application can
+ * read these histograms at any time to export them to its monitoring system.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class HistogramScheduleMetrics implements ScheduleMetrics {
+	/**
+	 * Wall time histograms by query type
+	 */
+	private final Map<Query, Histogram> wallTimes = new EnumMap<>(Query.class);
+
+	/**
+	 * Days scanned histograms by query type
+	 */
+	private final Map<Query, Histogram> daysScanned = new EnumMap<>(Query.class);
+
+	/**
+	 * {@code includes()} call histograms by query type
+	 */
+	private final Map<Query, Histogram> includesCalls = new EnumMap<>(Query.class);
+
+	/**
+	 * Constructor
+	 */
+	public HistogramScheduleMetrics() {
+		for (Query q : Query.values()) {
+			wallTimes.put(q, new Histogram());
+			daysScanned.put(q, new Histogram());
+			includesCalls.put(q, new Histogram());
+		}
+		return;
+	}
+
+	@Override
+	public void record(Query query, long nanos, long days, long calls) {
+		wallTimes.get(query).record(nanos);
+		daysScanned.get(query).record(days);
+		includesCalls.get(query).record(calls);
+		return;
+	}
+
+	/**
+	 * Returns number of queries of type {@code query} recorded.
+	 *
+	 * @param query query type
+	 * @return count
+	 */
+	public long count(Query query) {
+		return wallTimes.get(query).count();
+	}
+
+	/**
+	 * Returns histogram of wall times (in nanoseconds) for {@code query}.
+	 *
+	 * @param query query type
+	 * @return histogram
+	 */
+	public Histogram wallTime(Query query) {
+		return wallTimes.get(query);
+	}
+
+	/**
+	 * Returns histogram of days scanned for {@code query}.
+	 *
+	 * @param query query type
+	 * @return histogram
+	 */
+	public Histogram daysScanned(Query query) {
+		return daysScanned.get(query);
+	}
+
+	/**
+	 * Returns histogram of {@link TemporalExpression#includes(java.time.LocalDate) includes()} calls for {@code query}.
+	 *
+	 * @param query query type
+	 * @return histogram
+	 */
+	public Histogram includesCalls(Query query) {
+		return includesCalls.get(query);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(':');
+		for (Query q : Query.values()) {
+			sb.append(' ').append(q).append("={wallTime=").append(wallTime(q)).append(" daysScanned=").append(daysScanned(q))
+					.append(" includesCalls=").append(includesCalls(q)).append('}');
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,453 @@
+package net.logicsquad.recurring;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A schedule whose events are {@code int} identifiers. It answers the same questions as {@link Schedule}, but takes and returns events as
+ * primitives, and finds an event's expressions through an open-addressing table of {@code int} keys, so that no query boxes an event or
+ * calls {@link Object#hashCode()} or {@link Object#equals(Object)}.
+ * </p>
+ *
+ * <p>
+ * {@link #agenda(LocalDate, int[])} and {@link #agenda(LocalDate, LocalDate, AgendaVisitor)} write events into a caller-supplied array,
+ * so that bulk agenda queries allocate nothing per date. An {@code IntSchedule} is immutable and safe for use by multiple threads.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class IntSchedule {
+	/**
+	 * Receives the agenda for each date of a range, from {@link IntSchedule#agenda(LocalDate, LocalDate, AgendaVisitor)}.
+	 */
+	@FunctionalInterface
+	public interface AgendaVisitor {
+		/**
+		 * Receives events occurring on {@code date}. {@code events} is reused for the next date, so must not be retained.
+		 *
+		 * @param date   a {@link LocalDate}
+		 * @param events buffer whose first {@code count} entries are the events occurring on {@code date}
+		 * @param count  number of events occurring on {@code date}
+		 */
+		void visit(LocalDate date, int[] events, int count);
+	}
+
+	/**
+	 * Marks an empty slot in {@link #slots}
+	 */
+	private static final int EMPTY = -1;
+
+	/**
+	 * Multiplier for hashing event identifiers (the golden ratio as a 32-bit fraction)
+	 */
+	private static final int PHI = 0x9E3779B9;
+
+	/**
+	 * Distinct events, in the order in which they first appear
+	 */
+	private final int[] events;
+
+	/**
+	 * Event identifier in each slot of the open-addressing table
+	 */
+	private final int[] keys;
+
+	/**
+	 * Index into {@link #events} for each slot of the open-addressing table, or {@link #EMPTY}
+	 */
+	private final int[] slots;
+
+	/**
+	 * Right shift taking a hash to a slot of the open-addressing table
+	 */
+	private final int shift;
+
+	/**
+	 * Expressions of each event's elements, indexed as {@link #events}
+	 */
+	private final TemporalExpression[][] expressions;
+
+	/**
+	 * Seekers over expressions of each event's elements, indexed as {@link #events}
+	 */
+	private final Seeker[] seekers;
+
+	/**
+	 * Indexes of each event's elements into {@link #graph}, indexed as {@link #events}
+	 */
+	private final int[][] roots;
+
+	/**
+	 * Expressions of all elements merged into a single graph, indexed by element
+	 */
+	private final ExpressionGraph graph;
+
+	/**
+	 * Constructor
+	 *
+	 * @param events      distinct events
+	 * @param keys        event identifier in each slot
+	 * @param slots       index into {@code events} for each slot
+	 * @param shift       right shift taking a hash to a slot
+	 * @param expressions expressions of each event's elements
+	 * @param roots       indexes of each event's elements into {@code graph}
+	 * @param graph       expressions of all elements
+	 */
+	private IntSchedule(int[] events, int[] keys, int[] slots, int shift, TemporalExpression[][] expressions, int[][] roots,
+			ExpressionGraph graph) {
+		this.events = events;
+		this.keys = keys;
+		this.slots = slots;
+		this.shift = shift;
+		this.expressions = expressions;
+		this.seekers = new Seeker[expressions.length];
+		for (int e = 0; e < seekers.length; e++) {
+			seekers[e] = Seeker.of(expressions[e]);
+		}
+		this.roots = roots;
+		this.graph = graph;
+		return;
+	}
+
+	/**
+	 * Returns an {@code IntSchedule} composed of the {@link ScheduleElement}s in {@code elements}.
+	 *
+	 * @param elements a {@link List} of {@link ScheduleElement}s
+	 * @return new object
+	 * @throws NullPointerException if {@code elements} (or any element) is {@code null}
+	 */
+	public static IntSchedule of(List<ScheduleElement<Integer>> elements) {
+		Objects.requireNonNull(elements);
+		int[] ids = new int[elements.size()];
+		TemporalExpression[] all = new TemporalExpression[elements.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ScheduleElement<Integer> e = Objects.requireNonNull(elements.get(i));
+			ids[i] = e.event().intValue();
+			all[i] = e.expression();
+		}
+		return of(ids, all);
+	}
+
+	/**
+	 * Returns an {@code IntSchedule} in which {@code events[i]} occurs whenever {@code expressions[i]} includes a date.
+	 *
+	 * @param events      event of each element
+	 * @param expressions expression of each element
+	 * @return new object
+	 * @throws NullPointerException     if either array (or any expression) is {@code null}
+	 * @throws IllegalArgumentException if the arrays differ in length
+	 */
+	public static IntSchedule of(int[] events, TemporalExpression[] expressions) {
+		Objects.requireNonNull(events);
+		Objects.requireNonNull(expressions);
+		if (events.length != expressions.length) {
+			throw new IllegalArgumentException("events and expressions differ in length.");
+		}
+		for (TemporalExpression e : expressions) {
+			Objects.requireNonNull(e);
+		}
+		int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(1, events.length * 2 - 1)));
+		int shift = Integer.SIZE - bits;
+		int[] keys = new int[1 << bits];
+		int[] slots = new int[1 << bits];
+		Arrays.fill(slots, EMPTY);
+		int[] distinct = new int[events.length];
+		int[] counts = new int[events.length];
+		int[] eventIndex = new int[events.length];
+		int n = 0;
+		for (int i = 0; i < events.length; i++) {
+			int slot = (events[i] * PHI) >>> shift;
+			while (slots[slot] != EMPTY && keys[slot] != events[i]) {
+				slot = (slot + 1) & (slots.length - 1);
+			}
+			if (slots[slot] == EMPTY) {
+				keys[slot] = events[i];
+				slots[slot] = n;
+				distinct[n++] = events[i];
+			}
+			eventIndex[i] = slots[slot];
+			counts[slots[slot]]++;
+		}
+		TemporalExpression[][] byEvent = new TemporalExpression[n][];
+		int[][] roots = new int[n][];
+		for (int e = 0; e < n; e++) {
+			byEvent[e] = new TemporalExpression[counts[e]];
+			roots[e] = new int[counts[e]];
+			counts[e] = 0;
+		}
+		for (int i = 0; i < events.length; i++) {
+			int e = eventIndex[i];
+			byEvent[e][counts[e]] = expressions[i];
+			roots[e][counts[e]++] = i;
+		}
+		return new IntSchedule(Arrays.copyOf(distinct, n), keys, slots, shift, byEvent, roots, ExpressionGraph.of(Arrays.asList(expressions)));
+	}
+
+	/**
+	 * Is {@code event} occurring on {@code date}?
+	 *
+	 * @param event event identifier
+	 * @param date  a {@link LocalDate}
+	 * @return {@code true} if {@code event} is occurring on {@code date}, otherwise {@code false}
+	 */
+	public boolean isOccurring(int event, LocalDate date) {
+		int e = indexOf(event);
+		return e != EMPTY && isOccurring(expressions[e], date);
+	}
+
+	/**
+	 * Returns a list of {@link LocalDate}s on which {@code event} is occurring between {@code start} and {@code end} dates (inclusive).
+	 *
+	 * @param event event identifier
+	 * @param start start date
+	 * @param end   end date
+	 * @return list of dates on which {@code event} is occurring
+	 */
+	public List<LocalDate> datesInRange(int event, LocalDate start, LocalDate end) {
+		List<LocalDate> result = new ArrayList<>();
+		int e = indexOf(event);
+		if (e == EMPTY) {
+			return result;
+		}
+		for (LocalDate cursor = start; !cursor.isAfter(end); cursor = cursor.plusDays(1)) {
+			if (isOccurring(expressions[e], cursor)) {
+				result.add(cursor);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the next date on which {@code event} is occurring, on or after {@code date}.
+	 *
+	 * @param event event identifier
+	 * @param date  an arbitrary date
+	 * @return date of next occurrence of {@code event}
+	 * @throws DateTimeException if {@code event} is not in this schedule, or has no occurrence on or after {@code date}
+	 */
+	public LocalDate nextOccurrence(int event, LocalDate date) {
+		Seeker seeker = seekerOf(event);
+		if (seeker == null) {
+			throw new DateTimeException("No occurrence of " + event + " on or after " + date + ".");
+		}
+		return seeker.next(date, null);
+	}
+
+	/**
+	 * Returns the previous date on which {@code event} is occurring, on or before {@code date}.
+	 *
+	 * @param event event identifier
+	 * @param date  an arbitrary date
+	 * @return date of previous occurrence of {@code event}
+	 * @throws DateTimeException if {@code event} is not in this schedule, or has no occurrence on or before {@code date}
+	 */
+	public LocalDate previousOccurrence(int event, LocalDate date) {
+		Seeker seeker = seekerOf(event);
+		if (seeker == null) {
+			throw new DateTimeException("No occurrence of " + event + " on or before " + date + ".");
+		}
+		return seeker.previous(date, null);
+	}
+
+	/**
+	 * Returns a stream of future {@link LocalDate}s on which {@code event} is occurring beginning at {@code start} (inclusive) and proceeding
+	 * forward in time.
+	 *
+	 * @param event event identifier
+	 * @param start start date
+	 * @return stream of dates on which {@code event} is occurring
+	 * @throws DateTimeException if {@code event} is not in this schedule
+	 */
+	public Stream<LocalDate> futureDates(int event, LocalDate start) {
+		return Stream.iterate(nextOccurrence(event, start), seed -> nextOccurrence(event, seed.plusDays(1)));
+	}
+
+	/**
+	 * Returns a stream of past {@link LocalDate}s on which {@code event} is occurring beginning at {@code start} (inclusive) and proceeding
+	 * backwards in time.
+	 *
+	 * @param event event identifier
+	 * @param start start date
+	 * @return stream of dates on which {@code event} is occurring
+	 * @throws DateTimeException if {@code event} is not in this schedule
+	 */
+	public Stream<LocalDate> pastDates(int event, LocalDate start) {
+		return Stream.iterate(previousOccurrence(event, start), seed -> previousOccurrence(event, seed.minusDays(1)));
+	}
+
+	/**
+	 * Returns the distinct events occurring on {@code date}, in the order in which they first appear in this schedule.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return events occurring on {@code date}
+	 */
+	public int[] agenda(LocalDate date) {
+		int[] result = new int[events.length];
+		return Arrays.copyOf(result, agenda(date, result));
+	}
+
+	/**
+	 * Writes the distinct events occurring on {@code date} to the start of {@code result}, in the order in which they first appear in this
+	 * schedule.
+	 *
+	 * @param date   a {@link LocalDate}
+	 * @param result buffer for events, at least as long as {@link #size()}
+	 * @return number of events written
+	 * @throws IllegalArgumentException if {@code result} is too short
+	 */
+	public int agenda(LocalDate date, int[] result) {
+		checkBuffer(result);
+		ExpressionGraph.Evaluation evaluation = graph.evaluation();
+		evaluation.reset(date);
+		return agenda(evaluation, result);
+	}
+
+	/**
+	 * Passes the distinct events occurring on each date from {@code start} through {@code end} (inclusive) to {@code visitor}, sharing one
+	 * evaluation and one buffer across the whole range.
+	 *
+	 * @param start   start date
+	 * @param end     end date
+	 * @param visitor receives each date's events
+	 * @throws NullPointerException if {@code visitor} is {@code null}
+	 */
+	public void agenda(LocalDate start, LocalDate end, AgendaVisitor visitor) {
+		Objects.requireNonNull(visitor);
+		int[] buffer = new int[events.length];
+		ExpressionGraph.Evaluation evaluation = graph.evaluation();
+		for (LocalDate cursor = start; !cursor.isAfter(end); cursor = cursor.plusDays(1)) {
+			evaluation.reset(cursor);
+			visitor.visit(cursor, buffer, agenda(evaluation, buffer));
+		}
+		return;
+	}
+
+	/**
+	 * Returns the distinct events in this schedule, in the order in which they first appear.
+	 *
+	 * @return events
+	 */
+	public int[] events() {
+		return events.clone();
+	}
+
+	/**
+	 * Returns the number of distinct events in this schedule.
+	 *
+	 * @return number of events
+	 */
+	public int size() {
+		return events.length;
+	}
+
+	/**
+	 * Does this schedule contain {@code event}?
+	 *
+	 * @param event event identifier
+	 * @return {@code true} if this schedule has an element for {@code event}, otherwise {@code false}
+	 */
+	public boolean contains(int event) {
+		return indexOf(event) != EMPTY;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": ");
+		for (int e = 0; e < events.length; e++) {
+			if (e > 0) {
+				sb.append(", ");
+			}
+			sb.append(events[e]).append('=').append(Arrays.stream(expressions[e]).map(x -> x.toString()).collect(Collectors.joining(", ")));
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Returns index of {@code event} into {@link #events}.
+	 *
+	 * @param event event identifier
+	 * @return index, or {@link #EMPTY} if {@code event} is not in this schedule
+	 */
+	private int indexOf(int event) {
+		int slot = (event * PHI) >>> shift;
+		while (slots[slot] != EMPTY) {
+			if (keys[slot] == event) {
+				return slots[slot];
+			}
+			slot = (slot + 1) & (slots.length - 1);
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the {@link Seeker} over expressions of {@code event}'s elements.
+	 *
+	 * @param event event identifier
+	 * @return {@link Seeker}, or {@code null} if {@code event} is not in this schedule
+	 */
+	private Seeker seekerOf(int event) {
+		int e = indexOf(event);
+		return e == EMPTY ? null : seekers[e];
+	}
+
+	/**
+	 * Does any of {@code expressions} include {@code date}?
+	 *
+	 * @param expressions expressions of one event's elements
+	 * @param date        a {@link LocalDate}
+	 * @return {@code true} if any expression includes {@code date}, otherwise {@code false}
+	 */
+	private static boolean isOccurring(TemporalExpression[] expressions, LocalDate date) {
+		for (TemporalExpression e : expressions) {
+			if (e.includes(date)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the distinct events whose elements {@code evaluation} includes to the start of {@code result}.
+	 *
+	 * @param evaluation evaluation of {@link #graph}, reset to a date
+	 * @param result     buffer for events
+	 * @return number of events written
+	 */
+	private int agenda(ExpressionGraph.Evaluation evaluation, int[] result) {
+		int count = 0;
+		for (int e = 0; e < events.length; e++) {
+			for (int root : roots[e]) {
+				if (evaluation.includes(root)) {
+					result[count++] = events[e];
+					break;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Checks that {@code buffer} can hold every event.
+	 *
+	 * @param buffer buffer for events
+	 * @throws NullPointerException     if {@code buffer} is {@code null}
+	 * @throws IllegalArgumentException if {@code buffer} is too short
+	 */
+	private void checkBuffer(int[] buffer) {
+		Objects.requireNonNull(buffer);
+		if (buffer.length < events.length) {
+			throw new IllegalArgumentException("Buffer must hold at least " + events.length + " events.");
+		}
+		return;
+	}
+}
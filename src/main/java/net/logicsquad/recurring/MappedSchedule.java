@@ -0,0 +1,555 @@
+package net.logicsquad.recurring;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A read-only {@link Schedule} answering queries from a file of precomputed occurrences. {@link #write(Schedule, LocalDate, LocalDate,
+ * EventCodec, Path) write()} evaluates every event in a {@link Schedule} over a horizon of dates, and stores one bitset per event in a
+ * single file. {@link #open(Path, EventCodec) open()} memory-maps that file, and answers queries directly from the mapped bitsets without
+ * copying them onto the heap. Many JVMs on one host can therefore share a single copy of a large schedule through the operating system's
+ * page cache, and opening it costs little more than reading its event directory.
+ * </p>
+ *
+ * <p>
+ * Dates outside the horizon are delegated to a fallback {@link Schedule} (usually the one the file was written from), if one is supplied
+ * to {@link #open(Path, EventCodec, Schedule)}. Without a fallback, any query that needs a date outside the horizon throws
+ * {@link IllegalArgumentException}. Events not in the file never occur within the horizon.
+ * </p>
+ *
+ * <p>
+ * The file starts with a 32-byte header: the magic bytes {@code RCUM}, a format version ({@link #VERSION}), the first date of the horizon
+ * as an epoch day, the number of days, the number of events, and the number of 64-bit words in each bitset. The bitsets follow, one per
+ * event in the order of {@link Schedule#events()}, and then the event directory: each event as a length and the bytes produced by an
+ * {@link EventCodec}. Bitsets are limited to 2 GiB in total. The mapping is released when this object is garbage collected. Instances are
+ * thread-safe.
+ * </p>
+ *
+ * @param <T> type of {@code event} objects
+ * @author paulh
+ * @since 0.5
+ */
+public final class MappedSchedule<T> extends SeekableSchedule<T> {
+	/**
+	 * Current format version
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Magic bytes starting every file
+	 */
+	private static final int MAGIC = 'R' << 24 | 'C' << 16 | 'U' << 8 | 'M';
+
+	/**
+	 * Size of header, in bytes
+	 */
+	private static final int HEADER_SIZE = 32;
+
+	/**
+	 * Days per bitset word
+	 */
+	private static final int DAYS_PER_WORD = Long.SIZE;
+
+	/**
+	 * Size of buffer used to write event directory
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Mapped file
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * First date of horizon
+	 */
+	private final LocalDate start;
+
+	/**
+	 * Last date of horizon
+	 */
+	private final LocalDate end;
+
+	/**
+	 * Number of days in horizon
+	 */
+	private final int days;
+
+	/**
+	 * Number of words in each bitset
+	 */
+	private final int words;
+
+	/**
+	 * Index of each event's bitset
+	 */
+	private final Map<T, Integer> index;
+
+	/**
+	 * Events, in bitset order
+	 */
+	private final List<T> events;
+
+	/**
+	 * Schedule for dates outside horizon, or {@code null}
+	 */
+	private final Schedule<T> fallback;
+
+	/**
+	 * Constructor
+	 *
+	 * @param buffer   mapped file
+	 * @param start    first date of horizon
+	 * @param days     number of days in horizon
+	 * @param words    number of words in each bitset
+	 * @param events   events, in bitset order
+	 * @param fallback schedule for dates outside horizon, or {@code null}
+	 */
+	private MappedSchedule(ByteBuffer buffer, LocalDate start, int days, int words, List<T> events, Schedule<T> fallback) {
+		this.buffer = buffer;
+		this.start = start;
+		this.end = start.plusDays(days - 1);
+		this.days = days;
+		this.words = words;
+		this.events = Collections.unmodifiableList(events);
+		this.index = new HashMap<>();
+		for (int i = 0; i < events.size(); i++) {
+			index.put(events.get(i), i);
+		}
+		this.fallback = fallback;
+		return;
+	}
+
+	/**
+	 * Writes occurrences of every event in {@code schedule} from {@code start} through {@code end} (inclusive) to a file at {@code path},
+	 * replacing any existing file. The file is written beside {@code path} (with the suffix {@code .tmp}) and then moved into place,
+	 * atomically where the file system supports it, so that readers never see a partial file.
+	 *
+	 * @param <T>      type of {@code event} objects
+	 * @param schedule a {@link Schedule}
+	 * @param start    first date of horizon
+	 * @param end      last date of horizon
+	 * @param codec    codec for {@code event} objects
+	 * @param path     destination file
+	 * @throws IOException              if writing fails
+	 * @throws NullPointerException     if any argument is {@code null}
+	 * @throws IllegalArgumentException if {@code end} is before {@code start}, or the bitsets would exceed 2 GiB
+	 */
+	public static <T> void write(Schedule<T> schedule, LocalDate start, LocalDate end, EventCodec<T> codec, Path path) throws IOException {
+		Objects.requireNonNull(schedule);
+		Objects.requireNonNull(start);
+		Objects.requireNonNull(end);
+		Objects.requireNonNull(codec);
+		Objects.requireNonNull(path);
+		if (end.isBefore(start)) {
+			throw new IllegalArgumentException("end=" + end + " is before start=" + start + ".");
+		}
+		long span = end.toEpochDay() - start.toEpochDay() + 1;
+		List<T> events = new ArrayList<>(schedule.events());
+		long words = (span + DAYS_PER_WORD - 1) / DAYS_PER_WORD;
+		long size = HEADER_SIZE + events.size() * words * Long.BYTES;
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Bitsets for " + events.size() + " events over " + span + " days exceed 2 GiB.");
+		}
+		Map<T, Integer> index = new HashMap<>();
+		for (int i = 0; i < events.size(); i++) {
+			index.put(events.get(i), i);
+		}
+		Path absolute = path.toAbsolutePath();
+		Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+					StandardOpenOption.WRITE)) {
+				MappedByteBuffer bitsets = channel.map(MapMode.READ_WRITE, 0, size);
+				bitsets.putInt(MAGIC).putInt(VERSION).putLong(start.toEpochDay()).putInt((int) span).putInt(events.size()).putInt((int) words);
+				LocalDate date = start;
+				for (int d = 0; d < span; d++) {
+					for (T event : schedule.agenda(date)) {
+						int position = HEADER_SIZE + (int) ((index.get(event) * words + d / DAYS_PER_WORD) * Long.BYTES);
+						bitsets.putLong(position, bitsets.getLong(position) | 1L << (d % DAYS_PER_WORD));
+					}
+					date = date.plusDays(1);
+				}
+				bitsets.force();
+				channel.position(size);
+				writeDirectory(channel, events, codec);
+				channel.force(false);
+			}
+			try {
+				Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		return;
+	}
+
+	/**
+	 * Opens a file written by {@link #write(Schedule, LocalDate, LocalDate, EventCodec, Path) write()}, with no fallback for dates outside
+	 * its horizon.
+	 *
+	 * @param <T>   type of {@code event} objects
+	 * @param path  file to open
+	 * @param codec codec for {@code event} objects
+	 * @return new object
+	 * @throws IOException if reading fails, or {@code path} is not a valid file
+	 */
+	public static <T> MappedSchedule<T> open(Path path, EventCodec<T> codec) throws IOException {
+		return open(path, codec, null);
+	}
+
+	/**
+	 * Opens a file written by {@link #write(Schedule, LocalDate, LocalDate, EventCodec, Path) write()}, delegating queries outside its
+	 * horizon to {@code fallback}.
+	 *
+	 * @param <T>      type of {@code event} objects
+	 * @param path     file to open
+	 * @param codec    codec for {@code event} objects
+	 * @param fallback schedule for dates outside horizon, or {@code null}
+	 * @return new object
+	 * @throws IOException if reading fails, or {@code path} is not a valid file
+	 */
+	public static <T> MappedSchedule<T> open(Path path, EventCodec<T> codec, Schedule<T> fallback) throws IOException {
+		Objects.requireNonNull(path);
+		Objects.requireNonNull(codec);
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Not a mapped schedule file: " + path);
+			}
+			buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not a mapped schedule file: " + path);
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException("Unsupported format version " + buffer.getInt(4) + ".");
+		}
+		LocalDate start = LocalDate.ofEpochDay(buffer.getLong(8));
+		int days = buffer.getInt(16);
+		int count = buffer.getInt(20);
+		int words = buffer.getInt(24);
+		long directory = HEADER_SIZE + (long) count * words * Long.BYTES;
+		if (days < 1 || count < 0 || words != (days + DAYS_PER_WORD - 1) / DAYS_PER_WORD || directory > buffer.capacity()) {
+			throw new IOException("Corrupt header in " + path);
+		}
+		List<T> events = new ArrayList<>(count);
+		ByteBuffer in = buffer.duplicate();
+		in.position((int) directory);
+		try {
+			for (int i = 0; i < count; i++) {
+				byte[] bytes = new byte[in.getInt()];
+				in.get(bytes);
+				events.add(codec.decode(bytes));
+			}
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupt event directory in " + path, e);
+		}
+		return new MappedSchedule<>(buffer, start, days, words, events, fallback);
+	}
+
+	/**
+	 * Returns first date of horizon.
+	 *
+	 * @return start date
+	 */
+	public LocalDate start() {
+		return start;
+	}
+
+	/**
+	 * Returns last date of horizon.
+	 *
+	 * @return end date
+	 */
+	public LocalDate end() {
+		return end;
+	}
+
+	@Override
+	public boolean isOccurring(T event, LocalDate date) {
+		if (!inHorizon(date)) {
+			return fallback(date).isOccurring(event, date);
+		}
+		Integer i = index.get(event);
+		int d = day(date);
+		return i != null && (word(i, d / DAYS_PER_WORD) & 1L << (d % DAYS_PER_WORD)) != 0;
+	}
+
+	@Override
+	public List<LocalDate> datesInRange(T event, LocalDate start, LocalDate end) {
+		List<LocalDate> result = new ArrayList<>();
+		if (end.isBefore(start)) {
+			return result;
+		}
+		if (start.isBefore(this.start)) {
+			LocalDate last = end.isBefore(this.start) ? end : this.start.minusDays(1);
+			result.addAll(fallback(start).datesInRange(event, start, last));
+		}
+		Integer i = index.get(event);
+		LocalDate from = start.isAfter(this.start) ? start : this.start;
+		LocalDate to = end.isBefore(this.end) ? end : this.end;
+		if (i != null && !to.isBefore(from)) {
+			int first = day(from);
+			int last = day(to);
+			for (int w = first / DAYS_PER_WORD; w <= last / DAYS_PER_WORD; w++) {
+				long word = word(i, w);
+				while (word != 0) {
+					int d = w * DAYS_PER_WORD + Long.numberOfTrailingZeros(word);
+					if (d >= first && d <= last) {
+						result.add(this.start.plusDays(d));
+					}
+					word &= word - 1;
+				}
+			}
+		}
+		if (end.isAfter(this.end)) {
+			LocalDate first = start.isAfter(this.end) ? start : this.end.plusDays(1);
+			result.addAll(fallback(end).datesInRange(event, first, end));
+		}
+		return result;
+	}
+
+	@Override
+	public Stream<LocalDate> futureDates(T event, LocalDate start) {
+		return Stream.iterate(nextOccurrence(event, start), seed -> nextOccurrence(event, seed.plusDays(1)));
+	}
+
+	@Override
+	public Stream<LocalDate> pastDates(T event, LocalDate start) {
+		return Stream.iterate(previousOccurrence(event, start), seed -> previousOccurrence(event, seed.minusDays(1)));
+	}
+
+	@Override
+	public LocalDate nextOccurrence(T event, LocalDate date) {
+		if (date.isBefore(start)) {
+			LocalDate result = fallback(date).nextOccurrence(event, date);
+			if (result.isBefore(start)) {
+				return result;
+			}
+			// Fallback's answer is at least as late as any occurrence in horizon
+			date = start;
+		} else if (date.isAfter(end)) {
+			return fallback(date).nextOccurrence(event, date);
+		}
+		Integer i = index.get(event);
+		if (i != null) {
+			int d = day(date);
+			int w = d / DAYS_PER_WORD;
+			long word = word(i, w) & -1L << (d % DAYS_PER_WORD);
+			while (true) {
+				if (word != 0) {
+					return start.plusDays((long) w * DAYS_PER_WORD + Long.numberOfTrailingZeros(word));
+				}
+				if (++w == words) {
+					break;
+				}
+				word = word(i, w);
+			}
+		}
+		LocalDate after = end.plusDays(1);
+		return fallback(after).nextOccurrence(event, after);
+	}
+
+	@Override
+	public LocalDate previousOccurrence(T event, LocalDate date) {
+		if (date.isAfter(end)) {
+			LocalDate result = fallback(date).previousOccurrence(event, date);
+			if (result.isAfter(end)) {
+				return result;
+			}
+			date = end;
+		} else if (date.isBefore(start)) {
+			return fallback(date).previousOccurrence(event, date);
+		}
+		Integer i = index.get(event);
+		if (i != null) {
+			int d = day(date);
+			int w = d / DAYS_PER_WORD;
+			long word = word(i, w) & -1L >>> (DAYS_PER_WORD - 1 - d % DAYS_PER_WORD);
+			while (true) {
+				if (word != 0) {
+					return start.plusDays((long) w * DAYS_PER_WORD + DAYS_PER_WORD - 1 - Long.numberOfLeadingZeros(word));
+				}
+				if (--w < 0) {
+					break;
+				}
+				word = word(i, w);
+			}
+		}
+		LocalDate before = start.minusDays(1);
+		return fallback(before).previousOccurrence(event, before);
+	}
+
+	@Override
+	LocalDate seek(T event, LocalDate date, LocalDate limit) {
+		LocalDate cursor = date;
+		if (cursor.isBefore(start)) {
+			boolean beforeHorizon = limit.isBefore(start);
+			LocalDate result = seek(fallback(cursor), event, cursor, beforeHorizon ? limit : start.minusDays(1));
+			if (result != null || beforeHorizon) {
+				return result;
+			}
+			cursor = start;
+		}
+		Integer i = index.get(event);
+		if (i != null && !cursor.isAfter(end)) {
+			int d = day(cursor);
+			int w = d / DAYS_PER_WORD;
+			long word = word(i, w) & -1L << (d % DAYS_PER_WORD);
+			while (true) {
+				if (word != 0) {
+					return start.plusDays((long) w * DAYS_PER_WORD + Long.numberOfTrailingZeros(word));
+				}
+				if (++w == words) {
+					break;
+				}
+				word = word(i, w);
+			}
+		}
+		if (!limit.isAfter(end)) {
+			return null;
+		}
+		if (!cursor.isAfter(end)) {
+			cursor = end.plusDays(1);
+		}
+		return seek(fallback(cursor), event, cursor, limit);
+	}
+
+	@Override
+	public List<T> agenda(LocalDate date) {
+		if (!inHorizon(date)) {
+			return fallback(date).agenda(date);
+		}
+		int d = day(date);
+		long mask = 1L << (d % DAYS_PER_WORD);
+		List<T> result = new ArrayList<>();
+		for (int i = 0; i < events.size(); i++) {
+			if ((word(i, d / DAYS_PER_WORD) & mask) != 0) {
+				result.add(events.get(i));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Set<T> events() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(events));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": start=").append(start).append(" end=").append(end).append(" days=").append(days)
+				.append(" events=").append(events.stream().map(String::valueOf).collect(Collectors.joining(", "))).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Writes event directory to {@code channel} at its current position.
+	 *
+	 * @param <T>     type of {@code event} objects
+	 * @param channel destination channel
+	 * @param events  events, in bitset order
+	 * @param codec   codec for {@code event} objects
+	 * @throws IOException if writing fails
+	 */
+	private static <T> void writeDirectory(FileChannel channel, List<T> events, EventCodec<T> codec) throws IOException {
+		ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+		for (T event : events) {
+			byte[] bytes = codec.encode(event);
+			if (out.remaining() < Integer.BYTES + bytes.length) {
+				drain(channel, out);
+				if (out.capacity() < Integer.BYTES + bytes.length) {
+					out = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+				}
+			}
+			out.putInt(bytes.length).put(bytes);
+		}
+		drain(channel, out);
+		return;
+	}
+
+	/**
+	 * Writes contents of {@code out} to {@code channel}, and clears it.
+	 *
+	 * @param channel destination channel
+	 * @param out     buffer, in write mode
+	 * @throws IOException if writing fails
+	 */
+	private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+		out.flip();
+		while (out.hasRemaining()) {
+			channel.write(out);
+		}
+		out.clear();
+		return;
+	}
+
+	/**
+	 * Is {@code date} within the horizon?
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return {@code true} if {@code date} is within the horizon, otherwise {@code false}
+	 */
+	private boolean inHorizon(LocalDate date) {
+		return !date.isBefore(start) && !date.isAfter(end);
+	}
+
+	/**
+	 * Returns index of {@code date} within the horizon.
+	 *
+	 * @param date a {@link LocalDate} within the horizon
+	 * @return day index
+	 */
+	private int day(LocalDate date) {
+		return (int) (date.toEpochDay() - start.toEpochDay());
+	}
+
+	/**
+	 * Returns word {@code w} of the bitset at {@code i}.
+	 *
+	 * @param i bitset index
+	 * @param w word index
+	 * @return word
+	 */
+	private long word(int i, int w) {
+		return buffer.getLong(HEADER_SIZE + (i * words + w) * Long.BYTES);
+	}
+
+	/**
+	 * Returns {@link #fallback} for a query needing {@code date}.
+	 *
+	 * @param date a date outside the horizon
+	 * @return fallback schedule
+	 * @throws IllegalArgumentException if there is no fallback
+	 */
+	private Schedule<T> fallback(LocalDate date) {
+		if (fallback == null) {
+			throw new IllegalArgumentException("date=" + date + " is outside horizon [" + start + ", " + end + "].");
+		}
+		return fallback;
+	}
+}
@@ -0,0 +1,269 @@
+package net.logicsquad.recurring;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Caches the answer to {@code schedule.nextOccurrence(event, today)} for each event, where "today" comes from a {@link Clock}. An entry
+ * computed on one day remains correct on every later day up to and including the date it holds, so it is reused until that date passes,
+ * and then recomputed lazily by the next caller. Most calls are therefore answered with a single map lookup.
+ * </p>
+ *
+ * <p>
+ * The cache takes no locks. A value computed while any invalidation is under way is returned to its caller but not kept, so an
+ * invalidated event never leaves a stale entry behind, and a removed event leaves none at all. If the {@link Schedule} is a
+ * {@link ConcurrentSchedule}, entries for the events affected by each change are invalidated automatically until the cache is
+ * {@link #close() closed}. Otherwise, call {@link #invalidate(Object)} or {@link #invalidateAll()} after changes.
+ * </p>
+ *
+ * @param <T> type for {@link ScheduleElement}s and {@code event} objects
+ * @author paulh
+ * @since 0.5
+ */
+public final class NextOccurrenceCache<T> implements AutoCloseable {
+	/**
+	 * Underlying {@link Schedule}
+	 */
+	private final Schedule<T> schedule;
+
+	/**
+	 * Source of today's date
+	 */
+	private final Clock clock;
+
+	/**
+	 * Cached entries by event
+	 */
+	private final ConcurrentMap<T, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented by each invalidation before it discards entries; an entry computed across an increment is discarded by its computer
+	 */
+	private final AtomicLong invalidations = new AtomicLong();
+
+	/**
+	 * Listener added to a {@link ConcurrentSchedule}, or {@code null}
+	 */
+	private final ConcurrentSchedule.ChangeListener<T> listener;
+
+	/**
+	 * Has this cache been closed?
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Number of calls answered from the cache
+	 */
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Number of calls that computed an answer
+	 */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Constructor
+	 *
+	 * @param schedule underlying {@link Schedule}
+	 * @param clock    source of today's date
+	 */
+	private NextOccurrenceCache(Schedule<T> schedule, Clock clock) {
+		this.schedule = schedule;
+		this.clock = clock;
+		this.listener = schedule instanceof ConcurrentSchedule ? this::invalidate : null;
+		return;
+	}
+
+	/**
+	 * Returns a {@code NextOccurrenceCache} for {@code schedule}, taking today's date from {@code clock}. If {@code schedule} is a
+	 * {@link ConcurrentSchedule}, the new cache listens to it for changes until {@link #close()} is called.
+	 *
+	 * @param <T>      type for event
+	 * @param schedule underlying {@link Schedule}
+	 * @param clock    source of today's date
+	 * @return new object
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	public static <T> NextOccurrenceCache<T> of(Schedule<T> schedule, Clock clock) {
+		Objects.requireNonNull(schedule);
+		Objects.requireNonNull(clock);
+		NextOccurrenceCache<T> result = new NextOccurrenceCache<>(schedule, clock);
+		if (result.listener != null) {
+			((ConcurrentSchedule<T>) schedule).addListener(result.listener);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the next date on which {@code event} is occurring, on or after today.
+	 *
+	 * @param event object representing an event
+	 * @return date of next occurrence of {@code event}
+	 * @throws NullPointerException  if {@code event} is {@code null}
+	 * @throws IllegalStateException if this cache has been closed
+	 */
+	public LocalDate nextOccurrence(T event) {
+		checkOpen();
+		LocalDate today = LocalDate.now(clock);
+		Entry entry = entries.get(event);
+		if (entry != null && entry.isValid(today)) {
+			hits.increment();
+			return entry.next;
+		}
+		misses.increment();
+		long started = invalidations.get();
+		LocalDate result = schedule.nextOccurrence(event, today);
+		Entry computed = new Entry(today, result);
+		if (entry == null) {
+			entries.putIfAbsent(event, computed);
+		} else {
+			entries.replace(event, entry, computed);
+		}
+		// An invalidation that began during the computation either discards the entry itself, or has already passed it by
+		if (invalidations.get() != started) {
+			entries.remove(event, computed);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the next date on which each event in the {@link Schedule} is occurring, on or after today.
+	 *
+	 * @return next occurrence of each event, in the order of {@link Schedule#events()}
+	 * @throws IllegalStateException if this cache has been closed
+	 */
+	public Map<T, LocalDate> nextOccurrences() {
+		Map<T, LocalDate> result = new LinkedHashMap<>();
+		for (T event : schedule.events()) {
+			result.put(event, nextOccurrence(event));
+		}
+		return result;
+	}
+
+	/**
+	 * Discards the cached entry for {@code event}.
+	 *
+	 * @param event object representing an event
+	 */
+	public void invalidate(T event) {
+		invalidations.incrementAndGet();
+		entries.remove(event);
+		return;
+	}
+
+	/**
+	 * Discards every cached entry.
+	 */
+	public void invalidateAll() {
+		invalidations.incrementAndGet();
+		entries.clear();
+		return;
+	}
+
+	/**
+	 * Stops listening to a {@link ConcurrentSchedule} for changes, so that this cache is no longer reachable from it, and discards every
+	 * cached entry. Later calls to {@link #nextOccurrence(Object)} throw {@link IllegalStateException}. Closing twice has no further
+	 * effect.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		if (listener != null) {
+			((ConcurrentSchedule<T>) schedule).removeListener(listener);
+		}
+		invalidateAll();
+		return;
+	}
+
+	/**
+	 * Returns number of calls to {@link #nextOccurrence(Object)} answered from the cache.
+	 *
+	 * @return hit count
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns number of calls to {@link #nextOccurrence(Object)} that computed an answer.
+	 *
+	 * @return miss count
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns number of events with a cached entry.
+	 *
+	 * @return entry count
+	 */
+	int size() {
+		return entries.size();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": entries=").append(entries.size()).append(" hits=").append(hits())
+				.append(" misses=").append(misses()).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Throws {@link IllegalStateException} if this cache has been closed.
+	 *
+	 * @throws IllegalStateException if this cache has been closed
+	 */
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("NextOccurrenceCache has been closed.");
+		}
+		return;
+	}
+
+	/**
+	 * Immutable cached answer for one event.
+	 */
+	private static final class Entry {
+		/**
+		 * Date on which {@link #next} was computed
+		 */
+		private final LocalDate computed;
+
+		/**
+		 * Next occurrence on or after {@link #computed}
+		 */
+		final LocalDate next;
+
+		/**
+		 * Constructor
+		 *
+		 * @param computed date on which {@code next} was computed
+		 * @param next     next occurrence on or after {@code computed}
+		 */
+		Entry(LocalDate computed, LocalDate next) {
+			this.computed = computed;
+			this.next = next;
+			return;
+		}
+
+		/**
+		 * Is this entry the answer for {@code today}?
+		 *
+		 * @param today today's date
+		 * @return {@code true} if this entry is valid, otherwise {@code false}
+		 */
+		boolean isValid(LocalDate today) {
+			return !today.isBefore(computed) && !today.isAfter(next);
+		}
+	}
+}
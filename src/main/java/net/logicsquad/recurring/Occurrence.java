@@ -0,0 +1,91 @@
+package net.logicsquad.recurring;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * An occurrence of an event on a date, as returned by {@link Schedule#occurrences(LocalDate, LocalDate)}.
+ *
+ * @param <T> type for {@code event} objects
+ * @author paulh
+ * @since 0.5
+ */
+public final class Occurrence<T> {
+	/**
+	 * Event
+	 */
+	private final T event;
+
+	/**
+	 * Date of occurrence
+	 */
+	private final LocalDate date;
+
+	/**
+	 * Constructor
+	 *
+	 * @param event event
+	 * @param date  date of occurrence
+	 */
+	private Occurrence(T event, LocalDate date) {
+		this.event = event;
+		this.date = date;
+		return;
+	}
+
+	/**
+	 * Returns an {@code Occurrence} of {@code event} on {@code date}.
+	 *
+	 * @param <T>   type for event
+	 * @param event object representing an event
+	 * @param date  date of occurrence
+	 * @return new object
+	 * @throws NullPointerException if {@code date} is {@code null}
+	 */
+	public static <T> Occurrence<T> of(T event, LocalDate date) {
+		Objects.requireNonNull(date);
+		return new Occurrence<>(event, date);
+	}
+
+	/**
+	 * Returns event.
+	 *
+	 * @return event
+	 */
+	public T event() {
+		return event;
+	}
+
+	/**
+	 * Returns date of occurrence.
+	 *
+	 * @return date
+	 */
+	public LocalDate date() {
+		return date;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Occurrence)) {
+			return false;
+		}
+		Occurrence<?> other = (Occurrence<?>) obj;
+		return Objects.equals(event, other.event) && date.equals(other.date);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hashCode(event) + date.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": event=").append(event).append(" date=").append(date).append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,699 @@
+package net.logicsquad.recurring;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A {@link Schedule} that materializes the occurrences of each {@link ScheduleElement} over a horizon of dates into bitsets held outside
+ * the Java heap, in direct {@link ByteBuffer} segments. Each event is given an {@code int} id, and a directory maps each id to the indexes
+ * of its elements' bitsets. A schedule of millions of elements therefore adds a handful of large buffers to the heap, rather than millions
+ * of small objects, and so adds little to garbage collection.
+ * </p>
+ *
+ * <p>
+ * Queries within the horizon are answered from the bitsets. Queries outside it evaluate the elements' expressions, and searches for the
+ * next or previous occurrence outside it seek through them as {@link Schedule#of(List) Schedule.of()} does, so every query returns exactly
+ * what {@link Schedule#of(List) Schedule.of()} would for the same elements. Materializing evaluates each element once per day in the
+ * horizon, sharing evaluation of common sub-expressions.
+ * </p>
+ *
+ * <p>
+ * {@link #close()} releases the native memory, after which queries throw {@link IllegalStateException}. Queries may run concurrently with
+ * each other and with {@link #close()}: each query holds a read lock while it reads the bitsets, and {@link #close()} waits for those
+ * reads to finish before releasing the memory. Searches outside the horizon, which may test many days, run without the lock.
+ * {@link #footprint()} reports the memory used.
+ * </p>
+ *
+ * @param <T> type for {@link ScheduleElement}s and {@code event} objects
+ * @author paulh
+ * @since 0.5
+ */
+public final class OffHeapSchedule<T> extends SeekableSchedule<T> implements AutoCloseable {
+	/**
+	 * Maximum size of each segment, in bytes
+	 */
+	private static final int SEGMENT_SIZE = 1 << 26;
+
+	/**
+	 * Days per bitset word
+	 */
+	private static final int DAYS_PER_WORD = Long.SIZE;
+
+	/**
+	 * Elements comprising this {@code Schedule}
+	 */
+	private final List<ScheduleElement<T>> elements;
+
+	/**
+	 * Id of each event
+	 */
+	private final Map<T, Integer> ids;
+
+	/**
+	 * Events, indexed by id
+	 */
+	private final List<T> events;
+
+	/**
+	 * Indexes of each event's elements, indexed by event id
+	 */
+	private final int[][] directory;
+
+	/**
+	 * Seekers over expressions of each event's elements, indexed by event id
+	 */
+	private final Seeker[] seekers;
+
+	/**
+	 * Segments holding element bitsets
+	 */
+	private final ByteBuffer[] segments;
+
+	/**
+	 * Number of element bitsets in each segment
+	 */
+	private final int bitsetsPerSegment;
+
+	/**
+	 * Number of words in each bitset
+	 */
+	private final int words;
+
+	/**
+	 * First date of horizon
+	 */
+	private final LocalDate start;
+
+	/**
+	 * Last date of horizon
+	 */
+	private final LocalDate end;
+
+	/**
+	 * Held for reading by each query, and for writing by {@link #close()}, so that native memory is not released while a query is reading
+	 * it
+	 */
+	private final StampedLock lock = new StampedLock();
+
+	/**
+	 * Has {@link #close()} been called?
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Constructor
+	 *
+	 * @param elements comprising {@link ScheduleElement}s
+	 * @param start    first date of horizon
+	 * @param end      last date of horizon
+	 */
+	private OffHeapSchedule(List<ScheduleElement<T>> elements, LocalDate start, LocalDate end) {
+		this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
+		this.start = start;
+		this.end = end;
+		long days = end.toEpochDay() - start.toEpochDay() + 1;
+		long bytesPerBitset = (days + DAYS_PER_WORD - 1) / DAYS_PER_WORD * Long.BYTES;
+		if (bytesPerBitset > SEGMENT_SIZE) {
+			throw new IllegalArgumentException("Horizon of " + days + " days is too long.");
+		}
+		this.words = (int) (bytesPerBitset / Long.BYTES);
+		this.bitsetsPerSegment = (int) (SEGMENT_SIZE / bytesPerBitset);
+
+		// Directory
+		Map<T, List<Integer>> byEvent = new LinkedHashMap<>();
+		for (int i = 0; i < this.elements.size(); i++) {
+			byEvent.computeIfAbsent(this.elements.get(i).event(), k -> new ArrayList<>()).add(i);
+		}
+		this.ids = new LinkedHashMap<>();
+		this.events = new ArrayList<>(byEvent.keySet());
+		this.directory = new int[events.size()][];
+		for (T event : events) {
+			int id = ids.size();
+			ids.put(event, id);
+			directory[id] = byEvent.get(event).stream().mapToInt(Integer::intValue).toArray();
+		}
+		this.seekers = new Seeker[events.size()];
+		for (int id = 0; id < seekers.length; id++) {
+			seekers[id] = Seeker.of(Arrays.stream(directory[id]).mapToObj(i -> this.elements.get(i).expression())
+					.toArray(TemporalExpression[]::new));
+		}
+
+		// Segments
+		int count = (this.elements.size() + bitsetsPerSegment - 1) / bitsetsPerSegment;
+		this.segments = new ByteBuffer[count];
+		for (int s = 0; s < count; s++) {
+			int bitsets = Math.min(bitsetsPerSegment, this.elements.size() - s * bitsetsPerSegment);
+			segments[s] = ByteBuffer.allocateDirect((int) (bitsets * bytesPerBitset));
+		}
+		materialize();
+		return;
+	}
+
+	/**
+	 * Returns an {@code OffHeapSchedule} comprising {@code elements}, with occurrences materialized from {@code start} through {@code end}
+	 * (inclusive).
+	 *
+	 * @param <T>      type for {@link ScheduleElement}s and {@code event} objects
+	 * @param elements list of {@link ScheduleElement}s
+	 * @param start    first date of horizon
+	 * @param end      last date of horizon
+	 * @return new object
+	 * @throws NullPointerException     if any argument (or element) is {@code null}
+	 * @throws IllegalArgumentException if {@code end} is before {@code start}
+	 */
+	public static <T> OffHeapSchedule<T> of(List<ScheduleElement<T>> elements, LocalDate start, LocalDate end) {
+		Objects.requireNonNull(elements);
+		Objects.requireNonNull(start);
+		Objects.requireNonNull(end);
+		for (ScheduleElement<T> e : elements) {
+			Objects.requireNonNull(e);
+		}
+		if (end.isBefore(start)) {
+			throw new IllegalArgumentException("end=" + end + " is before start=" + start + ".");
+		}
+		return new OffHeapSchedule<>(elements, start, end);
+	}
+
+	/**
+	 * Returns first date of horizon.
+	 *
+	 * @return start date
+	 */
+	public LocalDate start() {
+		return start;
+	}
+
+	/**
+	 * Returns last date of horizon.
+	 *
+	 * @return end date
+	 */
+	public LocalDate end() {
+		return end;
+	}
+
+	@Override
+	public boolean isOccurring(T event, LocalDate date) {
+		long stamp = lock.readLock();
+		try {
+			checkOpen();
+			Integer id = ids.get(event);
+			if (id == null) {
+				return false;
+			}
+			if (!inHorizon(date)) {
+				return evaluate(id, date);
+			}
+			int d = day(date);
+			return (word(id, d / DAYS_PER_WORD) & 1L << (d % DAYS_PER_WORD)) != 0;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public List<LocalDate> datesInRange(T event, LocalDate start, LocalDate end) {
+		long stamp = lock.readLock();
+		try {
+			checkOpen();
+			List<LocalDate> result = new ArrayList<>();
+			Integer id = ids.get(event);
+			if (id == null) {
+				return result;
+			}
+			LocalDate cursor = start;
+			while (!cursor.isAfter(end) && cursor.isBefore(this.start)) {
+				if (evaluate(id, cursor)) {
+					result.add(cursor);
+				}
+				cursor = cursor.plusDays(1);
+			}
+			LocalDate last = end.isBefore(this.end) ? end : this.end;
+			if (!cursor.isAfter(last)) {
+				int first = day(cursor);
+				int to = day(last);
+				for (int w = first / DAYS_PER_WORD; w <= to / DAYS_PER_WORD; w++) {
+					long word = word(id, w);
+					while (word != 0) {
+						int d = w * DAYS_PER_WORD + Long.numberOfTrailingZeros(word);
+						if (d >= first && d <= to) {
+							result.add(this.start.plusDays(d));
+						}
+						word &= word - 1;
+					}
+				}
+				cursor = last.plusDays(1);
+			}
+			while (!cursor.isAfter(end)) {
+				if (evaluate(id, cursor)) {
+					result.add(cursor);
+				}
+				cursor = cursor.plusDays(1);
+			}
+			return result;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public Stream<LocalDate> futureDates(T event, LocalDate start) {
+		return Stream.iterate(nextOccurrence(event, start), seed -> nextOccurrence(event, seed.plusDays(1)));
+	}
+
+	@Override
+	public Stream<LocalDate> pastDates(T event, LocalDate start) {
+		return Stream.iterate(previousOccurrence(event, start), seed -> previousOccurrence(event, seed.minusDays(1)));
+	}
+
+	@Override
+	public LocalDate nextOccurrence(T event, LocalDate date) {
+		checkOpen();
+		Integer id = ids.get(event);
+		if (id == null) {
+			throw new DateTimeException("No occurrence of " + event + " on or after " + date + ".");
+		}
+		LocalDate result = next(id, date, LocalDate.MAX);
+		if (result == null) {
+			throw new DateTimeException("No occurrence of " + event + " on or after " + date + ".");
+		}
+		return result;
+	}
+
+	@Override
+	public LocalDate previousOccurrence(T event, LocalDate date) {
+		checkOpen();
+		Integer id = ids.get(event);
+		if (id == null) {
+			throw new DateTimeException("No occurrence of " + event + " on or before " + date + ".");
+		}
+		LocalDate cursor = date;
+		if (cursor.isAfter(end)) {
+			LocalDate result = seekers[id].previous(cursor, end.plusDays(1), null);
+			if (result != null) {
+				return result;
+			}
+			cursor = end;
+		}
+		if (!cursor.isBefore(start)) {
+			LocalDate result = previousInHorizon(id, cursor);
+			if (result != null) {
+				return result;
+			}
+			cursor = start.minusDays(1);
+		}
+		return seekers[id].previous(cursor, null);
+	}
+
+	@Override
+	LocalDate seek(T event, LocalDate date, LocalDate limit) {
+		checkOpen();
+		Integer id = ids.get(event);
+		return id == null ? null : next(id, date, limit);
+	}
+
+	@Override
+	public List<T> agenda(LocalDate date) {
+		long stamp = lock.readLock();
+		try {
+			checkOpen();
+			List<T> result = new ArrayList<>();
+			boolean inHorizon = inHorizon(date);
+			int d = inHorizon ? day(date) : 0;
+			for (int id = 0; id < events.size(); id++) {
+				if (inHorizon ? (word(id, d / DAYS_PER_WORD) & 1L << (d % DAYS_PER_WORD)) != 0 : evaluate(id, date)) {
+					result.add(events.get(id));
+				}
+			}
+			return result;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public Set<T> events() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(events));
+	}
+
+	/**
+	 * Returns a report of the memory used by this {@code OffHeapSchedule}.
+	 *
+	 * @return {@link Footprint}
+	 */
+	public Footprint footprint() {
+		long offHeap = 0;
+		for (ByteBuffer s : segments) {
+			offHeap += s.capacity();
+		}
+		long directoryBytes = 0;
+		for (int[] d : directory) {
+			directoryBytes += (long) d.length * Integer.BYTES;
+		}
+		return new Footprint(elements.size(), events.size(), words * DAYS_PER_WORD, segments.length, closed ? 0 : offHeap, directoryBytes);
+	}
+
+	/**
+	 * Releases the native memory holding materialized occurrences, once any queries in progress have finished. Subsequent queries throw
+	 * {@link IllegalStateException}. Calling this method more than once has no further effect.
+	 */
+	@Override
+	public void close() {
+		long stamp = lock.writeLock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			for (ByteBuffer s : segments) {
+				DirectBuffers.release(s);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+		return;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": start=").append(start).append(" end=").append(end).append(' ')
+				.append(elements.stream().map(e -> e.toString()).collect(Collectors.joining(", "))).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Evaluates every element against every day in the horizon, setting bits in {@link #segments}.
+	 */
+	private void materialize() {
+		ExpressionGraph graph = ExpressionGraph.of(elements.stream().map(ScheduleElement::expression).collect(Collectors.toList()));
+		ExpressionGraph.Evaluation evaluation = graph.evaluation();
+		long[] buffer = new long[elements.size()];
+		LocalDate date = start;
+		int days = day(end) + 1;
+		for (int d = 0; d < days; d++) {
+			evaluation.reset(date);
+			for (int i = 0; i < elements.size(); i++) {
+				if (evaluation.includes(i)) {
+					buffer[i] |= 1L << (d % DAYS_PER_WORD);
+				}
+			}
+			// Flush a word for every element once it is complete
+			if (d % DAYS_PER_WORD == DAYS_PER_WORD - 1 || d == days - 1) {
+				int w = d / DAYS_PER_WORD;
+				for (int i = 0; i < elements.size(); i++) {
+					segments[i / bitsetsPerSegment].putLong(((i % bitsetsPerSegment) * words + w) * Long.BYTES, buffer[i]);
+					buffer[i] = 0;
+				}
+			}
+			date = date.plusDays(1);
+		}
+		return;
+	}
+
+	/**
+	 * Returns the first occurrence of event {@code id} on or after {@code date}, as {@link #seek(Object, LocalDate, LocalDate)} does:
+	 * within the horizon from the bitsets, and outside it through {@link #seekers}.
+	 *
+	 * @param id    event id
+	 * @param date  a {@link LocalDate}
+	 * @param limit latest date that must be searched
+	 * @return next date, or {@code null} if there is none by {@code limit}
+	 * @throws IllegalStateException if {@link #close()} has been called
+	 */
+	private LocalDate next(int id, LocalDate date, LocalDate limit) {
+		LocalDate cursor = date;
+		if (cursor.isBefore(start)) {
+			boolean beforeHorizon = limit.isBefore(start);
+			LocalDate result = seekers[id].seek(cursor, beforeHorizon ? limit : start.minusDays(1), null);
+			if (result != null || beforeHorizon) {
+				return result;
+			}
+			cursor = start;
+		}
+		if (!cursor.isAfter(end)) {
+			LocalDate result = nextInHorizon(id, cursor);
+			if (result != null || !limit.isAfter(end)) {
+				return result;
+			}
+			cursor = end.plusDays(1);
+		}
+		return seekers[id].seek(cursor, limit, null);
+	}
+
+	/**
+	 * Returns the first occurrence of event {@code id} from {@code date} to the end of the horizon, holding {@link #lock} for reading while
+	 * it reads the bitsets. Searches outside the horizon do not hold the lock, so that {@link #close()} never waits for them.
+	 *
+	 * @param id   event id
+	 * @param date a {@link LocalDate} within the horizon
+	 * @return next date, or {@code null} if there is none in the horizon
+	 * @throws IllegalStateException if {@link #close()} has been called
+	 */
+	private LocalDate nextInHorizon(int id, LocalDate date) {
+		long stamp = lock.readLock();
+		try {
+			checkOpen();
+			int d = day(date);
+			int w = d / DAYS_PER_WORD;
+			long word = word(id, w) & -1L << (d % DAYS_PER_WORD);
+			while (true) {
+				if (word != 0) {
+					return start.plusDays((long) w * DAYS_PER_WORD + Long.numberOfTrailingZeros(word));
+				}
+				if (++w == words) {
+					return null;
+				}
+				word = word(id, w);
+			}
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns the last occurrence of event {@code id} from the start of the horizon to {@code date}, holding {@link #lock} for reading while
+	 * it reads the bitsets.
+	 *
+	 * @param id   event id
+	 * @param date a {@link LocalDate} within the horizon
+	 * @return previous date, or {@code null} if there is none in the horizon
+	 * @throws IllegalStateException if {@link #close()} has been called
+	 */
+	private LocalDate previousInHorizon(int id, LocalDate date) {
+		long stamp = lock.readLock();
+		try {
+			checkOpen();
+			int d = day(date);
+			int w = d / DAYS_PER_WORD;
+			long word = word(id, w) & -1L >>> (DAYS_PER_WORD - 1 - d % DAYS_PER_WORD);
+			while (true) {
+				if (word != 0) {
+					return start.plusDays((long) w * DAYS_PER_WORD + DAYS_PER_WORD - 1 - Long.numberOfLeadingZeros(word));
+				}
+				if (--w < 0) {
+					return null;
+				}
+				word = word(id, w);
+			}
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns word {@code w} of the union of bitsets for elements of event {@code id}.
+	 *
+	 * @param id event id
+	 * @param w  word index
+	 * @return word
+	 */
+	private long word(int id, int w) {
+		long result = 0;
+		for (int i : directory[id]) {
+			result |= segments[i / bitsetsPerSegment].getLong(((i % bitsetsPerSegment) * words + w) * Long.BYTES);
+		}
+		return result;
+	}
+
+	/**
+	 * Evaluates expressions of elements of event {@code id} against {@code date}.
+	 *
+	 * @param id   event id
+	 * @param date a {@link LocalDate}
+	 * @return {@code true} if event {@code id} is occurring on {@code date}, otherwise {@code false}
+	 */
+	private boolean evaluate(int id, LocalDate date) {
+		for (int i : directory[id]) {
+			if (elements.get(i).isOccurring(date)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Is {@code date} within the horizon?
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return {@code true} if {@code date} is within the horizon, otherwise {@code false}
+	 */
+	private boolean inHorizon(LocalDate date) {
+		return !date.isBefore(start) && !date.isAfter(end);
+	}
+
+	/**
+	 * Returns index of {@code date} within the horizon.
+	 *
+	 * @param date a {@link LocalDate} within the horizon
+	 * @return day index
+	 */
+	private int day(LocalDate date) {
+		return (int) (date.toEpochDay() - start.toEpochDay());
+	}
+
+	/**
+	 * Checks that {@link #close()} has not been called. Must be called with {@link #lock} held for reading before reading
+	 * {@link #segments}.
+	 *
+	 * @throws IllegalStateException if {@link #close()} has been called
+	 */
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("OffHeapSchedule has been closed.");
+		}
+		return;
+	}
+
+	/**
+	 * Memory used by an {@link OffHeapSchedule}.
+	 */
+	public static final class Footprint {
+		/**
+		 * Number of elements
+		 */
+		private final int elements;
+
+		/**
+		 * Number of distinct events
+		 */
+		private final int events;
+
+		/**
+		 * Days of capacity in each bitset
+		 */
+		private final int days;
+
+		/**
+		 * Number of direct buffer segments
+		 */
+		private final int segments;
+
+		/**
+		 * Native memory held, in bytes
+		 */
+		private final long offHeapBytes;
+
+		/**
+		 * Heap memory held by the event directory's element indexes, in bytes
+		 */
+		private final long directoryBytes;
+
+		/**
+		 * Constructor
+		 *
+		 * @param elements       number of elements
+		 * @param events         number of distinct events
+		 * @param days           days of capacity in each bitset
+		 * @param segments       number of direct buffer segments
+		 * @param offHeapBytes   native memory held, in bytes
+		 * @param directoryBytes heap memory held by element indexes, in bytes
+		 */
+		private Footprint(int elements, int events, int days, int segments, long offHeapBytes, long directoryBytes) {
+			this.elements = elements;
+			this.events = events;
+			this.days = days;
+			this.segments = segments;
+			this.offHeapBytes = offHeapBytes;
+			this.directoryBytes = directoryBytes;
+			return;
+		}
+
+		/**
+		 * Returns number of elements.
+		 *
+		 * @return element count
+		 */
+		public int elements() {
+			return elements;
+		}
+
+		/**
+		 * Returns number of distinct events.
+		 *
+		 * @return event count
+		 */
+		public int events() {
+			return events;
+		}
+
+		/**
+		 * Returns days of capacity in each element's bitset (the horizon, rounded up to a multiple of 64).
+		 *
+		 * @return days
+		 */
+		public int days() {
+			return days;
+		}
+
+		/**
+		 * Returns number of direct buffer segments.
+		 *
+		 * @return segment count
+		 */
+		public int segments() {
+			return segments;
+		}
+
+		/**
+		 * Returns native memory held, in bytes, or {@code 0} once closed.
+		 *
+		 * @return bytes
+		 */
+		public long offHeapBytes() {
+			return offHeapBytes;
+		}
+
+		/**
+		 * Returns heap memory held by the event directory's element indexes, in bytes.
+		 *
+		 * @return bytes
+		 */
+		public long directoryBytes() {
+			return directoryBytes;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append('[').append(this.getClass().getSimpleName()).append(": elements=").append(elements).append(" events=").append(events)
+					.append(" days=").append(days).append(" segments=").append(segments).append(" offHeapBytes=").append(offHeapBytes)
+					.append(" directoryBytes=").append(directoryBytes).append(']');
+			return sb.toString();
+		}
+	}
+}
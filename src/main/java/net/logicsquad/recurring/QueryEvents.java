@@ -0,0 +1,46 @@
+package net.logicsquad.recurring;
+
+import java.time.LocalDate;
+
+import net.logicsquad.recurring.ScheduleMetrics.Query;
+
+/**
+ * Bridge from {@link QueryProbe} to Java Flight Recorder. This is the Java 8 version, which does nothing: the multi-release jar carries a
+ * Java 11 version (in {@code src/main/java11}) that emits a {@code net.logicsquad.recurring.ScheduleQuery} event for each query exceeding
+ * the event's threshold.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+final class QueryEvents {
+	/**
+	 * Private constructor for static-only class
+	 */
+	private QueryEvents() {
+		return;
+	}
+
+	/**
+	 * Begins a Flight Recorder event for a query, if the event is enabled.
+	 *
+	 * @return in-progress event, or {@code null} if the event is not enabled
+	 */
+	static Object begin() {
+		return null;
+	}
+
+	/**
+	 * Ends the in-progress event {@code recording}, and commits it if it exceeded its threshold.
+	 *
+	 * @param recording     in-progress event from {@link #begin()}
+	 * @param query         type of query
+	 * @param event         event queried, or {@code null}
+	 * @param from          earliest date scanned
+	 * @param to            latest date scanned
+	 * @param daysScanned   number of days examined
+	 * @param includesCalls number of calls to {@link TemporalExpression#includes(LocalDate)}
+	 */
+	static void end(Object recording, Query query, Object event, LocalDate from, LocalDate to, long daysScanned, long includesCalls) {
+		return;
+	}
+}
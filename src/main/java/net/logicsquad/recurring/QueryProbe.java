@@ -0,0 +1,90 @@
+package net.logicsquad.recurring;
+
+import java.time.LocalDate;
+
+import net.logicsquad.recurring.ScheduleMetrics.Query;
+
+/**
+ * Collects counts for a single query on a {@link Schedule}. A {@link Schedule} creates a {@code QueryProbe} only when it has something to
+ * report to (a {@link ScheduleMetrics}, or an enabled Flight Recorder event via {@link QueryEvents}), and its scanning loops update the
+ * probe only when it is not {@code null}, so queries cost nothing extra when instrumentation is disabled.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+final class QueryProbe {
+	/**
+	 * Type of query
+	 */
+	private final Query query;
+
+	/**
+	 * Event queried, or {@code null} for queries across all events
+	 */
+	private final Object event;
+
+	/**
+	 * In-progress Flight Recorder event from {@link QueryEvents#begin()}, or {@code null}
+	 */
+	private final Object recording;
+
+	/**
+	 * Start time from {@link System#nanoTime()}
+	 */
+	private final long startNanos;
+
+	/**
+	 * Number of days examined
+	 */
+	long daysScanned;
+
+	/**
+	 * Number of calls to {@link TemporalExpression#includes(java.time.LocalDate)}
+	 */
+	long includesCalls;
+
+	/**
+	 * Constructor, which starts timing.
+	 *
+	 * @param query     type of query
+	 * @param event     event queried, or {@code null}
+	 * @param recording in-progress Flight Recorder event, or {@code null}
+	 */
+	QueryProbe(Query query, Object event, Object recording) {
+		this.query = query;
+		this.event = event;
+		this.recording = recording;
+		this.startNanos = System.nanoTime();
+		return;
+	}
+
+	/**
+	 * Returns a new {@code QueryProbe} if {@code metrics} is not {@code null} or a Flight Recorder event is enabled, otherwise {@code null}.
+	 *
+	 * @param query   type of query
+	 * @param event   event queried, or {@code null}
+	 * @param metrics destination for query metrics, or {@code null}
+	 * @return new probe, or {@code null}
+	 */
+	static QueryProbe start(Query query, Object event, ScheduleMetrics metrics) {
+		Object recording = QueryEvents.begin();
+		return metrics == null && recording == null ? null : new QueryProbe(query, event, recording);
+	}
+
+	/**
+	 * Stops timing, and reports this probe's counts to {@code metrics} (if not {@code null}) and to Flight Recorder (if enabled).
+	 *
+	 * @param metrics destination for counts, or {@code null}
+	 * @param from    earliest date scanned
+	 * @param to      latest date scanned
+	 */
+	void finish(ScheduleMetrics metrics, LocalDate from, LocalDate to) {
+		if (metrics != null) {
+			metrics.record(query, System.nanoTime() - startNanos, daysScanned, includesCalls);
+		}
+		if (recording != null) {
+			QueryEvents.end(recording, query, event, from, to, daysScanned, includesCalls);
+		}
+		return;
+	}
+}
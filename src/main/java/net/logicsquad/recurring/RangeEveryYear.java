@@ -1,5 +1,6 @@
 package net.logicsquad.recurring;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.MonthDay;
@@ -10,7 +11,30 @@ import java.util.Objects;
  *
  * @author paulh
  */
-public final class RangeEveryYear implements TemporalExpression {
+public final class RangeEveryYear implements TemporalExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Number of months in a year
+	 */
+	private static final int MONTHS_IN_YEAR = 12;
+
+	/**
+	 * Shared instances spanning whole months, indexed by {@link Month#ordinal()} of start and end months
+	 */
+	private static final RangeEveryYear[][] WHOLE_MONTHS = new RangeEveryYear[MONTHS_IN_YEAR][MONTHS_IN_YEAR];
+
+	static {
+		for (Month start : Month.values()) {
+			for (Month end : Month.values()) {
+				WHOLE_MONTHS[start.ordinal()][end.ordinal()] = new RangeEveryYear(start, end, 0, 0);
+			}
+		}
+	}
+
 	/**
 	 * First month of range
 	 */
@@ -75,7 +99,8 @@ public final class RangeEveryYear implements TemporalExpression {
 
 	/**
 	 * Returns {@code RangeEveryYear} spanning from beginning of {@code startMonth}
-	 * through end of {@code endMonth} (inclusive).
+	 * through end of {@code endMonth} (inclusive). This method returns a shared
+	 * instance.
 	 *
 	 * @param startMonth
 	 *            start month
@@ -88,12 +113,13 @@ public final class RangeEveryYear implements TemporalExpression {
 	public static RangeEveryYear of(Month startMonth, Month endMonth) {
 		Objects.requireNonNull(startMonth);
 		Objects.requireNonNull(endMonth);
-		return new RangeEveryYear(startMonth, endMonth, 0, 0);
+		return WHOLE_MONTHS[startMonth.ordinal()][endMonth.ordinal()];
 	}
 
 	/**
 	 * Returns {@code RangeEveryYear} spanning from beginning of {@code month}
-	 * through end of {@code month} (inclusive).
+	 * through end of {@code month} (inclusive). This method returns a shared
+	 * instance.
 	 *
 	 * @param month
 	 *            a month
@@ -103,71 +129,169 @@ public final class RangeEveryYear implements TemporalExpression {
 	 */
 	public static RangeEveryYear of(Month month) {
 		Objects.requireNonNull(month);
-		return new RangeEveryYear(month, month, 0, 0);
+		return WHOLE_MONTHS[month.ordinal()][month.ordinal()];
+	}
+
+	/**
+	 * Returns {@code RangeEveryYear} with the given fields, where {@code startDay} and {@code endDay} are either both {@code 0} (for whole
+	 * months) or both valid days in their months.
+	 *
+	 * @param startMonth start month
+	 * @param startDay   start day, or {@code 0}
+	 * @param endMonth   end month
+	 * @param endDay     end day, or {@code 0}
+	 * @return {@code RangeEveryYear}
+	 * @throws NullPointerException       if either month is {@code null}
+	 * @throws java.time.DateTimeException if either day is not valid for its month
+	 * @since 0.5
+	 */
+	static RangeEveryYear of(Month startMonth, int startDay, Month endMonth, int endDay) {
+		if (startDay == 0 && endDay == 0) {
+			return of(startMonth, endMonth);
+		}
+		return of(MonthDay.of(startMonth, startDay), MonthDay.of(endMonth, endDay));
 	}
 
 	@Override
 	public boolean includes(LocalDate date) {
-		if (Objects.equals(startMonth, endMonth)) {
-			return startMonthIncludes(date) && endMonthIncludes(date);
+		return matches(startMonth.getValue(), startDay, endMonth.getValue(), endDay, date);
+	}
+
+	/**
+	 * Does the range described by the arguments include {@code date}? This is the predicate behind {@link #includes(LocalDate)}, expressed
+	 * purely in terms of its arguments so that it can be bound to constants by {@link SpecializedExpression}.
+	 *
+	 * @param startMonth start month value (1&ndash;12)
+	 * @param startDay   first day (in start month) of range, or zero to include whole of start month
+	 * @param endMonth   end month value (1&ndash;12)
+	 * @param endDay     last day (in end month) of range, or zero to include whole of end month
+	 * @param date       a {@link LocalDate}
+	 * @return {@code true} if the range includes {@code date}, otherwise {@code false}
+	 */
+	static boolean matches(int startMonth, int startDay, int endMonth, int endDay, LocalDate date) {
+		int month = date.getMonthValue();
+		int day = date.getDayOfMonth();
+		if (startMonth == endMonth) {
+			return startMonthIncludes(startMonth, startDay, month, day) && endMonthIncludes(endMonth, endDay, month, day);
 		} else {
-			return monthsInclude(date) || startMonthIncludes(date) || endMonthIncludes(date);
+			return monthsInclude(startMonth, endMonth, month) || startMonthIncludes(startMonth, startDay, month, day)
+					|| endMonthIncludes(endMonth, endDay, month, day);
 		}
 	}
 
 	/**
-	 * Do any of the (possibly zero) months <em>between</em> {@link #startMonth} and
-	 * {@link #endMonth} (exclusive) include {@code date}?
+	 * Do any of the (possibly zero) months <em>between</em> {@code startMonth} and
+	 * {@code endMonth} (exclusive) include {@code month}?
 	 *
-	 * @param date
-	 *            a {@link LocalDate}
-	 * @return {@code true} if {@code date} falls in a month <em>between</em>
-	 *         {@link #startMonth} and {@link #endMonth} (exclusive), otherwise
+	 * @param startMonth
+	 *            start month value
+	 * @param endMonth
+	 *            end month value
+	 * @param month
+	 *            month value of some date
+	 * @return {@code true} if {@code month} falls <em>between</em>
+	 *         {@code startMonth} and {@code endMonth} (exclusive), otherwise
 	 *         {@code false}
 	 */
-	private boolean monthsInclude(LocalDate date) {
-		int month = date.getMonthValue();
-		return month > startMonth.getValue() && month < endMonth.getValue();
+	private static boolean monthsInclude(int startMonth, int endMonth, int month) {
+		return month > startMonth && month < endMonth;
 	}
 
 	/**
-	 * Does {@link #startMonth} (excluding days before {@link #startDay}, <em>if
-	 * set</em>) include {@code date}?
+	 * Does {@code startMonth} (excluding days before {@code startDay}, <em>if
+	 * set</em>) include {@code month} and {@code day}?
 	 *
-	 * @param date
-	 *            a {@link LocalDate}
-	 * @return {@code true} if {@link #startMonth} includes {@code date}, otherwise
+	 * @param startMonth
+	 *            start month value
+	 * @param startDay
+	 *            first day of range, or zero
+	 * @param month
+	 *            month value of some date
+	 * @param day
+	 *            day of month of some date
+	 * @return {@code true} if {@code startMonth} includes the date, otherwise
 	 *         {@code false}
 	 */
-	private boolean startMonthIncludes(LocalDate date) {
-		if (date.getMonthValue() != startMonth.getValue()) {
+	private static boolean startMonthIncludes(int startMonth, int startDay, int month, int day) {
+		if (month != startMonth) {
 			return false;
 		} else if (startDay == 0) {
 			return true;
 		} else {
-			return date.getDayOfMonth() >= startDay;
+			return day >= startDay;
 		}
 	}
 
 	/**
-	 * Does {@link #endMonth} (excluding days after {@link #endDay}, <em>if
-	 * set</em>) include {@code date}?
+	 * Does {@code endMonth} (excluding days after {@code endDay}, <em>if
+	 * set</em>) include {@code month} and {@code day}?
 	 *
-	 * @param date
-	 *            a {@link LocalDate}
-	 * @return {@code true} if {@link #endMonth} includes {@code date}, otherwise
+	 * @param endMonth
+	 *            end month value
+	 * @param endDay
+	 *            last day of range, or zero
+	 * @param month
+	 *            month value of some date
+	 * @param day
+	 *            day of month of some date
+	 * @return {@code true} if {@code endMonth} includes the date, otherwise
 	 *         {@code false}
 	 */
-	private boolean endMonthIncludes(LocalDate date) {
-		if (date.getMonthValue() != endMonth.getValue()) {
+	private static boolean endMonthIncludes(int endMonth, int endDay, int month, int day) {
+		if (month != endMonth) {
 			return false;
 		} else if (endDay == 0) {
 			return true;
 		} else {
-			return date.getDayOfMonth() <= endDay;
+			return day <= endDay;
 		}
 	}
 
+	/**
+	 * Returns first month of range.
+	 *
+	 * @return start month
+	 */
+	Month startMonth() {
+		return startMonth;
+	}
+
+	/**
+	 * Returns last month of range.
+	 *
+	 * @return end month
+	 */
+	Month endMonth() {
+		return endMonth;
+	}
+
+	/**
+	 * Returns first day of range, or zero if the range includes the whole of {@link #startMonth()}.
+	 *
+	 * @return start day
+	 */
+	int startDay() {
+		return startDay;
+	}
+
+	/**
+	 * Returns last day of range, or zero if the range includes the whole of {@link #endMonth()}.
+	 *
+	 * @return end day
+	 */
+	int endDay() {
+		return endDay;
+	}
+
+	/**
+	 * Replaces a deserialized {@code RangeEveryYear} with an equivalent (and, for whole months, shared) instance.
+	 *
+	 * @return shared or equivalent instance
+	 */
+	private Object readResolve() {
+		return of(startMonth, startDay, endMonth, endDay);
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
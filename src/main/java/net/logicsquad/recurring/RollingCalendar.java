@@ -0,0 +1,381 @@
+package net.logicsquad.recurring;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A materialized view of a {@link Schedule} over a window of dates that moves with a {@link Clock}: from {@code daysBefore} days before
+ * today through {@code daysAfter} days after it. Each day's agenda is evaluated once and kept in a ring buffer of one slot per day, so
+ * that {@link #advance()} evaluates only the days newly exposed at the edge of the window, and each newly exposed day takes the slot of
+ * a day that has just left it.
+ * </p>
+ *
+ * <p>
+ * Every slot records the date it holds, and is replaced rather than modified, so queries read slots without locking, and a query for a
+ * date whose slot has been reused simply finds another date there. Queries for dates outside the window are answered by the underlying
+ * {@link Schedule}. {@link #scheduleRefresh(ScheduledExecutorService, Duration)} advances the window periodically in the background. If
+ * the underlying {@link Schedule} changes, {@link #refresh()} re-evaluates the whole window.
+ * </p>
+ *
+ * @param <T> type for {@link ScheduleElement}s and {@code event} objects
+ * @author paulh
+ * @since 0.5
+ */
+public final class RollingCalendar<T> extends SeekableSchedule<T> {
+	/**
+	 * Underlying {@link Schedule}
+	 */
+	private final Schedule<T> schedule;
+
+	/**
+	 * Source of today's date
+	 */
+	private final Clock clock;
+
+	/**
+	 * Number of days before today in the window
+	 */
+	private final int daysBefore;
+
+	/**
+	 * Number of days after today in the window
+	 */
+	private final int daysAfter;
+
+	/**
+	 * Materialized days, each in slot {@code epochDay mod length}
+	 */
+	private final AtomicReferenceArray<Day<T>> days;
+
+	/**
+	 * Index of each event in {@link Day#events} bitsets, assigned as events are first seen
+	 */
+	private final Map<T, Integer> ids = new ConcurrentHashMap<>();
+
+	/**
+	 * First day of the window
+	 */
+	private volatile LocalDate start;
+
+	/**
+	 * Constructor
+	 *
+	 * @param schedule   underlying {@link Schedule}
+	 * @param clock      source of today's date
+	 * @param daysBefore number of days before today in the window
+	 * @param daysAfter  number of days after today in the window
+	 */
+	private RollingCalendar(Schedule<T> schedule, Clock clock, int daysBefore, int daysAfter) {
+		this.schedule = schedule;
+		this.clock = clock;
+		this.daysBefore = daysBefore;
+		this.daysAfter = daysAfter;
+		this.days = new AtomicReferenceArray<>(daysBefore + daysAfter + 1);
+		return;
+	}
+
+	/**
+	 * Returns a {@code RollingCalendar} over {@code schedule}, with a window from {@code daysBefore} days before {@code clock}'s current
+	 * date through {@code daysAfter} days after it. The whole window is evaluated before this method returns.
+	 *
+	 * @param <T>        type for event
+	 * @param schedule   underlying {@link Schedule}
+	 * @param clock      source of today's date
+	 * @param daysBefore number of days before today in the window
+	 * @param daysAfter  number of days after today in the window
+	 * @return new object
+	 * @throws NullPointerException     if {@code schedule} or {@code clock} is {@code null}
+	 * @throws IllegalArgumentException if {@code daysBefore} or {@code daysAfter} is negative
+	 */
+	public static <T> RollingCalendar<T> of(Schedule<T> schedule, Clock clock, int daysBefore, int daysAfter) {
+		Objects.requireNonNull(schedule);
+		Objects.requireNonNull(clock);
+		if (daysBefore < 0 || daysAfter < 0) {
+			throw new IllegalArgumentException("daysBefore and daysAfter must not be negative.");
+		}
+		RollingCalendar<T> result = new RollingCalendar<>(schedule, clock, daysBefore, daysAfter);
+		result.advance();
+		return result;
+	}
+
+	/**
+	 * Moves the window to surround {@code clock}'s current date, evaluating only days not already in the window.
+	 *
+	 * @return number of days evaluated
+	 */
+	public int advance() {
+		return advanceTo(LocalDate.now(clock));
+	}
+
+	/**
+	 * Moves the window to run from {@code daysBefore} days before {@code today} through {@code daysAfter} days after it, evaluating only
+	 * days not already in the window. The window may move forwards or backwards, by any number of days.
+	 *
+	 * @param today new reference date
+	 * @return number of days evaluated
+	 * @throws NullPointerException if {@code today} is {@code null}
+	 */
+	public synchronized int advanceTo(LocalDate today) {
+		Objects.requireNonNull(today);
+		LocalDate first = today.minusDays(daysBefore);
+		int result = 0;
+		for (int i = 0; i < days.length(); i++) {
+			LocalDate date = first.plusDays(i);
+			if (day(date) == null) {
+				days.set(slot(date), evaluate(date));
+				result++;
+			}
+		}
+		start = first;
+		return result;
+	}
+
+	/**
+	 * Re-evaluates every day in the window, such as after the underlying {@link Schedule} has changed.
+	 */
+	public synchronized void refresh() {
+		LocalDate first = start;
+		for (int i = 0; i < days.length(); i++) {
+			LocalDate date = first.plusDays(i);
+			days.set(slot(date), evaluate(date));
+		}
+		return;
+	}
+
+	/**
+	 * Schedules {@link #advance()} to run on {@code executor} every {@code period}, starting after one {@code period}.
+	 *
+	 * @param executor executor on which to advance the window
+	 * @param period   time between advances
+	 * @return future that can cancel the schedule
+	 * @throws NullPointerException     if either argument is {@code null}
+	 * @throws IllegalArgumentException if {@code period} is not positive
+	 */
+	public ScheduledFuture<?> scheduleRefresh(ScheduledExecutorService executor, Duration period) {
+		Objects.requireNonNull(executor);
+		Objects.requireNonNull(period);
+		if (period.isZero() || period.isNegative()) {
+			throw new IllegalArgumentException("period must be positive.");
+		}
+		long nanos = period.toNanos();
+		return executor.scheduleWithFixedDelay(this::advance, nanos, nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the first day of the window.
+	 *
+	 * @return start date
+	 */
+	public LocalDate start() {
+		return start;
+	}
+
+	/**
+	 * Returns the last day of the window.
+	 *
+	 * @return end date
+	 */
+	public LocalDate end() {
+		return start.plusDays(days.length() - 1);
+	}
+
+	@Override
+	public boolean isOccurring(T event, LocalDate date) {
+		Day<T> day = day(date);
+		if (day == null) {
+			return schedule.isOccurring(event, date);
+		}
+		return day.contains(id(event));
+	}
+
+	@Override
+	public List<LocalDate> datesInRange(T event, LocalDate start, LocalDate end) {
+		List<LocalDate> result = new ArrayList<>();
+		for (LocalDate cursor = start; !cursor.isAfter(end); cursor = cursor.plusDays(1)) {
+			if (isOccurring(event, cursor)) {
+				result.add(cursor);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Stream<LocalDate> futureDates(T event, LocalDate start) {
+		return Stream.iterate(nextOccurrence(event, start), seed -> nextOccurrence(event, seed.plusDays(1)));
+	}
+
+	@Override
+	public Stream<LocalDate> pastDates(T event, LocalDate start) {
+		return Stream.iterate(previousOccurrence(event, start), seed -> previousOccurrence(event, seed.minusDays(1)));
+	}
+
+	@Override
+	public LocalDate nextOccurrence(T event, LocalDate date) {
+		LocalDate cursor = date;
+		for (Day<T> day = day(cursor); day != null; day = day(cursor)) {
+			if (day.contains(id(event))) {
+				return cursor;
+			}
+			cursor = cursor.plusDays(1);
+		}
+		return schedule.nextOccurrence(event, cursor);
+	}
+
+	@Override
+	public LocalDate previousOccurrence(T event, LocalDate date) {
+		LocalDate cursor = date;
+		for (Day<T> day = day(cursor); day != null; day = day(cursor)) {
+			if (day.contains(id(event))) {
+				return cursor;
+			}
+			cursor = cursor.minusDays(1);
+		}
+		return schedule.previousOccurrence(event, cursor);
+	}
+
+	@Override
+	LocalDate seek(T event, LocalDate date, LocalDate limit) {
+		LocalDate cursor = date;
+		for (Day<T> day = day(cursor); day != null; day = day(cursor)) {
+			if (day.contains(id(event))) {
+				return cursor;
+			}
+			cursor = cursor.plusDays(1);
+		}
+		return seek(schedule, event, cursor, limit);
+	}
+
+	@Override
+	public List<T> agenda(LocalDate date) {
+		Day<T> day = day(date);
+		return day == null ? schedule.agenda(date) : new ArrayList<>(day.agenda);
+	}
+
+	@Override
+	public Set<T> events() {
+		return schedule.events();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": start=").append(start).append(" end=").append(end())
+				.append(" schedule=").append(schedule).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Returns index of {@code event} in {@link Day} bitsets.
+	 *
+	 * @param event object representing an event
+	 * @return index, or {@code null} if {@code event} has never occurred in the window
+	 */
+	private Integer id(T event) {
+		return event == null ? null : ids.get(event);
+	}
+
+	/**
+	 * Returns slot in {@link #days} for {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return slot index
+	 */
+	private int slot(LocalDate date) {
+		return (int) Math.floorMod(date.toEpochDay(), (long) days.length());
+	}
+
+	/**
+	 * Returns materialized {@link Day} for {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return day, or {@code null} if {@code date} is not materialized
+	 */
+	private Day<T> day(LocalDate date) {
+		Day<T> result = days.get(slot(date));
+		return result != null && result.epochDay == date.toEpochDay() ? result : null;
+	}
+
+	/**
+	 * Evaluates the agenda for {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return new {@link Day}
+	 */
+	private Day<T> evaluate(LocalDate date) {
+		List<T> agenda = schedule.agenda(date);
+		long[] events = new long[0];
+		for (T event : agenda) {
+			int id = ids.computeIfAbsent(event, e -> ids.size());
+			if (id / Long.SIZE >= events.length) {
+				events = Arrays.copyOf(events, id / Long.SIZE + 1);
+			}
+			events[id / Long.SIZE] |= 1L << (id % Long.SIZE);
+		}
+		return new Day<>(date.toEpochDay(), events, Collections.unmodifiableList(agenda));
+	}
+
+	/**
+	 * Immutable agenda for one materialized day.
+	 *
+	 * @param <T> type for event
+	 */
+	private static final class Day<T> {
+		/**
+		 * Day, as an epoch day
+		 */
+		final long epochDay;
+
+		/**
+		 * Bitset of events occurring, indexed by {@link RollingCalendar#ids}
+		 */
+		private final long[] events;
+
+		/**
+		 * Events occurring, in agenda order
+		 */
+		final List<T> agenda;
+
+		/**
+		 * Constructor
+		 *
+		 * @param epochDay day, as an epoch day
+		 * @param events   bitset of events occurring
+		 * @param agenda   events occurring, in agenda order
+		 */
+		Day(long epochDay, long[] events, List<T> agenda) {
+			this.epochDay = epochDay;
+			this.events = events;
+			this.agenda = agenda;
+			return;
+		}
+
+		/**
+		 * Is the event with {@code id} occurring on this day?
+		 *
+		 * @param id event index, or {@code null} for an event never seen
+		 * @return {@code true} if the event is occurring, otherwise {@code false}
+		 */
+		boolean contains(Integer id) {
+			if (id == null) {
+				return false;
+			}
+			int word = id / Long.SIZE;
+			return word < events.length && (events[word] & 1L << (id % Long.SIZE)) != 0;
+		}
+	}
+}
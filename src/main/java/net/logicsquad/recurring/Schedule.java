@@ -1,9 +1,15 @@
 package net.logicsquad.recurring;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 /**
@@ -70,6 +76,179 @@ public interface Schedule<T> {
 	 */
 	LocalDate previousOccurrence(T event, LocalDate date);
 
+	/**
+	 * Returns the distinct events occurring on {@code date}, in the order in which they first appear in this {@code Schedule}. This
+	 * default implementation asks {@link #isOccurring(Object, LocalDate)} for each of {@link #events()}; the built-in implementations
+	 * answer from a single evaluation of their expressions.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return list of events occurring on {@code date}
+	 * @throws NullPointerException          if {@code date} is {@code null}
+	 * @throws UnsupportedOperationException if this {@code Schedule} cannot enumerate its {@link #events()}
+	 * @since 0.5
+	 */
+	default List<T> agenda(LocalDate date) {
+		Objects.requireNonNull(date);
+		List<T> result = new ArrayList<>();
+		for (T event : events()) {
+			if (isOccurring(event, date)) {
+				result.add(event);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the distinct events in this {@code Schedule}, in the order in which they first appear. The built-in implementations all
+	 * support this method. Nothing else in this interface enumerates events, so this default implementation throws
+	 * {@link UnsupportedOperationException}. Implementations that do not override it cannot be used where every event is needed, such as in
+	 * {@link #agenda(LocalDate)}, {@link TriggerEngine} or {@link MappedSchedule#write(Schedule, LocalDate, LocalDate, EventCodec,
+	 * java.nio.file.Path)}.
+	 *
+	 * @return unmodifiable set of events
+	 * @throws UnsupportedOperationException if this {@code Schedule} cannot enumerate its events
+	 * @since 0.5
+	 */
+	default Set<T> events() {
+		throw new UnsupportedOperationException(getClass().getName() + " does not enumerate its events.");
+	}
+
+	/**
+	 * Returns every occurrence of every event between {@code start} and {@code end} (inclusive), in date order, and for each date in the
+	 * order of {@link #agenda(LocalDate)}. The stream is lazy, and splits evenly by date, so it can be made {@link Stream#parallel()
+	 * parallel} to spread evaluation across cores while keeping its order.
+	 *
+	 * @param start start date
+	 * @param end   end date
+	 * @return stream of occurrences
+	 * @throws NullPointerException if either argument is {@code null}
+	 * @since 0.5
+	 */
+	default Stream<Occurrence<T>> occurrences(LocalDate start, LocalDate end) {
+		Objects.requireNonNull(start);
+		Objects.requireNonNull(end);
+		return LongStream.rangeClosed(start.toEpochDay(), end.toEpochDay()).mapToObj(LocalDate::ofEpochDay)
+				.flatMap(date -> agenda(date).stream().map(event -> Occurrence.of(event, date)));
+	}
+
+	/**
+	 * Is {@code event} occurring on the date in {@code zone} at {@code instant}?
+	 *
+	 * @param event   object representing an event
+	 * @param instant an {@link Instant}
+	 * @param zone    zone in which to find the date
+	 * @return {@code true} if {@code event} is occurring on that date, otherwise {@code false}
+	 * @throws NullPointerException if {@code instant} or {@code zone} is {@code null}
+	 * @see ZoneDays
+	 * @since 0.5
+	 */
+	default boolean isOccurring(T event, Instant instant, ZoneId zone) {
+		return isOccurring(event, ZoneDays.of(zone).date(instant));
+	}
+
+	/**
+	 * Returns the next date on which {@code event} is occurring, on or after the date in {@code zone} at {@code instant}.
+	 *
+	 * @param event   object representing an event
+	 * @param instant an {@link Instant}
+	 * @param zone    zone in which to find the date
+	 * @return date of next occurrence of {@code event}
+	 * @throws NullPointerException if {@code instant} or {@code zone} is {@code null}
+	 * @see ZoneDays
+	 * @since 0.5
+	 */
+	default LocalDate nextOccurrence(T event, Instant instant, ZoneId zone) {
+		return nextOccurrence(event, ZoneDays.of(zone).date(instant));
+	}
+
+	/**
+	 * Returns the previous date on which {@code event} is occurring, on or before the date in {@code zone} at {@code instant}.
+	 *
+	 * @param event   object representing an event
+	 * @param instant an {@link Instant}
+	 * @param zone    zone in which to find the date
+	 * @return date of previous occurrence of {@code event}
+	 * @throws NullPointerException if {@code instant} or {@code zone} is {@code null}
+	 * @see ZoneDays
+	 * @since 0.5
+	 */
+	default LocalDate previousOccurrence(T event, Instant instant, ZoneId zone) {
+		return previousOccurrence(event, ZoneDays.of(zone).date(instant));
+	}
+
+	/**
+	 * Returns the distinct events occurring on the date in {@code zone} at {@code instant}.
+	 *
+	 * @param instant an {@link Instant}
+	 * @param zone    zone in which to find the date
+	 * @return list of events occurring on that date
+	 * @throws NullPointerException if either argument is {@code null}
+	 * @see ZoneDays
+	 * @since 0.5
+	 */
+	default List<T> agenda(Instant instant, ZoneId zone) {
+		return agenda(ZoneDays.of(zone).date(instant));
+	}
+
+	/**
+	 * Is {@code event} occurring on the date in {@code zone} at the instant of {@code dateTime}?
+	 *
+	 * @param event    object representing an event
+	 * @param dateTime a {@link ZonedDateTime}
+	 * @param zone     zone in which to find the date
+	 * @return {@code true} if {@code event} is occurring on that date, otherwise {@code false}
+	 * @throws NullPointerException if {@code dateTime} or {@code zone} is {@code null}
+	 * @see ZoneDays
+	 * @since 0.5
+	 */
+	default boolean isOccurring(T event, ZonedDateTime dateTime, ZoneId zone) {
+		return isOccurring(event, ZoneDays.of(zone).date(dateTime));
+	}
+
+	/**
+	 * Returns the next date on which {@code event} is occurring, on or after the date in {@code zone} at the instant of {@code dateTime}.
+	 *
+	 * @param event    object representing an event
+	 * @param dateTime a {@link ZonedDateTime}
+	 * @param zone     zone in which to find the date
+	 * @return date of next occurrence of {@code event}
+	 * @throws NullPointerException if {@code dateTime} or {@code zone} is {@code null}
+	 * @see ZoneDays
+	 * @since 0.5
+	 */
+	default LocalDate nextOccurrence(T event, ZonedDateTime dateTime, ZoneId zone) {
+		return nextOccurrence(event, ZoneDays.of(zone).date(dateTime));
+	}
+
+	/**
+	 * Returns the previous date on which {@code event} is occurring, on or before the date in {@code zone} at the instant of {@code dateTime}.
+	 *
+	 * @param event    object representing an event
+	 * @param dateTime a {@link ZonedDateTime}
+	 * @param zone     zone in which to find the date
+	 * @return date of previous occurrence of {@code event}
+	 * @throws NullPointerException if {@code dateTime} or {@code zone} is {@code null}
+	 * @see ZoneDays
+	 * @since 0.5
+	 */
+	default LocalDate previousOccurrence(T event, ZonedDateTime dateTime, ZoneId zone) {
+		return previousOccurrence(event, ZoneDays.of(zone).date(dateTime));
+	}
+
+	/**
+	 * Returns the distinct events occurring on the date in {@code zone} at the instant of {@code dateTime}.
+	 *
+	 * @param dateTime a {@link ZonedDateTime}
+	 * @param zone     zone in which to find the date
+	 * @return list of events occurring on that date
+	 * @throws NullPointerException if either argument is {@code null}
+	 * @see ZoneDays
+	 * @since 0.5
+	 */
+	default List<T> agenda(ZonedDateTime dateTime, ZoneId zone) {
+		return agenda(ZoneDays.of(zone).date(dateTime));
+	}
+
 	/**
 	 * Returns a {@code Schedule} composed of the supplied {@code elements}.
 	 *
@@ -98,4 +277,21 @@ public interface Schedule<T> {
 		Objects.requireNonNull(elements);
 		return new BasicSchedule<T>(elements);
 	}
+
+	/**
+	 * Returns a {@code Schedule} composed of the {@link ScheduleElement}s in {@code elements}, which records a metric to {@code metrics}
+	 * for each query it answers.
+	 *
+	 * @param <T>      type for event
+	 * @param elements a {@link List} of {@link ScheduleElement}s
+	 * @param metrics  destination for query metrics
+	 * @return a {@code Schedule}
+	 * @throws NullPointerException if either argument is {@code null}
+	 * @since 0.5
+	 */
+	static <T> Schedule<T> of(List<ScheduleElement<T>> elements, ScheduleMetrics metrics) {
+		Objects.requireNonNull(elements);
+		Objects.requireNonNull(metrics);
+		return new BasicSchedule<T>(elements, metrics);
+	}
 }
@@ -1,6 +1,10 @@
 package net.logicsquad.recurring;
 
+import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * An element of a {@link Schedule} that links an event with a {@link TemporalExpression} describing how the event recurs.
@@ -8,7 +12,12 @@ import java.time.LocalDate;
  * @param <T> type for {@code event} objects
  * @author paulh
  */
-public final class ScheduleElement<T> {
+public final class ScheduleElement<T> implements Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Object representing an event
 	 */
@@ -43,6 +52,29 @@ public final class ScheduleElement<T> {
 		return new ScheduleElement<T>(event, expression);
 	}
 
+	/**
+	 * Returns {@link ScheduleElement} for {@code event} with recurrence described by {@code expression}, but also occurring on each of
+	 * {@code added}, and not occurring on any of {@code removed}. A date in both {@code added} and {@code removed} is removed. The dates are
+	 * held in a {@link DateOverlay}, so each costs a binary search rather than an expression evaluation.
+	 *
+	 * @param <T>        type for event
+	 * @param event      object representing an event
+	 * @param expression {@link TemporalExpression} describing event's recurrence
+	 * @param added      dates on which the event also occurs
+	 * @param removed    dates on which the event does not occur
+	 * @return {@link ScheduleElement}
+	 * @throws NullPointerException     if {@code expression}, {@code added} or {@code removed}, or any date, is {@code null}
+	 * @throws IllegalArgumentException if any date's epoch day is outside the range of {@code int}
+	 * @since 0.5
+	 */
+	public static <T> ScheduleElement<T> of(T event, TemporalExpression expression, Collection<LocalDate> added, Collection<LocalDate> removed) {
+		DateOverlay overlay = DateOverlay.of(expression, added, removed);
+		if (overlay.added().isEmpty() && overlay.removed().isEmpty()) {
+			return new ScheduleElement<T>(event, overlay.base());
+		}
+		return new ScheduleElement<T>(event, overlay);
+	}
+
 	/**
 	 * Is this element's event occurring on {@code date}?
 	 *
@@ -53,6 +85,36 @@ public final class ScheduleElement<T> {
 		return expression.includes(date);
 	}
 
+	/**
+	 * Returns expression describing this element's recurrence.
+	 *
+	 * @return expression
+	 * @since 0.5
+	 */
+	TemporalExpression expression() {
+		return expression;
+	}
+
+	/**
+	 * Returns dates on which this element's event occurs in addition to those described by its expression.
+	 *
+	 * @return unmodifiable list of dates in ascending order
+	 * @since 0.5
+	 */
+	public List<LocalDate> added() {
+		return expression instanceof DateOverlay ? ((DateOverlay) expression).added() : Collections.emptyList();
+	}
+
+	/**
+	 * Returns dates on which this element's event does not occur, even if they are described by its expression.
+	 *
+	 * @return unmodifiable list of dates in ascending order
+	 * @since 0.5
+	 */
+	public List<LocalDate> removed() {
+		return expression instanceof DateOverlay ? ((DateOverlay) expression).removed() : Collections.emptyList();
+	}
+
 	/**
 	 * Returns this {@code ScheduleElement}'s event.
 	 *
@@ -0,0 +1,60 @@
+package net.logicsquad.recurring;
+
+/**
+ * <p>
+ * Service provider interface for recording metrics about queries on a {@link Schedule}. Pass an implementation to
+ * {@link Schedule#of(java.util.List, ScheduleMetrics)}, and the resulting {@link Schedule} will call {@link #record(Query, long, long, long)}
+ * once for each query it answers. A {@link Schedule} created without a {@code ScheduleMetrics} does no timing or counting at all.
+ * </p>
+ *
+ * <p>
+ * Implementations are called on the querying thread, and must be thread-safe. {@link HistogramScheduleMetrics} is a lock-free
+ * implementation that keeps histograms suitable for export to a monitoring system.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public interface ScheduleMetrics {
+	/**
+	 * Types of query recorded. {@link Schedule#futureDates(Object, java.time.LocalDate) futureDates()} and
+	 * {@link Schedule#pastDates(Object, java.time.LocalDate) pastDates()} are recorded as one {@link #NEXT_OCCURRENCE} or
+	 * {@link #PREVIOUS_OCCURRENCE} query for each date they produce.
+	 */
+	enum Query {
+		/**
+		 * {@link Schedule#isOccurring(Object, java.time.LocalDate)}
+		 */
+		IS_OCCURRING,
+
+		/**
+		 * {@link Schedule#datesInRange(Object, java.time.LocalDate, java.time.LocalDate)}
+		 */
+		DATES_IN_RANGE,
+
+		/**
+		 * {@link Schedule#nextOccurrence(Object, java.time.LocalDate)}
+		 */
+		NEXT_OCCURRENCE,
+
+		/**
+		 * {@link Schedule#previousOccurrence(Object, java.time.LocalDate)}
+		 */
+		PREVIOUS_OCCURRENCE,
+
+		/**
+		 * {@link Schedule#agenda(java.time.LocalDate)}
+		 */
+		AGENDA;
+	}
+
+	/**
+	 * Records a single query.
+	 *
+	 * @param query         type of query
+	 * @param nanos         wall time taken by the query in nanoseconds
+	 * @param daysScanned   number of days examined by the query
+	 * @param includesCalls number of calls made to {@link TemporalExpression#includes(java.time.LocalDate)} on element expressions
+	 */
+	void record(Query query, long nanos, long daysScanned, long includesCalls);
+}
@@ -0,0 +1,40 @@
+package net.logicsquad.recurring;
+
+import java.time.LocalDate;
+
+/**
+ * A {@link TemporalExpression} that can find its next and previous matching dates directly, rather than by testing one day at a time. A
+ * {@link Seeker} uses these methods to search for the occurrences of an event without stepping through the days in between.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+interface SeekableExpression extends TemporalExpression {
+	/**
+	 * Returns the earliest date on or after {@code date} included by this expression.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return next date, or {@code null} if there is none
+	 * @throws java.time.DateTimeException if the next date would be after {@link LocalDate#MAX}
+	 */
+	LocalDate next(LocalDate date);
+
+	/**
+	 * Returns the latest date on or before {@code date} included by this expression.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return previous date, or {@code null} if there is none
+	 * @throws java.time.DateTimeException if the previous date would be before {@link LocalDate#MIN}
+	 */
+	LocalDate previous(LocalDate date);
+
+	/**
+	 * Can this expression seek? An expression that can only sometimes seek (such as a {@link DateOverlay}, which seeks only if its base
+	 * expression does) returns {@code false} when it cannot, and is then treated as any other {@link TemporalExpression}.
+	 *
+	 * @return {@code true} if {@link #next(LocalDate)} and {@link #previous(LocalDate)} find every date, otherwise {@code false}
+	 */
+	default boolean canSeek() {
+		return true;
+	}
+}
@@ -0,0 +1,50 @@
+package net.logicsquad.recurring;
+
+import java.time.LocalDate;
+
+/**
+ * Superclass for the built-in {@link Schedule}s that can search for an event's next occurrence more cheaply than by asking
+ * {@link Schedule#isOccurring(Object, LocalDate)} about each day, such as by seeking through a {@link Seeker} or scanning materialized
+ * bitsets. {@link TriggerEngine} searches through {@link #seek(Schedule, Object, LocalDate, LocalDate)}, which uses this hook where a
+ * {@link Schedule} has it.
+ *
+ * @param <T> type for {@link ScheduleElement}s and {@code event} objects
+ * @author paulh
+ * @since 0.5
+ */
+abstract class SeekableSchedule<T> implements Schedule<T> {
+	/**
+	 * Returns the first date on or after {@code date} on which {@code event} occurs. Days that must be tested one at a time are tested only
+	 * up to {@code limit}, but a date found by seeking, or in materialized occurrences, is returned however far beyond {@code limit} it is,
+	 * as long as it is certainly the first.
+	 *
+	 * @param event object representing an event
+	 * @param date  an arbitrary date
+	 * @param limit latest date that must be searched
+	 * @return date of next occurrence of {@code event}, or {@code null} if there is none by {@code limit}
+	 */
+	abstract LocalDate seek(T event, LocalDate date, LocalDate limit);
+
+	/**
+	 * Returns the first date on or after {@code date} on which {@code event} occurs in {@code schedule}, as
+	 * {@link #seek(Object, LocalDate, LocalDate)} does. A {@link Schedule} without the hook is asked about each day up to {@code limit}.
+	 *
+	 * @param <T>      type for event
+	 * @param schedule a {@link Schedule}
+	 * @param event    object representing an event
+	 * @param date     an arbitrary date
+	 * @param limit    latest date that must be searched
+	 * @return date of next occurrence of {@code event}, or {@code null} if there is none by {@code limit}
+	 */
+	static <T> LocalDate seek(Schedule<T> schedule, T event, LocalDate date, LocalDate limit) {
+		if (schedule instanceof SeekableSchedule) {
+			return ((SeekableSchedule<T>) schedule).seek(event, date, limit);
+		}
+		for (LocalDate cursor = date; !cursor.isAfter(limit); cursor = cursor.plusDays(1)) {
+			if (schedule.isOccurring(event, cursor)) {
+				return cursor;
+			}
+		}
+		return null;
+	}
+}
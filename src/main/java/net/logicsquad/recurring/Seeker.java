@@ -0,0 +1,206 @@
+package net.logicsquad.recurring;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Searches for the next or previous date included by any of a set of expressions, such as those of one event's elements. Expressions that
+ * are {@link SeekableExpression}s seek their nearest date directly; the rest are tested day by day, but only up to the nearest date found
+ * by seeking. A search over expressions that can all seek therefore takes time independent of the distance to the date found.
+ * </p>
+ *
+ * <p>
+ * A {@code Seeker} is immutable, and can be built once for an event and shared by concurrent searches.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+final class Seeker {
+	/**
+	 * Maximum number of days covered by a search that must stop somewhere, such as {@link TriggerEngine}'s for an event's next occurrence:
+	 * eight years, so that every 29 February is found
+	 */
+	static final int HORIZON_DAYS = 8 * 366;
+
+	/**
+	 * Expressions that can seek
+	 */
+	private final SeekableExpression[] seekable;
+
+	/**
+	 * Expressions tested day by day, in the order supplied
+	 */
+	private final TemporalExpression[] others;
+
+	/**
+	 * Constructor
+	 *
+	 * @param seekable expressions that can seek
+	 * @param others   expressions tested day by day
+	 */
+	private Seeker(SeekableExpression[] seekable, TemporalExpression[] others) {
+		this.seekable = seekable;
+		this.others = others;
+		return;
+	}
+
+	/**
+	 * Returns a {@code Seeker} for dates included by any of {@code expressions}.
+	 *
+	 * @param expressions {@link TemporalExpression}s
+	 * @return new object
+	 */
+	static Seeker of(TemporalExpression... expressions) {
+		List<SeekableExpression> seekable = new ArrayList<>();
+		List<TemporalExpression> others = new ArrayList<>();
+		for (TemporalExpression e : expressions) {
+			if (e instanceof SeekableExpression && ((SeekableExpression) e).canSeek()) {
+				seekable.add((SeekableExpression) e);
+			} else {
+				others.add(e);
+			}
+		}
+		return new Seeker(seekable.toArray(new SeekableExpression[0]), others.toArray(new TemporalExpression[0]));
+	}
+
+	/**
+	 * Returns the earliest date on or after {@code date} included by any expression.
+	 *
+	 * @param date  a {@link LocalDate}
+	 * @param probe probe to count days tested, or {@code null}
+	 * @return next date
+	 * @throws DateTimeException if there is no such date
+	 */
+	LocalDate next(LocalDate date, QueryProbe probe) {
+		LocalDate result = next(date, LocalDate.MAX, probe);
+		if (result == null) {
+			throw new DateTimeException("No date on or after " + date + ".");
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the earliest date from {@code date} to {@code limit} (inclusive) included by any expression.
+	 *
+	 * @param date  a {@link LocalDate}
+	 * @param limit latest date to return
+	 * @param probe probe to count days tested, or {@code null}
+	 * @return next date, or {@code null} if there is none by {@code limit}
+	 */
+	LocalDate next(LocalDate date, LocalDate limit, QueryProbe probe) {
+		LocalDate result = null;
+		for (SeekableExpression e : seekable) {
+			LocalDate candidate = e.next(date);
+			if (candidate != null && (result == null || candidate.isBefore(result))) {
+				result = candidate;
+			}
+		}
+		if (result != null && result.isAfter(limit)) {
+			result = null;
+		}
+		// Test the other expressions only on days before the date found by seeking
+		if (others.length > 0) {
+			for (LocalDate cursor = date; result == null ? !cursor.isAfter(limit) : cursor.isBefore(result); cursor = cursor.plusDays(1)) {
+				if (includes(cursor, probe)) {
+					return cursor;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the earliest date on or after {@code date} included by any expression, testing expressions that cannot seek only up to
+	 * {@code limit}. If every expression can seek, the search is not limited, and may return a date after {@code limit}.
+	 *
+	 * @param date  a {@link LocalDate}
+	 * @param limit latest date that must be searched
+	 * @param probe probe to count days tested, or {@code null}
+	 * @return next date, or {@code null} if there is none by {@code limit}
+	 * @see SeekableSchedule#seek(Object, LocalDate, LocalDate)
+	 */
+	LocalDate seek(LocalDate date, LocalDate limit, QueryProbe probe) {
+		return next(date, others.length == 0 ? LocalDate.MAX : limit, probe);
+	}
+
+	/**
+	 * Returns the latest date on or before {@code date} included by any expression.
+	 *
+	 * @param date  a {@link LocalDate}
+	 * @param probe probe to count days tested, or {@code null}
+	 * @return previous date
+	 * @throws DateTimeException if there is no such date
+	 */
+	LocalDate previous(LocalDate date, QueryProbe probe) {
+		LocalDate result = previous(date, LocalDate.MIN, probe);
+		if (result == null) {
+			throw new DateTimeException("No date on or before " + date + ".");
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the latest date from {@code limit} to {@code date} (inclusive) included by any expression.
+	 *
+	 * @param date  a {@link LocalDate}
+	 * @param limit earliest date to return
+	 * @param probe probe to count days tested, or {@code null}
+	 * @return previous date, or {@code null} if there is none back to {@code limit}
+	 */
+	LocalDate previous(LocalDate date, LocalDate limit, QueryProbe probe) {
+		LocalDate result = null;
+		for (SeekableExpression e : seekable) {
+			LocalDate candidate = e.previous(date);
+			if (candidate != null && (result == null || candidate.isAfter(result))) {
+				result = candidate;
+			}
+		}
+		if (result != null && result.isBefore(limit)) {
+			result = null;
+		}
+		// Test the other expressions only on days after the date found by seeking
+		if (others.length > 0) {
+			for (LocalDate cursor = date; result == null ? !cursor.isBefore(limit) : cursor.isAfter(result); cursor = cursor.minusDays(1)) {
+				if (includes(cursor, probe)) {
+					return cursor;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": seekable=").append(Arrays.toString(seekable)).append(" others=")
+				.append(Arrays.toString(others)).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Does any of {@link #others} include {@code date}?
+	 *
+	 * @param date  a {@link LocalDate}
+	 * @param probe probe to count days tested, or {@code null}
+	 * @return {@code true} if any expression includes {@code date}, otherwise {@code false}
+	 */
+	private boolean includes(LocalDate date, QueryProbe probe) {
+		if (probe != null) {
+			probe.daysScanned++;
+		}
+		for (TemporalExpression e : others) {
+			if (probe != null) {
+				probe.includesCalls++;
+			}
+			if (e.includes(date)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,227 @@
+package net.logicsquad.recurring;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * A {@link TemporalExpression} that evaluates another expression tree through a single {@link MethodHandle} specialized for that tree. Each
+ * {@link Union}, {@link Intersection} and {@link Difference} becomes a chain of
+ * {@link MethodHandles#guardWithTest(MethodHandle, MethodHandle, MethodHandle) guardWithTest} combinators, and each {@link DayInMonth},
+ * {@link DayInWeek} and {@link RangeEveryYear} becomes a static predicate with its fields (such as the ordinal, the reference epoch day or
+ * the range bounds) bound in as constants. Any other {@link TemporalExpression} is called through its own
+ * {@link TemporalExpression#includes(LocalDate) includes()} method.
+ * </p>
+ *
+ * <p>
+ * The JIT can only inline the whole predicate when it can see the handle as a constant, so hot expressions are best kept in
+ * {@code static final} fields, or their {@link #handle()} installed in a {@code static final} field or a
+ * {@link java.lang.invoke.ConstantCallSite ConstantCallSite}. On a Java 8 runtime, where deep {@code MethodHandle} chains that are not
+ * constant perform poorly, and whenever a handle cannot be built, this class falls back to interpreting the original expression tree.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class SpecializedExpression implements TemporalExpression {
+	/**
+	 * Is specialization supported on this runtime? We require Java 9 or later.
+	 */
+	private static final boolean SPECIALIZATION_SUPPORTED = !System.getProperty("java.specification.version", "1.8").startsWith("1.");
+
+	/**
+	 * Type of all specialized handles: {@code (LocalDate)boolean}
+	 */
+	private static final MethodType PREDICATE = MethodType.methodType(boolean.class, LocalDate.class);
+
+	/**
+	 * Handle always returning {@code true}
+	 */
+	private static final MethodHandle TRUE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0, LocalDate.class);
+
+	/**
+	 * Handle always returning {@code false}
+	 */
+	private static final MethodHandle FALSE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, LocalDate.class);
+
+	/**
+	 * Original expression
+	 */
+	private final TemporalExpression expression;
+
+	/**
+	 * Specialized handle of type {@link #PREDICATE}, or {@code null} if we are interpreting {@link #expression}
+	 */
+	private final MethodHandle handle;
+
+	/**
+	 * Constructor
+	 *
+	 * @param expression original expression
+	 * @param handle     specialized handle, or {@code null} to interpret {@code expression}
+	 */
+	private SpecializedExpression(TemporalExpression expression, MethodHandle handle) {
+		this.expression = expression;
+		this.handle = handle;
+		return;
+	}
+
+	/**
+	 * Returns a {@code SpecializedExpression} evaluating {@code expression}, specialized if this runtime supports it.
+	 *
+	 * @param expression a {@link TemporalExpression}
+	 * @return new object
+	 * @throws NullPointerException if {@code expression} is {@code null}
+	 */
+	public static SpecializedExpression of(TemporalExpression expression) {
+		return of(expression, SPECIALIZATION_SUPPORTED);
+	}
+
+	/**
+	 * Returns a {@code SpecializedExpression} evaluating {@code expression}, either specialized or interpreted according to
+	 * {@code specialize}.
+	 *
+	 * @param expression a {@link TemporalExpression}
+	 * @param specialize {@code true} to attempt specialization, {@code false} to interpret
+	 * @return new object
+	 * @throws NullPointerException if {@code expression} is {@code null}
+	 */
+	static SpecializedExpression of(TemporalExpression expression, boolean specialize) {
+		Objects.requireNonNull(expression);
+		MethodHandle handle = null;
+		if (specialize) {
+			try {
+				handle = specialize(expression);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				// Fall back to the interpreter
+				handle = null;
+			}
+		}
+		return new SpecializedExpression(expression, handle);
+	}
+
+	@Override
+	public boolean includes(LocalDate date) {
+		if (handle == null) {
+			return expression.includes(date);
+		}
+		try {
+			return (boolean) handle.invokeExact(date);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	/**
+	 * Is this object evaluating a specialized handle (rather than interpreting the original expression)?
+	 *
+	 * @return {@code true} if specialized, otherwise {@code false}
+	 */
+	public boolean isSpecialized() {
+		return handle != null;
+	}
+
+	/**
+	 * Returns the specialized handle, of type {@code (LocalDate)boolean}, or {@code null} if this object is interpreting the original
+	 * expression.
+	 *
+	 * @return specialized handle
+	 */
+	public MethodHandle handle() {
+		return handle;
+	}
+
+	/**
+	 * Returns the original expression.
+	 *
+	 * @return original expression
+	 */
+	public TemporalExpression expression() {
+		return expression;
+	}
+
+	/**
+	 * Builds a handle of type {@link #PREDICATE} equivalent to {@code expression}.
+	 *
+	 * @param expression a {@link TemporalExpression}
+	 * @return specialized handle
+	 * @throws ReflectiveOperationException if a required method cannot be found
+	 */
+	private static MethodHandle specialize(TemporalExpression expression) throws ReflectiveOperationException {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		if (expression instanceof Union) {
+			List<TemporalExpression> children = ((Union) expression).expressions;
+			MethodHandle result = specialize(children.get(children.size() - 1));
+			for (int i = children.size() - 2; i >= 0; i--) {
+				result = MethodHandles.guardWithTest(specialize(children.get(i)), TRUE, result);
+			}
+			return result;
+		} else if (expression instanceof Intersection) {
+			List<TemporalExpression> children = ((Intersection) expression).expressions;
+			MethodHandle result = specialize(children.get(children.size() - 1));
+			for (int i = children.size() - 2; i >= 0; i--) {
+				result = MethodHandles.guardWithTest(specialize(children.get(i)), result, FALSE);
+			}
+			return result;
+		} else if (expression instanceof Difference) {
+			Difference difference = (Difference) expression;
+			MethodHandle notExcluded = MethodHandles.guardWithTest(specialize(difference.excluded()), FALSE, TRUE);
+			return MethodHandles.guardWithTest(specialize(difference.included()), notExcluded, FALSE);
+		} else if (expression instanceof DayInMonth) {
+			DayInMonth dayInMonth = (DayInMonth) expression;
+			MethodHandle matches = lookup.findStatic(DayInMonth.class, "matches",
+					MethodType.methodType(boolean.class, DayOfWeek.class, int.class, LocalDate.class));
+			return MethodHandles.insertArguments(matches, 0, dayInMonth.day(), dayInMonth.ordinal());
+		} else if (expression instanceof DayInWeek) {
+			DayInWeek dayInWeek = (DayInWeek) expression;
+			if (dayInWeek.dayOfWeek() != null) {
+				MethodHandle matches = lookup.findStatic(DayInWeek.class, "matches", MethodType.methodType(boolean.class, DayOfWeek.class, LocalDate.class));
+				return MethodHandles.insertArguments(matches, 0, dayInWeek.dayOfWeek());
+			} else {
+				MethodHandle matches = lookup.findStatic(DayInWeek.class, "matchesEvery",
+						MethodType.methodType(boolean.class, long.class, int.class, LocalDate.class));
+				return MethodHandles.insertArguments(matches, 0, dayInWeek.referenceDate().toEpochDay(), dayInWeek.ordinal());
+			}
+		} else if (expression instanceof RangeEveryYear) {
+			RangeEveryYear range = (RangeEveryYear) expression;
+			MethodHandle matches = lookup.findStatic(RangeEveryYear.class, "matches",
+					MethodType.methodType(boolean.class, int.class, int.class, int.class, int.class, LocalDate.class));
+			return MethodHandles.insertArguments(matches, 0, range.startMonth().getValue(), range.startDay(), range.endMonth().getValue(),
+					range.endDay());
+		} else if (expression instanceof EasterOffset) {
+			MethodHandle matches = lookup.findStatic(EasterOffset.class, "matches", MethodType.methodType(boolean.class, int.class, LocalDate.class));
+			return MethodHandles.insertArguments(matches, 0, ((EasterOffset) expression).days());
+		} else if (expression instanceof SpecificDates) {
+			MethodHandle matches = lookup.findStatic(SpecificDates.class, "matches",
+					MethodType.methodType(boolean.class, int[].class, LocalDate.class));
+			return MethodHandles.insertArguments(matches, 0, ((SpecificDates) expression).epochDays());
+		} else if (expression instanceof EveryNDays) {
+			EveryNDays every = (EveryNDays) expression;
+			MethodHandle matches = lookup.findStatic(EveryNDays.class, "matches", MethodType.methodType(boolean.class, long.class, int.class, LocalDate.class));
+			return MethodHandles.insertArguments(matches, 0, every.anchor().toEpochDay(), every.interval());
+		} else if (expression instanceof DayOfMonth) {
+			DayOfMonth dayOfMonth = (DayOfMonth) expression;
+			MethodHandle matches = lookup.findStatic(DayOfMonth.class, "matches",
+					MethodType.methodType(boolean.class, int.class, boolean.class, LocalDate.class));
+			return MethodHandles.insertArguments(matches, 0, dayOfMonth.day(), dayOfMonth.includingLastDay());
+		} else {
+			return lookup.findVirtual(TemporalExpression.class, "includes", PREDICATE).bindTo(expression);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": specialized=").append(isSpecialized()).append(" expression=")
+				.append(expression).append(']');
+		return sb.toString();
+	}
+}
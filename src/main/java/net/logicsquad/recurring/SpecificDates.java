@@ -0,0 +1,251 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A {@link TemporalExpression} matching a fixed set of dates, such as a country's public holidays for the next few years. For example, to
+ * match every working day except those holidays, use {@code Difference.of(weekdays, SpecificDates.of(holidays))}.
+ * </p>
+ *
+ * <p>
+ * Dates are held as a sorted array of {@code int} epoch days, so {@link #includes(LocalDate)}, {@link #next(LocalDate)} and
+ * {@link #previous(LocalDate)} are binary searches, and {@link #between(LocalDate, LocalDate)} walks a slice of the array. Equal sets are
+ * {@link #equals(Object) equal}, and cache their hash code, so an {@link ExpressionInterner} (or a {@link Schedule} built from elements
+ * sharing a set) keeps and evaluates one copy of each.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class SpecificDates implements SeekableExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Shared instance matching no dates
+	 */
+	private static final SpecificDates EMPTY = new SpecificDates(new int[0]);
+
+	/**
+	 * Epoch days of dates, sorted and distinct
+	 */
+	private final int[] days;
+
+	/**
+	 * Hash code, computed once since {@link #days} may be large
+	 */
+	private final int hash;
+
+	/**
+	 * Constructor
+	 *
+	 * @param days epoch days of dates, sorted and distinct
+	 */
+	private SpecificDates(int[] days) {
+		this.days = days;
+		this.hash = Arrays.hashCode(days);
+		return;
+	}
+
+	/**
+	 * Returns a {@code SpecificDates} matching each of {@code dates}. Duplicates are ignored.
+	 *
+	 * @param dates dates to match
+	 * @return new object, or a shared instance if {@code dates} is empty
+	 * @throws NullPointerException     if {@code dates}, or any date, is {@code null}
+	 * @throws IllegalArgumentException if any date's epoch day is outside the range of {@code int}
+	 */
+	public static SpecificDates of(Collection<LocalDate> dates) {
+		Objects.requireNonNull(dates);
+		int[] days = new int[dates.size()];
+		int i = 0;
+		for (LocalDate date : dates) {
+			long day = date.toEpochDay();
+			if (day < Integer.MIN_VALUE || day > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Date " + date + " out of range.");
+			}
+			days[i++] = (int) day;
+		}
+		Arrays.sort(days);
+		int distinct = 0;
+		for (int j = 0; j < days.length; j++) {
+			if (distinct == 0 || days[j] != days[distinct - 1]) {
+				days[distinct++] = days[j];
+			}
+		}
+		return distinct == 0 ? EMPTY : new SpecificDates(Arrays.copyOf(days, distinct));
+	}
+
+	/**
+	 * Returns a {@code SpecificDates} matching each of {@code dates}. Duplicates are ignored.
+	 *
+	 * @param dates dates to match
+	 * @return new object, or a shared instance if {@code dates} is empty
+	 * @throws NullPointerException     if any date is {@code null}
+	 * @throws IllegalArgumentException if any date's epoch day is outside the range of {@code int}
+	 */
+	public static SpecificDates of(LocalDate... dates) {
+		return of(Arrays.asList(dates));
+	}
+
+	@Override
+	public boolean includes(LocalDate date) {
+		return matches(days, date);
+	}
+
+	/**
+	 * Is {@code date} one of {@code days}? Expressed in terms of the array so that it can be bound to a constant by
+	 * {@link SpecializedExpression}.
+	 *
+	 * @param days epoch days, sorted and distinct
+	 * @param date a {@link LocalDate}
+	 * @return {@code true} if {@code date} matches, otherwise {@code false}
+	 */
+	static boolean matches(int[] days, LocalDate date) {
+		long day = date.toEpochDay();
+		if (days.length == 0 || day < days[0] || day > days[days.length - 1]) {
+			return false;
+		}
+		return Arrays.binarySearch(days, (int) day) >= 0;
+	}
+
+	/**
+	 * Returns the earliest matching date on or after {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return next date, or {@code null} if there is none
+	 */
+	@Override
+	public LocalDate next(LocalDate date) {
+		int index = ceiling(date.toEpochDay());
+		return index < days.length ? LocalDate.ofEpochDay(days[index]) : null;
+	}
+
+	/**
+	 * Returns the latest matching date on or before {@code date}.
+	 *
+	 * @param date a {@link LocalDate}
+	 * @return previous date, or {@code null} if there is none
+	 */
+	@Override
+	public LocalDate previous(LocalDate date) {
+		int index = ceiling(date.toEpochDay() + 1) - 1;
+		return index >= 0 ? LocalDate.ofEpochDay(days[index]) : null;
+	}
+
+	/**
+	 * Returns the matching dates between {@code start} and {@code end} (inclusive), in ascending order.
+	 *
+	 * @param start start date
+	 * @param end   end date
+	 * @return stream of dates
+	 */
+	public Stream<LocalDate> between(LocalDate start, LocalDate end) {
+		int from = ceiling(start.toEpochDay());
+		int to = ceiling(end.toEpochDay() + 1);
+		return IntStream.range(from, Math.max(from, to)).mapToObj(i -> LocalDate.ofEpochDay(days[i]));
+	}
+
+	/**
+	 * Returns the number of matching dates between {@code start} and {@code end} (inclusive).
+	 *
+	 * @param start start date
+	 * @param end   end date
+	 * @return number of dates
+	 */
+	public int count(LocalDate start, LocalDate end) {
+		return Math.max(0, ceiling(end.toEpochDay() + 1) - ceiling(start.toEpochDay()));
+	}
+
+	/**
+	 * Returns the number of matching dates.
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return days.length;
+	}
+
+	/**
+	 * Returns the matching dates.
+	 *
+	 * @return unmodifiable list of dates in ascending order
+	 */
+	public List<LocalDate> dates() {
+		List<LocalDate> result = new ArrayList<>(days.length);
+		for (int day : days) {
+			result.add(LocalDate.ofEpochDay(day));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the index of the first of {@link #days} not less than {@code day}, or {@code days.length} if there is none.
+	 *
+	 * @param day an epoch day
+	 * @return index
+	 */
+	private int ceiling(long day) {
+		if (day > Integer.MAX_VALUE) {
+			return days.length;
+		} else if (day < Integer.MIN_VALUE) {
+			return 0;
+		}
+		int index = Arrays.binarySearch(days, (int) day);
+		return index >= 0 ? index : -index - 1;
+	}
+
+	/**
+	 * Returns epoch days of matching dates, for {@link SpecializedExpression}. The array must not be modified.
+	 *
+	 * @return sorted epoch days
+	 */
+	int[] epochDays() {
+		return days;
+	}
+
+	/**
+	 * Replaces a deserialized empty set with the shared instance.
+	 *
+	 * @return {@link #EMPTY} if this set is empty, otherwise {@code this}
+	 */
+	private Object readResolve() {
+		return days.length == 0 ? EMPTY : this;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof SpecificDates)) {
+			return false;
+		}
+		SpecificDates other = (SpecificDates) obj;
+		return hash == other.hash && Arrays.equals(days, other.days);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": ").append(dates()).append(']');
+		return sb.toString();
+	}
+}
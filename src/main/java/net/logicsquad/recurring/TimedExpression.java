@@ -0,0 +1,196 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * A {@link DateTimeExpression} matching {@link TimesOfDay} on each day matched by a {@link TemporalExpression}. For example, "every weekday
+ * at 09:00 and 14:30" is:
+ * </p>
+ *
+ * <pre>
+ * TemporalExpression weekdays = Union.of(DayInWeek.of(MONDAY), DayInWeek.of(TUESDAY), DayInWeek.of(WEDNESDAY), DayInWeek.of(THURSDAY),
+ * 		DayInWeek.of(FRIDAY));
+ * TimedExpression.of(weekdays, TimesOfDay.of(LocalTime.of(9, 0), LocalTime.of(14, 30)));
+ * </pre>
+ *
+ * <p>
+ * Seeks find the time within a day analytically, so the cost of {@link #next(LocalDateTime)} and {@link #previous(LocalDateTime)} does
+ * not depend on the number of times in a day. They find the day by seeking if the day-level expression can (such as an
+ * {@link EveryNDays}), and otherwise by evaluating it once per day searched, up to any limit given.
+ * {@link #between(LocalDateTime, LocalDateTime)} likewise evaluates the day-level expression once per day in its range.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class TimedExpression implements DateTimeExpression, Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Days on which {@link #times} match
+	 */
+	private final TemporalExpression days;
+
+	/**
+	 * Times matched on each of {@link #days}
+	 */
+	private final TimesOfDay times;
+
+	/**
+	 * Seeker over {@link #days}, or {@code null} until first needed
+	 */
+	private transient Seeker seeker;
+
+	/**
+	 * Constructor
+	 *
+	 * @param days  days on which {@code times} match
+	 * @param times times matched on each of {@code days}
+	 */
+	private TimedExpression(TemporalExpression days, TimesOfDay times) {
+		this.days = days;
+		this.times = times;
+		return;
+	}
+
+	/**
+	 * Returns a {@code TimedExpression} matching {@code times} on each day included by {@code days}.
+	 *
+	 * @param days  a {@link TemporalExpression}
+	 * @param times a {@link TimesOfDay}
+	 * @return new object
+	 * @throws NullPointerException if either argument is {@code null}
+	 */
+	public static TimedExpression of(TemporalExpression days, TimesOfDay times) {
+		Objects.requireNonNull(days);
+		Objects.requireNonNull(times);
+		return new TimedExpression(days, times);
+	}
+
+	/**
+	 * Returns the day-level expression.
+	 *
+	 * @return days on which {@link #times()} match
+	 */
+	public TemporalExpression days() {
+		return days;
+	}
+
+	/**
+	 * Returns the time-of-day rule.
+	 *
+	 * @return times matched on each of {@link #days()}
+	 */
+	public TimesOfDay times() {
+		return times;
+	}
+
+	@Override
+	public boolean includes(LocalDateTime dateTime) {
+		// Check the cheap time-of-day rule first
+		return times.includes(dateTime.toLocalTime()) && days.includes(dateTime.toLocalDate());
+	}
+
+	@Override
+	public LocalDateTime next(LocalDateTime dateTime) {
+		return next(dateTime, dateTime.toLocalDate().plusDays(Seeker.HORIZON_DAYS).atTime(LocalTime.MAX));
+	}
+
+	@Override
+	public LocalDateTime previous(LocalDateTime dateTime) {
+		return previous(dateTime, dateTime.toLocalDate().minusDays(Seeker.HORIZON_DAYS).atStartOfDay());
+	}
+
+	@Override
+	public LocalDateTime next(LocalDateTime dateTime, LocalDateTime limit) {
+		LocalDate date = dateTime.toLocalDate();
+		LocalTime time = times.next(dateTime.toLocalTime());
+		LocalDateTime result = null;
+		if (time != null && days.includes(date)) {
+			result = date.atTime(time);
+		} else if (date.isBefore(limit.toLocalDate())) {
+			LocalDate next = seeker().next(date.plusDays(1), limit.toLocalDate(), null);
+			result = next == null ? null : next.atTime(times.first());
+		}
+		return result == null || result.isAfter(limit) ? null : result;
+	}
+
+	@Override
+	public LocalDateTime previous(LocalDateTime dateTime, LocalDateTime limit) {
+		LocalDate date = dateTime.toLocalDate();
+		LocalTime time = times.previous(dateTime.toLocalTime());
+		LocalDateTime result = null;
+		if (time != null && days.includes(date)) {
+			result = date.atTime(time);
+		} else if (date.isAfter(limit.toLocalDate())) {
+			LocalDate previous = seeker().previous(date.minusDays(1), limit.toLocalDate(), null);
+			result = previous == null ? null : previous.atTime(times.last());
+		}
+		return result == null || result.isBefore(limit) ? null : result;
+	}
+
+	@Override
+	public Stream<LocalDateTime> between(LocalDateTime start, LocalDateTime end) {
+		Objects.requireNonNull(start);
+		Objects.requireNonNull(end);
+		long first = start.toLocalDate().toEpochDay();
+		long last = end.toLocalDate().toEpochDay();
+		long from = start.toLocalTime().toNanoOfDay();
+		long to = end.toLocalTime().toNanoOfDay();
+		return LongStream.rangeClosed(first, last).mapToObj(LocalDate::ofEpochDay).filter(days::includes).flatMap(date -> {
+			long day = date.toEpochDay();
+			int low = day == first ? times.ceiling(from) : 0;
+			int high = day == last ? times.floor(to) : times.size() - 1;
+			return IntStream.rangeClosed(low, high).mapToObj(i -> date.atTime(LocalTime.ofNanoOfDay(times.at(i))));
+		});
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof TimedExpression)) {
+			return false;
+		}
+		TimedExpression other = (TimedExpression) obj;
+		return days.equals(other.days) && times.equals(other.times);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * days.hashCode() + times.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": days=").append(days).append(" times=").append(times).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Returns {@link #seeker}, building it if necessary. Racing threads may each build a seeker, but the seekers are equivalent.
+	 *
+	 * @return seeker over {@link #days}
+	 */
+	private Seeker seeker() {
+		Seeker result = seeker;
+		if (result == null) {
+			result = Seeker.of(days);
+			seeker = result;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,278 @@
+package net.logicsquad.recurring;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Describes a set of times within a day. There are two options:
+ * </p>
+ *
+ * <ol>
+ * <li>{@link #of(LocalTime...)} creates a rule matching a fixed set of times; and</li>
+ * <li>{@link #every(Duration, LocalTime, LocalTime)} creates a rule matching every {@code step} from {@code start} up to and including
+ * {@code end}.</li>
+ * </ol>
+ *
+ * <p>
+ * For example, to match "09:00 and 14:30", use {@code of(LocalTime.of(9, 0), LocalTime.of(14, 30))}. To match "every 15 minutes from
+ * 08:00 to 18:00", use {@code every(Duration.ofMinutes(15), LocalTime.of(8, 0), LocalTime.of(18, 0))}. Times are held as nanoseconds of
+ * day, and {@link #next(LocalTime)} and {@link #previous(LocalTime)} find a time by binary search or arithmetic, without scanning.
+ * </p>
+ *
+ * @author paulh
+ * @see TimedExpression
+ * @since 0.5
+ */
+public final class TimesOfDay implements Serializable {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Nanoseconds of day of each time in a fixed set, sorted and distinct, or {@code null} for a stepped rule
+	 */
+	private final long[] times;
+
+	/**
+	 * Nanosecond of day of first time
+	 */
+	private final long start;
+
+	/**
+	 * Nanoseconds between times in a stepped rule, or 0 for a fixed set
+	 */
+	private final long step;
+
+	/**
+	 * Number of times
+	 */
+	private final int count;
+
+	/**
+	 * Constructor
+	 *
+	 * @param times nanoseconds of day of a fixed set of times, sorted and distinct, or {@code null} for a stepped rule
+	 * @param start nanosecond of day of first time
+	 * @param step  nanoseconds between times in a stepped rule, or 0 for a fixed set
+	 * @param count number of times
+	 */
+	private TimesOfDay(long[] times, long start, long step, int count) {
+		this.times = times;
+		this.start = start;
+		this.step = step;
+		this.count = count;
+		return;
+	}
+
+	/**
+	 * Returns a {@code TimesOfDay} matching each of {@code times}. Duplicates are ignored.
+	 *
+	 * @param times one or more times
+	 * @return new object
+	 * @throws NullPointerException     if any of {@code times} is {@code null}
+	 * @throws IllegalArgumentException if {@code times} is empty
+	 */
+	public static TimesOfDay of(LocalTime... times) {
+		Objects.requireNonNull(times);
+		if (times.length == 0) {
+			throw new IllegalArgumentException("'times' must not be empty.");
+		}
+		long[] nanos = new long[times.length];
+		for (int i = 0; i < times.length; i++) {
+			nanos[i] = times[i].toNanoOfDay();
+		}
+		Arrays.sort(nanos);
+		int distinct = 1;
+		for (int i = 1; i < nanos.length; i++) {
+			if (nanos[i] != nanos[distinct - 1]) {
+				nanos[distinct++] = nanos[i];
+			}
+		}
+		nanos = Arrays.copyOf(nanos, distinct);
+		return new TimesOfDay(nanos, nanos[0], 0, distinct);
+	}
+
+	/**
+	 * Returns a {@code TimesOfDay} matching {@code start}, and every {@code step} after it up to and including {@code end}.
+	 *
+	 * @param step  interval between times
+	 * @param start first time
+	 * @param end   latest time
+	 * @return new object
+	 * @throws NullPointerException     if any argument is {@code null}
+	 * @throws IllegalArgumentException if {@code step} is not positive, {@code end} is before {@code start}, or there would be more than
+	 *                                  {@link Integer#MAX_VALUE} times
+	 */
+	public static TimesOfDay every(Duration step, LocalTime start, LocalTime end) {
+		Objects.requireNonNull(step);
+		Objects.requireNonNull(start);
+		Objects.requireNonNull(end);
+		if (step.isNegative() || step.isZero()) {
+			throw new IllegalArgumentException("'step' must be positive.");
+		}
+		if (end.isBefore(start)) {
+			throw new IllegalArgumentException("'end' must not be before 'start'.");
+		}
+		long first = start.toNanoOfDay();
+		// A step longer than a day can only ever match start
+		long nanos = step.compareTo(Duration.ofDays(1)) > 0 ? LocalTime.MAX.toNanoOfDay() + 1 : step.toNanos();
+		long count = (end.toNanoOfDay() - first) / nanos + 1;
+		if (count > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("'step' is too small.");
+		}
+		return new TimesOfDay(null, first, nanos, (int) count);
+	}
+
+	/**
+	 * Is {@code time} matched by this {@code TimesOfDay}?
+	 *
+	 * @param time a {@link LocalTime}
+	 * @return {@code true} if this object matches {@code time}, otherwise {@code false}
+	 */
+	public boolean includes(LocalTime time) {
+		long nanos = time.toNanoOfDay();
+		int index = ceiling(nanos);
+		return index < count && at(index) == nanos;
+	}
+
+	/**
+	 * Returns the earliest time matched by this {@code TimesOfDay} at or after {@code time}, or {@code null} if there is none.
+	 *
+	 * @param time a {@link LocalTime}
+	 * @return next time, or {@code null}
+	 */
+	public LocalTime next(LocalTime time) {
+		int index = ceiling(time.toNanoOfDay());
+		return index < count ? LocalTime.ofNanoOfDay(at(index)) : null;
+	}
+
+	/**
+	 * Returns the latest time matched by this {@code TimesOfDay} at or before {@code time}, or {@code null} if there is none.
+	 *
+	 * @param time a {@link LocalTime}
+	 * @return previous time, or {@code null}
+	 */
+	public LocalTime previous(LocalTime time) {
+		int index = floor(time.toNanoOfDay());
+		return index >= 0 ? LocalTime.ofNanoOfDay(at(index)) : null;
+	}
+
+	/**
+	 * Returns the earliest time matched by this {@code TimesOfDay}.
+	 *
+	 * @return first time
+	 */
+	public LocalTime first() {
+		return LocalTime.ofNanoOfDay(at(0));
+	}
+
+	/**
+	 * Returns the latest time matched by this {@code TimesOfDay}.
+	 *
+	 * @return last time
+	 */
+	public LocalTime last() {
+		return LocalTime.ofNanoOfDay(at(count - 1));
+	}
+
+	/**
+	 * Returns the number of times matched by this {@code TimesOfDay} in a day.
+	 *
+	 * @return number of times
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the nanosecond of day of the time at {@code index}.
+	 *
+	 * @param index index, from 0 to {@link #size()} - 1
+	 * @return nanosecond of day
+	 */
+	long at(int index) {
+		return times != null ? times[index] : start + index * step;
+	}
+
+	/**
+	 * Returns the index of the earliest time at or after {@code nanos}, or {@link #size()} if there is none.
+	 *
+	 * @param nanos nanosecond of day
+	 * @return index
+	 */
+	int ceiling(long nanos) {
+		if (times != null) {
+			int index = Arrays.binarySearch(times, nanos);
+			return index >= 0 ? index : -index - 1;
+		}
+		if (nanos <= start) {
+			return 0;
+		}
+		return (int) Math.min(count, (nanos - start + step - 1) / step);
+	}
+
+	/**
+	 * Returns the index of the latest time at or before {@code nanos}, or -1 if there is none.
+	 *
+	 * @param nanos nanosecond of day
+	 * @return index
+	 */
+	int floor(long nanos) {
+		if (times != null) {
+			int index = Arrays.binarySearch(times, nanos);
+			return index >= 0 ? index : -index - 2;
+		}
+		if (nanos < start) {
+			return -1;
+		}
+		return (int) Math.min(count - 1, (nanos - start) / step);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof TimesOfDay)) {
+			return false;
+		}
+		TimesOfDay other = (TimesOfDay) obj;
+		if (count != other.count) {
+			return false;
+		}
+		if (times == null && other.times == null) {
+			return start == other.start && (count == 1 || step == other.step);
+		}
+		// At least one is a fixed set, which bounds the comparison
+		for (int i = 0; i < count; i++) {
+			if (at(i) != other.at(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// Depends only on what is matched, so that a fixed set and an equal stepped rule share a hash
+		return 31 * (31 * count + Long.hashCode(at(0))) + Long.hashCode(at(count - 1));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": ");
+		if (times != null) {
+			sb.append("times=").append(Arrays.toString(Arrays.stream(times).mapToObj(LocalTime::ofNanoOfDay).toArray()));
+		} else {
+			sb.append("start=").append(first()).append(" step=").append(Duration.ofNanos(step)).append(" end=").append(last());
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,374 @@
+package net.logicsquad.recurring;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Fires a {@link Trigger} for each event in a {@link Schedule} on each date on which it occurs, according to a {@link Clock}.
+ * </p>
+ *
+ * <p>
+ * Rather than checking every event every day, the engine keeps a priority queue of each event's next occurrence, bucketed by date, and
+ * computes an event's following occurrence only when it fires. {@link #runDue()} fires everything due on or before today; if the clock
+ * has moved forward by several days, events fire once for each occurrence missed, in date order. {@link #start(ScheduledExecutorService)}
+ * runs the engine in the background with one wakeup per date on which something is due.
+ * </p>
+ *
+ * <p>
+ * The built-in {@link Schedule}s find an event's next occurrence by seeking, however far ahead it is, wherever its expressions allow
+ * (see {@link SeekableExpression}). Searches that must test days one at a time look at most eight years ahead; an event with no
+ * occurrence in that time is parked, and searched for again once the clock reaches the end of that time. If the {@link Schedule} is a
+ * {@link ConcurrentSchedule}, each change reschedules the events it affects.
+ * </p>
+ *
+ * @param <T> type for {@link ScheduleElement}s and {@code event} objects
+ * @author paulh
+ * @since 0.5
+ */
+public final class TriggerEngine<T> {
+	/**
+	 * Receives each occurrence of each event.
+	 *
+	 * @param <T> type for event
+	 */
+	@FunctionalInterface
+	public interface Trigger<T> {
+		/**
+		 * Called for an occurrence of {@code event} on {@code date}.
+		 *
+		 * @param event object representing an event
+		 * @param date  date of occurrence
+		 */
+		void fire(T event, LocalDate date);
+	}
+
+	/**
+	 * Underlying {@link Schedule}
+	 */
+	private final Schedule<T> schedule;
+
+	/**
+	 * Source of today's date and current time
+	 */
+	private final Clock clock;
+
+	/**
+	 * Receives occurrences
+	 */
+	private final Trigger<T> trigger;
+
+	/**
+	 * Events due, bucketed by epoch day
+	 */
+	private final TreeMap<Long, Set<T>> queue = new TreeMap<>();
+
+	/**
+	 * Epoch day on which each queued event is next due
+	 */
+	private final Map<T, Long> due = new HashMap<>();
+
+	/**
+	 * Events with no occurrence found, bucketed by the epoch day from which to search for them again
+	 */
+	private final TreeMap<Long, Set<T>> parked = new TreeMap<>();
+
+	/**
+	 * Epoch day from which to search again for each parked event
+	 */
+	private final Map<T, Long> resume = new HashMap<>();
+
+	/**
+	 * Executor for background running, or {@code null} if stopped
+	 */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Next background wakeup, or {@code null}
+	 */
+	private ScheduledFuture<?> wakeup;
+
+	/**
+	 * Constructor
+	 *
+	 * @param schedule underlying {@link Schedule}
+	 * @param clock    source of today's date
+	 * @param trigger  receives occurrences
+	 */
+	private TriggerEngine(Schedule<T> schedule, Clock clock, Trigger<T> trigger) {
+		this.schedule = schedule;
+		this.clock = clock;
+		this.trigger = trigger;
+		return;
+	}
+
+	/**
+	 * Returns a {@code TriggerEngine} firing {@code trigger} for the events in {@code schedule}, with every event queued at its next
+	 * occurrence on or after {@code clock}'s current date.
+	 *
+	 * @param <T>      type for event
+	 * @param schedule underlying {@link Schedule}
+	 * @param clock    source of today's date
+	 * @param trigger  receives occurrences
+	 * @return new object
+	 * @throws NullPointerException if any argument is {@code null}
+	 */
+	public static <T> TriggerEngine<T> of(Schedule<T> schedule, Clock clock, Trigger<T> trigger) {
+		Objects.requireNonNull(schedule);
+		Objects.requireNonNull(clock);
+		Objects.requireNonNull(trigger);
+		TriggerEngine<T> result = new TriggerEngine<>(schedule, clock, trigger);
+		if (schedule instanceof ConcurrentSchedule) {
+			// Listen before queueing, so that no change is missed: a change made meanwhile is rescheduled once queueing is done
+			((ConcurrentSchedule<T>) schedule).addListener(result::reschedule);
+		}
+		synchronized (result) {
+			LocalDate today = LocalDate.now(clock);
+			for (T event : schedule.events()) {
+				// The event may already have been rescheduled
+				result.dequeue(event);
+				result.enqueue(event, today);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Fires every occurrence due on or before today, in date order. If {@link Trigger#fire(Object, LocalDate)} throws, the remaining
+	 * occurrences still fire, and the first exception is rethrown afterwards.
+	 *
+	 * @return number of occurrences fired
+	 */
+	public int runDue() {
+		long today = LocalDate.now(clock).toEpochDay();
+		int result = 0;
+		RuntimeException failure = null;
+		synchronized (this) {
+			unpark(today);
+		}
+		while (true) {
+			T event;
+			LocalDate date;
+			synchronized (this) {
+				Entry<Long, Set<T>> first = queue.firstEntry();
+				if (first == null || first.getKey() > today) {
+					break;
+				}
+				event = first.getValue().iterator().next();
+				date = LocalDate.ofEpochDay(first.getKey());
+				dequeue(event);
+				enqueue(event, date.plusDays(1));
+			}
+			try {
+				trigger.fire(event, date);
+			} catch (RuntimeException e) {
+				if (failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+			result++;
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the earliest date on which any event is due.
+	 *
+	 * @return next due date, or {@code null} if no event is due within the horizon
+	 */
+	public synchronized LocalDate nextDue() {
+		return queue.isEmpty() ? null : LocalDate.ofEpochDay(queue.firstKey());
+	}
+
+	/**
+	 * Returns the date on which {@code event} is next due.
+	 *
+	 * @param event object representing an event
+	 * @return next due date, or {@code null} if {@code event} is not queued, or is parked with no occurrence found
+	 */
+	public synchronized LocalDate nextDue(T event) {
+		Long day = due.get(event);
+		return day == null ? null : LocalDate.ofEpochDay(day);
+	}
+
+	/**
+	 * Returns the number of events queued. Events parked with no occurrence found are not counted.
+	 *
+	 * @return queue size
+	 */
+	public synchronized int size() {
+		return due.size();
+	}
+
+	/**
+	 * Runs this engine in the background on {@code executor}, waking at the start of each day (in the {@link Clock}'s zone) on which an
+	 * event is due, and immediately if anything is already due.
+	 *
+	 * @param executor executor on which to fire triggers
+	 * @throws NullPointerException  if {@code executor} is {@code null}
+	 * @throws IllegalStateException if this engine is already running
+	 */
+	public synchronized void start(ScheduledExecutorService executor) {
+		Objects.requireNonNull(executor);
+		if (this.executor != null) {
+			throw new IllegalStateException("TriggerEngine is already running.");
+		}
+		this.executor = executor;
+		scheduleWakeup();
+		return;
+	}
+
+	/**
+	 * Stops background running, if started.
+	 */
+	public synchronized void stop() {
+		if (wakeup != null) {
+			wakeup.cancel(false);
+			wakeup = null;
+		}
+		executor = null;
+		return;
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": events=").append(due.size()).append(" parked=").append(resume.size())
+				.append(" nextDue=").append(nextDue()).append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Runs due occurrences and schedules the next wakeup.
+	 */
+	private void wake() {
+		try {
+			runDue();
+		} finally {
+			synchronized (this) {
+				if (executor != null) {
+					scheduleWakeup();
+				}
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Schedules a wakeup for the start of {@link #nextDue()}, or of the first day on which a parked event is to be searched for again if
+	 * that is earlier, replacing any existing wakeup. Must be called while synchronized.
+	 */
+	private void scheduleWakeup() {
+		if (wakeup != null) {
+			wakeup.cancel(false);
+			wakeup = null;
+		}
+		Long next = queue.isEmpty() ? null : queue.firstKey();
+		if (!parked.isEmpty() && (next == null || parked.firstKey() < next)) {
+			next = parked.firstKey();
+		}
+		if (next != null) {
+			LocalDate date = LocalDate.ofEpochDay(next);
+			long delay = Math.max(0, Duration.between(clock.instant(), date.atStartOfDay(clock.getZone())).toNanos());
+			wakeup = executor.schedule(this::wake, delay, TimeUnit.NANOSECONDS);
+		}
+		return;
+	}
+
+	/**
+	 * Re-queues {@code event} at its next occurrence on or after today, such as after its elements have changed.
+	 *
+	 * @param event object representing an event
+	 */
+	private synchronized void reschedule(T event) {
+		dequeue(event);
+		enqueue(event, LocalDate.now(clock));
+		if (executor != null) {
+			scheduleWakeup();
+		}
+		return;
+	}
+
+	/**
+	 * Queues {@code event} at its first occurrence on or after {@code from}. A search that must test days one at a time stops after
+	 * {@link Seeker#HORIZON_DAYS} days, and if it finds nothing, {@code event} is parked until the day after the last one searched. Must be
+	 * called while synchronized.
+	 *
+	 * @param event object representing an event
+	 * @param from  earliest date
+	 */
+	private void enqueue(T event, LocalDate from) {
+		LocalDate limit = from.plusDays(Seeker.HORIZON_DAYS - 1);
+		LocalDate next = SeekableSchedule.seek(schedule, event, from, limit);
+		if (next != null) {
+			due.put(event, next.toEpochDay());
+			queue.computeIfAbsent(next.toEpochDay(), k -> new LinkedHashSet<>()).add(event);
+		} else {
+			long day = limit.toEpochDay() + 1;
+			resume.put(event, day);
+			parked.computeIfAbsent(day, k -> new LinkedHashSet<>()).add(event);
+		}
+		return;
+	}
+
+	/**
+	 * Searches again for each event parked until {@code today} or earlier, from the day it was parked until. Must be called while
+	 * synchronized.
+	 *
+	 * @param today today's epoch day
+	 */
+	private void unpark(long today) {
+		for (Entry<Long, Set<T>> first = parked.firstEntry(); first != null && first.getKey() <= today; first = parked.firstEntry()) {
+			T event = first.getValue().iterator().next();
+			dequeue(event);
+			enqueue(event, LocalDate.ofEpochDay(first.getKey()));
+		}
+		return;
+	}
+
+	/**
+	 * Removes {@code event} from the queue, or from the parked events, if present. Must be called while synchronized.
+	 *
+	 * @param event object representing an event
+	 */
+	private void dequeue(T event) {
+		remove(queue, due, event);
+		remove(parked, resume, event);
+		return;
+	}
+
+	/**
+	 * Removes {@code event} from {@code buckets} and {@code days}, if present.
+	 *
+	 * @param buckets events, bucketed by epoch day
+	 * @param days    epoch day of each event in {@code buckets}
+	 * @param event   object representing an event
+	 */
+	private void remove(TreeMap<Long, Set<T>> buckets, Map<T, Long> days, T event) {
+		Long day = days.remove(event);
+		if (day != null) {
+			Set<T> bucket = buckets.get(day);
+			bucket.remove(event);
+			if (bucket.isEmpty()) {
+				buckets.remove(day);
+			}
+		}
+		return;
+	}
+}
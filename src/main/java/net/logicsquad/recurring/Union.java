@@ -12,6 +12,11 @@ import java.util.List;
  * @author paulh
  */
 public final class Union extends CompositeTemporalExpression {
+	/**
+	 * Serial version UID
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Constructor
 	 *
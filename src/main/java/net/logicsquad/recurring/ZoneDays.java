@@ -0,0 +1,204 @@
+package net.logicsquad.recurring;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Maps instants to local dates in a time zone. A {@code ZoneDays} precomputes the zone's offset transitions between
+ * {@link #FIRST_YEAR} and {@link #LAST_YEAR}, so that finding the local date of an instant is a binary search over those transitions,
+ * rather than a {@link ZoneRules} lookup. Dates either side of a daylight saving transition are found from the offset in force at that
+ * instant, as {@link ZonedDateTime#toLocalDate()} would find them, and a zone's history of changes to its standard offset is followed in
+ * the same way.
+ * </p>
+ *
+ * <p>
+ * {@link #of(ZoneId)} returns a shared instance per zone, and {@link #epochDay(long)} allocates nothing; {@link #date(Instant)} allocates
+ * only the {@link LocalDate} it returns. Instants outside the precomputed years fall back to {@link ZoneRules#getOffset(Instant)}.
+ * </p>
+ *
+ * @author paulh
+ * @since 0.5
+ */
+public final class ZoneDays {
+	/**
+	 * First year for which transitions are precomputed
+	 */
+	public static final int FIRST_YEAR = 1900;
+
+	/**
+	 * Last year for which transitions are precomputed
+	 */
+	public static final int LAST_YEAR = 2200;
+
+	/**
+	 * Seconds in a day
+	 */
+	private static final int SECONDS_PER_DAY = 86_400;
+
+	/**
+	 * Shared instances, by zone
+	 */
+	private static final Map<ZoneId, ZoneDays> INSTANCES = new ConcurrentHashMap<>();
+
+	/**
+	 * Zone
+	 */
+	private final ZoneId zone;
+
+	/**
+	 * Rules for {@link #zone}
+	 */
+	private final ZoneRules rules;
+
+	/**
+	 * First epoch second for which {@link #offsets} apply
+	 */
+	private final long low;
+
+	/**
+	 * First epoch second after {@link #low} for which {@link #offsets} no longer apply
+	 */
+	private final long high;
+
+	/**
+	 * Epoch second of each transition between {@link #low} and {@link #high}, in ascending order
+	 */
+	private final long[] transitions;
+
+	/**
+	 * Offset in seconds in force before each of {@link #transitions}, and finally after the last of them
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Constructor
+	 *
+	 * @param zone zone
+	 */
+	private ZoneDays(ZoneId zone) {
+		this.zone = zone;
+		this.rules = zone.getRules();
+		if (rules.isFixedOffset()) {
+			this.low = Long.MIN_VALUE;
+			this.high = Long.MAX_VALUE;
+			this.transitions = new long[0];
+			this.offsets = new int[] { rules.getOffset(Instant.EPOCH).getTotalSeconds() };
+		} else {
+			this.low = LocalDate.of(FIRST_YEAR, 1, 1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+			this.high = LocalDate.of(LAST_YEAR + 1, 1, 1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+			List<ZoneOffsetTransition> found = new ArrayList<>();
+			ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(low));
+			while (transition != null && transition.toEpochSecond() < high) {
+				found.add(transition);
+				transition = rules.nextTransition(transition.getInstant());
+			}
+			this.transitions = new long[found.size()];
+			this.offsets = new int[found.size() + 1];
+			offsets[0] = rules.getOffset(Instant.ofEpochSecond(low)).getTotalSeconds();
+			for (int i = 0; i < transitions.length; i++) {
+				transitions[i] = found.get(i).toEpochSecond();
+				offsets[i + 1] = found.get(i).getOffsetAfter().getTotalSeconds();
+			}
+		}
+		return;
+	}
+
+	/**
+	 * Returns the shared {@code ZoneDays} for {@code zone}.
+	 *
+	 * @param zone a {@link ZoneId}
+	 * @return {@code ZoneDays}
+	 * @throws NullPointerException if {@code zone} is {@code null}
+	 */
+	public static ZoneDays of(ZoneId zone) {
+		Objects.requireNonNull(zone);
+		// Plain get() first, as Java 8's computeIfAbsent() locks even when the key is present
+		ZoneDays result = INSTANCES.get(zone);
+		return result != null ? result : INSTANCES.computeIfAbsent(zone, ZoneDays::new);
+	}
+
+	/**
+	 * Returns zone.
+	 *
+	 * @return zone
+	 */
+	public ZoneId zone() {
+		return zone;
+	}
+
+	/**
+	 * Returns the offset from UTC, in seconds, in force in this zone at {@code epochSecond}.
+	 *
+	 * @param epochSecond seconds from 1970-01-01T00:00:00Z
+	 * @return offset in seconds
+	 */
+	public int offsetSeconds(long epochSecond) {
+		if (epochSecond < low || epochSecond >= high) {
+			return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+		}
+		int index = Arrays.binarySearch(transitions, epochSecond);
+		// A transition's own instant takes the offset after it
+		return offsets[index >= 0 ? index + 1 : -index - 1];
+	}
+
+	/**
+	 * Returns the local epoch day in this zone at {@code epochSecond}.
+	 *
+	 * @param epochSecond seconds from 1970-01-01T00:00:00Z
+	 * @return local epoch day
+	 */
+	public long epochDay(long epochSecond) {
+		return Math.floorDiv(epochSecond + offsetSeconds(epochSecond), SECONDS_PER_DAY);
+	}
+
+	/**
+	 * Returns the local date in this zone at {@code instant}.
+	 *
+	 * @param instant an {@link Instant}
+	 * @return local date
+	 * @throws NullPointerException if {@code instant} is {@code null}
+	 */
+	public LocalDate date(Instant instant) {
+		return LocalDate.ofEpochDay(epochDay(instant.getEpochSecond()));
+	}
+
+	/**
+	 * Returns the local date in this zone at the instant of {@code dateTime}.
+	 *
+	 * @param dateTime a {@link ZonedDateTime}
+	 * @return local date
+	 * @throws NullPointerException if {@code dateTime} is {@code null}
+	 */
+	public LocalDate date(ZonedDateTime dateTime) {
+		return LocalDate.ofEpochDay(epochDay(dateTime.toEpochSecond()));
+	}
+
+	/**
+	 * Returns the number of precomputed transitions.
+	 *
+	 * @return number of transitions
+	 */
+	int transitions() {
+		return transitions.length;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(this.getClass().getSimpleName()).append(": zone=").append(zone).append(" transitions=").append(transitions.length)
+				.append(']');
+		return sb.toString();
+	}
+}
@@ -16,6 +16,38 @@
  * <li>Several implementations of {@link net.logicsquad.recurring.TemporalExpression TemporalExpression} that act as set operations for
  * combining basic {@link net.logicsquad.recurring.TemporalExpression TemporalExpression}s ({@link net.logicsquad.recurring.Union Union},
  * {@link net.logicsquad.recurring.Intersection Intersection}, {@link net.logicsquad.recurring.Difference Difference})</li>
+ * <li>{@link net.logicsquad.recurring.SpecializedExpression SpecializedExpression}, which evaluates an expression tree through a single
+ * specialized {@link java.lang.invoke.MethodHandle MethodHandle}.</li>
+ * <li>{@link net.logicsquad.recurring.ProfiledExpression ProfiledExpression}, which profiles evaluation of each node in an expression
+ * tree.</li>
+ * <li>{@link net.logicsquad.recurring.ExpressionInterner ExpressionInterner}, which returns canonical shared instances of equal expression
+ * trees.</li>
+ * <li>{@link net.logicsquad.recurring.BinaryCodec BinaryCodec}, which encodes expressions and schedules in a compact binary format, using
+ * an {@link net.logicsquad.recurring.EventCodec EventCodec} for events.</li>
+ * <li>{@link net.logicsquad.recurring.MappedSchedule MappedSchedule}, which answers queries from a memory-mapped file of precomputed
+ * occurrences.</li>
+ * <li>{@link net.logicsquad.recurring.OffHeapSchedule OffHeapSchedule}, which keeps materialized occurrences in off-heap memory.</li>
+ * <li>{@link net.logicsquad.recurring.CompressedCalendar CompressedCalendar}, an immutable set of dates in compressed per-year
+ * chunks.</li>
+ * <li>{@link net.logicsquad.recurring.IntSchedule IntSchedule}, a schedule of primitive {@code int} events.</li>
+ * <li>{@link net.logicsquad.recurring.ConcurrentSchedule ConcurrentSchedule}, a thread-safe, mutable schedule with lock-free reads.</li>
+ * <li>{@link net.logicsquad.recurring.RollingCalendar RollingCalendar}, a materialized window of a schedule that advances with a
+ * {@link java.time.Clock Clock}.</li>
+ * <li>{@link net.logicsquad.recurring.NextOccurrenceCache NextOccurrenceCache}, which caches each event's next occurrence from
+ * today.</li>
+ * <li>{@link net.logicsquad.recurring.TriggerEngine TriggerEngine}, which fires a callback on each occurrence of each event.</li>
+ * <li>{@link net.logicsquad.recurring.DateTimeExpression DateTimeExpression} interface, and implementations, describing date-times such as
+ * "every weekday at 09:00 and 14:30".</li>
+ * <li>{@link net.logicsquad.recurring.ZoneDays ZoneDays}, which maps instants to local dates in a time zone.</li>
+ * <li>{@link net.logicsquad.recurring.SpecificDates SpecificDates}, an expression matching a fixed set of dates.</li>
+ * <li>{@link net.logicsquad.recurring.EasterOffset EasterOffset}, an expression matching a day relative to Easter Sunday.</li>
+ * <li>{@link net.logicsquad.recurring.EveryNDays EveryNDays} and {@link net.logicsquad.recurring.DayOfMonth DayOfMonth}, expressions
+ * matching every nth day from an anchor date and a fixed day of each month.</li>
+ * <li>{@link net.logicsquad.recurring.DateOverlay DateOverlay}, which adds explicit dates to, and removes them from, an expression.</li>
+ * <li>{@link net.logicsquad.recurring.BusinessCalendar BusinessCalendar}, which adds, subtracts and counts business days.</li>
+ * <li>{@link net.logicsquad.recurring.ScheduleMetrics ScheduleMetrics} service provider interface for recording query metrics, and a
+ * lock-free implementation keeping {@link net.logicsquad.recurring.Histogram Histogram}s
+ * ({@link net.logicsquad.recurring.HistogramScheduleMetrics HistogramScheduleMetrics}).</li>
  * </ul>
  *
  * @author paulh
@@ -0,0 +1,66 @@
+package net.logicsquad.recurring;
+
+import java.time.LocalDate;
+
+import net.logicsquad.recurring.ScheduleMetrics.Query;
+
+/**
+ * Bridge from {@link QueryProbe} to Java Flight Recorder. This is the Java 11 version, which emits a {@link ScheduleQueryEvent} for each
+ * query exceeding the event's threshold.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+final class QueryEvents {
+	/**
+	 * Instance used only to ask whether {@link ScheduleQueryEvent} is enabled
+	 */
+	private static final ScheduleQueryEvent SENTINEL = new ScheduleQueryEvent();
+
+	/**
+	 * Private constructor for static-only class
+	 */
+	private QueryEvents() {
+		return;
+	}
+
+	/**
+	 * Begins a Flight Recorder event for a query, if the event is enabled.
+	 *
+	 * @return in-progress event, or {@code null} if the event is not enabled
+	 */
+	static Object begin() {
+		if (!SENTINEL.isEnabled()) {
+			return null;
+		}
+		ScheduleQueryEvent result = new ScheduleQueryEvent();
+		result.begin();
+		return result;
+	}
+
+	/**
+	 * Ends the in-progress event {@code recording}, and commits it if it exceeded its threshold.
+	 *
+	 * @param recording     in-progress event from {@link #begin()}
+	 * @param query         type of query
+	 * @param event         event queried, or {@code null}
+	 * @param from          earliest date scanned
+	 * @param to            latest date scanned
+	 * @param daysScanned   number of days examined
+	 * @param includesCalls number of calls to {@link TemporalExpression#includes(LocalDate)}
+	 */
+	static void end(Object recording, Query query, Object event, LocalDate from, LocalDate to, long daysScanned, long includesCalls) {
+		ScheduleQueryEvent e = (ScheduleQueryEvent) recording;
+		e.end();
+		if (e.shouldCommit()) {
+			e.query = query.name();
+			e.event = String.valueOf(event);
+			e.from = String.valueOf(from);
+			e.to = String.valueOf(to);
+			e.daysScanned = daysScanned;
+			e.includesCalls = includesCalls;
+			e.commit();
+		}
+		return;
+	}
+}
@@ -0,0 +1,62 @@
+package net.logicsquad.recurring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for a single query on a {@link Schedule} from {@link Schedule#of(java.util.List)} (or its other factories) that took
+ * longer than its threshold. Other {@link Schedule} implementations do not emit it. The threshold defaults to 20 ms, and can be
+ * changed like that of any other event: in a {@code .jfc} settings file, with {@code jfr configure}, or with
+ * {@code Recording.enable("net.logicsquad.recurring.ScheduleQuery").withThreshold(...)}.
+ *
+ * @author paulh
+ * @since 0.5
+ */
+@Name("net.logicsquad.recurring.ScheduleQuery")
+@Label("Schedule Query")
+@Category("Recurring")
+@Description("A query on a Schedule that exceeded the threshold")
+@Threshold("20 ms")
+@StackTrace(true)
+final class ScheduleQueryEvent extends jdk.jfr.Event {
+	/**
+	 * Type of query
+	 */
+	@Label("Query")
+	String query;
+
+	/**
+	 * Event queried
+	 */
+	@Label("Event")
+	@Description("String value of the event queried, or null for queries across all events")
+	String event;
+
+	/**
+	 * Earliest date scanned
+	 */
+	@Label("From")
+	String from;
+
+	/**
+	 * Latest date scanned
+	 */
+	@Label("To")
+	String to;
+
+	/**
+	 * Number of days examined
+	 */
+	@Label("Days Scanned")
+	long daysScanned;
+
+	/**
+	 * Number of calls to {@link TemporalExpression#includes(java.time.LocalDate)}
+	 */
+	@Label("Includes Calls")
+	long includesCalls;
+}
@@ -0,0 +1,179 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link BinaryCodec}.
+ *
+ * @author paulh
+ */
+public class BinaryCodecTest {
+	private static final LocalDate REFERENCE = LocalDate.of(2023, 8, 14);
+
+	private TemporalExpression workdays = Difference.of(
+			Union.of(DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.TUESDAY), DayInWeek.of(DayOfWeek.WEDNESDAY)),
+			RangeEveryYear.of(MonthDay.of(12, 24), MonthDay.of(12, 31)));
+
+	private TemporalExpression tree = Union.of(Intersection.of(workdays, RangeEveryYear.of(Month.MARCH, Month.JUNE)),
+			DayInMonth.of(DayOfWeek.FRIDAY, -1), DayInWeek.of(2, REFERENCE), DayInWeek.of(3, LocalDate.of(1960, 2, 29)), workdays);
+
+	@Test
+	public void expressionRoundTripsThroughByteBuffer() {
+		ByteBuffer buffer = BinaryCodec.encodeExpression(tree);
+		TemporalExpression decoded = BinaryCodec.decodeExpression(buffer);
+		assertEquals(tree, decoded);
+		assertFalse(buffer.hasRemaining());
+		return;
+	}
+
+	@Test
+	public void dateOverlayRoundTrips() {
+		TemporalExpression overlay = DateOverlay.of(tree, Arrays.asList(REFERENCE, REFERENCE.plusDays(1), REFERENCE.minusYears(60)),
+				Collections.singletonList(REFERENCE.plusDays(400)));
+		assertEquals(overlay, BinaryCodec.decodeExpression(BinaryCodec.encodeExpression(overlay)));
+		return;
+	}
+
+	@Test
+	public void specificDatesRoundTripAndShare() {
+		SpecificDates holidays = SpecificDates.of(REFERENCE, REFERENCE.plusDays(100), REFERENCE.minusYears(3));
+		TemporalExpression twice = Union.of(Difference.of(workdays, holidays), Intersection.of(tree, SpecificDates.of(holidays.dates())));
+		Union decoded = (Union) BinaryCodec.decodeExpression(BinaryCodec.encodeExpression(twice));
+		assertEquals(twice, decoded);
+		assertSame(((Difference) decoded.expressions.get(0)).excluded(), ((Intersection) decoded.expressions.get(1)).expressions.get(1));
+		return;
+	}
+
+	@Test
+	public void leavesArePackedAndSubtreesShared() {
+		// Header + tag + packed byte
+		assertEquals(6 + 2, BinaryCodec.encodeExpression(DayInMonth.of(DayOfWeek.FRIDAY, -1)).remaining());
+		assertEquals(6 + 2, BinaryCodec.encodeExpression(DayInWeek.of(DayOfWeek.FRIDAY)).remaining());
+		assertEquals(6 + 4, BinaryCodec.encodeExpression(RangeEveryYear.of(Month.MARCH)).remaining());
+		TemporalExpression once = Union.of(workdays);
+		TemporalExpression twice = Union.of(workdays, workdays);
+		// Second occurrence is a tag and a one-byte reference
+		assertEquals(BinaryCodec.encodeExpression(once).remaining() + 2, BinaryCodec.encodeExpression(twice).remaining());
+		TemporalExpression decoded = BinaryCodec.decodeExpression(BinaryCodec.encodeExpression(twice));
+		assertSame(((Union) decoded).expressions.get(0), ((Union) decoded).expressions.get(1));
+		return;
+	}
+
+	@Test
+	public void scheduleRoundTripsThroughChannel() throws IOException {
+		Schedule<String> schedule = Schedule.of(ScheduleElement.of("Standup", workdays), ScheduleElement.of("Review", tree),
+				ScheduleElement.of("Standup", DayInMonth.of(DayOfWeek.SATURDAY, 1)), ScheduleElement.of("Ünïcödé", RangeEveryYear.of(Month.MAY)));
+		BinaryCodec<String> codec = BinaryCodec.of(EventCodec.strings());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		codec.write(schedule, Channels.newChannel(bytes));
+		assertEquals(codec.encode(schedule), ByteBuffer.wrap(bytes.toByteArray()));
+		Schedule<String> decoded = codec.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+		for (LocalDate date = REFERENCE; date.isBefore(REFERENCE.plusYears(1)); date = date.plusDays(1)) {
+			assertEquals(schedule.agenda(date), decoded.agenda(date));
+		}
+		assertEquals(schedule.toString(), decoded.toString());
+		return;
+	}
+
+	@Test
+	public void integerEventsRoundTrip() {
+		Schedule<Integer> schedule = Schedule.of(ScheduleElement.of(-7, workdays), ScheduleElement.of(Integer.MAX_VALUE, tree));
+		BinaryCodec<Integer> codec = BinaryCodec.of(EventCodec.integers());
+		Schedule<Integer> decoded = codec.decode(codec.encode(schedule));
+		assertEquals(schedule.toString(), decoded.toString());
+		return;
+	}
+
+	@Test
+	public void encodingIsSmallerThanJavaSerialization() throws IOException {
+		List<ScheduleElement<Integer>> elements = new ArrayList<>();
+		for (int i = 0; i < 256; i++) {
+			TemporalExpression leaf = i % 2 == 0 ? DayInWeek.of(1 + i % 5, REFERENCE)
+					: DayInMonth.of(DayOfWeek.of(1 + i % 7), 1 + i % 4);
+			elements.add(ScheduleElement.of(i / 4, Union.of(Intersection.of(leaf, RangeEveryYear.of(Month.of(1 + i % 12))), workdays)));
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(elements);
+		}
+		int binary = BinaryCodec.of(EventCodec.integers()).encode(Schedule.of(elements)).remaining();
+		// Packed leaves and shared subtrees come to well under a tenth of the size
+		assertTrue(binary * 10 < bytes.size(), binary + " bytes, serialized " + bytes.size());
+		return;
+	}
+
+	@Test
+	public void largeEncodingStreamsThroughSmallBuffers() throws IOException {
+		TemporalExpression[] leaves = new TemporalExpression[5000];
+		for (int i = 0; i < leaves.length; i++) {
+			leaves[i] = DayInWeek.of(1 + i, REFERENCE);
+		}
+		TemporalExpression large = Union.of(Arrays.asList(leaves));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryCodec.writeExpression(large, Channels.newChannel(bytes));
+		assertTrue(bytes.size() > 8192);
+		assertEquals(large, BinaryCodec.readExpression(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()))));
+		return;
+	}
+
+	@Test
+	public void invalidEncodingsAreRejected() {
+		ByteBuffer encoded = BinaryCodec.encodeExpression(tree);
+		byte[] bytes = new byte[encoded.remaining()];
+		encoded.get(bytes);
+		// Truncated
+		assertThrows(IllegalArgumentException.class, () -> BinaryCodec.decodeExpression(ByteBuffer.wrap(bytes, 0, bytes.length - 1)));
+		// Wrong version
+		byte[] version = bytes.clone();
+		version[4] = 99;
+		assertThrows(IllegalArgumentException.class, () -> BinaryCodec.decodeExpression(ByteBuffer.wrap(version)));
+		// Schedule expected
+		assertThrows(IllegalArgumentException.class, () -> BinaryCodec.of(EventCodec.strings()).decode(ByteBuffer.wrap(bytes)));
+		// Invalid DayInMonth ordinal
+		assertThrows(IllegalArgumentException.class,
+				() -> BinaryCodec.decodeExpression(ByteBuffer.wrap(new byte[] { 'R', 'C', 'U', 'R', 1, 'E', 1, 5 })));
+		// Reference to a node not yet read
+		assertThrows(IllegalArgumentException.class,
+				() -> BinaryCodec.decodeExpression(ByteBuffer.wrap(new byte[] { 'R', 'C', 'U', 'R', 1, 'E', 0, 0 })));
+		return;
+	}
+
+	@Test
+	public void unsupportedExpressionsAreRejected() {
+		TemporalExpression custom = date -> true;
+		assertThrows(IllegalArgumentException.class, () -> BinaryCodec.encodeExpression(Union.of(custom)));
+		return;
+	}
+
+	@Test
+	public void javaSerializationPreservesSharedLeaves() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(tree);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			TemporalExpression decoded = (TemporalExpression) in.readObject();
+			assertEquals(tree, decoded);
+			assertSame(DayInMonth.of(DayOfWeek.FRIDAY, -1), ((Union) decoded).expressions.get(1));
+		}
+		return;
+	}
+}
@@ -0,0 +1,91 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link BusinessCalendar}.
+ *
+ * @author paulh
+ */
+public class BusinessCalendarTest {
+	private static final TemporalExpression WEEKDAYS = Union.of(DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.TUESDAY),
+			DayInWeek.of(DayOfWeek.WEDNESDAY), DayInWeek.of(DayOfWeek.THURSDAY), DayInWeek.of(DayOfWeek.FRIDAY));
+
+	private static final TemporalExpression BUSINESS_DAYS = Difference.of(WEEKDAYS,
+			Union.of(EasterOffset.of(-2), EasterOffset.of(1), SpecificDates.of(LocalDate.of(2024, 12, 25), LocalDate.of(2024, 12, 26))));
+
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+	private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+	private final BusinessCalendar calendar = BusinessCalendar.of(BUSINESS_DAYS, START, END);
+
+	@Test
+	public void addsAndSubtractsBusinessDays() {
+		// Thursday before Easter 2024
+		LocalDate thursday = LocalDate.of(2024, 3, 28);
+		assertEquals(LocalDate.of(2024, 4, 2), calendar.plus(thursday, 1));
+		assertEquals(thursday, calendar.minus(LocalDate.of(2024, 4, 2), 1));
+		assertEquals(LocalDate.of(2024, 12, 27), calendar.plus(LocalDate.of(2024, 12, 24), 1));
+		assertEquals(thursday, calendar.plus(thursday, 0));
+		assertEquals(LocalDate.of(2024, 3, 27), calendar.plus(thursday, -1));
+		assertEquals(LocalDate.of(2024, 4, 2), calendar.next(LocalDate.of(2024, 3, 29)));
+		assertEquals(thursday, calendar.previous(LocalDate.of(2024, 4, 1)));
+		assertEquals(2, calendar.count(thursday, LocalDate.of(2024, 4, 2)));
+		assertEquals(0, calendar.count(LocalDate.of(2024, 4, 2), thursday));
+		return;
+	}
+
+	@Test
+	public void agreesWithWalkingInsideAndOutsideSpan() {
+		Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			LocalDate date = START.plusDays(random.nextInt(3 * 366) - 366);
+			int days = random.nextInt(601) - 300;
+			assertEquals(walk(date, days), calendar.plus(date, days), date + " " + days);
+			assertEquals(walk(date, -days), calendar.minus(date, days), date + " " + days);
+			LocalDate end = date.plusDays(random.nextInt(800));
+			assertEquals(countByWalking(date, end), calendar.count(date, end), date + " " + end);
+		}
+		for (LocalDate date = START.minusDays(10); date.isBefore(END.plusDays(10)); date = date.plusDays(1)) {
+			assertEquals(BUSINESS_DAYS.includes(date), calendar.includes(date));
+		}
+		return;
+	}
+
+	@Test
+	public void failsWithoutBusinessDaysOutsideSpan() {
+		BusinessCalendar weekends = BusinessCalendar.of(SpecificDates.of(START.plusDays(3)), START, END);
+		assertEquals(START.plusDays(3), weekends.plus(START, 1));
+		assertThrows(IllegalStateException.class, () -> weekends.plus(START, 2));
+		assertThrows(IllegalArgumentException.class, () -> BusinessCalendar.of(BUSINESS_DAYS, END, START));
+		assertThrows(NullPointerException.class, () -> BusinessCalendar.of(null, START, END));
+		return;
+	}
+
+	private static LocalDate walk(LocalDate date, int days) {
+		LocalDate cursor = date;
+		for (int i = 0; i < Math.abs(days); i++) {
+			do {
+				cursor = cursor.plusDays(Integer.signum(days));
+			} while (!BUSINESS_DAYS.includes(cursor));
+		}
+		return cursor;
+	}
+
+	private static long countByWalking(LocalDate start, LocalDate end) {
+		long result = 0;
+		for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+			if (BUSINESS_DAYS.includes(date)) {
+				result++;
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,107 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.logicsquad.recurring.CompressedCalendar.Encoding;
+
+/**
+ * Unit tests on {@link CompressedCalendar}.
+ *
+ * @author paulh
+ */
+public class CompressedCalendarTest {
+	private static final LocalDate START = LocalDate.of(2022, 1, 1);
+	private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+	private static final TemporalExpression MONDAYS = DayInWeek.of(DayOfWeek.MONDAY);
+	private static final TemporalExpression WINTER = RangeEveryYear.of(Month.JUNE, Month.AUGUST);
+	private static final TemporalExpression FIRST_SUNDAY = DayInMonth.of(DayOfWeek.SUNDAY, 1);
+
+	@Test
+	public void chooseSmallestEncodingPerYear() {
+		assertEquals(Encoding.ARRAY, CompressedCalendar.of(FIRST_SUNDAY, START, END).encoding(2023));
+		assertEquals(Encoding.BITMAP, CompressedCalendar.of(MONDAYS, START, END).encoding(2023));
+		assertEquals(Encoding.RUN, CompressedCalendar.of(WINTER, START, END).encoding(2023));
+		assertNull(CompressedCalendar.of(WINTER, START, END).encoding(2030));
+		assertEquals(2 * 12 * 4 + 4 * 4, CompressedCalendar.of(FIRST_SUNDAY, START, END).sizeInBytes());
+		assertEquals(4 * 4 + 4 * 4, CompressedCalendar.of(WINTER, START, END).sizeInBytes());
+		return;
+	}
+
+	@Test
+	public void queriesMatchExpression() {
+		for (TemporalExpression expression : Arrays.asList(MONDAYS, WINTER, FIRST_SUNDAY, Difference.of(WINTER, MONDAYS))) {
+			CompressedCalendar calendar = CompressedCalendar.of(expression, START, END);
+			List<LocalDate> expected = new ArrayList<>();
+			for (LocalDate date = START; !date.isAfter(END); date = date.plusDays(1)) {
+				assertEquals(expression.includes(date), calendar.contains(date));
+				assertEquals(expression.includes(date), calendar.includes(date));
+				if (expression.includes(date)) {
+					expected.add(date);
+				}
+			}
+			assertEquals(expected, calendar.dates().collect(Collectors.toList()));
+			assertEquals(expected.size(), calendar.size());
+			for (LocalDate date = START.minusDays(1); !date.isAfter(END.plusDays(1)); date = date.plusDays(1)) {
+				assertEquals(expectedNext(expected, date), calendar.next(date));
+				assertEquals(expectedPrevious(expected, date), calendar.previous(date));
+			}
+		}
+		return;
+	}
+
+	@Test
+	public void setOperationsMatchExpressions() {
+		CompressedCalendar mondays = CompressedCalendar.of(MONDAYS, START, END);
+		CompressedCalendar winter = CompressedCalendar.of(WINTER, START.plusYears(1), END.plusYears(1));
+		CompressedCalendar sundays = CompressedCalendar.of(FIRST_SUNDAY, START, END);
+		assertEquals(CompressedCalendar.of(Union.of(MONDAYS, FIRST_SUNDAY), START, END), mondays.union(sundays));
+		assertEquals(CompressedCalendar.of(Intersection.of(MONDAYS, WINTER), START.plusYears(1), END), mondays.intersection(winter));
+		// mondays stops at END, so only WINTER remains in the final year
+		assertEquals(CompressedCalendar.of(WINTER, END.plusDays(1), END.plusYears(1)),
+				winter.difference(mondays).difference(CompressedCalendar.of(WINTER, START, END)));
+		assertTrue(mondays.intersection(sundays).isEmpty());
+		assertSame(CompressedCalendar.empty(), mondays.difference(mondays));
+		assertEquals(mondays, mondays.union(CompressedCalendar.empty()));
+		assertEquals(mondays.hashCode(), mondays.union(CompressedCalendar.empty()).hashCode());
+		return;
+	}
+
+	@Test
+	public void ofDatesHandlesLeapDaysAndYearBoundaries() {
+		List<LocalDate> dates = Arrays.asList(LocalDate.of(2024, 12, 31), LocalDate.of(2024, 2, 29), LocalDate.of(2025, 1, 1),
+				LocalDate.of(2024, 2, 29));
+		CompressedCalendar calendar = CompressedCalendar.of(dates);
+		assertEquals(3, calendar.size());
+		assertTrue(calendar.contains(LocalDate.of(2024, 12, 31)));
+		assertFalse(calendar.contains(LocalDate.of(2024, 3, 1)));
+		assertEquals(LocalDate.of(2025, 1, 1), calendar.next(LocalDate.of(2024, 12, 31).plusDays(1)));
+		assertEquals(LocalDate.of(2024, 12, 31), calendar.next(LocalDate.of(2024, 3, 1)));
+		assertEquals(LocalDate.of(2024, 2, 29), calendar.previous(LocalDate.of(2024, 12, 30)));
+		assertNull(calendar.next(LocalDate.of(2025, 1, 2)));
+		assertNull(calendar.previous(LocalDate.of(2024, 2, 28)));
+		assertTrue(CompressedCalendar.of(Collections.emptyList()).isEmpty());
+		assertThrows(NullPointerException.class, () -> CompressedCalendar.of(null));
+		assertThrows(NullPointerException.class, () -> CompressedCalendar.of(null, START, END));
+		return;
+	}
+
+	private static LocalDate expectedNext(List<LocalDate> dates, LocalDate date) {
+		return dates.stream().filter(d -> !d.isBefore(date)).findFirst().orElse(null);
+	}
+
+	private static LocalDate expectedPrevious(List<LocalDate> dates, LocalDate date) {
+		return dates.stream().filter(d -> !d.isAfter(date)).reduce((a, b) -> b).orElse(null);
+	}
+}
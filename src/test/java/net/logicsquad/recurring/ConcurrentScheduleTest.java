@@ -0,0 +1,200 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link ConcurrentSchedule}.
+ *
+ * @author paulh
+ */
+public class ConcurrentScheduleTest {
+	private static final LocalDate START = LocalDate.of(2023, 1, 1);
+	private static final LocalDate END = LocalDate.of(2023, 12, 31);
+
+	// 2 and 3 January 2023 are a Monday and a Tuesday
+	private static final LocalDate MONDAY = LocalDate.of(2023, 1, 2);
+	private static final LocalDate TUESDAY = LocalDate.of(2023, 1, 3);
+
+	private ScheduleElement<String> mondays = ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.MONDAY));
+	private ScheduleElement<String> fortnightly = ScheduleElement.of("Fortnightly", DayInWeek.of(2, LocalDate.of(2023, 8, 14)));
+	private ScheduleElement<String> winter = ScheduleElement.of("Winter",
+			Intersection.of(RangeEveryYear.of(Month.JUNE, Month.AUGUST), DayInMonth.of(DayOfWeek.FRIDAY, -1)));
+	private ScheduleElement<String> firstSunday = ScheduleElement.of("Mondays", DayInMonth.of(DayOfWeek.SUNDAY, 1));
+
+	@Test
+	public void changesMatchEquivalentSchedule() {
+		ConcurrentSchedule<String> schedule = ConcurrentSchedule.of();
+		schedule.add(mondays);
+		schedule.add(fortnightly);
+		schedule.add(winter);
+		schedule.add(firstSunday);
+		assertMatches(Arrays.asList(mondays, fortnightly, winter, firstSunday), schedule);
+		assertTrue(schedule.remove(mondays));
+		assertFalse(schedule.remove(mondays));
+		assertMatches(Arrays.asList(fortnightly, winter, firstSunday), schedule);
+		ScheduleElement<String> summer = ScheduleElement.of("Summer", RangeEveryYear.of(Month.DECEMBER, Month.FEBRUARY));
+		assertTrue(schedule.replace(winter, summer));
+		assertFalse(schedule.replace(winter, summer));
+		assertMatches(Arrays.asList(fortnightly, summer, firstSunday), schedule);
+		assertTrue(schedule.replace(firstSunday, mondays));
+		assertMatches(Arrays.asList(fortnightly, summer, mondays), schedule);
+		assertEquals(3, schedule.size());
+		return;
+	}
+
+	@Test
+	public void manyChangesMatchEquivalentSchedule() {
+		// Enough changes to rebuild the agenda graph several times
+		ConcurrentSchedule<String> schedule = ConcurrentSchedule.of(Arrays.asList(mondays, winter));
+		List<ScheduleElement<String>> expected = new ArrayList<>(Arrays.asList(mondays, winter));
+		for (int i = 1; i <= 28; i++) {
+			ScheduleElement<String> element = ScheduleElement.of("Fortnightly", DayInWeek.of(2, START.plusDays(i)));
+			schedule.add(element);
+			expected.add(element);
+			if (i % 3 == 0) {
+				assertTrue(schedule.remove(expected.remove(2)));
+			}
+		}
+		assertTrue(schedule.replace(winter, firstSunday));
+		expected.set(1, firstSunday);
+		assertMatches(expected, schedule);
+		return;
+	}
+
+	@Test
+	public void snapshotIsUnaffectedByLaterChanges() {
+		ConcurrentSchedule<String> schedule = ConcurrentSchedule.of(Arrays.asList(mondays, fortnightly));
+		Schedule<String> snapshot = schedule.snapshot();
+		schedule.remove(mondays);
+		schedule.add(winter);
+		assertTrue(snapshot.isOccurring("Mondays", MONDAY));
+		assertFalse(schedule.isOccurring("Mondays", MONDAY));
+		assertEquals(Arrays.asList("Mondays", "Fortnightly"), snapshot.agenda(MONDAY));
+		assertEquals(Arrays.asList("Fortnightly", "Winter"), new ArrayList<>(schedule.events()));
+		assertThrows(NullPointerException.class, () -> schedule.add(null));
+		assertThrows(NullPointerException.class, () -> schedule.replace(fortnightly, null));
+		assertThrows(NullPointerException.class, () -> ConcurrentSchedule.of(null));
+		return;
+	}
+
+	@Test
+	public void listenersHearAffectedEvents() {
+		ConcurrentSchedule<String> schedule = ConcurrentSchedule.of(Arrays.asList(mondays));
+		List<String> changed = new ArrayList<>();
+		ConcurrentSchedule.ChangeListener<String> listener = changed::add;
+		schedule.addListener(listener);
+		schedule.add(fortnightly);
+		schedule.replace(fortnightly, winter);
+		schedule.replace(mondays, firstSunday);
+		schedule.remove(winter);
+		schedule.remove(winter);
+		assertEquals(Arrays.asList("Fortnightly", "Fortnightly", "Winter", "Mondays", "Winter"), changed);
+		assertTrue(schedule.removeListener(listener));
+		schedule.add(mondays);
+		assertEquals(5, changed.size());
+		return;
+	}
+
+	@Test
+	public void readersSeeConsistentSnapshotsUnderConcurrentChanges() throws Exception {
+		int writers = 2;
+		int readers = 4;
+		int changes = 20_000;
+		ScheduleElement<String> onMonday = ScheduleElement.of("Shared", DayInWeek.of(DayOfWeek.MONDAY));
+		ScheduleElement<String> onTuesday = ScheduleElement.of("Shared", DayInWeek.of(DayOfWeek.TUESDAY));
+		ConcurrentSchedule<String> schedule = ConcurrentSchedule.of(Arrays.asList(onMonday));
+		ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+		CountDownLatch ready = new CountDownLatch(writers + readers);
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicInteger reads = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int w = 0; w < writers; w++) {
+			String event = "Writer " + w;
+			futures.add(executor.submit(() -> {
+				ready.countDown();
+				ready.await();
+				ScheduleElement<String> current = ScheduleElement.of(event, DayInWeek.of(DayOfWeek.MONDAY));
+				schedule.add(current);
+				for (int i = 0; i < changes; i++) {
+					// Each writer's event occurs on exactly one of Monday and Tuesday, in every snapshot
+					ScheduleElement<String> next = ScheduleElement.of(event, DayInWeek.of(i % 2 == 0 ? DayOfWeek.TUESDAY : DayOfWeek.MONDAY));
+					assertTrue(schedule.replace(current, next));
+					current = next;
+					if (i % 100 == 0) {
+						ScheduleElement<String> temporary = ScheduleElement.of("Temporary " + event, DayInWeek.of(DayOfWeek.MONDAY));
+						schedule.add(temporary);
+						assertTrue(schedule.remove(temporary));
+					}
+				}
+				return null;
+			}));
+		}
+		for (int r = 0; r < readers; r++) {
+			futures.add(executor.submit(() -> {
+				ready.countDown();
+				ready.await();
+				while (!done.get()) {
+					Schedule<String> snapshot = schedule.snapshot();
+					List<String> monday = snapshot.agenda(MONDAY);
+					List<String> tuesday = snapshot.agenda(TUESDAY);
+					for (String event : snapshot.events()) {
+						assertEquals(snapshot.isOccurring(event, MONDAY), monday.contains(event));
+						assertEquals(snapshot.isOccurring(event, TUESDAY), tuesday.contains(event));
+						if (event.startsWith("Writer")) {
+							assertTrue(monday.contains(event) ^ tuesday.contains(event));
+						}
+					}
+					assertTrue(schedule.isOccurring("Shared", MONDAY));
+					reads.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		for (int i = 0; i < writers; i++) {
+			futures.get(i).get(60, TimeUnit.SECONDS);
+		}
+		done.set(true);
+		for (Future<?> f : futures) {
+			f.get(60, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+		assertTrue(reads.get() > 0);
+		assertEquals(1 + writers, schedule.size());
+		assertTrue(schedule.replace(onMonday, onTuesday));
+		assertEquals(Arrays.asList("Shared"), schedule.agenda(TUESDAY).subList(0, 1));
+		return;
+	}
+
+	private void assertMatches(List<ScheduleElement<String>> elements, ConcurrentSchedule<String> schedule) {
+		Schedule<String> expected = Schedule.of(elements);
+		assertEquals(expected.events(), schedule.events());
+		for (LocalDate date = START; !date.isAfter(END); date = date.plusDays(1)) {
+			assertEquals(expected.agenda(date), schedule.agenda(date));
+			for (String event : Arrays.asList("Mondays", "Fortnightly", "Winter", "Summer", "Unknown")) {
+				assertEquals(expected.isOccurring(event, date), schedule.isOccurring(event, date));
+			}
+		}
+		for (String event : expected.events()) {
+			assertEquals(expected.datesInRange(event, START, END), schedule.datesInRange(event, START, END));
+			assertEquals(expected.nextOccurrence(event, START), schedule.nextOccurrence(event, START));
+			assertEquals(expected.previousOccurrence(event, END), schedule.previousOccurrence(event, END));
+		}
+		return;
+	}
+}
@@ -0,0 +1,141 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link DateOverlay}.
+ *
+ * @author paulh
+ */
+public class DateOverlayTest {
+	private static final TemporalExpression MONDAYS = DayInWeek.of(DayOfWeek.MONDAY);
+
+	// 19 June 2023 is a Monday
+	private static final LocalDate MONDAY = LocalDate.of(2023, 6, 19);
+
+	private final DateOverlay overlay = DateOverlay.of(MONDAYS, Arrays.asList(MONDAY.plusDays(3), MONDAY.plusDays(3), MONDAY.plusDays(15)),
+			Arrays.asList(MONDAY, MONDAY.plusDays(7), MONDAY.plusDays(15)));
+
+	@Test
+	public void addsAndRemovesDatesInOneYearOnly() {
+		assertFalse(overlay.includes(MONDAY));
+		assertTrue(overlay.includes(MONDAY.plusDays(3)));
+		assertFalse(overlay.includes(MONDAY.plusDays(4)));
+		assertFalse(overlay.includes(MONDAY.plusDays(7)));
+		assertTrue(overlay.includes(MONDAY.plusDays(14)));
+		// Removed wins over added
+		assertFalse(overlay.includes(MONDAY.plusDays(15)));
+		assertTrue(overlay.includes(MONDAY.plusYears(1).with(DayOfWeek.MONDAY)));
+		assertFalse(overlay.includes(MONDAY.plusDays(3).plusYears(1)));
+		assertEquals(Collections.singletonList(MONDAY.plusDays(3)), overlay.added());
+		assertEquals(Arrays.asList(MONDAY, MONDAY.plusDays(7), MONDAY.plusDays(15)), overlay.removed());
+		return;
+	}
+
+	@Test
+	public void seeksMergeAddedAndRemovedDates() {
+		assertEquals(MONDAY.plusDays(3), overlay.next(MONDAY));
+		assertEquals(MONDAY.plusDays(14), overlay.next(MONDAY.plusDays(4)));
+		assertEquals(MONDAY.minusDays(7), overlay.previous(MONDAY));
+		assertEquals(MONDAY.plusDays(3), overlay.previous(MONDAY.plusDays(13)));
+		DateOverlay never = DateOverlay.of(Difference.of(MONDAYS, MONDAYS), Collections.singletonList(MONDAY), Collections.emptyList());
+		assertEquals(MONDAY, never.next(MONDAY.minusYears(20)));
+		assertNull(never.next(MONDAY.plusDays(1)));
+		assertEquals(MONDAY, never.previous(MONDAY.plusYears(20)));
+		assertNull(never.previous(MONDAY.minusDays(1)));
+		return;
+	}
+
+	@Test
+	public void seeksMatchIncludes() {
+		Random random = new Random(42);
+		List<LocalDate> added = new ArrayList<>();
+		List<LocalDate> removed = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			added.add(MONDAY.plusDays(random.nextInt(730) - 365));
+			removed.add(MONDAY.plusDays(7 * (random.nextInt(104) - 52)));
+		}
+		// The first base is searched day by day, the second seeks
+		for (TemporalExpression base : Arrays.asList(DayInMonth.of(DayOfWeek.FRIDAY, -1), EveryNDays.of(MONDAY, 9))) {
+			DateOverlay overlay = DateOverlay.of(base, added, removed);
+			for (LocalDate date = MONDAY.minusYears(1); date.isBefore(MONDAY.plusYears(1)); date = date.plusDays(1)) {
+				LocalDate expected = date;
+				while (!overlay.includes(expected)) {
+					expected = expected.plusDays(1);
+				}
+				assertEquals(expected, overlay.next(date));
+				expected = date;
+				while (!overlay.includes(expected)) {
+					expected = expected.minusDays(1);
+				}
+				assertEquals(expected, overlay.previous(date));
+			}
+		}
+		return;
+	}
+
+	@Test
+	public void baseBeyondHorizonPrecedesLaterAddedDate() {
+		LocalDate nineYears = MONDAY.plusYears(9);
+		LocalDate nineYearsAgo = MONDAY.minusYears(9);
+		List<LocalDate> added = Arrays.asList(MONDAY.minusYears(10), MONDAY.plusYears(10));
+		TemporalExpression dates = SpecificDates.of(nineYearsAgo, nineYears);
+		// An Intersection cannot seek, so is searched day by day, as far as the added dates
+		for (TemporalExpression base : Arrays.asList(dates, Intersection.of(dates, dates))) {
+			DateOverlay overlay = DateOverlay.of(base, added, Collections.emptyList());
+			assertEquals(nineYears, overlay.next(MONDAY));
+			assertEquals(nineYearsAgo, overlay.previous(MONDAY));
+			assertEquals(MONDAY.plusYears(10), overlay.next(nineYears.plusDays(1)));
+			assertNull(overlay.next(MONDAY.plusYears(10).plusDays(1)));
+		}
+		return;
+	}
+
+	@Test
+	public void seekableBaseSkipsRemovedDates() {
+		DateOverlay weekly = DateOverlay.of(EveryNDays.of(MONDAY, 7), Collections.singletonList(MONDAY.plusDays(30)),
+				Arrays.asList(MONDAY, MONDAY.plusDays(7), MONDAY.plusDays(14), MONDAY.minusDays(7)));
+		assertTrue(weekly.canSeek());
+		assertEquals(MONDAY.plusDays(21), weekly.next(MONDAY));
+		assertEquals(MONDAY.plusDays(30), weekly.next(MONDAY.plusDays(29)));
+		assertEquals(MONDAY.minusDays(14), weekly.previous(MONDAY.plusDays(20)));
+		assertFalse(overlay.canSeek());
+		// Only an overlay on a base that can seek is left to seek
+		Seeker seeker = Seeker.of(weekly);
+		assertEquals(MONDAY.plusDays(7 * 5000), seeker.next(MONDAY.plusDays(7 * 4999 + 1), null));
+		return;
+	}
+
+	@Test
+	public void overlayingAnOverlayKeepsItsBase() {
+		DateOverlay outer = DateOverlay.of(overlay, Collections.singletonList(MONDAY.plusDays(7)), Collections.singletonList(MONDAY.plusDays(3)));
+		assertSame(MONDAYS, outer.base());
+		assertTrue(outer.includes(MONDAY.plusDays(7)));
+		assertFalse(outer.includes(MONDAY.plusDays(3)));
+		assertFalse(outer.includes(MONDAY));
+		assertEquals(Arrays.asList(MONDAY, MONDAY.plusDays(3), MONDAY.plusDays(15)), outer.removed());
+		return;
+	}
+
+	@Test
+	public void equalsAndHashCode() {
+		DateOverlay other = DateOverlay.of(MONDAYS, Collections.singletonList(MONDAY.plusDays(3)),
+				Arrays.asList(MONDAY.plusDays(15), MONDAY.plusDays(7), MONDAY));
+		assertEquals(overlay, other);
+		assertEquals(overlay.hashCode(), other.hashCode());
+		assertNotEquals(overlay, DateOverlay.of(MONDAYS, Collections.emptyList(), Collections.emptyList()));
+		assertThrows(NullPointerException.class, () -> DateOverlay.of(MONDAYS, Arrays.asList(MONDAY, null), Collections.emptyList()));
+		assertThrows(IllegalArgumentException.class, () -> DateOverlay.of(MONDAYS, Collections.singletonList(LocalDate.MAX), Collections.emptyList()));
+		return;
+	}
+}
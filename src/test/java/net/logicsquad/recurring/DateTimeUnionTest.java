@@ -0,0 +1,75 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link DateTimeUnion}.
+ *
+ * @author paulh
+ */
+public class DateTimeUnionTest {
+	// 16 June 2023 is a Friday
+	private static final LocalDate FRIDAY = LocalDate.of(2023, 6, 16);
+
+	private final TimedExpression fridays = TimedExpression.of(DayInWeek.of(DayOfWeek.FRIDAY), TimesOfDay.of(LocalTime.of(9, 0)));
+
+	private final TimedExpression saturdays = TimedExpression.of(DayInWeek.of(DayOfWeek.SATURDAY), TimesOfDay.of(LocalTime.of(10, 30)));
+
+	private final DateTimeUnion union = DateTimeUnion.of(fridays, saturdays);
+
+	@Test
+	public void includesAnyMember() {
+		assertTrue(union.includes(FRIDAY.atTime(9, 0)));
+		assertTrue(union.includes(FRIDAY.plusDays(1).atTime(10, 30)));
+		assertFalse(union.includes(FRIDAY.atTime(10, 30)));
+		assertFalse(DateTimeUnion.of().includes(FRIDAY.atTime(9, 0)));
+		return;
+	}
+
+	@Test
+	public void seeksNearestMember() {
+		assertEquals(FRIDAY.plusDays(1).atTime(10, 30), union.next(FRIDAY.atTime(9, 1)));
+		assertEquals(FRIDAY.plusDays(7).atTime(9, 0), union.next(FRIDAY.plusDays(1).atTime(10, 31)));
+		assertEquals(FRIDAY.atTime(9, 0), union.previous(FRIDAY.plusDays(1).atTime(10, 29)));
+		assertEquals(FRIDAY.minusDays(6).atTime(10, 30), union.previous(FRIDAY.atTime(8, 59)));
+		assertNull(DateTimeUnion.of().next(FRIDAY.atStartOfDay()));
+		assertEquals(3, union.between(FRIDAY.atStartOfDay(), FRIDAY.plusDays(8).atStartOfDay()).count());
+		return;
+	}
+
+	@Test
+	public void boundedSeeksStopAtLimit() {
+		assertEquals(FRIDAY.plusDays(1).atTime(10, 30), union.next(FRIDAY.atTime(9, 1), FRIDAY.plusDays(1).atTime(10, 30)));
+		assertNull(union.next(FRIDAY.atTime(9, 1), FRIDAY.plusDays(1).atTime(10, 29)));
+		assertEquals(FRIDAY.atTime(9, 0), union.previous(FRIDAY.plusDays(1).atTime(10, 29), FRIDAY.atTime(9, 0)));
+		assertNull(union.previous(FRIDAY.plusDays(1).atTime(10, 29), FRIDAY.atTime(9, 1)));
+		return;
+	}
+
+	@Test
+	public void betweenSearchesNoFurtherThanEnd() {
+		AtomicInteger calls = new AtomicInteger();
+		TemporalExpression never = date -> calls.incrementAndGet() < 0;
+		DateTimeUnion sparse = DateTimeUnion.of(fridays, TimedExpression.of(never, TimesOfDay.of(LocalTime.NOON)));
+		assertEquals(2, sparse.between(FRIDAY.atStartOfDay(), FRIDAY.plusDays(13).atStartOfDay()).count());
+		// Each search tests at most the two weeks to the end, not years beyond it
+		assertTrue(calls.get() <= 3 * 14, "calls=" + calls.get());
+		return;
+	}
+
+	@Test
+	public void equalsAndHashCode() {
+		assertEquals(union, DateTimeUnion.of(fridays, saturdays));
+		assertEquals(union.hashCode(), DateTimeUnion.of(fridays, saturdays).hashCode());
+		assertNotEquals(union, DateTimeUnion.of(saturdays, fridays));
+		assertThrows(NullPointerException.class, () -> DateTimeUnion.of(fridays, null));
+		return;
+	}
+}
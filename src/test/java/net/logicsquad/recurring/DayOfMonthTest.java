@@ -0,0 +1,99 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link DayOfMonth}.
+ *
+ * @author paulh
+ */
+public class DayOfMonthTest {
+	private final DayOfMonth fifteenth = DayOfMonth.of(15, false);
+	private final DayOfMonth thirtyFirst = DayOfMonth.of(31, false);
+	private final DayOfMonth lastDay = DayOfMonth.of(31, true);
+
+	@Test
+	public void ofThrowsOnInvalidDay() {
+		assertThrows(IllegalArgumentException.class, () -> DayOfMonth.of(0, false));
+		assertThrows(IllegalArgumentException.class, () -> DayOfMonth.of(32, true));
+		return;
+	}
+
+	@Test
+	public void matchesDayOrLastDay() {
+		assertTrue(fifteenth.includes(LocalDate.of(2024, 2, 15)));
+		assertFalse(fifteenth.includes(LocalDate.of(2024, 2, 16)));
+		assertTrue(thirtyFirst.includes(LocalDate.of(2024, 1, 31)));
+		assertFalse(thirtyFirst.includes(LocalDate.of(2024, 4, 30)));
+		assertTrue(lastDay.includes(LocalDate.of(2024, 4, 30)));
+		assertTrue(lastDay.includes(LocalDate.of(2024, 2, 29)));
+		assertFalse(lastDay.includes(LocalDate.of(2024, 2, 28)));
+		assertTrue(DayOfMonth.of(30, true).includes(LocalDate.of(2023, 2, 28)));
+		assertFalse(DayOfMonth.of(30, true).includes(LocalDate.of(2023, 1, 31)));
+		return;
+	}
+
+	@Test
+	public void seeksAndCountsAgreeWithIncludes() {
+		for (int day = 1; day <= 31; day++) {
+			for (boolean includingLastDay : new boolean[] { false, true }) {
+				DayOfMonth e = DayOfMonth.of(day, includingLastDay);
+				for (LocalDate date = LocalDate.of(1899, 11, 1); date.isBefore(LocalDate.of(1901, 3, 1)); date = date.plusDays(3)) {
+					assertSeeksAndCounts(e, date);
+				}
+				for (LocalDate date = LocalDate.of(1999, 11, 1); date.isBefore(LocalDate.of(2001, 3, 1)); date = date.plusDays(3)) {
+					assertSeeksAndCounts(e, date);
+				}
+			}
+		}
+		// Counts are arithmetic over long spans
+		assertEquals(12 * 400, fifteenth.count(LocalDate.of(2000, 1, 1), LocalDate.of(2399, 12, 31)));
+		assertEquals(7 * 400, thirtyFirst.count(LocalDate.of(2000, 1, 1), LocalDate.of(2399, 12, 31)));
+		assertEquals(11 * 400 + 97, DayOfMonth.of(29, false).count(LocalDate.of(2000, 1, 1), LocalDate.of(2399, 12, 31)));
+		assertEquals(0, fifteenth.count(LocalDate.of(2024, 3, 20), LocalDate.of(2024, 3, 10)));
+		return;
+	}
+
+	@Test
+	public void sharesInstancesAndRoundTrips() {
+		assertSame(fifteenth, DayOfMonth.of(15, true));
+		assertFalse(DayOfMonth.of(15, true).includingLastDay());
+		assertNotEquals(thirtyFirst, lastDay);
+		assertEquals(31, lastDay.day());
+		assertSame(lastDay, BinaryCodec.decodeExpression(BinaryCodec.encodeExpression(lastDay)));
+		// Header + tag + packed byte
+		assertEquals(6 + 2, BinaryCodec.encodeExpression(lastDay).remaining());
+		return;
+	}
+
+	/**
+	 * Asserts that {@code e}'s seeks from {@code date}, and its count from {@code date} to some later date, agree with walking
+	 * {@link DayOfMonth#includes(LocalDate)}.
+	 *
+	 * @param e    expression under test
+	 * @param date a {@link LocalDate}
+	 */
+	private static void assertSeeksAndCounts(DayOfMonth e, LocalDate date) {
+		LocalDate expected = date;
+		while (!e.includes(expected)) {
+			expected = expected.plusDays(1);
+		}
+		assertEquals(expected, e.next(date), e + " " + date);
+		expected = date;
+		while (!e.includes(expected)) {
+			expected = expected.minusDays(1);
+		}
+		assertEquals(expected, e.previous(date), e + " " + date);
+		LocalDate end = date.plusDays(date.getDayOfYear() * 2);
+		long count = 0;
+		for (LocalDate d = date; !d.isAfter(end); d = d.plusDays(1)) {
+			count += e.includes(d) ? 1 : 0;
+		}
+		assertEquals(count, e.count(date, end), e + " " + date);
+		return;
+	}
+}
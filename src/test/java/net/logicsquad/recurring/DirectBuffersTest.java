@@ -0,0 +1,26 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link DirectBuffers}.
+ *
+ * @author paulh
+ */
+public class DirectBuffersTest {
+	@Test
+	public void releasesDirectBuffers() {
+		assertTrue(DirectBuffers.release(ByteBuffer.allocateDirect(1024)));
+		return;
+	}
+
+	@Test
+	public void ignoresHeapBuffers() {
+		assertFalse(DirectBuffers.release(ByteBuffer.allocate(1024)));
+		return;
+	}
+}
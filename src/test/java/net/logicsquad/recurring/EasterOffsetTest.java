@@ -0,0 +1,81 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link EasterOffset}.
+ *
+ * @author paulh
+ */
+public class EasterOffsetTest {
+	private final EasterOffset easter = EasterOffset.of(0);
+	private final EasterOffset goodFriday = EasterOffset.of(-2);
+	private final EasterOffset pentecost = EasterOffset.of(49);
+
+	@Test
+	public void matchesKnownEasterSundays() {
+		assertTrue(easter.includes(LocalDate.of(2024, 3, 31)));
+		assertTrue(easter.includes(LocalDate.of(2025, 4, 20)));
+		assertTrue(easter.includes(LocalDate.of(2038, 4, 25)));
+		assertTrue(easter.includes(LocalDate.of(2285, 3, 22)));
+		assertTrue(easter.includes(LocalDate.of(1583, 4, 10)));
+		// Outside the table
+		assertTrue(easter.includes(LocalDate.of(4100, 4, 11)));
+		// Proleptic Gregorian
+		assertTrue(easter.includes(LocalDate.of(1500, 4, 1)));
+		assertFalse(easter.includes(LocalDate.of(2024, 4, 7)));
+		assertTrue(goodFriday.includes(LocalDate.of(2024, 3, 29)));
+		assertTrue(pentecost.includes(LocalDate.of(2024, 5, 19)));
+		return;
+	}
+
+	@Test
+	public void agreesWithComputusEveryDay() {
+		for (int year = 1500; year <= 4200; year++) {
+			LocalDate sunday = LocalDate.ofEpochDay(EasterOffset.easter(year));
+			assertEquals(year, sunday.getYear());
+			assertEquals(DayOfWeek.SUNDAY, sunday.getDayOfWeek());
+		}
+		EasterOffset farAway = EasterOffset.of(-300);
+		for (LocalDate date = LocalDate.of(2000, 1, 1); date.isBefore(LocalDate.of(2010, 1, 1)); date = date.plusDays(1)) {
+			assertEquals(easter.includes(date), farAway.includes(date.minusDays(300)), date.toString());
+		}
+		return;
+	}
+
+	@Test
+	public void seeksAgreeWithIncludes() {
+		for (EasterOffset e : new EasterOffset[] { easter, goodFriday, pentecost, EasterOffset.of(-300), EasterOffset.of(400) }) {
+			for (LocalDate date = LocalDate.of(2020, 1, 1); date.isBefore(LocalDate.of(2024, 1, 1)); date = date.plusDays(3)) {
+				LocalDate expected = date;
+				while (!e.includes(expected)) {
+					expected = expected.plusDays(1);
+				}
+				assertEquals(expected, e.next(date), e + " " + date);
+				expected = date;
+				while (!e.includes(expected)) {
+					expected = expected.minusDays(1);
+				}
+				assertEquals(expected, e.previous(date), e + " " + date);
+			}
+		}
+		assertFalse(easter.includes(LocalDate.MAX));
+		assertFalse(easter.includes(LocalDate.MIN));
+		return;
+	}
+
+	@Test
+	public void sharesInstances() {
+		assertSame(EasterOffset.of(49), pentecost);
+		assertEquals(EasterOffset.of(400), EasterOffset.of(400));
+		assertEquals(-2, goodFriday.days());
+		assertEquals(goodFriday, BinaryCodec.decodeExpression(BinaryCodec.encodeExpression(goodFriday)));
+		assertEquals(EasterOffset.of(-400), BinaryCodec.decodeExpression(BinaryCodec.encodeExpression(EasterOffset.of(-400))));
+		return;
+	}
+}
@@ -0,0 +1,79 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link EveryNDays}.
+ *
+ * @author paulh
+ */
+public class EveryNDaysTest {
+	private static final LocalDate ANCHOR = LocalDate.of(2024, 3, 3);
+
+	private final EveryNDays everyTen = EveryNDays.of(ANCHOR, 10);
+
+	@Test
+	public void ofThrowsOnInvalidArguments() {
+		assertThrows(NullPointerException.class, () -> EveryNDays.of(null, 10));
+		assertThrows(IllegalArgumentException.class, () -> EveryNDays.of(ANCHOR, 0));
+		assertThrows(IllegalArgumentException.class, () -> EveryNDays.of(ANCHOR, -1));
+		return;
+	}
+
+	@Test
+	public void matchesEitherSideOfAnchor() {
+		assertTrue(everyTen.includes(ANCHOR));
+		assertTrue(everyTen.includes(LocalDate.of(2024, 3, 13)));
+		assertTrue(everyTen.includes(LocalDate.of(2024, 2, 22)));
+		assertTrue(everyTen.includes(ANCHOR.plusDays(10_000)));
+		assertFalse(everyTen.includes(LocalDate.of(2024, 3, 4)));
+		assertFalse(everyTen.includes(LocalDate.of(2024, 2, 23)));
+		assertTrue(EveryNDays.of(ANCHOR, 1).includes(LocalDate.of(1900, 1, 1)));
+		return;
+	}
+
+	@Test
+	public void seeksAndCountsAgreeWithIncludes() {
+		for (EveryNDays e : new EveryNDays[] { everyTen, EveryNDays.of(ANCHOR, 1), EveryNDays.of(LocalDate.of(1965, 7, 1), 7),
+				EveryNDays.of(LocalDate.of(2100, 1, 1), 1000) }) {
+			for (LocalDate date = LocalDate.of(2023, 1, 1); date.isBefore(LocalDate.of(2025, 1, 1)); date = date.plusDays(5)) {
+				LocalDate expected = date;
+				while (!e.includes(expected)) {
+					expected = expected.plusDays(1);
+				}
+				assertEquals(expected, e.next(date), e + " " + date);
+				expected = date;
+				while (!e.includes(expected)) {
+					expected = expected.minusDays(1);
+				}
+				assertEquals(expected, e.previous(date), e + " " + date);
+				LocalDate end = date.plusDays(date.getDayOfYear());
+				long count = 0;
+				for (LocalDate d = date; !d.isAfter(end); d = d.plusDays(1)) {
+					count += e.includes(d) ? 1 : 0;
+				}
+				assertEquals(count, e.count(date, end), e + " " + date);
+			}
+		}
+		assertEquals(0, everyTen.count(ANCHOR, ANCHOR.minusDays(1)));
+		return;
+	}
+
+	@Test
+	public void equalsAndRoundTrips() {
+		assertEquals(everyTen, EveryNDays.of(ANCHOR, 10));
+		assertEquals(everyTen.hashCode(), EveryNDays.of(ANCHOR, 10).hashCode());
+		assertNotEquals(everyTen, EveryNDays.of(ANCHOR, 9));
+		assertNotEquals(everyTen, EveryNDays.of(ANCHOR.plusDays(1), 10));
+		assertEquals(everyTen, BinaryCodec.decodeExpression(BinaryCodec.encodeExpression(everyTen)));
+		TemporalExpression twice = Union.of(everyTen, Intersection.of(DayOfMonth.of(15, false), EveryNDays.of(ANCHOR, 10)));
+		Union decoded = (Union) BinaryCodec.decodeExpression(BinaryCodec.encodeExpression(twice));
+		assertEquals(twice, decoded);
+		assertSame(decoded.expressions.get(0), ((Intersection) decoded.expressions.get(1)).expressions.get(1));
+		return;
+	}
+}
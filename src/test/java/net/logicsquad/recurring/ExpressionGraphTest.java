@@ -0,0 +1,134 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link ExpressionGraph}, and its use by {@link Schedule}.
+ *
+ * @author paulh
+ */
+public class ExpressionGraphTest {
+	// 2023-08-14 is a Monday
+	private static final LocalDate MONDAY = LocalDate.of(2023, 8, 14);
+
+	/**
+	 * Leaf expression that counts calls to {@link #includes(LocalDate)}.
+	 */
+	private static final class CountingExpression implements TemporalExpression {
+		private final TemporalExpression expression;
+		private int calls;
+
+		CountingExpression(TemporalExpression expression) {
+			this.expression = expression;
+			return;
+		}
+
+		@Override
+		public boolean includes(LocalDate date) {
+			calls++;
+			return expression.includes(date);
+		}
+	}
+
+	@Test
+	public void equalSubtreesAreMerged() {
+		TemporalExpression workdays = Difference.of(Union.of(DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.TUESDAY)),
+				RangeEveryYear.of(Month.DECEMBER));
+		TemporalExpression sameWorkdays = Difference.of(Union.of(DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.TUESDAY)),
+				RangeEveryYear.of(Month.DECEMBER));
+		ExpressionGraph graph = ExpressionGraph
+				.of(Arrays.asList(workdays, sameWorkdays, Intersection.of(sameWorkdays, RangeEveryYear.of(Month.AUGUST))));
+		// 2 DayInWeek + Union + DECEMBER + Difference, then AUGUST + Intersection
+		assertEquals(7, graph.size());
+		return;
+	}
+
+	@Test
+	public void sharedSubtreeIsEvaluatedOncePerDate() {
+		CountingExpression counter = new CountingExpression(DayInWeek.of(DayOfWeek.MONDAY));
+		TemporalExpression shared = Difference.of(counter, RangeEveryYear.of(Month.DECEMBER));
+		List<TemporalExpression> roots = Arrays.asList(Intersection.of(shared, RangeEveryYear.of(Month.AUGUST)), Union.of(shared),
+				Union.of(DayInWeek.of(DayOfWeek.TUESDAY), shared));
+		ExpressionGraph.Evaluation evaluation = ExpressionGraph.of(roots).evaluation();
+		for (LocalDate date = MONDAY; date.isBefore(MONDAY.plusDays(7)); date = date.plusDays(1)) {
+			evaluation.reset(date);
+			for (int i = 0; i < roots.size(); i++) {
+				assertEquals(roots.get(i).includes(date), evaluation.includes(i));
+			}
+		}
+		// One call per date from the graph, plus 20 from the direct evaluation above (the last root short-circuits on Tuesday)
+		assertEquals(7 + 20, counter.calls);
+		return;
+	}
+
+	@Test
+	public void evaluationShortCircuits() {
+		CountingExpression counter = new CountingExpression(DayInWeek.of(DayOfWeek.MONDAY));
+		ExpressionGraph.Evaluation evaluation = ExpressionGraph.of(Arrays.asList(Union.of(DayInWeek.of(DayOfWeek.TUESDAY), counter),
+				Intersection.of(DayInWeek.of(DayOfWeek.MONDAY), counter))).evaluation();
+		evaluation.reset(MONDAY.plusDays(1));
+		assertTrue(evaluation.includes(0));
+		assertFalse(evaluation.includes(1));
+		assertEquals(0, counter.calls);
+		return;
+	}
+
+	@Test
+	public void agendaEvaluatesSharedSubtreeOncePerDate() {
+		CountingExpression counter = new CountingExpression(DayInWeek.of(DayOfWeek.MONDAY));
+		TemporalExpression shared = Difference.of(counter, RangeEveryYear.of(Month.DECEMBER));
+		Schedule<String> schedule = Schedule.of(ScheduleElement.of("Standup", shared),
+				ScheduleElement.of("Review", Intersection.of(shared, RangeEveryYear.of(Month.AUGUST))),
+				ScheduleElement.of("Retro", Intersection.of(RangeEveryYear.of(Month.AUGUST), shared)));
+		assertEquals(Arrays.asList("Standup", "Review", "Retro"), schedule.agenda(MONDAY));
+		assertEquals(1, counter.calls);
+		assertTrue(schedule.agenda(MONDAY.plusDays(1)).isEmpty());
+		assertEquals(2, counter.calls);
+		return;
+	}
+
+	@Test
+	public void datesInRangeEvaluatesSharedSubtreeOncePerDate() {
+		CountingExpression counter = new CountingExpression(DayInWeek.of(DayOfWeek.MONDAY));
+		TemporalExpression shared = Difference.of(counter, RangeEveryYear.of(Month.DECEMBER));
+		Schedule<String> schedule = Schedule.of(ScheduleElement.of("Standup", Intersection.of(shared, RangeEveryYear.of(Month.JULY))),
+				ScheduleElement.of("Standup", Intersection.of(shared, RangeEveryYear.of(Month.AUGUST))));
+		assertEquals(Arrays.asList(MONDAY, MONDAY.plusDays(7)), schedule.datesInRange("Standup", MONDAY, MONDAY.plusDays(13)));
+		assertEquals(14, counter.calls);
+		return;
+	}
+
+	@Test
+	public void builderExtendsGraphsWithoutChangingEarlierOnes() {
+		ExpressionGraph.Builder builder = new ExpressionGraph.Builder();
+		TemporalExpression mondays = Difference.of(DayInWeek.of(DayOfWeek.MONDAY), RangeEveryYear.of(Month.DECEMBER));
+		ExpressionGraph first = builder.build(new int[] { builder.add(mondays) });
+		assertEquals(3, first.size());
+		// Enough nodes to grow the builder's arrays
+		int[] roots = new int[20];
+		for (int i = 0; i < roots.length; i++) {
+			roots[i] = builder.add(Union.of(mondays, DayInMonth.of(DayOfWeek.FRIDAY, i % 5 + 1)));
+		}
+		ExpressionGraph second = builder.build(roots);
+		assertEquals(3 + 5 + 5, second.size());
+		assertEquals(3, first.size());
+		ExpressionGraph.Evaluation evaluation = first.evaluation();
+		evaluation.reset(MONDAY);
+		assertTrue(evaluation.includes(0));
+		evaluation = second.evaluation();
+		evaluation.reset(MONDAY.plusDays(4));
+		// 2023-08-18 is the third Friday
+		for (int i = 0; i < roots.length; i++) {
+			assertEquals(i % 5 == 2, evaluation.includes(i));
+		}
+		return;
+	}
+}
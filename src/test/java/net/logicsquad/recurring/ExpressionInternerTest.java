@@ -0,0 +1,104 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link ExpressionInterner}, and structural equality of composite expressions.
+ *
+ * @author paulh
+ */
+public class ExpressionInternerTest {
+	private static final LocalDate REFERENCE = LocalDate.of(2023, 8, 14);
+
+	@Test
+	public void leafFactoriesReturnSharedInstances() {
+		assertSame(DayInMonth.of(DayOfWeek.FRIDAY, -1), DayInMonth.of(DayOfWeek.FRIDAY, -1));
+		assertSame(DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.MONDAY));
+		assertSame(RangeEveryYear.of(Month.MARCH), RangeEveryYear.of(Month.MARCH));
+		assertSame(RangeEveryYear.of(Month.MARCH, Month.MAY), RangeEveryYear.of(Month.MARCH, Month.MAY));
+		assertNotSame(DayInWeek.of(2, REFERENCE), DayInWeek.of(2, REFERENCE));
+		return;
+	}
+
+	@Test
+	public void leafFactoriesStillValidateArguments() {
+		assertThrows(NullPointerException.class, () -> DayInMonth.of(null, 1));
+		assertThrows(IllegalArgumentException.class, () -> DayInMonth.of(DayOfWeek.FRIDAY, 0));
+		assertThrows(IllegalArgumentException.class, () -> DayInMonth.of(DayOfWeek.FRIDAY, 6));
+		assertThrows(NullPointerException.class, () -> DayInWeek.of((DayOfWeek) null));
+		assertThrows(NullPointerException.class, () -> RangeEveryYear.of(null, Month.MAY));
+		return;
+	}
+
+	@Test
+	public void compositesAreStructurallyEqual() {
+		TemporalExpression a = Union.of(DayInWeek.of(2, REFERENCE), RangeEveryYear.of(Month.MAY));
+		TemporalExpression b = Union.of(DayInWeek.of(2, REFERENCE), RangeEveryYear.of(Month.MAY));
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		// Same sub-expressions, but different class or order
+		assertNotEquals(a, Intersection.of(DayInWeek.of(2, REFERENCE), RangeEveryYear.of(Month.MAY)));
+		assertNotEquals(a, Union.of(RangeEveryYear.of(Month.MAY), DayInWeek.of(2, REFERENCE)));
+
+		TemporalExpression c = Difference.of(a, DayInMonth.of(DayOfWeek.MONDAY, 1));
+		TemporalExpression d = Difference.of(b, DayInMonth.of(DayOfWeek.MONDAY, 1));
+		assertEquals(c, d);
+		assertEquals(c.hashCode(), d.hashCode());
+		assertNotEquals(c, Difference.of(DayInMonth.of(DayOfWeek.MONDAY, 1), a));
+		return;
+	}
+
+	@Test
+	public void internReturnsCanonicalInstanceForEqualTrees() {
+		ExpressionInterner interner = new ExpressionInterner();
+		TemporalExpression a = interner.intern(Difference.of(Union.of(DayInWeek.of(2, REFERENCE), RangeEveryYear.of(Month.MAY)),
+				RangeEveryYear.of(MonthDay.of(5, 1), MonthDay.of(5, 7))));
+		TemporalExpression b = interner.intern(Difference.of(Union.of(DayInWeek.of(2, REFERENCE), RangeEveryYear.of(Month.MAY)),
+				RangeEveryYear.of(MonthDay.of(5, 1), MonthDay.of(5, 7))));
+		assertSame(a, b);
+		return;
+	}
+
+	@Test
+	public void internSharesEqualSubtrees() {
+		ExpressionInterner interner = new ExpressionInterner();
+		Union first = (Union) interner.intern(Union.of(DayInWeek.of(2, REFERENCE), RangeEveryYear.of(Month.MAY)));
+		Intersection second = (Intersection) interner.intern(Intersection.of(DayInWeek.of(2, REFERENCE), RangeEveryYear.of(Month.JUNE)));
+		assertSame(first.expressions.get(0), second.expressions.get(0));
+		Difference third = (Difference) interner.intern(Difference.of(DayInWeek.of(2, REFERENCE), first));
+		assertSame(first.expressions.get(0), third.included());
+		assertSame(first, third.excluded());
+		// 2 leaves + RangeEveryYear(JUNE) + 3 composites
+		assertEquals(6, interner.size());
+		interner.clear();
+		assertEquals(0, interner.size());
+		return;
+	}
+
+	@Test
+	public void internedExpressionBehavesAsOriginal() {
+		ExpressionInterner interner = new ExpressionInterner();
+		TemporalExpression original = Difference.of(Union.of(DayInWeek.of(2, REFERENCE), RangeEveryYear.of(Month.MAY)),
+				DayInMonth.of(DayOfWeek.MONDAY, 1));
+		interner.intern(DayInWeek.of(2, REFERENCE));
+		TemporalExpression interned = interner.intern(original);
+		assertEquals(original, interned);
+		for (LocalDate date = REFERENCE; date.isBefore(REFERENCE.plusYears(1)); date = date.plusDays(1)) {
+			assertEquals(original.includes(date), interned.includes(date));
+		}
+		return;
+	}
+
+	@Test
+	public void internThrowsOnNull() {
+		assertThrows(NullPointerException.class, () -> new ExpressionInterner().intern(null));
+		return;
+	}
+}
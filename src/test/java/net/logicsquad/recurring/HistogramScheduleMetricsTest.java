@@ -0,0 +1,97 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.logicsquad.recurring.ScheduleMetrics.Query;
+
+/**
+ * Unit tests on {@link HistogramScheduleMetrics} and {@link Histogram}.
+ *
+ * @author paulh
+ */
+public class HistogramScheduleMetricsTest {
+	private static final String MONDAYS = "Mondays";
+
+	private static final String FRIDAYS = "Fridays";
+
+	// 2023-08-14 is a Monday
+	private static final LocalDate MONDAY = LocalDate.of(2023, 8, 14);
+
+	private List<ScheduleElement<String>> elements = Arrays.asList(ScheduleElement.of(MONDAYS, DayInWeek.of(DayOfWeek.MONDAY)),
+			ScheduleElement.of(FRIDAYS, DayInWeek.of(DayOfWeek.FRIDAY)), ScheduleElement.of(MONDAYS, DayInMonth.of(DayOfWeek.MONDAY, 1)));
+
+	@Test
+	public void ofThrowsOnNullMetrics() {
+		assertThrows(NullPointerException.class, () -> Schedule.of(elements, null));
+		return;
+	}
+
+	@Test
+	public void scheduleRecordsEachQuery() {
+		HistogramScheduleMetrics metrics = new HistogramScheduleMetrics();
+		Schedule<String> schedule = Schedule.of(elements, metrics);
+
+		assertTrue(schedule.isOccurring(MONDAYS, MONDAY));
+		assertEquals(1, metrics.count(Query.IS_OCCURRING));
+		assertEquals(1, metrics.daysScanned(Query.IS_OCCURRING).max());
+		assertEquals(1, metrics.includesCalls(Query.IS_OCCURRING).max());
+
+		// Monday -> Friday: 5 days, two MONDAYS elements evaluated on each non-matching day
+		assertEquals(MONDAY.plusDays(7), schedule.nextOccurrence(MONDAYS, MONDAY.plusDays(1)));
+		assertEquals(1, metrics.count(Query.NEXT_OCCURRENCE));
+		assertEquals(7, metrics.daysScanned(Query.NEXT_OCCURRENCE).max());
+		assertEquals(13, metrics.includesCalls(Query.NEXT_OCCURRENCE).max());
+
+		assertEquals(MONDAY, schedule.previousOccurrence(MONDAYS, MONDAY.plusDays(3)));
+		assertEquals(1, metrics.count(Query.PREVIOUS_OCCURRENCE));
+		assertEquals(4, metrics.daysScanned(Query.PREVIOUS_OCCURRENCE).max());
+
+		assertEquals(2, schedule.datesInRange(FRIDAYS, MONDAY, MONDAY.plusDays(13)).size());
+		assertEquals(14, metrics.daysScanned(Query.DATES_IN_RANGE).max());
+		assertEquals(14, metrics.includesCalls(Query.DATES_IN_RANGE).max());
+
+		assertEquals(Arrays.asList(MONDAYS), schedule.agenda(MONDAY));
+		assertEquals(1, metrics.count(Query.AGENDA));
+		assertEquals(2, metrics.includesCalls(Query.AGENDA).max());
+
+		List<LocalDate> future = schedule.futureDates(FRIDAYS, MONDAY).limit(3).collect(Collectors.toList());
+		assertEquals(3, future.size());
+		assertTrue(metrics.count(Query.NEXT_OCCURRENCE) >= 3);
+		return;
+	}
+
+	@Test
+	public void histogramPercentilesAreWithinBucketPrecision() {
+		Histogram histogram = new Histogram();
+		assertEquals(0, histogram.percentile(50));
+		for (long i = 1; i <= 10000; i++) {
+			histogram.record(i);
+		}
+		assertEquals(10000, histogram.count());
+		assertEquals(10000, histogram.max());
+		assertEquals(5000.5, histogram.mean(), 0.001);
+		assertEquals(5000, histogram.percentile(50), 5000 * 0.07);
+		assertEquals(9900, histogram.percentile(99), 9900 * 0.07);
+		assertEquals(10000, histogram.percentile(100));
+		assertThrows(IllegalArgumentException.class, () -> histogram.percentile(101));
+		return;
+	}
+
+	@Test
+	public void bucketUpperBoundsAreIncreasing() {
+		long[] counts = new Histogram().bucketCounts();
+		for (int i = 1; i < counts.length; i++) {
+			assertTrue(Histogram.bucketUpperBound(i) > Histogram.bucketUpperBound(i - 1));
+		}
+		assertEquals(Long.MAX_VALUE, Histogram.bucketUpperBound(counts.length - 1));
+		return;
+	}
+}
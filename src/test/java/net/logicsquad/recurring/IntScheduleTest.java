@@ -0,0 +1,116 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link IntSchedule}.
+ *
+ * @author paulh
+ */
+public class IntScheduleTest {
+	private static final LocalDate START = LocalDate.of(2023, 1, 1);
+	private static final LocalDate END = LocalDate.of(2023, 12, 31);
+
+	private List<ScheduleElement<Integer>> elements = Arrays.asList(ScheduleElement.of(7, DayInWeek.of(DayOfWeek.MONDAY)),
+			ScheduleElement.of(-3, DayInWeek.of(2, LocalDate.of(2023, 8, 14))),
+			ScheduleElement.of(0, Intersection.of(RangeEveryYear.of(Month.JUNE, Month.AUGUST), DayInMonth.of(DayOfWeek.FRIDAY, -1))),
+			ScheduleElement.of(7, DayInMonth.of(DayOfWeek.SUNDAY, 1)), ScheduleElement.of(Integer.MIN_VALUE, DayInWeek.of(DayOfWeek.MONDAY)));
+
+	private Schedule<Integer> schedule = Schedule.of(elements);
+
+	private IntSchedule intSchedule = IntSchedule.of(elements);
+
+	@Test
+	public void answersMatchSchedule() {
+		assertArrayEquals(new int[] { 7, -3, 0, Integer.MIN_VALUE }, intSchedule.events());
+		assertEquals(4, intSchedule.size());
+		for (LocalDate date = START; !date.isAfter(END); date = date.plusDays(1)) {
+			assertEquals(schedule.agenda(date), box(intSchedule.agenda(date)));
+			for (int event : intSchedule.events()) {
+				assertEquals(schedule.isOccurring(event, date), intSchedule.isOccurring(event, date));
+			}
+		}
+		for (int event : intSchedule.events()) {
+			assertTrue(intSchedule.contains(event));
+			assertEquals(schedule.datesInRange(event, START, END), intSchedule.datesInRange(event, START, END));
+			for (LocalDate date = START; date.isBefore(END); date = date.plusDays(11)) {
+				assertEquals(schedule.nextOccurrence(event, date), intSchedule.nextOccurrence(event, date));
+				assertEquals(schedule.previousOccurrence(event, date), intSchedule.previousOccurrence(event, date));
+			}
+			assertEquals(schedule.futureDates(event, START).limit(5).collect(Collectors.toList()),
+					intSchedule.futureDates(event, START).limit(5).collect(Collectors.toList()));
+			assertEquals(schedule.pastDates(event, END).limit(5).collect(Collectors.toList()),
+					intSchedule.pastDates(event, END).limit(5).collect(Collectors.toList()));
+		}
+		return;
+	}
+
+	@Test
+	public void bulkAgendaReusesBuffer() {
+		List<List<Integer>> agendas = new ArrayList<>();
+		List<int[]> buffers = new ArrayList<>();
+		intSchedule.agenda(START, END, (date, events, count) -> {
+			assertEquals(START.plusDays(agendas.size()), date);
+			agendas.add(box(Arrays.copyOf(events, count)));
+			buffers.add(events);
+		});
+		assertEquals(365, agendas.size());
+		for (int i = 0; i < agendas.size(); i++) {
+			assertEquals(schedule.agenda(START.plusDays(i)), agendas.get(i));
+			assertSame(buffers.get(0), buffers.get(i));
+		}
+		int[] buffer = new int[4];
+		assertEquals(3, intSchedule.agenda(LocalDate.of(2023, 1, 2), buffer));
+		assertArrayEquals(new int[] { 7, -3, Integer.MIN_VALUE }, Arrays.copyOf(buffer, 3));
+		assertThrows(IllegalArgumentException.class, () -> intSchedule.agenda(START, new int[3]));
+		return;
+	}
+
+	@Test
+	public void unknownEventsHaveNoOccurrences() {
+		assertFalse(intSchedule.contains(8));
+		assertFalse(intSchedule.isOccurring(8, START));
+		assertTrue(intSchedule.datesInRange(8, START, END).isEmpty());
+		assertThrows(DateTimeException.class, () -> intSchedule.nextOccurrence(8, START));
+		assertThrows(DateTimeException.class, () -> intSchedule.previousOccurrence(8, START));
+		IntSchedule empty = IntSchedule.of(Collections.emptyList());
+		assertEquals(0, empty.size());
+		assertEquals(0, empty.agenda(START).length);
+		return;
+	}
+
+	@Test
+	public void manyEventsSurviveCollisions() {
+		int[] events = IntStream.range(0, 10_000).map(i -> i * 1024).toArray();
+		TemporalExpression[] expressions = new TemporalExpression[events.length];
+		for (int i = 0; i < events.length; i++) {
+			expressions[i] = DayInWeek.of(DayOfWeek.of(i % 7 + 1));
+		}
+		IntSchedule many = IntSchedule.of(events, expressions);
+		assertEquals(events.length, many.size());
+		for (int i = 0; i < events.length; i++) {
+			assertTrue(many.isOccurring(events[i], START.with(DayOfWeek.of(i % 7 + 1))));
+			assertFalse(many.isOccurring(events[i] + 1, START));
+		}
+		assertThrows(IllegalArgumentException.class, () -> IntSchedule.of(new int[1], new TemporalExpression[2]));
+		assertThrows(NullPointerException.class, () -> IntSchedule.of(new int[1], new TemporalExpression[1]));
+		return;
+	}
+
+	private static List<Integer> box(int[] events) {
+		return Arrays.stream(events).boxed().collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,123 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests on {@link MappedSchedule}.
+ *
+ * @author paulh
+ */
+public class MappedScheduleTest {
+	private static final LocalDate START = LocalDate.of(2023, 1, 1);
+	private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+	@TempDir
+	Path directory;
+
+	private Schedule<String> schedule = Schedule.of(ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.MONDAY)),
+			ScheduleElement.of("Fortnightly", DayInWeek.of(2, LocalDate.of(2023, 8, 14))),
+			ScheduleElement.of("Winter", Intersection.of(RangeEveryYear.of(Month.JUNE, Month.AUGUST), DayInMonth.of(DayOfWeek.FRIDAY, -1))),
+			ScheduleElement.of("Mondays", DayInMonth.of(DayOfWeek.SUNDAY, 1)), ScheduleElement.of("Never", Difference.of(
+					DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.MONDAY))));
+
+	@Test
+	public void answersMatchScheduleWithinHorizon() throws IOException {
+		MappedSchedule<String> mapped = write(schedule);
+		assertEquals(START, mapped.start());
+		assertEquals(END, mapped.end());
+		assertEquals(schedule.events(), mapped.events());
+		for (LocalDate date = START; !date.isAfter(END); date = date.plusDays(1)) {
+			assertEquals(schedule.agenda(date), mapped.agenda(date));
+			for (String event : Arrays.asList("Mondays", "Fortnightly", "Winter", "Never")) {
+				assertEquals(schedule.isOccurring(event, date), mapped.isOccurring(event, date));
+			}
+		}
+		for (String event : Arrays.asList("Mondays", "Fortnightly", "Winter")) {
+			assertEquals(schedule.datesInRange(event, START, END), mapped.datesInRange(event, START, END));
+			assertEquals(schedule.datesInRange(event, START.plusDays(40), START.plusDays(200)),
+					mapped.datesInRange(event, START.plusDays(40), START.plusDays(200)));
+			// Every event occurs between each of these dates and the horizon's bounds
+			for (LocalDate date = START.plusDays(240); date.isBefore(END.minusDays(130)); date = date.plusDays(13)) {
+				assertEquals(schedule.nextOccurrence(event, date), mapped.nextOccurrence(event, date));
+				assertEquals(schedule.previousOccurrence(event, date), mapped.previousOccurrence(event, date));
+			}
+		}
+		assertFalse(mapped.isOccurring("Unknown", START));
+		assertTrue(mapped.datesInRange("Never", START, END).isEmpty());
+		assertTrue(mapped.datesInRange("Mondays", END, START).isEmpty());
+		return;
+	}
+
+	@Test
+	public void queriesOutsideHorizonUseFallback() throws IOException {
+		MappedSchedule.write(schedule, START, END, EventCodec.strings(), directory.resolve("schedule.bin"));
+		MappedSchedule<String> mapped = MappedSchedule.open(directory.resolve("schedule.bin"), EventCodec.strings(), schedule);
+		LocalDate before = START.minusDays(30);
+		LocalDate after = END.plusDays(30);
+		assertEquals(schedule.datesInRange("Fortnightly", before, after), mapped.datesInRange("Fortnightly", before, after));
+		assertEquals(schedule.agenda(after), mapped.agenda(after));
+		assertEquals(schedule.nextOccurrence("Winter", END.minusDays(10)), mapped.nextOccurrence("Winter", END.minusDays(10)));
+		assertEquals(schedule.previousOccurrence("Winter", START.plusDays(10)), mapped.previousOccurrence("Winter", START.plusDays(10)));
+		assertEquals(schedule.nextOccurrence("Mondays", before), mapped.nextOccurrence("Mondays", before));
+		assertEquals(schedule.previousOccurrence("Mondays", after), mapped.previousOccurrence("Mondays", after));
+		assertEquals(schedule.futureDates("Mondays", before).limit(10).collect(Collectors.toList()),
+				mapped.futureDates("Mondays", before).limit(10).collect(Collectors.toList()));
+		return;
+	}
+
+	@Test
+	public void queriesOutsideHorizonThrowWithoutFallback() throws IOException {
+		MappedSchedule<String> mapped = write(schedule);
+		assertThrows(IllegalArgumentException.class, () -> mapped.isOccurring("Mondays", START.minusDays(1)));
+		assertThrows(IllegalArgumentException.class, () -> mapped.agenda(END.plusDays(1)));
+		assertThrows(IllegalArgumentException.class, () -> mapped.datesInRange("Mondays", END, END.plusDays(1)));
+		assertThrows(IllegalArgumentException.class, () -> mapped.nextOccurrence("Winter", END.minusDays(10)));
+		return;
+	}
+
+	@Test
+	public void writeReplacesExistingFile() throws IOException {
+		Path path = directory.resolve("schedule.bin");
+		Files.write(path, new byte[] { 1, 2, 3 });
+		MappedSchedule.write(Schedule.of(Collections.emptyList()), START, START, EventCodec.strings(), path);
+		assertTrue(MappedSchedule.open(path, EventCodec.strings()).events().isEmpty());
+		assertFalse(Files.exists(directory.resolve("schedule.bin.tmp")));
+		return;
+	}
+
+	@Test
+	public void openRejectsInvalidFiles() throws IOException {
+		Path path = directory.resolve("invalid.bin");
+		Files.write(path, new byte[64]);
+		assertThrows(IOException.class, () -> MappedSchedule.open(path, EventCodec.strings()));
+		Files.write(path, new byte[] { 'R', 'C', 'U', 'M' });
+		assertThrows(IOException.class, () -> MappedSchedule.open(path, EventCodec.strings()));
+		return;
+	}
+
+	@Test
+	public void writeRejectsInvalidHorizon() {
+		assertThrows(IllegalArgumentException.class,
+				() -> MappedSchedule.write(schedule, END, START, EventCodec.strings(), directory.resolve("schedule.bin")));
+		return;
+	}
+
+	private MappedSchedule<String> write(Schedule<String> schedule) throws IOException {
+		Path path = directory.resolve("schedule.bin");
+		MappedSchedule.write(schedule, START, END, EventCodec.strings(), path);
+		return MappedSchedule.open(path, EventCodec.strings());
+	}
+}
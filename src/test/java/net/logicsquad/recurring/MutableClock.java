@@ -0,0 +1,41 @@
+package net.logicsquad.recurring;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * {@link Clock} in UTC that tests can set to the start of any date.
+ *
+ * @author paulh
+ */
+final class MutableClock extends Clock {
+	private volatile Instant instant;
+
+	MutableClock(LocalDate date) {
+		set(date);
+		return;
+	}
+
+	void set(LocalDate date) {
+		instant = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+		return;
+	}
+
+	@Override
+	public ZoneId getZone() {
+		return ZoneOffset.UTC;
+	}
+
+	@Override
+	public Clock withZone(ZoneId zone) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Instant instant() {
+		return instant;
+	}
+}
@@ -0,0 +1,170 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link NextOccurrenceCache}.
+ *
+ * @author paulh
+ */
+public class NextOccurrenceCacheTest {
+	// 15 June 2023 is a Thursday
+	private static final LocalDate TODAY = LocalDate.of(2023, 6, 15);
+
+	private ScheduleElement<String> mondays = ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.MONDAY));
+	private ScheduleElement<String> fortnightly = ScheduleElement.of("Fortnightly", DayInWeek.of(2, LocalDate.of(2023, 8, 14)));
+	private ScheduleElement<String> winter = ScheduleElement.of("Winter",
+			Intersection.of(RangeEveryYear.of(Month.JUNE, Month.AUGUST), DayInMonth.of(DayOfWeek.FRIDAY, -1)));
+
+	private Schedule<String> schedule = Schedule.of(mondays, fortnightly, winter);
+
+	private MutableClock clock = new MutableClock(TODAY);
+
+	@Test
+	public void entriesAreReusedUntilTheirDatePasses() {
+		NextOccurrenceCache<String> cache = NextOccurrenceCache.of(schedule, clock);
+		assertEquals(LocalDate.of(2023, 6, 19), cache.nextOccurrence("Mondays"));
+		assertEquals(1, cache.misses());
+		for (LocalDate date = TODAY; !date.isAfter(LocalDate.of(2023, 6, 19)); date = date.plusDays(1)) {
+			clock.set(date);
+			assertEquals(LocalDate.of(2023, 6, 19), cache.nextOccurrence("Mondays"));
+		}
+		assertEquals(1, cache.misses());
+		assertEquals(5, cache.hits());
+		clock.set(LocalDate.of(2023, 6, 20));
+		assertEquals(LocalDate.of(2023, 6, 26), cache.nextOccurrence("Mondays"));
+		assertEquals(2, cache.misses());
+		// The clock moving backwards also forces recomputation
+		clock.set(LocalDate.of(2023, 6, 12));
+		assertEquals(LocalDate.of(2023, 6, 12), cache.nextOccurrence("Mondays"));
+		assertEquals(3, cache.misses());
+		return;
+	}
+
+	@Test
+	public void answersMatchScheduleAcrossDays() {
+		NextOccurrenceCache<String> cache = NextOccurrenceCache.of(schedule, clock);
+		for (LocalDate date = TODAY; date.isBefore(TODAY.plusYears(1)); date = date.plusDays(1)) {
+			clock.set(date);
+			Map<String, LocalDate> expected = new LinkedHashMap<>();
+			for (String event : schedule.events()) {
+				expected.put(event, schedule.nextOccurrence(event, date));
+			}
+			assertEquals(expected, cache.nextOccurrences());
+		}
+		assertTrue(cache.hits() > 10 * cache.misses());
+		return;
+	}
+
+	@Test
+	public void concurrentScheduleChangesInvalidateAffectedEntries() {
+		ConcurrentSchedule<String> concurrent = ConcurrentSchedule.of(Arrays.asList(mondays, winter));
+		NextOccurrenceCache<String> cache = NextOccurrenceCache.of(concurrent, clock);
+		assertEquals(LocalDate.of(2023, 6, 19), cache.nextOccurrence("Mondays"));
+		assertEquals(LocalDate.of(2023, 6, 30), cache.nextOccurrence("Winter"));
+		ScheduleElement<String> tuesdays = ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.TUESDAY));
+		assertTrue(concurrent.replace(mondays, tuesdays));
+		assertEquals(LocalDate.of(2023, 6, 20), cache.nextOccurrence("Mondays"));
+		assertEquals(LocalDate.of(2023, 6, 30), cache.nextOccurrence("Winter"));
+		assertEquals(3, cache.misses());
+		concurrent.add(ScheduleElement.of("Winter", DayInWeek.of(DayOfWeek.FRIDAY)));
+		assertEquals(LocalDate.of(2023, 6, 16), cache.nextOccurrence("Winter"));
+		assertEquals(LocalDate.of(2023, 6, 20), cache.nextOccurrence("Mondays"));
+		assertEquals(4, cache.misses());
+		return;
+	}
+
+	@Test
+	public void invalidateAllDiscardsEntries() {
+		NextOccurrenceCache<String> cache = NextOccurrenceCache.of(schedule, clock);
+		cache.nextOccurrences();
+		cache.nextOccurrences();
+		assertEquals(3, cache.misses());
+		cache.invalidate("Mondays");
+		cache.nextOccurrences();
+		assertEquals(4, cache.misses());
+		cache.invalidateAll();
+		cache.nextOccurrences();
+		assertEquals(7, cache.misses());
+		assertThrows(NullPointerException.class, () -> NextOccurrenceCache.of(schedule, null));
+		return;
+	}
+
+	@Test
+	public void removedEventsLeaveNoEntries() {
+		ConcurrentSchedule<String> concurrent = ConcurrentSchedule.of(Arrays.asList(mondays, winter));
+		NextOccurrenceCache<String> cache = NextOccurrenceCache.of(concurrent, clock);
+		cache.nextOccurrences();
+		assertEquals(2, cache.size());
+		assertTrue(concurrent.remove(mondays));
+		assertEquals(1, cache.size());
+		for (int i = 0; i < 100; i++) {
+			ScheduleElement<String> element = ScheduleElement.of("Event " + i, DayInWeek.of(DayOfWeek.MONDAY));
+			concurrent.add(element);
+			cache.nextOccurrence("Event " + i);
+			concurrent.remove(element);
+		}
+		assertEquals(1, cache.size());
+		cache.invalidate("Never cached");
+		assertEquals(1, cache.size());
+		return;
+	}
+
+	@Test
+	public void closeStopsListeningForChanges() {
+		ConcurrentSchedule<String> concurrent = ConcurrentSchedule.of(Arrays.asList(mondays, winter));
+		NextOccurrenceCache<String> cache = NextOccurrenceCache.of(concurrent, clock);
+		NextOccurrenceCache<String> other = NextOccurrenceCache.of(concurrent, clock);
+		cache.nextOccurrences();
+		other.nextOccurrences();
+		cache.close();
+		assertEquals(0, cache.size());
+		assertThrows(IllegalStateException.class, () -> cache.nextOccurrence("Mondays"));
+		concurrent.remove(mondays);
+		assertEquals(0, cache.size());
+		assertEquals(1, other.size());
+		cache.close();
+		return;
+	}
+
+	@Test
+	public void concurrentChangesNeverLeaveStaleEntries() throws Exception {
+		ConcurrentSchedule<String> concurrent = ConcurrentSchedule.of(Arrays.asList(mondays));
+		NextOccurrenceCache<String> cache = NextOccurrenceCache.of(concurrent, clock);
+		AtomicBoolean done = new AtomicBoolean();
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < 3; r++) {
+			Thread reader = new Thread(() -> {
+				while (!done.get()) {
+					cache.nextOccurrence("Mondays");
+				}
+			});
+			readers.add(reader);
+			reader.start();
+		}
+		ScheduleElement<String> current = mondays;
+		for (int i = 0; i < 2_000; i++) {
+			ScheduleElement<String> next = ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.of(i % 7 + 1)));
+			concurrent.replace(current, next);
+			current = next;
+		}
+		done.set(true);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		assertEquals(concurrent.nextOccurrence("Mondays", TODAY), cache.nextOccurrence("Mondays"));
+		return;
+	}
+}
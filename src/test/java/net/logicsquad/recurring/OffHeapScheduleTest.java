@@ -0,0 +1,181 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link OffHeapSchedule}.
+ *
+ * @author paulh
+ */
+public class OffHeapScheduleTest {
+	private static final LocalDate START = LocalDate.of(2023, 1, 1);
+	private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+	private List<ScheduleElement<String>> elements = Arrays.asList(ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.MONDAY)),
+			ScheduleElement.of("Fortnightly", DayInWeek.of(2, LocalDate.of(2023, 8, 14))),
+			ScheduleElement.of("Winter", Intersection.of(RangeEveryYear.of(Month.JUNE, Month.AUGUST), DayInMonth.of(DayOfWeek.FRIDAY, -1))),
+			ScheduleElement.of("Mondays", DayInMonth.of(DayOfWeek.SUNDAY, 1)));
+
+	private Schedule<String> schedule = Schedule.of(elements);
+
+	@Test
+	public void answersMatchScheduleInsideAndOutsideHorizon() {
+		try (OffHeapSchedule<String> offHeap = OffHeapSchedule.of(elements, START, END)) {
+			assertEquals(schedule.events(), offHeap.events());
+			LocalDate before = START.minusDays(100);
+			LocalDate after = END.plusDays(100);
+			for (LocalDate date = before; !date.isAfter(after); date = date.plusDays(1)) {
+				assertEquals(schedule.agenda(date), offHeap.agenda(date));
+				for (String event : schedule.events()) {
+					assertEquals(schedule.isOccurring(event, date), offHeap.isOccurring(event, date));
+				}
+			}
+			for (String event : schedule.events()) {
+				assertEquals(schedule.datesInRange(event, before, after), offHeap.datesInRange(event, before, after));
+				assertEquals(schedule.datesInRange(event, START.plusDays(40), START.plusDays(200)),
+						offHeap.datesInRange(event, START.plusDays(40), START.plusDays(200)));
+				for (LocalDate date = before; date.isBefore(after); date = date.plusDays(17)) {
+					assertEquals(schedule.nextOccurrence(event, date), offHeap.nextOccurrence(event, date));
+					assertEquals(schedule.previousOccurrence(event, date), offHeap.previousOccurrence(event, date));
+				}
+				assertEquals(schedule.futureDates(event, END.minusDays(60)).limit(10).collect(Collectors.toList()),
+						offHeap.futureDates(event, END.minusDays(60)).limit(10).collect(Collectors.toList()));
+				assertEquals(schedule.pastDates(event, START.plusDays(60)).limit(10).collect(Collectors.toList()),
+						offHeap.pastDates(event, START.plusDays(60)).limit(10).collect(Collectors.toList()));
+			}
+			assertFalse(offHeap.isOccurring("Unknown", START));
+			assertTrue(offHeap.datesInRange("Unknown", START, END).isEmpty());
+		}
+		return;
+	}
+
+	@Test
+	public void footprintReportsMemory() {
+		OffHeapSchedule<String> offHeap = OffHeapSchedule.of(elements, START, END);
+		OffHeapSchedule.Footprint footprint = offHeap.footprint();
+		assertEquals(4, footprint.elements());
+		assertEquals(3, footprint.events());
+		// 731 days round up to 12 words
+		assertEquals(12 * 64, footprint.days());
+		assertEquals(1, footprint.segments());
+		assertEquals(4 * 12 * Long.BYTES, footprint.offHeapBytes());
+		assertEquals(4 * Integer.BYTES, footprint.directoryBytes());
+		offHeap.close();
+		assertEquals(0, offHeap.footprint().offHeapBytes());
+		return;
+	}
+
+	@Test
+	public void queriesThrowAfterClose() {
+		OffHeapSchedule<String> offHeap = OffHeapSchedule.of(elements, START, END);
+		offHeap.close();
+		offHeap.close();
+		assertThrows(IllegalStateException.class, () -> offHeap.isOccurring("Mondays", START));
+		assertThrows(IllegalStateException.class, () -> offHeap.agenda(START));
+		assertThrows(IllegalStateException.class, () -> offHeap.datesInRange("Mondays", START, END));
+		return;
+	}
+
+	@Test
+	public void closeWaitsForQueryInProgress() throws Exception {
+		CountDownLatch evaluating = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		// Blocks a query evaluating a date outside the horizon
+		TemporalExpression blocking = date -> {
+			if (date.isAfter(END)) {
+				evaluating.countDown();
+				try {
+					proceed.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return true;
+		};
+		OffHeapSchedule<String> offHeap = OffHeapSchedule.of(Arrays.asList(ScheduleElement.of("Blocking", blocking)), START, END);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Boolean> query = executor.submit(() -> offHeap.isOccurring("Blocking", END.plusDays(1)));
+			assertTrue(evaluating.await(10, TimeUnit.SECONDS));
+			Future<?> close = executor.submit(offHeap::close);
+			Thread.sleep(100);
+			assertFalse(close.isDone());
+			assertTrue(offHeap.footprint().offHeapBytes() > 0);
+			proceed.countDown();
+			assertTrue(query.get(10, TimeUnit.SECONDS));
+			close.get(10, TimeUnit.SECONDS);
+			assertEquals(0, offHeap.footprint().offHeapBytes());
+			assertThrows(IllegalStateException.class, () -> offHeap.isOccurring("Blocking", START));
+		} finally {
+			proceed.countDown();
+			executor.shutdownNow();
+		}
+		return;
+	}
+
+	@Test
+	public void seeksForUnknownEventThrow() {
+		try (OffHeapSchedule<String> offHeap = OffHeapSchedule.of(elements, START, END)) {
+			assertThrows(DateTimeException.class, () -> offHeap.nextOccurrence("Unknown", START));
+			assertThrows(DateTimeException.class, () -> offHeap.previousOccurrence("Unknown", END.plusYears(100)));
+			assertThrows(DateTimeException.class, () -> offHeap.futureDates("Unknown", START));
+		}
+		return;
+	}
+
+	@Test
+	public void closeDoesNotWaitForSearchOutsideHorizon() throws Exception {
+		CountDownLatch searching = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		// Blocks a search testing dates after the horizon, and then matches ten days after it
+		TemporalExpression blocking = date -> {
+			if (date.isAfter(END)) {
+				searching.countDown();
+				try {
+					proceed.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return date.equals(END.plusDays(10));
+		};
+		OffHeapSchedule<String> offHeap = OffHeapSchedule.of(Arrays.asList(ScheduleElement.of("Blocking", blocking)), START, END);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<LocalDate> query = executor.submit(() -> offHeap.nextOccurrence("Blocking", START));
+			assertTrue(searching.await(10, TimeUnit.SECONDS));
+			executor.submit(offHeap::close).get(10, TimeUnit.SECONDS);
+			assertEquals(0, offHeap.footprint().offHeapBytes());
+			proceed.countDown();
+			assertEquals(END.plusDays(10), query.get(10, TimeUnit.SECONDS));
+			assertThrows(IllegalStateException.class, () -> offHeap.nextOccurrence("Blocking", START));
+		} finally {
+			proceed.countDown();
+			executor.shutdownNow();
+		}
+		return;
+	}
+
+	@Test
+	public void ofRejectsInvalidArguments() {
+		assertThrows(NullPointerException.class, () -> OffHeapSchedule.of(null, START, END));
+		assertThrows(NullPointerException.class, () -> OffHeapSchedule.of(Arrays.asList((ScheduleElement<String>) null), START, END));
+		assertThrows(IllegalArgumentException.class, () -> OffHeapSchedule.of(elements, END, START));
+		return;
+	}
+}
@@ -0,0 +1,105 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+
+import org.junit.jupiter.api.Test;
+
+import net.logicsquad.recurring.ProfiledExpression.Node;
+
+/**
+ * Unit tests on {@link ProfiledExpression}.
+ *
+ * @author paulh
+ */
+public class ProfiledExpressionTest {
+	// 2023-08-14 is a Monday
+	private static final LocalDate MONDAY = LocalDate.of(2023, 8, 14);
+
+	private TemporalExpression mondays = DayInWeek.of(DayOfWeek.MONDAY);
+	private TemporalExpression tuesdays = DayInWeek.of(DayOfWeek.TUESDAY);
+
+	@Test
+	public void ofThrowsOnNull() {
+		assertThrows(NullPointerException.class, () -> ProfiledExpression.of(null));
+		return;
+	}
+
+	@Test
+	public void unionCountsEvaluationsMatchesAndShortCircuits() {
+		ProfiledExpression profiled = ProfiledExpression.of(Union.of(mondays, tuesdays));
+		evaluateTwoWeeks(profiled);
+		Node root = profiled.root();
+		assertEquals(14, root.evaluations());
+		assertEquals(4, root.matches());
+		// Union stops after the first sub-expression on Mondays
+		assertEquals(2, root.shortCircuits());
+		assertEquals(14, root.children().get(0).evaluations());
+		assertEquals(2, root.children().get(0).matches());
+		assertEquals(12, root.children().get(1).evaluations());
+		assertEquals(2, root.children().get(1).matches());
+		assertTrue(root.nanos() >= root.children().get(0).nanos());
+		return;
+	}
+
+	@Test
+	public void intersectionAndDifferenceCountShortCircuits() {
+		TemporalExpression august = RangeEveryYear.of(Month.AUGUST);
+		ProfiledExpression intersection = ProfiledExpression.of(Intersection.of(mondays, august));
+		evaluateTwoWeeks(intersection);
+		// Intersection stops after the first sub-expression on all but Mondays
+		assertEquals(12, intersection.root().shortCircuits());
+		assertEquals(2, intersection.root().children().get(1).evaluations());
+
+		ProfiledExpression difference = ProfiledExpression.of(Difference.of(august, mondays));
+		evaluateTwoWeeks(difference);
+		// 2023-08-14 to 2023-08-27 is all in August: never short-circuits, matches all but Mondays
+		assertEquals(0, difference.root().shortCircuits());
+		assertEquals(12, difference.root().matches());
+		assertEquals(14, difference.root().children().get(1).evaluations());
+		return;
+	}
+
+	@Test
+	public void profiledMatchesOriginal() {
+		TemporalExpression original = Difference.of(Union.of(mondays, tuesdays), DayInMonth.of(DayOfWeek.MONDAY, 1));
+		ProfiledExpression profiled = ProfiledExpression.of(original);
+		for (LocalDate d = MONDAY; d.isBefore(MONDAY.plusYears(1)); d = d.plusDays(1)) {
+			assertEquals(original.includes(d), profiled.includes(d));
+		}
+		return;
+	}
+
+	@Test
+	public void toStringAnnotatesTree() {
+		ProfiledExpression profiled = ProfiledExpression.of(Difference.of(Union.of(mondays, tuesdays), date -> false));
+		evaluateTwoWeeks(profiled);
+		String s = profiled.toString();
+		assertTrue(s.startsWith("[Difference {evaluated=14 matched=4 shortCircuited=10 nanos="), s);
+		assertTrue(s.contains("included=[Union {evaluated=14 matched=4 shortCircuited=2 nanos="), s);
+		assertTrue(s.contains("[DayInWeek {evaluated=14 matched=2 nanos="), s);
+		assertTrue(s.contains("}: dayOfWeek=MONDAY ordinal=0 referenceDate=null]"), s);
+		return;
+	}
+
+	@Test
+	public void resetClearsCounts() {
+		ProfiledExpression profiled = ProfiledExpression.of(Union.of(mondays, tuesdays));
+		evaluateTwoWeeks(profiled);
+		profiled.reset();
+		assertEquals(0, profiled.root().evaluations());
+		assertEquals(0, profiled.root().children().get(1).matches());
+		assertEquals(0, profiled.root().nanos());
+		return;
+	}
+
+	private void evaluateTwoWeeks(TemporalExpression expression) {
+		for (int i = 0; i < 14; i++) {
+			expression.includes(MONDAY.plusDays(i));
+		}
+		return;
+	}
+}
@@ -0,0 +1,195 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link RollingCalendar}.
+ *
+ * @author paulh
+ */
+public class RollingCalendarTest {
+	private static final LocalDate TODAY = LocalDate.of(2023, 6, 15);
+
+	private ScheduleElement<String> mondays = ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.MONDAY));
+	private ScheduleElement<String> fortnightly = ScheduleElement.of("Fortnightly", DayInWeek.of(2, LocalDate.of(2023, 8, 14)));
+	private ScheduleElement<String> winter = ScheduleElement.of("Winter",
+			Intersection.of(RangeEveryYear.of(Month.JUNE, Month.AUGUST), DayInMonth.of(DayOfWeek.FRIDAY, -1)));
+
+	private Schedule<String> schedule = Schedule.of(mondays, fortnightly, winter, ScheduleElement.of("Mondays", DayInMonth.of(DayOfWeek.SUNDAY, 1)));
+
+	private MutableClock clock = new MutableClock(TODAY);
+
+	@Test
+	public void answersMatchScheduleInsideAndOutsideWindow() {
+		RollingCalendar<String> calendar = RollingCalendar.of(schedule, clock, 30, 90);
+		assertEquals(TODAY.minusDays(30), calendar.start());
+		assertEquals(TODAY.plusDays(90), calendar.end());
+		assertEquals(schedule.events(), calendar.events());
+		LocalDate before = TODAY.minusDays(60);
+		LocalDate after = TODAY.plusDays(120);
+		for (LocalDate date = before; !date.isAfter(after); date = date.plusDays(1)) {
+			assertEquals(schedule.agenda(date), calendar.agenda(date));
+			for (String event : Arrays.asList("Mondays", "Fortnightly", "Winter", "Unknown")) {
+				assertEquals(schedule.isOccurring(event, date), calendar.isOccurring(event, date));
+			}
+		}
+		for (String event : schedule.events()) {
+			assertEquals(schedule.datesInRange(event, before, after), calendar.datesInRange(event, before, after));
+			for (LocalDate date = before; date.isBefore(after); date = date.plusDays(7)) {
+				assertEquals(schedule.nextOccurrence(event, date), calendar.nextOccurrence(event, date));
+				assertEquals(schedule.previousOccurrence(event, date), calendar.previousOccurrence(event, date));
+			}
+			assertEquals(schedule.futureDates(event, TODAY).limit(20).collect(Collectors.toList()),
+					calendar.futureDates(event, TODAY).limit(20).collect(Collectors.toList()));
+			assertEquals(schedule.pastDates(event, TODAY).limit(20).collect(Collectors.toList()),
+					calendar.pastDates(event, TODAY).limit(20).collect(Collectors.toList()));
+		}
+		return;
+	}
+
+	@Test
+	public void advanceEvaluatesOnlyNewlyExposedDays() {
+		CountingSchedule counting = new CountingSchedule(schedule);
+		RollingCalendar<String> calendar = RollingCalendar.of(counting, clock, 30, 365);
+		assertEquals(396, counting.agendas.get());
+		clock.set(TODAY.plusDays(1));
+		assertEquals(1, calendar.advance());
+		assertEquals(0, calendar.advance());
+		assertEquals(10, calendar.advanceTo(TODAY.plusDays(11)));
+		assertEquals(5, calendar.advanceTo(TODAY.plusDays(6)));
+		assertEquals(396, calendar.advanceTo(TODAY.plusYears(3)));
+		assertEquals(396 + 1 + 10 + 5 + 396, counting.agendas.get());
+		counting.agendas.set(0);
+		for (LocalDate date = calendar.start(); !date.isAfter(calendar.end()); date = date.plusDays(1)) {
+			assertEquals(schedule.agenda(date), calendar.agenda(date));
+			assertEquals(schedule.isOccurring("Winter", date), calendar.isOccurring("Winter", date));
+		}
+		assertEquals(0, counting.agendas.get());
+		assertThrows(IllegalArgumentException.class, () -> RollingCalendar.of(schedule, clock, -1, 1));
+		assertThrows(NullPointerException.class, () -> RollingCalendar.of(null, clock, 1, 1));
+		return;
+	}
+
+	@Test
+	public void refreshPicksUpScheduleChanges() {
+		ConcurrentSchedule<String> concurrent = ConcurrentSchedule.of(Arrays.asList(mondays));
+		RollingCalendar<String> calendar = RollingCalendar.of(concurrent, clock, 7, 7);
+		// 19 June 2023 is a Monday
+		LocalDate monday = LocalDate.of(2023, 6, 19);
+		assertTrue(calendar.isOccurring("Mondays", monday));
+		concurrent.remove(mondays);
+		assertTrue(calendar.isOccurring("Mondays", monday));
+		calendar.refresh();
+		assertFalse(calendar.isOccurring("Mondays", monday));
+		assertTrue(calendar.agenda(monday).isEmpty());
+		return;
+	}
+
+	@Test
+	public void backgroundRefreshDoesNotBlockReaders() throws Exception {
+		RollingCalendar<String> calendar = RollingCalendar.of(schedule, clock, 30, 365);
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		ScheduledFuture<?> refresh = calendar.scheduleRefresh(executor, Duration.ofMillis(1));
+		AtomicBoolean failed = new AtomicBoolean();
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < 3; r++) {
+			Thread reader = new Thread(() -> {
+				for (int i = 0; i < 20_000; i++) {
+					LocalDate date = TODAY.plusDays(i % 500);
+					if (schedule.isOccurring("Fortnightly", date) != calendar.isOccurring("Fortnightly", date)
+							|| !schedule.agenda(date).equals(calendar.agenda(date))) {
+						failed.set(true);
+					}
+				}
+			});
+			readers.add(reader);
+			reader.start();
+		}
+		for (int i = 1; i <= 200; i++) {
+			clock.set(TODAY.plusDays(i));
+			Thread.sleep(1);
+		}
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (!calendar.start().equals(TODAY.plusDays(200).minusDays(30)) && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		refresh.cancel(false);
+		executor.shutdown();
+		assertFalse(failed.get());
+		assertEquals(TODAY.plusDays(170), calendar.start());
+		assertThrows(IllegalArgumentException.class, () -> calendar.scheduleRefresh(executor, Duration.ZERO));
+		return;
+	}
+
+	private static final class CountingSchedule implements Schedule<String> {
+		private final Schedule<String> schedule;
+		private final AtomicInteger agendas = new AtomicInteger();
+
+		CountingSchedule(Schedule<String> schedule) {
+			this.schedule = schedule;
+			return;
+		}
+
+		@Override
+		public List<String> agenda(LocalDate date) {
+			agendas.incrementAndGet();
+			return schedule.agenda(date);
+		}
+
+		@Override
+		public boolean isOccurring(String event, LocalDate date) {
+			return schedule.isOccurring(event, date);
+		}
+
+		@Override
+		public List<LocalDate> datesInRange(String event, LocalDate start, LocalDate end) {
+			return schedule.datesInRange(event, start, end);
+		}
+
+		@Override
+		public Stream<LocalDate> futureDates(String event, LocalDate start) {
+			return schedule.futureDates(event, start);
+		}
+
+		@Override
+		public Stream<LocalDate> pastDates(String event, LocalDate start) {
+			return schedule.pastDates(event, start);
+		}
+
+		@Override
+		public LocalDate nextOccurrence(String event, LocalDate date) {
+			return schedule.nextOccurrence(event, date);
+		}
+
+		@Override
+		public LocalDate previousOccurrence(String event, LocalDate date) {
+			return schedule.previousOccurrence(event, date);
+		}
+
+		@Override
+		public Set<String> events() {
+			return schedule.events();
+		}
+	}
+}
@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.jupiter.api.Test;
 
@@ -56,4 +58,18 @@ public class ScheduleElementTest {
 		assertFalse(integerElement.isOccurring(out_3));
 		return;
 	}
+
+	@Test
+	public void addedAndRemovedDatesOverlayExpression() {
+		ScheduleElement<String> element = ScheduleElement.of(EVENT_1, intersection, Arrays.asList(out_1), Arrays.asList(in_2));
+		assertTrue(element.isOccurring(in_1));
+		assertFalse(element.isOccurring(in_2));
+		assertTrue(element.isOccurring(out_1));
+		assertFalse(element.isOccurring(out_1.plusYears(1)));
+		assertEquals(Collections.singletonList(out_1), element.added());
+		assertEquals(Collections.singletonList(in_2), element.removed());
+		assertEquals(Collections.emptyList(), stringElement.added());
+		assertSame(intersection, ScheduleElement.of(EVENT_1, intersection, Collections.emptyList(), Collections.emptyList()).expression());
+		return;
+	}
 }
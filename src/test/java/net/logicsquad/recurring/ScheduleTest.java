@@ -3,13 +3,18 @@ package net.logicsquad.recurring;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 
@@ -185,6 +190,56 @@ public class ScheduleTest {
 		return;
 	}
 
+	@Test
+	public void agendaReturnsDistinctEventsInElementOrder() {
+		Schedule<String> schedule = Schedule.of(ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.MONDAY)), stringElement,
+				ScheduleElement.of("Mondays", dayInMonth), ScheduleElement.of("Tuesdays", DayInWeek.of(DayOfWeek.TUESDAY)));
+		assertEquals(Arrays.asList("Mondays", KNOWN_EVENT_1), schedule.agenda(in_1));
+		assertEquals(Arrays.asList("Mondays"), schedule.agenda(out_1));
+		assertEquals(Arrays.asList("Tuesdays"), schedule.agenda(in_1.plusDays(1)));
+		assertTrue(schedule.agenda(in_1.plusDays(2)).isEmpty());
+		return;
+	}
+
+	@Test
+	public void eventsReturnsDistinctEventsInElementOrder() {
+		Schedule<String> schedule = Schedule.of(ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.MONDAY)), stringElement,
+				ScheduleElement.of("Mondays", dayInMonth));
+		assertEquals(Arrays.asList("Mondays", KNOWN_EVENT_1), new ArrayList<>(schedule.events()));
+		assertThrows(UnsupportedOperationException.class, () -> schedule.events().add("Tuesdays"));
+		return;
+	}
+
+	@Test
+	public void occurrencesMatchAgendaInDateOrder() {
+		List<ScheduleElement<String>> elements = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			elements.add(ScheduleElement.of("Event " + (i % 300), DayInMonth.of(DayOfWeek.of(i % 7 + 1), i % 4 + 1)));
+		}
+		elements.add(stringElement);
+		LocalDate start = LocalDate.of(2017, 12, 20);
+		LocalDate end = LocalDate.of(2018, 2, 10);
+		for (Schedule<String> schedule : Arrays.asList(Schedule.of(elements), Schedule.of(elements.subList(1990, 2001)),
+				ConcurrentSchedule.of(elements))) {
+			List<Occurrence<String>> expected = new ArrayList<>();
+			for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+				for (String event : schedule.agenda(date)) {
+					expected.add(Occurrence.of(event, date));
+				}
+			}
+			assertEquals(expected, schedule.occurrences(start, end).collect(Collectors.toList()));
+			assertEquals(expected, schedule.occurrences(start, end).parallel().collect(Collectors.toList()));
+			assertEquals(expected.subList(0, 5), schedule.occurrences(start, end).limit(5).collect(Collectors.toList()));
+			assertEquals(0, schedule.occurrences(end, start).count());
+		}
+		assertTrue(stringSchedule.occurrences(in_1, in_1).anyMatch(o -> o.event().equals(KNOWN_EVENT_1) && o.date().equals(in_1)));
+		assertEquals(Occurrence.of("A", in_1), Occurrence.of("A", in_1));
+		assertEquals(Occurrence.of("A", in_1).hashCode(), Occurrence.of("A", in_1).hashCode());
+		assertNotEquals(Occurrence.of("A", in_1), Occurrence.of("A", in_2));
+		assertThrows(NullPointerException.class, () -> stringSchedule.occurrences(null, in_1));
+		return;
+	}
+
 	@Test
 	public void elementsCannotBeModified() {
 		List<ScheduleElement<String>> elements = new ArrayList<>();
@@ -220,10 +275,95 @@ public class ScheduleTest {
 		return;
 	}
 
+	@Test
+	public void zoneOverloadsUseLocalDateInZone() {
+		// 00:30 on 8 January 2018 in Adelaide, which is still 7 January in UTC
+		Instant instant = Instant.parse("2018-01-07T14:00:00Z");
+		ZoneId adelaide = ZoneId.of("Australia/Adelaide");
+		assertTrue(stringSchedule.isOccurring(KNOWN_EVENT_1, instant, adelaide));
+		assertFalse(stringSchedule.isOccurring(KNOWN_EVENT_1, instant, ZoneOffset.UTC));
+		assertTrue(stringSchedule.isOccurring(KNOWN_EVENT_1, instant.atZone(ZoneOffset.UTC), adelaide));
+		assertEquals(in_1, stringSchedule.nextOccurrence(KNOWN_EVENT_1, instant, ZoneOffset.UTC));
+		assertEquals(in_2, stringSchedule.nextOccurrence(KNOWN_EVENT_1, instant.atZone(adelaide).plusDays(1), adelaide));
+		assertEquals(in_1, stringSchedule.previousOccurrence(KNOWN_EVENT_1, instant, adelaide));
+		assertEquals(in_1, stringSchedule.previousOccurrence(KNOWN_EVENT_1, instant.atZone(adelaide), adelaide));
+		assertEquals(Collections.singletonList(KNOWN_EVENT_1), stringSchedule.agenda(instant, adelaide));
+		assertEquals(Collections.emptyList(), stringSchedule.agenda(instant.atZone(adelaide), ZoneOffset.UTC));
+		assertThrows(NullPointerException.class, () -> stringSchedule.agenda(instant, null));
+		return;
+	}
+
+	@Test
+	public void agendaDefaultAsksEachEvent() {
+		Schedule<String> schedule = new MinimalSchedule(Schedule.of(stringElement, ScheduleElement.of(UNKNOWN_EVENT_1, range), stringElement), true);
+		assertEquals(Arrays.asList(KNOWN_EVENT_1, UNKNOWN_EVENT_1), schedule.agenda(in_1));
+		assertEquals(Collections.singletonList(UNKNOWN_EVENT_1), schedule.agenda(LocalDate.of(2018, 1, 9)));
+		assertEquals(Collections.emptyList(), schedule.agenda(out_1));
+		return;
+	}
+
+	@Test
+	public void eventsDefaultIsUnsupported() {
+		Schedule<String> schedule = new MinimalSchedule(stringSchedule, false);
+		assertThrows(UnsupportedOperationException.class, () -> schedule.events());
+		assertThrows(UnsupportedOperationException.class, () -> schedule.agenda(in_1));
+		assertTrue(schedule.isOccurring(KNOWN_EVENT_1, in_1));
+		return;
+	}
+
 	// Can't add null to list of ScheduleElements
 	@Test
 	public void ofThrowsOnNullElement() {
 		assertThrows(NullPointerException.class, () -> Schedule.of(stringElement, null));
 		return;
 	}
+
+	/**
+	 * A {@link Schedule} implementing only its abstract methods, by delegation, to exercise the default methods.
+	 */
+	private static final class MinimalSchedule implements Schedule<String> {
+		private final Schedule<String> schedule;
+		private final boolean listsEvents;
+
+		MinimalSchedule(Schedule<String> schedule, boolean listsEvents) {
+			this.schedule = schedule;
+			this.listsEvents = listsEvents;
+			return;
+		}
+
+		@Override
+		public boolean isOccurring(String event, LocalDate date) {
+			return schedule.isOccurring(event, date);
+		}
+
+		@Override
+		public List<LocalDate> datesInRange(String event, LocalDate start, LocalDate end) {
+			return schedule.datesInRange(event, start, end);
+		}
+
+		@Override
+		public Stream<LocalDate> futureDates(String event, LocalDate start) {
+			return schedule.futureDates(event, start);
+		}
+
+		@Override
+		public Stream<LocalDate> pastDates(String event, LocalDate start) {
+			return schedule.pastDates(event, start);
+		}
+
+		@Override
+		public LocalDate nextOccurrence(String event, LocalDate date) {
+			return schedule.nextOccurrence(event, date);
+		}
+
+		@Override
+		public LocalDate previousOccurrence(String event, LocalDate date) {
+			return schedule.previousOccurrence(event, date);
+		}
+
+		@Override
+		public Set<String> events() {
+			return listsEvents ? schedule.events() : Schedule.super.events();
+		}
+	}
 }
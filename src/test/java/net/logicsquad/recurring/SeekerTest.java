@@ -0,0 +1,136 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.logicsquad.recurring.ScheduleMetrics.Query;
+
+/**
+ * Unit tests on {@link Seeker}, and its use by {@link Schedule}s and {@link TimedExpression}.
+ *
+ * @author paulh
+ */
+public class SeekerTest {
+	// 2024-01-01 is a Monday
+	private static final LocalDate NEW_YEAR = LocalDate.of(2024, 1, 1);
+	private static final LocalDate CHRISTMAS = LocalDate.of(2024, 12, 25);
+
+	/**
+	 * Leaf expression that counts calls to {@link #includes(LocalDate)}.
+	 */
+	private static final class CountingExpression implements TemporalExpression {
+		private final TemporalExpression expression;
+		private int calls;
+
+		CountingExpression(TemporalExpression expression) {
+			this.expression = expression;
+			return;
+		}
+
+		@Override
+		public boolean includes(LocalDate date) {
+			calls++;
+			return expression.includes(date);
+		}
+	}
+
+	@Test
+	public void seeksWithoutTestingDays() {
+		Seeker seeker = Seeker.of(SpecificDates.of(CHRISTMAS), EveryNDays.of(NEW_YEAR, 1000));
+		assertEquals(CHRISTMAS, seeker.next(NEW_YEAR.plusDays(1), null));
+		assertEquals(NEW_YEAR.plusDays(1000), seeker.next(CHRISTMAS.plusDays(1), null));
+		assertEquals(CHRISTMAS, seeker.previous(NEW_YEAR.plusDays(999), null));
+		assertNull(seeker.next(CHRISTMAS.plusDays(1), NEW_YEAR.plusDays(999), null));
+		assertNull(seeker.previous(CHRISTMAS.minusDays(1), NEW_YEAR.plusDays(1), null));
+		// Far beyond any horizon a day-by-day search could cover
+		assertEquals(NEW_YEAR.plusDays(1_000_000_000L), seeker.next(NEW_YEAR.plusDays(999_999_001L), null));
+		return;
+	}
+
+	@Test
+	public void testsOtherExpressionsOnlyBeforeSeekedDate() {
+		CountingExpression mondays = new CountingExpression(DayInWeek.of(DayOfWeek.MONDAY));
+		CountingExpression december = new CountingExpression(RangeEveryYear.of(Month.DECEMBER));
+		Seeker seeker = Seeker.of(mondays, SpecificDates.of(NEW_YEAR.plusDays(3)));
+		// Thursday 4 January is found by seeking, after testing Tuesday and Wednesday
+		assertEquals(NEW_YEAR.plusDays(3), seeker.next(NEW_YEAR.plusDays(1), null));
+		assertEquals(2, mondays.calls);
+		assertEquals(NEW_YEAR.plusDays(7), seeker.next(NEW_YEAR.plusDays(4), null));
+		assertEquals(NEW_YEAR, seeker.previous(NEW_YEAR.plusDays(2), NEW_YEAR, null));
+		assertNull(Seeker.of(december).next(NEW_YEAR, NEW_YEAR.plusDays(9), null));
+		assertEquals(10, december.calls);
+		return;
+	}
+
+	@Test
+	public void calendarsSeekWithoutTestingDays() {
+		LocalDate later = CHRISTMAS.plusYears(20);
+		CompressedCalendar compressed = CompressedCalendar.of(Arrays.asList(NEW_YEAR, later));
+		BusinessCalendar business = BusinessCalendar.of(SpecificDates.of(CHRISTMAS), NEW_YEAR, CHRISTMAS);
+		QueryProbe probe = new QueryProbe(Query.NEXT_OCCURRENCE, null, null);
+		Seeker seeker = Seeker.of(compressed, business);
+		assertEquals(CHRISTMAS, seeker.next(NEW_YEAR.plusDays(1), probe));
+		assertEquals(later, seeker.next(CHRISTMAS.plusDays(1), probe));
+		assertEquals(CHRISTMAS, seeker.previous(CHRISTMAS.plusDays(5), probe));
+		assertEquals(0, probe.daysScanned);
+		// Beyond its span, a business calendar finds no date rather than failing
+		assertNull(business.next(CHRISTMAS.plusDays(1)));
+		assertNull(business.previous(NEW_YEAR));
+		assertThrows(IllegalStateException.class, () -> business.plus(CHRISTMAS, 1));
+		return;
+	}
+
+	@Test
+	public void searchWithNoDateThrows() {
+		Seeker seeker = Seeker.of(SpecificDates.of(NEW_YEAR, CHRISTMAS));
+		assertThrows(DateTimeException.class, () -> seeker.next(CHRISTMAS.plusDays(1), null));
+		assertThrows(DateTimeException.class, () -> seeker.previous(NEW_YEAR.minusDays(1), null));
+		assertThrows(DateTimeException.class, () -> Seeker.of().next(NEW_YEAR, null));
+		return;
+	}
+
+	@Test
+	public void schedulesSeekNextAndPreviousOccurrences() {
+		List<ScheduleElement<String>> elements = Arrays.asList(ScheduleElement.of("Holidays", SpecificDates.of(NEW_YEAR, CHRISTMAS)),
+				ScheduleElement.of("Holidays", EasterOffset.of(-2)), ScheduleElement.of("Rent", DayOfMonth.of(31, true)),
+				ScheduleElement.of("Rent", EveryNDays.of(NEW_YEAR.plusDays(3), 10)));
+		Schedule<String> schedule = Schedule.of(elements);
+		ConcurrentSchedule<String> concurrent = ConcurrentSchedule.of(elements);
+		for (Schedule<String> s : Arrays.asList(schedule, concurrent, concurrent.snapshot())) {
+			// Good Friday 2024 was 29 March
+			assertEquals(LocalDate.of(2024, 3, 29), s.nextOccurrence("Holidays", NEW_YEAR.plusDays(1)));
+			assertEquals(CHRISTMAS, s.nextOccurrence("Holidays", LocalDate.of(2024, 3, 30)));
+			assertEquals(LocalDate.of(2025, 4, 18), s.nextOccurrence("Holidays", CHRISTMAS.plusDays(1)));
+			assertEquals(LocalDate.of(2024, 3, 29), s.previousOccurrence("Holidays", CHRISTMAS.minusDays(1)));
+			assertEquals(NEW_YEAR.plusDays(3), s.nextOccurrence("Rent", NEW_YEAR));
+			assertEquals(LocalDate.of(2024, 1, 31), s.previousOccurrence("Rent", LocalDate.of(2024, 2, 1)));
+			assertEquals(LocalDate.of(2024, 2, 29), s.nextOccurrence("Rent", LocalDate.of(2024, 2, 24)));
+			assertThrows(DateTimeException.class, () -> s.nextOccurrence("Unknown", NEW_YEAR));
+		}
+		IntSchedule ints = IntSchedule.of(new int[] { 1, 1 }, new TemporalExpression[] { SpecificDates.of(CHRISTMAS), EasterOffset.of(0) });
+		assertEquals(LocalDate.of(2025, 4, 20), ints.nextOccurrence(1, CHRISTMAS.plusDays(1)));
+		assertEquals(CHRISTMAS, ints.previousOccurrence(1, LocalDate.of(2025, 4, 19)));
+		return;
+	}
+
+	@Test
+	public void timedExpressionSeeksDays() {
+		TimedExpression timed = TimedExpression.of(EveryNDays.of(NEW_YEAR, 2000), TimesOfDay.of(LocalTime.NOON));
+		assertEquals(NEW_YEAR.plusDays(2000).atTime(LocalTime.NOON), timed.next(NEW_YEAR.atTime(13, 0)));
+		assertEquals(NEW_YEAR.atTime(LocalTime.NOON), timed.previous(NEW_YEAR.plusDays(1999).atTime(LocalTime.MIDNIGHT)));
+		// Beyond the horizon
+		assertNull(TimedExpression.of(SpecificDates.of(NEW_YEAR.plusYears(20)), TimesOfDay.of(LocalTime.NOON)).next(LocalDateTime.of(NEW_YEAR,
+				LocalTime.NOON)));
+		return;
+	}
+}
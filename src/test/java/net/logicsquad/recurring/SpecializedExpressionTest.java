@@ -0,0 +1,80 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link SpecializedExpression}.
+ *
+ * @author paulh
+ */
+public class SpecializedExpressionTest {
+	private static final LocalDate START = LocalDate.of(2016, 1, 1);
+
+	private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+	private List<TemporalExpression> expressions = Arrays.asList(
+			DayInMonth.of(DayOfWeek.TUESDAY, -1),
+			DayInWeek.of(DayOfWeek.FRIDAY),
+			DayInWeek.of(3, LocalDate.of(2023, 8, 14)),
+			RangeEveryYear.of(MonthDay.of(Month.MAY, 17), MonthDay.of(Month.AUGUST, 19)),
+			RangeEveryYear.of(MonthDay.of(Month.SEPTEMBER, 1), MonthDay.of(Month.SEPTEMBER, 1)),
+			Union.of(DayInMonth.of(DayOfWeek.THURSDAY, 1), DayInMonth.of(DayOfWeek.WEDNESDAY, -1), DayInWeek.of(DayOfWeek.SUNDAY)),
+			Intersection.of(DayInMonth.of(DayOfWeek.MONDAY, 2), RangeEveryYear.of(Month.JANUARY, Month.MARCH)),
+			Difference.of(Union.of(DayInMonth.of(DayOfWeek.THURSDAY, 1), DayInMonth.of(DayOfWeek.WEDNESDAY, -1)), RangeEveryYear.of(Month.JUNE)),
+			Difference.of(RangeEveryYear.of(Month.JUNE, Month.SEPTEMBER), date -> date.getDayOfMonth() % 2 == 0),
+			Difference.of(DayInWeek.of(DayOfWeek.MONDAY), SpecificDates.of(LocalDate.of(2016, 1, 4), LocalDate.of(2020, 6, 8), LocalDate.of(2024, 12, 30))),
+			SpecificDates.of(),
+			Union.of(EasterOffset.of(-2), EasterOffset.of(1), EasterOffset.of(49)),
+			Union.of(EveryNDays.of(LocalDate.of(2024, 3, 3), 10), DayOfMonth.of(15, false), DayOfMonth.of(31, true)));
+
+	@Test
+	public void ofThrowsOnNull() {
+		assertThrows(NullPointerException.class, () -> SpecializedExpression.of(null));
+		return;
+	}
+
+	@Test
+	public void specializedMatchesOriginal() {
+		for (TemporalExpression e : expressions) {
+			SpecializedExpression specialized = SpecializedExpression.of(e, true);
+			assertTrue(specialized.isSpecialized());
+			assertAgrees(e, specialized);
+		}
+		return;
+	}
+
+	@Test
+	public void interpretedMatchesOriginal() {
+		for (TemporalExpression e : expressions) {
+			SpecializedExpression interpreted = SpecializedExpression.of(e, false);
+			assertFalse(interpreted.isSpecialized());
+			assertNull(interpreted.handle());
+			assertAgrees(e, interpreted);
+		}
+		return;
+	}
+
+	@Test
+	public void specializedHandleCanBeInvokedDirectly() throws Throwable {
+		SpecializedExpression specialized = SpecializedExpression.of(DayInWeek.of(DayOfWeek.FRIDAY), true);
+		assertTrue((boolean) specialized.handle().invokeExact(LocalDate.of(2023, 8, 18)));
+		assertFalse((boolean) specialized.handle().invokeExact(LocalDate.of(2023, 8, 19)));
+		return;
+	}
+
+	private void assertAgrees(TemporalExpression expected, TemporalExpression actual) {
+		for (LocalDate date = START; !date.isAfter(END); date = date.plusDays(1)) {
+			assertEquals(expected.includes(date), actual.includes(date), expected + " on " + date);
+		}
+		return;
+	}
+}
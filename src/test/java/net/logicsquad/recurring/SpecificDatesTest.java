@@ -0,0 +1,85 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link SpecificDates}.
+ *
+ * @author paulh
+ */
+public class SpecificDatesTest {
+	private static final LocalDate NEW_YEAR = LocalDate.of(2024, 1, 1);
+	private static final LocalDate AUSTRALIA_DAY = LocalDate.of(2024, 1, 26);
+	private static final LocalDate CHRISTMAS = LocalDate.of(2024, 12, 25);
+
+	private final SpecificDates holidays = SpecificDates.of(CHRISTMAS, NEW_YEAR, AUSTRALIA_DAY, CHRISTMAS);
+
+	@Test
+	public void includesOnlyGivenDates() {
+		assertEquals(3, holidays.size());
+		assertTrue(holidays.includes(NEW_YEAR));
+		assertTrue(holidays.includes(CHRISTMAS));
+		assertFalse(holidays.includes(CHRISTMAS.plusYears(1)));
+		assertFalse(holidays.includes(NEW_YEAR.minusDays(1)));
+		assertFalse(holidays.includes(LocalDate.MAX));
+		assertEquals(Arrays.asList(NEW_YEAR, AUSTRALIA_DAY, CHRISTMAS), holidays.dates());
+		assertFalse(SpecificDates.of().includes(NEW_YEAR));
+		return;
+	}
+
+	@Test
+	public void seeksAndIteratesRanges() {
+		assertEquals(NEW_YEAR, holidays.next(LocalDate.MIN));
+		assertEquals(AUSTRALIA_DAY, holidays.next(NEW_YEAR.plusDays(1)));
+		assertEquals(CHRISTMAS, holidays.next(CHRISTMAS));
+		assertNull(holidays.next(CHRISTMAS.plusDays(1)));
+		assertEquals(AUSTRALIA_DAY, holidays.previous(CHRISTMAS.minusDays(1)));
+		assertEquals(CHRISTMAS, holidays.previous(LocalDate.MAX));
+		assertNull(holidays.previous(NEW_YEAR.minusDays(1)));
+		assertEquals(Arrays.asList(AUSTRALIA_DAY, CHRISTMAS), holidays.between(NEW_YEAR.plusDays(1), CHRISTMAS).collect(Collectors.toList()));
+		assertEquals(0, holidays.between(CHRISTMAS, NEW_YEAR).count());
+		assertEquals(2, holidays.count(NEW_YEAR, AUSTRALIA_DAY));
+		assertEquals(0, holidays.count(CHRISTMAS, NEW_YEAR));
+		return;
+	}
+
+	@Test
+	public void equalSetsAreShareable() throws Exception {
+		SpecificDates other = SpecificDates.of(Arrays.asList(AUSTRALIA_DAY, NEW_YEAR, CHRISTMAS));
+		assertEquals(holidays, other);
+		assertEquals(holidays.hashCode(), other.hashCode());
+		ExpressionInterner interner = new ExpressionInterner();
+		assertSame(interner.intern(holidays), interner.intern(other));
+		assertSame(SpecificDates.of(), SpecificDates.of(Collections.emptyList()));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(SpecificDates.of());
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertSame(SpecificDates.of(), in.readObject());
+		}
+		return;
+	}
+
+	@Test
+	public void excludesHolidaysFromWorkdays() {
+		TemporalExpression workdays = Difference.of(Union.of(DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.FRIDAY)), holidays);
+		assertFalse(workdays.includes(NEW_YEAR));
+		assertFalse(workdays.includes(AUSTRALIA_DAY));
+		assertTrue(workdays.includes(NEW_YEAR.plusDays(4)));
+		assertThrows(NullPointerException.class, () -> SpecificDates.of(NEW_YEAR, null));
+		return;
+	}
+}
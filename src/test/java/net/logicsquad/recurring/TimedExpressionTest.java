@@ -0,0 +1,97 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link TimedExpression}.
+ *
+ * @author paulh
+ */
+public class TimedExpressionTest {
+	private static final TemporalExpression WEEKDAYS = Union.of(DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.TUESDAY),
+			DayInWeek.of(DayOfWeek.WEDNESDAY), DayInWeek.of(DayOfWeek.THURSDAY), DayInWeek.of(DayOfWeek.FRIDAY));
+
+	private static final TimesOfDay TIMES = TimesOfDay.of(LocalTime.of(9, 0), LocalTime.of(14, 30));
+
+	// 16 June 2023 is a Friday
+	private static final LocalDate FRIDAY = LocalDate.of(2023, 6, 16);
+
+	private static final LocalDate MONDAY = LocalDate.of(2023, 6, 19);
+
+	private final TimedExpression expression = TimedExpression.of(WEEKDAYS, TIMES);
+
+	@Test
+	public void includesTimesOnMatchingDays() {
+		assertTrue(expression.includes(FRIDAY.atTime(9, 0)));
+		assertTrue(expression.includes(FRIDAY.atTime(14, 30)));
+		assertFalse(expression.includes(FRIDAY.atTime(9, 1)));
+		assertFalse(expression.includes(FRIDAY.plusDays(1).atTime(9, 0)));
+		return;
+	}
+
+	@Test
+	public void seeksAcrossDays() {
+		assertEquals(FRIDAY.atTime(9, 0), expression.next(FRIDAY.atStartOfDay()));
+		assertEquals(FRIDAY.atTime(14, 30), expression.next(FRIDAY.atTime(9, 0, 1)));
+		assertEquals(MONDAY.atTime(9, 0), expression.next(FRIDAY.atTime(14, 31)));
+		assertEquals(MONDAY.atTime(9, 0), expression.next(FRIDAY.plusDays(1).atTime(12, 0)));
+		assertEquals(FRIDAY.atTime(14, 30), expression.previous(MONDAY.atTime(8, 59)));
+		assertEquals(FRIDAY.atTime(9, 0), expression.previous(FRIDAY.atTime(14, 29)));
+		assertEquals(MONDAY.atTime(14, 30), expression.previous(MONDAY.atTime(14, 30)));
+		TimedExpression never = TimedExpression.of(Difference.of(WEEKDAYS, WEEKDAYS), TIMES);
+		assertNull(never.next(FRIDAY.atStartOfDay()));
+		assertNull(never.previous(FRIDAY.atStartOfDay()));
+		return;
+	}
+
+	@Test
+	public void evaluatesDaysOncePerDay() {
+		AtomicInteger calls = new AtomicInteger();
+		TemporalExpression counted = date -> {
+			calls.incrementAndGet();
+			return WEEKDAYS.includes(date);
+		};
+		TimedExpression everyMinute = TimedExpression.of(counted, TimesOfDay.every(Duration.ofMinutes(1), LocalTime.MIN, LocalTime.of(23, 59)));
+		assertEquals(MONDAY.atStartOfDay(), everyMinute.next(FRIDAY.atTime(23, 59, 30)));
+		assertEquals(3, calls.get());
+		calls.set(0);
+		assertEquals(7 * 1440 - 2 * 1440, everyMinute.between(FRIDAY.atStartOfDay(), FRIDAY.plusDays(6).atTime(23, 59)).count());
+		assertEquals(7, calls.get());
+		return;
+	}
+
+	@Test
+	public void betweenMatchesRepeatedSeeks() {
+		LocalDateTime start = FRIDAY.atTime(10, 0);
+		LocalDateTime end = MONDAY.plusDays(1).atTime(9, 0);
+		List<LocalDateTime> expected = Arrays.asList(FRIDAY.atTime(14, 30), MONDAY.atTime(9, 0), MONDAY.atTime(14, 30), MONDAY.plusDays(1).atTime(9, 0));
+		assertEquals(expected, expression.between(start, end).collect(Collectors.toList()));
+		DateTimeExpression seeking = DateTimeUnion.of(expression);
+		assertEquals(expected, seeking.between(start, end).collect(Collectors.toList()));
+		assertEquals(0, expression.between(end, start).count());
+		return;
+	}
+
+	@Test
+	public void equalsAndHashCode() {
+		TimedExpression other = TimedExpression.of(WEEKDAYS, TimesOfDay.of(LocalTime.of(14, 30), LocalTime.of(9, 0)));
+		assertEquals(expression, other);
+		assertEquals(expression.hashCode(), other.hashCode());
+		assertNotEquals(expression, TimedExpression.of(DayInWeek.of(DayOfWeek.MONDAY), TIMES));
+		assertThrows(NullPointerException.class, () -> TimedExpression.of(null, TIMES));
+		assertThrows(NullPointerException.class, () -> TimedExpression.of(WEEKDAYS, null));
+		return;
+	}
+}
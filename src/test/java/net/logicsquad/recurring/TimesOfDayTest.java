@@ -0,0 +1,78 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link TimesOfDay}.
+ *
+ * @author paulh
+ */
+public class TimesOfDayTest {
+	private static final LocalTime NINE = LocalTime.of(9, 0);
+	private static final LocalTime TWO_THIRTY = LocalTime.of(14, 30);
+
+	@Test
+	public void fixedTimesSeekByBinarySearch() {
+		TimesOfDay times = TimesOfDay.of(TWO_THIRTY, NINE, TWO_THIRTY);
+		assertEquals(2, times.size());
+		assertEquals(NINE, times.first());
+		assertEquals(TWO_THIRTY, times.last());
+		assertTrue(times.includes(NINE));
+		assertFalse(times.includes(NINE.plusNanos(1)));
+		assertEquals(NINE, times.next(LocalTime.MIDNIGHT));
+		assertEquals(NINE, times.next(NINE));
+		assertEquals(TWO_THIRTY, times.next(NINE.plusNanos(1)));
+		assertNull(times.next(TWO_THIRTY.plusNanos(1)));
+		assertNull(times.previous(NINE.minusNanos(1)));
+		assertEquals(NINE, times.previous(LocalTime.NOON));
+		assertEquals(TWO_THIRTY, times.previous(LocalTime.MAX));
+		return;
+	}
+
+	@Test
+	public void steppedTimesSeekByArithmetic() {
+		TimesOfDay times = TimesOfDay.every(Duration.ofMinutes(15), LocalTime.of(8, 0), LocalTime.of(17, 50));
+		assertEquals(40, times.size());
+		assertEquals(LocalTime.of(17, 45), times.last());
+		assertTrue(times.includes(LocalTime.of(12, 15)));
+		assertFalse(times.includes(LocalTime.of(12, 16)));
+		assertFalse(times.includes(LocalTime.of(18, 0)));
+		assertEquals(LocalTime.of(8, 0), times.next(LocalTime.of(7, 0)));
+		assertEquals(LocalTime.of(12, 30), times.next(LocalTime.of(12, 16)));
+		assertEquals(LocalTime.of(12, 15), times.next(LocalTime.of(12, 15)));
+		assertNull(times.next(LocalTime.of(17, 46)));
+		assertEquals(LocalTime.of(12, 15), times.previous(LocalTime.of(12, 29)));
+		assertEquals(LocalTime.of(17, 45), times.previous(LocalTime.MAX));
+		assertNull(times.previous(LocalTime.of(7, 59)));
+		return;
+	}
+
+	@Test
+	public void equalRulesMatchTheSameTimes() {
+		TimesOfDay stepped = TimesOfDay.every(Duration.ofMinutes(30), NINE, LocalTime.of(10, 0));
+		TimesOfDay fixed = TimesOfDay.of(LocalTime.of(10, 0), NINE, LocalTime.of(9, 30));
+		assertEquals(stepped, fixed);
+		assertEquals(fixed, stepped);
+		assertEquals(stepped.hashCode(), fixed.hashCode());
+		assertEquals(TimesOfDay.every(Duration.ofHours(1), NINE, NINE), TimesOfDay.every(Duration.ofHours(2), NINE, NINE));
+		assertNotEquals(stepped, TimesOfDay.of(NINE, TWO_THIRTY));
+		assertEquals(1, TimesOfDay.every(Duration.ofDays(2), NINE, LocalTime.MAX).size());
+		return;
+	}
+
+	@Test
+	public void rejectsInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> TimesOfDay.of());
+		assertThrows(NullPointerException.class, () -> TimesOfDay.of(NINE, null));
+		assertThrows(IllegalArgumentException.class, () -> TimesOfDay.every(Duration.ZERO, NINE, TWO_THIRTY));
+		assertThrows(IllegalArgumentException.class, () -> TimesOfDay.every(Duration.ofMinutes(-1), NINE, TWO_THIRTY));
+		assertThrows(IllegalArgumentException.class, () -> TimesOfDay.every(Duration.ofMinutes(1), TWO_THIRTY, NINE));
+		assertThrows(IllegalArgumentException.class, () -> TimesOfDay.every(Duration.ofNanos(1), LocalTime.MIN, LocalTime.MAX));
+		return;
+	}
+}
@@ -0,0 +1,178 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link TriggerEngine}.
+ *
+ * @author paulh
+ */
+public class TriggerEngineTest {
+	// 15 June 2023 is a Thursday
+	private static final LocalDate TODAY = LocalDate.of(2023, 6, 15);
+
+	private ScheduleElement<String> mondays = ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.MONDAY));
+	private ScheduleElement<String> fortnightly = ScheduleElement.of("Fortnightly", DayInWeek.of(2, LocalDate.of(2023, 8, 14)));
+	private ScheduleElement<String> winter = ScheduleElement.of("Winter",
+			Intersection.of(RangeEveryYear.of(Month.JUNE, Month.AUGUST), DayInMonth.of(DayOfWeek.FRIDAY, -1)));
+	private ScheduleElement<String> never = ScheduleElement.of("Never",
+			Difference.of(DayInWeek.of(DayOfWeek.MONDAY), DayInWeek.of(DayOfWeek.MONDAY)));
+
+	private Schedule<String> schedule = Schedule.of(mondays, fortnightly, winter, ScheduleElement.of("Mondays", DayInMonth.of(DayOfWeek.SUNDAY, 1)),
+			never);
+
+	private MutableClock clock = new MutableClock(TODAY);
+
+	private List<String> fired = new ArrayList<>();
+
+	@Test
+	public void firesEachOccurrenceOnItsDate() {
+		TriggerEngine<String> engine = TriggerEngine.of(schedule, clock, (event, date) -> fired.add(date + " " + event));
+		assertEquals(3, engine.size());
+		assertNull(engine.nextDue("Never"));
+		for (LocalDate date = TODAY; date.isBefore(TODAY.plusYears(1)); date = date.plusDays(1)) {
+			clock.set(date);
+			fired.clear();
+			engine.runDue();
+			List<String> expected = new ArrayList<>();
+			for (String event : schedule.agenda(date)) {
+				expected.add(date + " " + event);
+			}
+			assertEquals(new HashSet<>(expected), new HashSet<>(fired));
+			assertEquals(0, engine.runDue());
+			assertTrue(engine.nextDue().isAfter(date));
+		}
+		return;
+	}
+
+	@Test
+	public void catchesUpMissedOccurrencesInDateOrder() {
+		TriggerEngine<String> engine = TriggerEngine.of(schedule, clock, (event, date) -> fired.add(date + " " + event));
+		assertEquals(LocalDate.of(2023, 6, 19), engine.nextDue("Mondays"));
+		clock.set(TODAY.plusDays(20));
+		assertEquals(7, engine.runDue());
+		assertEquals(Arrays.asList("2023-06-19 Mondays", "2023-06-19 Fortnightly", "2023-06-26 Mondays", "2023-06-30 Winter",
+				"2023-07-02 Mondays", "2023-07-03 Fortnightly", "2023-07-03 Mondays"), fired);
+		assertEquals(LocalDate.of(2023, 7, 10), engine.nextDue("Mondays"));
+		return;
+	}
+
+	@Test
+	public void failingTriggerDoesNotStopOthers() {
+		TriggerEngine<String> engine = TriggerEngine.of(schedule, clock, (event, date) -> {
+			fired.add(event);
+			if (event.equals("Mondays")) {
+				throw new IllegalStateException(date.toString());
+			}
+		});
+		clock.set(LocalDate.of(2023, 7, 3));
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> engine.runDue());
+		assertEquals("2023-06-19", e.getMessage());
+		assertEquals(3, e.getSuppressed().length);
+		assertEquals(7, fired.size());
+		assertEquals(LocalDate.of(2023, 7, 10), engine.nextDue("Mondays"));
+		return;
+	}
+
+	@Test
+	public void concurrentScheduleChangesRescheduleEvents() {
+		ConcurrentSchedule<String> concurrent = ConcurrentSchedule.of(Arrays.asList(mondays, winter));
+		TriggerEngine<String> engine = TriggerEngine.of(concurrent, clock, (event, date) -> fired.add(date + " " + event));
+		assertEquals(LocalDate.of(2023, 6, 19), engine.nextDue("Mondays"));
+		concurrent.replace(mondays, ScheduleElement.of("Mondays", DayInWeek.of(DayOfWeek.FRIDAY)));
+		assertEquals(LocalDate.of(2023, 6, 16), engine.nextDue("Mondays"));
+		concurrent.add(fortnightly);
+		assertEquals(LocalDate.of(2023, 6, 19), engine.nextDue("Fortnightly"));
+		concurrent.remove(winter);
+		assertNull(engine.nextDue("Winter"));
+		assertEquals(2, engine.size());
+		return;
+	}
+
+	@Test
+	public void changeDuringInitialQueueingIsNotLost() {
+		ConcurrentSchedule<String> concurrent = ConcurrentSchedule.of();
+		AtomicBoolean changed = new AtomicBoolean();
+		// Adds "Fortnightly" while the engine is queueing "Changer"
+		concurrent.add(ScheduleElement.of("Changer", new TemporalExpression() {
+			@Override
+			public boolean includes(LocalDate date) {
+				if (changed.compareAndSet(false, true)) {
+					concurrent.add(fortnightly);
+				}
+				return true;
+			}
+		}));
+		TriggerEngine<String> engine = TriggerEngine.of(concurrent, clock, (event, date) -> fired.add(date + " " + event));
+		assertTrue(changed.get());
+		assertEquals(TODAY, engine.nextDue("Changer"));
+		assertEquals(LocalDate.of(2023, 6, 19), engine.nextDue("Fortnightly"));
+		assertEquals(2, engine.size());
+		return;
+	}
+
+	@Test
+	public void occurrencesBeyondHorizonAreNotLost() {
+		LocalDate decade = TODAY.plusYears(10);
+		// The "Parked" intersection cannot seek, so is searched day by day
+		List<ScheduleElement<String>> elements = Arrays.asList(ScheduleElement.of("Decade", SpecificDates.of(decade)),
+				ScheduleElement.of("Parked", Intersection.of(SpecificDates.of(decade), SpecificDates.of(decade))));
+		try (OffHeapSchedule<String> offHeap = OffHeapSchedule.of(elements, TODAY, TODAY.plusDays(30))) {
+			Schedule<String> basic = Schedule.of(elements);
+			List<Schedule<String>> schedules = Arrays.asList(basic, ConcurrentSchedule.of(elements), RollingCalendar.of(basic, clock, 0, 7), offHeap);
+			for (Schedule<String> s : schedules) {
+				clock.set(TODAY);
+				fired.clear();
+				TriggerEngine<String> engine = TriggerEngine.of(s, clock, (event, date) -> fired.add(date + " " + event));
+				assertEquals(1, engine.size());
+				assertEquals(decade, engine.nextDue("Decade"));
+				assertNull(engine.nextDue("Parked"));
+				clock.set(TODAY.plusYears(9));
+				assertEquals(0, engine.runDue());
+				assertEquals(decade, engine.nextDue("Parked"));
+				clock.set(decade);
+				assertEquals(2, engine.runDue());
+				assertEquals(Arrays.asList(decade + " Decade", decade + " Parked"), fired);
+			}
+		}
+		return;
+	}
+
+	@Test
+	public void runsInBackground() throws Exception {
+		clock.set(LocalDate.of(2023, 6, 19));
+		CountDownLatch latch = new CountDownLatch(1);
+		Set<String> events = new HashSet<>();
+		TriggerEngine<String> engine = TriggerEngine.of(schedule, clock, (event, date) -> {
+			events.add(event);
+			latch.countDown();
+		});
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		engine.start(executor);
+		assertThrows(IllegalStateException.class, () -> engine.start(executor));
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		engine.stop();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(new HashSet<>(Arrays.asList("Mondays", "Fortnightly")), events);
+		assertEquals(LocalDate.of(2023, 6, 26), engine.nextDue("Mondays"));
+		assertThrows(NullPointerException.class, () -> TriggerEngine.of(schedule, clock, null));
+		return;
+	}
+}
@@ -0,0 +1,86 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on {@link ZoneDays}.
+ *
+ * @author paulh
+ */
+public class ZoneDaysTest {
+	private static final List<ZoneId> ZONES = Arrays.asList(ZoneOffset.UTC, ZoneOffset.ofHoursMinutes(-9, -30), ZoneId.of("Australia/Adelaide"),
+			ZoneId.of("America/New_York"), ZoneId.of("Europe/London"), ZoneId.of("Asia/Kolkata"), ZoneId.of("Pacific/Apia"),
+			ZoneId.of("Australia/Lord_Howe"));
+
+	@Test
+	public void matchesZoneRulesAtRandomInstants() {
+		Random random = new Random(42);
+		long low = LocalDate.of(1850, 1, 1).toEpochDay() * 86_400;
+		long high = LocalDate.of(2250, 1, 1).toEpochDay() * 86_400;
+		for (ZoneId zone : ZONES) {
+			ZoneDays days = ZoneDays.of(zone);
+			for (int i = 0; i < 20_000; i++) {
+				long second = low + (long) (random.nextDouble() * (high - low));
+				assertEquals(expected(second, zone), days.epochDay(second), zone + " " + second);
+			}
+		}
+		return;
+	}
+
+	@Test
+	public void matchesZoneRulesAroundTransitions() {
+		for (ZoneId zone : ZONES) {
+			ZoneDays days = ZoneDays.of(zone);
+			Instant cursor = Instant.parse("1990-01-01T00:00:00Z");
+			for (int i = 0; i < 200; i++) {
+				ZoneOffsetTransition transition = zone.getRules().nextTransition(cursor);
+				if (transition == null) {
+					break;
+				}
+				long second = transition.toEpochSecond();
+				for (long s = second - 2; s <= second + 2; s++) {
+					assertEquals(expected(s, zone), days.epochDay(s), zone + " " + s);
+				}
+				cursor = transition.getInstant();
+			}
+		}
+		return;
+	}
+
+	@Test
+	public void followsSkippedDay() {
+		// Samoa skipped 30 December 2011
+		ZoneDays days = ZoneDays.of(ZoneId.of("Pacific/Apia"));
+		ZonedDateTime before = LocalDateTime.of(2011, 12, 29, 23, 59, 59).atZone(ZoneId.of("Pacific/Apia"));
+		assertEquals(LocalDate.of(2011, 12, 29), days.date(before));
+		assertEquals(LocalDate.of(2011, 12, 31), days.date(before.toInstant().plusSeconds(1)));
+		return;
+	}
+
+	@Test
+	public void sharesInstancesAndPrecomputesOnlyForRegions() {
+		assertSame(ZoneDays.of(ZoneId.of("Europe/London")), ZoneDays.of(ZoneId.of("Europe/London")));
+		assertEquals(0, ZoneDays.of(ZoneOffset.UTC).transitions());
+		assertTrue(ZoneDays.of(ZoneId.of("Europe/London")).transitions() > 2 * (ZoneDays.LAST_YEAR - 2000));
+		assertEquals(LocalDate.of(2023, 6, 16), ZoneDays.of(ZoneId.of("Australia/Adelaide")).date(Instant.parse("2023-06-15T15:00:00Z")));
+		assertThrows(NullPointerException.class, () -> ZoneDays.of(null));
+		return;
+	}
+
+	private static long expected(long epochSecond, ZoneId zone) {
+		return Instant.ofEpochSecond(epochSecond).atZone(zone).toLocalDate().toEpochDay();
+	}
+}
@@ -0,0 +1,74 @@
+package net.logicsquad.recurring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Unit tests on the Java 11 {@link QueryEvents}, which emits Flight Recorder events for slow {@link Schedule} queries.
+ *
+ * @author paulh
+ */
+public class ScheduleQueryEventTest {
+	private static final String EVENT_NAME = "net.logicsquad.recurring.ScheduleQuery";
+
+	@Test
+	public void slowQueryEmitsEventWithFields() throws IOException {
+		Schedule<String> schedule = Schedule.of(ScheduleElement.of("Standup", DayInWeek.of(DayOfWeek.MONDAY)));
+		LocalDate start = LocalDate.of(2024, 1, 1);
+		LocalDate end = LocalDate.of(2024, 1, 31);
+		List<RecordedEvent> events;
+		Path file = Files.createTempFile("schedule-query", ".jfr");
+		try (Recording recording = new Recording()) {
+			// Every query is slower than a zero threshold
+			recording.enable(EVENT_NAME).withThreshold(Duration.ZERO);
+			recording.start();
+			assertEquals(5, schedule.datesInRange("Standup", start, end).size());
+			recording.stop();
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file).stream().filter(e -> e.getEventType().getName().equals(EVENT_NAME))
+					.collect(Collectors.toList());
+		} finally {
+			Files.delete(file);
+		}
+		assertEquals(1, events.size());
+		RecordedEvent event = events.get(0);
+		assertEquals("DATES_IN_RANGE", event.getString("query"));
+		assertEquals("Standup", event.getString("event"));
+		assertEquals(start.toString(), event.getString("from"));
+		assertEquals(end.toString(), event.getString("to"));
+		assertEquals(31, event.getLong("daysScanned"));
+		assertTrue(event.getLong("includesCalls") > 0);
+		return;
+	}
+
+	@Test
+	public void fastQueryEmitsNoEvent() throws IOException {
+		Schedule<String> schedule = Schedule.of(ScheduleElement.of("Standup", DayInWeek.of(DayOfWeek.MONDAY)));
+		Path file = Files.createTempFile("schedule-query", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(EVENT_NAME).withThreshold(Duration.ofHours(1));
+			recording.start();
+			schedule.isOccurring("Standup", LocalDate.of(2024, 1, 1));
+			recording.stop();
+			recording.dump(file);
+			assertTrue(RecordingFile.readAllEvents(file).stream().noneMatch(e -> e.getEventType().getName().equals(EVENT_NAME)));
+		} finally {
+			Files.delete(file);
+		}
+		return;
+	}
+}